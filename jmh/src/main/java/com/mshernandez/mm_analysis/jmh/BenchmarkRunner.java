@@ -0,0 +1,42 @@
+package com.mshernandez.mm_analysis.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks, writing the results as JSON
+ * unless another format is given on the command line.
+ *
+ * Any standard JMH option can be passed, for example
+ * "-p size=256 -p algorithm=strassens" to narrow the run.
+ */
+public class BenchmarkRunner
+{
+    private static final String OUTPUT_FILE = "jmh-results.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue())
+        {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue())
+        {
+            builder.result(OUTPUT_FILE);
+        }
+        if (commandLine.getIncludes().isEmpty())
+        {
+            builder.include(MatrixMultiplierBenchmark.class.getSimpleName());
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
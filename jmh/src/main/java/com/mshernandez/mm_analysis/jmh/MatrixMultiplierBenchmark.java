@@ -0,0 +1,123 @@
+package com.mshernandez.mm_analysis.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mshernandez.mm_analysis.BlockedMatrixMultiplier;
+import com.mshernandez.mm_analysis.DivideConquerMatrixMultiplier;
+import com.mshernandez.mm_analysis.IterativeMatrixMultiplier;
+import com.mshernandez.mm_analysis.Matrix;
+import com.mshernandez.mm_analysis.MatrixMultiplier;
+import com.mshernandez.mm_analysis.MatrixMultiplierBenchmarker;
+import com.mshernandez.mm_analysis.PackedPanelMatrixMultiplier;
+import com.mshernandez.mm_analysis.ParallelDivideConquerMatrixMultiplier;
+import com.mshernandez.mm_analysis.ParallelStrassensMatrixMultiplier;
+import com.mshernandez.mm_analysis.StrassensMatrixMultiplier;
+import com.mshernandez.mm_analysis.WinogradMatrixMultiplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures every matrix multiplier with JMH, which runs each
+ * combination of algorithm and size in separate forked JVMs,
+ * warms it up until the JIT has compiled it, and consumes the
+ * results so the multiplication cannot be optimized away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(3)
+public class MatrixMultiplierBenchmark
+{
+    @Param({"iterative", "blocked", "packed-panel", "dc", "parallel-dc", "strassens", "winograd",
+            "parallel-strassens"})
+    private String algorithm;
+
+    @Param({"16", "64", "128", "256", "512"})
+    private int size;
+
+    private MatrixMultiplier multiplier;
+    private int[][] matrixA;
+    private int[][] matrixB;
+    private Matrix flatA;
+    private Matrix flatB;
+
+    /**
+     * Creates the multiplier and a random pair of inputs,
+     * shared by every invocation within a fork.
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        multiplier = createMultiplier(algorithm);
+        matrixA = new int[size][size];
+        matrixB = new int[size][size];
+        MatrixMultiplierBenchmarker.randomizeMatrix(matrixA);
+        MatrixMultiplierBenchmarker.randomizeMatrix(matrixB);
+        flatA = Matrix.fromArray(matrixA);
+        flatB = Matrix.fromArray(matrixB);
+    }
+
+    /**
+     * Multiplies the jagged array inputs.
+     */
+    @Benchmark
+    public void multiply(Blackhole blackhole)
+    {
+        blackhole.consume(multiplier.multiplySquareMatrices(matrixA, matrixB));
+    }
+
+    /**
+     * Multiplies the contiguous inputs.
+     */
+    @Benchmark
+    public void multiplyFlat(Blackhole blackhole)
+    {
+        blackhole.consume(multiplier.multiplySquareMatrices(flatA, flatB));
+    }
+
+    /**
+     * Creates a multiplier with default settings from the
+     * key used in the algorithm parameter.
+     *
+     * @param algorithm The algorithm key.
+     * @return A new multiplier for the algorithm.
+     */
+    static MatrixMultiplier createMultiplier(String algorithm)
+    {
+        switch (algorithm)
+        {
+            case "iterative":
+                return new IterativeMatrixMultiplier();
+            case "blocked":
+                return new BlockedMatrixMultiplier();
+            case "packed-panel":
+                return new PackedPanelMatrixMultiplier();
+            case "dc":
+                return new DivideConquerMatrixMultiplier();
+            case "parallel-dc":
+                return new ParallelDivideConquerMatrixMultiplier();
+            case "strassens":
+                return new StrassensMatrixMultiplier();
+            case "winograd":
+                return new WinogradMatrixMultiplier();
+            case "parallel-strassens":
+                return new ParallelStrassensMatrixMultiplier();
+            default:
+                throw new IllegalArgumentException("Unknown Algorithm: " + algorithm);
+        }
+    }
+}
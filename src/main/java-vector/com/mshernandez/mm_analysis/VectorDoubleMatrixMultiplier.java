@@ -0,0 +1,135 @@
+package com.mshernandez.mm_analysis;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A double matrix multiplier using the Vector API to multiply
+ * several columns of the result with each instruction.
+ *
+ * Four rows of the result are computed at once, one vector
+ * of columns at a time. Each row of B loaded is reused for
+ * all four rows and the partial sums stay in registers for
+ * the whole inner loop, updated with fused multiply-adds.
+ * Columns which do not fill a vector are computed with
+ * scalar code.
+ *
+ * Requires the jdk.incubator.vector module, so this class
+ * should only be created through VectorMultipliers.
+ */
+public class VectorDoubleMatrixMultiplier extends DoubleMatrixMultiplier
+{
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     */
+    public VectorDoubleMatrixMultiplier()
+    {
+        super("Vector (double, " + SPECIES.length() + " Lanes)");
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public double[][] multiply(double[][] a, double[][] b)
+    {
+        checkDimensions(a, b);
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        double[][] result = new double[rows][cols];
+        int row = 0;
+        for (; row + 4 <= rows; row += 4)
+        {
+            multiplyFourRows(a[row], a[row + 1], a[row + 2], a[row + 3], b,
+                             result[row], result[row + 1], result[row + 2], result[row + 3],
+                             inner, cols);
+        }
+        for (; row < rows; row++)
+        {
+            multiplyRow(a[row], b, result[row], inner, cols);
+        }
+        return result;
+    }
+
+    /**
+     * Computes four rows of the result.
+     */
+    private static void multiplyFourRows(double[] a0, double[] a1, double[] a2, double[] a3, double[][] b,
+                                         double[] c0, double[] c1, double[] c2, double[] c3,
+                                         int inner, int cols)
+    {
+        int vectorCols = SPECIES.loopBound(cols);
+        for (int col = 0; col < vectorCols; col += SPECIES.length())
+        {
+            DoubleVector sum0 = DoubleVector.zero(SPECIES);
+            DoubleVector sum1 = DoubleVector.zero(SPECIES);
+            DoubleVector sum2 = DoubleVector.zero(SPECIES);
+            DoubleVector sum3 = DoubleVector.zero(SPECIES);
+            for (int i = 0; i < inner; i++)
+            {
+                DoubleVector bRow = DoubleVector.fromArray(SPECIES, b[i], col);
+                sum0 = bRow.fma(DoubleVector.broadcast(SPECIES, a0[i]), sum0);
+                sum1 = bRow.fma(DoubleVector.broadcast(SPECIES, a1[i]), sum1);
+                sum2 = bRow.fma(DoubleVector.broadcast(SPECIES, a2[i]), sum2);
+                sum3 = bRow.fma(DoubleVector.broadcast(SPECIES, a3[i]), sum3);
+            }
+            sum0.intoArray(c0, col);
+            sum1.intoArray(c1, col);
+            sum2.intoArray(c2, col);
+            sum3.intoArray(c3, col);
+        }
+        for (int col = vectorCols; col < cols; col++)
+        {
+            double sum0 = 0.0;
+            double sum1 = 0.0;
+            double sum2 = 0.0;
+            double sum3 = 0.0;
+            for (int i = 0; i < inner; i++)
+            {
+                double bValue = b[i][col];
+                sum0 += a0[i] * bValue;
+                sum1 += a1[i] * bValue;
+                sum2 += a2[i] * bValue;
+                sum3 += a3[i] * bValue;
+            }
+            c0[col] = sum0;
+            c1[col] = sum1;
+            c2[col] = sum2;
+            c3[col] = sum3;
+        }
+    }
+
+    /**
+     * Computes a single row of the result.
+     */
+    private static void multiplyRow(double[] a, double[][] b, double[] c, int inner, int cols)
+    {
+        int vectorCols = SPECIES.loopBound(cols);
+        for (int col = 0; col < vectorCols; col += SPECIES.length())
+        {
+            DoubleVector sum = DoubleVector.zero(SPECIES);
+            for (int i = 0; i < inner; i++)
+            {
+                sum = DoubleVector.fromArray(SPECIES, b[i], col).fma(DoubleVector.broadcast(SPECIES, a[i]), sum);
+            }
+            sum.intoArray(c, col);
+        }
+        for (int col = vectorCols; col < cols; col++)
+        {
+            double sum = 0.0;
+            for (int i = 0; i < inner; i++)
+            {
+                sum += a[i] * b[i][col];
+            }
+            c[col] = sum;
+        }
+    }
+}
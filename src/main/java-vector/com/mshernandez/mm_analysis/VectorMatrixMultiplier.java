@@ -0,0 +1,193 @@
+package com.mshernandez.mm_analysis;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A matrix multiplier using the Vector API to multiply
+ * several columns of the result with each instruction.
+ *
+ * Four rows of the result are computed at once, one vector
+ * of columns at a time. Each row of B loaded is reused for
+ * all four rows and the partial sums stay in registers for
+ * the whole inner loop. Columns which do not fill a vector
+ * are computed with scalar code.
+ *
+ * Requires the jdk.incubator.vector module, so this class
+ * should only be created through VectorMultipliers.
+ */
+public class VectorMatrixMultiplier extends MatrixMultiplier
+{
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     */
+    public VectorMatrixMultiplier()
+    {
+        super("Vector (" + SPECIES.length() + " Lanes)");
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices.
+     * 
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return multiply(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        multiplyInto(a, b, result, 1, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B,
+     * combining the product with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * The partial sums are scaled and combined with C
+     * while still in registers, as they are stored.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        int row = 0;
+        for (; row + 4 <= rows; row += 4)
+        {
+            multiplyFourRows(a[row], a[row + 1], a[row + 2], a[row + 3], b,
+                             c[row], c[row + 1], c[row + 2], c[row + 3],
+                             inner, cols, alpha, beta);
+        }
+        for (; row < rows; row++)
+        {
+            multiplyRow(a[row], b, c[row], inner, cols, alpha, beta);
+        }
+    }
+
+    /**
+     * Computes four rows of the result.
+     */
+    private static void multiplyFourRows(int[] a0, int[] a1, int[] a2, int[] a3, int[][] b,
+                                         int[] c0, int[] c1, int[] c2, int[] c3,
+                                         int inner, int cols, int alpha, int beta)
+    {
+        int vectorCols = SPECIES.loopBound(cols);
+        for (int col = 0; col < vectorCols; col += SPECIES.length())
+        {
+            IntVector sum0 = IntVector.zero(SPECIES);
+            IntVector sum1 = IntVector.zero(SPECIES);
+            IntVector sum2 = IntVector.zero(SPECIES);
+            IntVector sum3 = IntVector.zero(SPECIES);
+            for (int i = 0; i < inner; i++)
+            {
+                IntVector bRow = IntVector.fromArray(SPECIES, b[i], col);
+                sum0 = sum0.add(bRow.mul(a0[i]));
+                sum1 = sum1.add(bRow.mul(a1[i]));
+                sum2 = sum2.add(bRow.mul(a2[i]));
+                sum3 = sum3.add(bRow.mul(a3[i]));
+            }
+            store(sum0, c0, col, alpha, beta);
+            store(sum1, c1, col, alpha, beta);
+            store(sum2, c2, col, alpha, beta);
+            store(sum3, c3, col, alpha, beta);
+        }
+        for (int col = vectorCols; col < cols; col++)
+        {
+            int sum0 = 0;
+            int sum1 = 0;
+            int sum2 = 0;
+            int sum3 = 0;
+            for (int i = 0; i < inner; i++)
+            {
+                int bValue = b[i][col];
+                sum0 += a0[i] * bValue;
+                sum1 += a1[i] * bValue;
+                sum2 += a2[i] * bValue;
+                sum3 += a3[i] * bValue;
+            }
+            c0[col] = combine(sum0, c0[col], alpha, beta);
+            c1[col] = combine(sum1, c1[col], alpha, beta);
+            c2[col] = combine(sum2, c2[col], alpha, beta);
+            c3[col] = combine(sum3, c3[col], alpha, beta);
+        }
+    }
+
+    /**
+     * Computes a single row of the result.
+     */
+    private static void multiplyRow(int[] a, int[][] b, int[] c, int inner, int cols, int alpha, int beta)
+    {
+        int vectorCols = SPECIES.loopBound(cols);
+        for (int col = 0; col < vectorCols; col += SPECIES.length())
+        {
+            IntVector sum = IntVector.zero(SPECIES);
+            for (int i = 0; i < inner; i++)
+            {
+                sum = sum.add(IntVector.fromArray(SPECIES, b[i], col).mul(a[i]));
+            }
+            store(sum, c, col, alpha, beta);
+        }
+        for (int col = vectorCols; col < cols; col++)
+        {
+            int sum = 0;
+            for (int i = 0; i < inner; i++)
+            {
+                sum += a[i] * b[i][col];
+            }
+            c[col] = combine(sum, c[col], alpha, beta);
+        }
+    }
+
+    /**
+     * Stores a vector of partial sums into a row of C,
+     * scaled and combined with the previous contents.
+     * C is not read when beta is 0.
+     */
+    private static void store(IntVector sum, int[] c, int col, int alpha, int beta)
+    {
+        IntVector result = sum.mul(alpha);
+        if (beta != 0)
+        {
+            result = result.add(IntVector.fromArray(SPECIES, c, col).mul(beta));
+        }
+        result.intoArray(c, col);
+    }
+
+    /**
+     * Scales a sum and combines it with a previous element of C.
+     */
+    private static int combine(int sum, int previous, int alpha, int beta)
+    {
+        return (beta == 0) ? alpha * sum : alpha * sum + beta * previous;
+    }
+}
@@ -0,0 +1,137 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * Decides when enough samples of a size have been taken,
+ * instead of always taking the same number.
+ *
+ * Sampling stops once the 95% confidence interval of the mean
+ * runtime, or of a percentile of the runtimes, is narrower than
+ * a target relative error. Stable sizes stop after the minimum
+ * number of samples while noisy sizes keep going, up to the
+ * maximum number of samples.
+ */
+public class AdaptiveSampling
+{
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01;
+    public static final int DEFAULT_MIN_SAMPLES = 200;
+    public static final int DEFAULT_MAX_SAMPLES = 20000;
+
+    private double relativeError;
+    private double percentile;
+    private int minSamples;
+    private int maxSamples;
+
+    /**
+     * Initializes a policy targeting the mean runtime.
+     *
+     * @param relativeError The largest half-width of the confidence interval, relative to the mean.
+     * @param minSamples The fewest samples taken for a size.
+     * @param maxSamples The most samples taken for a size.
+     */
+    public AdaptiveSampling(double relativeError, int minSamples, int maxSamples)
+    {
+        this(relativeError, Double.NaN, minSamples, maxSamples);
+    }
+
+    /**
+     * Initializes a policy targeting a percentile of the runtimes.
+     *
+     * @param relativeError The largest half-width of the confidence interval,
+     *                      relative to the percentile.
+     * @param percentile The percentile, from 0 to 100, or NaN to target the mean.
+     * @param minSamples The fewest samples taken for a size.
+     * @param maxSamples The most samples taken for a size.
+     */
+    public AdaptiveSampling(double relativeError, double percentile, int minSamples, int maxSamples)
+    {
+        if (!(relativeError > 0.0) || percentile < 0.0 || percentile > 100.0
+            || minSamples < 2 || maxSamples < minSamples)
+        {
+            throw new IllegalArgumentException("Invalid Adaptive Sampling: Error " + relativeError + ", Percentile "
+                                               + percentile + ", Samples " + minSamples + " To " + maxSamples);
+        }
+        this.relativeError = relativeError;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * Gets the relative half-width of the confidence
+     * interval of the targeted statistic.
+     *
+     * @param histogram The samples taken so far.
+     * @return The relative error, or infinity with fewer than 2 samples.
+     */
+    public double getRelativeError(LatencyHistogram histogram)
+    {
+        return targetsMean() ? histogram.getRelativeErrorOfMean()
+                             : histogram.getRelativeErrorOfPercentile(percentile);
+    }
+
+    /**
+     * Checks whether no more samples are needed, because the
+     * target error was reached after the minimum number of
+     * samples or the maximum number of samples was taken.
+     *
+     * @param histogram The samples taken so far.
+     * @return True if sampling should stop.
+     */
+    public boolean isComplete(LatencyHistogram histogram)
+    {
+        long samples = histogram.getTotalCount();
+        return samples >= maxSamples
+               || (samples >= minSamples && getRelativeError(histogram) <= relativeError);
+    }
+
+    /**
+     * Checks whether the mean runtime is targeted
+     * instead of a percentile.
+     */
+    public boolean targetsMean()
+    {
+        return Double.isNaN(percentile);
+    }
+
+    /**
+     * Gets the targeted percentile, NaN if the mean is targeted.
+     */
+    public double getPercentile()
+    {
+        return percentile;
+    }
+
+    /**
+     * Gets the largest relative half-width of the confidence interval.
+     */
+    public double getTargetRelativeError()
+    {
+        return relativeError;
+    }
+
+    /**
+     * Gets the fewest samples taken for a size.
+     */
+    public int getMinSamples()
+    {
+        return minSamples;
+    }
+
+    /**
+     * Gets the most samples taken for a size.
+     */
+    public int getMaxSamples()
+    {
+        return maxSamples;
+    }
+
+    /**
+     * Describes the policy.
+     */
+    @Override
+    public String toString()
+    {
+        return "95% Confidence Interval Of The " + (targetsMean() ? "Mean" : "p" + percentile) + " Within "
+               + (100.0 * relativeError) + "%, " + minSamples + " To " + maxSamples + " Samples";
+    }
+}
@@ -0,0 +1,480 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies many small square matrices at once.
+ *
+ * Multiplying tiny matrices one call at a time is dominated
+ * by overhead rather than arithmetic: a virtual call, a result
+ * allocation and, for the recursive algorithms, recursion setup
+ * per product. A batch is instead multiplied with kernels
+ * specialised for its size, fully unrolled for 2x2 and 4x4 and
+ * keeping a whole result row in locals for 8x8, writing into
+ * result storage provided by the caller.
+ *
+ * Batches are split across a fork/join pool by product rather
+ * than within each product, into tasks large enough that the
+ * splitting costs little next to the work. Small batches run on
+ * the calling thread.
+ *
+ * Operands may be given as arrays of matrices or as single flat
+ * buffers holding count consecutive row-major matrices.
+ */
+public class BatchMatrixMultiplier
+{
+    public static final int MAX_SIZE = 64;
+
+    /**
+     * Batches are split into tasks of at least this
+     * many multiply-add operations.
+     */
+    private static final int TASK_OPERATIONS = 1 << 16;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Initializes this matrix multiplier with
+     * one thread per available processor.
+     */
+    public BatchMatrixMultiplier()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes this matrix multiplier.
+     *
+     * @param parallelism The number of worker threads to use.
+     */
+    public BatchMatrixMultiplier(int parallelism)
+    {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Multiplies every pair of n*n matrices A[i] and B[i].
+     *
+     * @param a The first matrix of every product.
+     * @param b The second matrix of every product.
+     * @return The resulting matrices.
+     */
+    public int[][][] multiply(int[][][] a, int[][][] b)
+    {
+        int[][][] c = new int[a.length][][];
+        for (int i = 0; i < a.length; i++)
+        {
+            c[i] = new int[a[i].length][a[i].length];
+        }
+        multiplyInto(a, b, c);
+        return c;
+    }
+
+    /**
+     * Multiplies every pair of n*n matrices A[i] and B[i],
+     * overwriting matrix C[i] with the product so result
+     * storage can be reused between batches.
+     *
+     * C[i] = A[i]*B[i]
+     *
+     * @param a The first matrix of every product.
+     * @param b The second matrix of every product.
+     * @param c The matrices to store the results in.
+     */
+    public void multiplyInto(int[][][] a, int[][][] b, int[][][] c)
+    {
+        if (a.length != b.length || a.length != c.length)
+        {
+            throw new IllegalArgumentException("Batch Sizes Differ: " + a.length + ", " + b.length
+                                               + ", " + c.length);
+        }
+        for (int i = 0; i < a.length; i++)
+        {
+            int size = a[i].length;
+            if (size < 1 || size > MAX_SIZE || !isSquare(a[i], size) || !isSquare(b[i], size)
+                || !isSquare(c[i], size))
+            {
+                throw new IllegalArgumentException("Product " + i + " Is Not Of Square Matrices Of The Same Size "
+                                                   + "From 1 To " + MAX_SIZE);
+            }
+        }
+        if (a.length == 0)
+        {
+            return;
+        }
+        int grain = grainSize(a[0].length);
+        if (a.length <= grain)
+        {
+            multiplyRange(a, b, c, 0, a.length);
+            return;
+        }
+        pool.invoke(new BatchTask(grain, 0, a.length, (start, end) -> multiplyRange(a, b, c, start, end)));
+    }
+
+    /**
+     * Multiplies count pairs of n*n matrices stored one after
+     * another in flat row-major buffers, so product i uses the
+     * n*n elements starting at index i*n*n of each buffer.
+     *
+     * C[i] = A[i]*B[i]
+     *
+     * @param a The buffer holding the first matrix of every product.
+     * @param b The buffer holding the second matrix of every product.
+     * @param c The buffer to store the results in.
+     * @param size The size n of every matrix.
+     * @param count The number of products.
+     */
+    public void multiply(int[] a, int[] b, int[] c, int size, int count)
+    {
+        if (size < 1 || size > MAX_SIZE || count < 0)
+        {
+            throw new IllegalArgumentException("Invalid Batch Of " + count + " Products Of Size " + size);
+        }
+        long elements = (long) size * size * count;
+        if (a.length < elements || b.length < elements || c.length < elements)
+        {
+            throw new IllegalArgumentException("Buffers Too Small For " + count + " Matrices Of Size " + size);
+        }
+        int grain = grainSize(size);
+        if (count <= grain)
+        {
+            multiplyRange(a, b, c, size, 0, count);
+            return;
+        }
+        pool.invoke(new BatchTask(grain, 0, count, (start, end) -> multiplyRange(a, b, c, size, start, end)));
+    }
+
+    /**
+     * Finds the number of products of a size worth
+     * running as a single task.
+     */
+    private static int grainSize(int size)
+    {
+        return Math.max(1, TASK_OPERATIONS / (size * size * size));
+    }
+
+    /**
+     * Checks that a matrix is n*n.
+     */
+    private static boolean isSquare(int[][] matrix, int size)
+    {
+        if (matrix == null || matrix.length != size)
+        {
+            return false;
+        }
+        for (int[] row : matrix)
+        {
+            if (row.length != size)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Multiplies the products in a range of a batch of matrices.
+     */
+    private static void multiplyRange(int[][][] a, int[][][] b, int[][][] c, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            switch (a[i].length)
+            {
+                case 2:
+                    multiply2x2(a[i], b[i], c[i]);
+                    break;
+                case 4:
+                    multiply4x4(a[i], b[i], c[i]);
+                    break;
+                case 8:
+                    multiply8x8(a[i], b[i], c[i]);
+                    break;
+                default:
+                    multiplySmall(a[i], b[i], c[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Multiplies the products in a range of a batch stored in flat buffers.
+     */
+    private static void multiplyRange(int[] a, int[] b, int[] c, int size, int start, int end)
+    {
+        int elements = size * size;
+        for (int i = start; i < end; i++)
+        {
+            int offset = i * elements;
+            switch (size)
+            {
+                case 2:
+                    multiply2x2(a, b, c, offset);
+                    break;
+                case 4:
+                    multiply4x4(a, b, c, offset);
+                    break;
+                case 8:
+                    multiply8x8(a, b, c, offset);
+                    break;
+                default:
+                    multiplySmall(a, b, c, offset, size);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Multiplies two 2x2 matrices.
+     */
+    static void multiply2x2(int[][] a, int[][] b, int[][] c)
+    {
+        int[] a0 = a[0], a1 = a[1];
+        int b00 = b[0][0], b01 = b[0][1];
+        int b10 = b[1][0], b11 = b[1][1];
+        c[0][0] = a0[0] * b00 + a0[1] * b10;
+        c[0][1] = a0[0] * b01 + a0[1] * b11;
+        c[1][0] = a1[0] * b00 + a1[1] * b10;
+        c[1][1] = a1[0] * b01 + a1[1] * b11;
+    }
+
+    /**
+     * Multiplies two 4x4 matrices, keeping B in locals
+     * while each row of the result is computed.
+     */
+    static void multiply4x4(int[][] a, int[][] b, int[][] c)
+    {
+        int[] b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3];
+        int b00 = b0[0], b01 = b0[1], b02 = b0[2], b03 = b0[3];
+        int b10 = b1[0], b11 = b1[1], b12 = b1[2], b13 = b1[3];
+        int b20 = b2[0], b21 = b2[1], b22 = b2[2], b23 = b2[3];
+        int b30 = b3[0], b31 = b3[1], b32 = b3[2], b33 = b3[3];
+        for (int row = 0; row < 4; row++)
+        {
+            int[] aRow = a[row];
+            int[] cRow = c[row];
+            int a0 = aRow[0], a1 = aRow[1], a2 = aRow[2], a3 = aRow[3];
+            cRow[0] = a0 * b00 + a1 * b10 + a2 * b20 + a3 * b30;
+            cRow[1] = a0 * b01 + a1 * b11 + a2 * b21 + a3 * b31;
+            cRow[2] = a0 * b02 + a1 * b12 + a2 * b22 + a3 * b32;
+            cRow[3] = a0 * b03 + a1 * b13 + a2 * b23 + a3 * b33;
+        }
+    }
+
+    /**
+     * Multiplies two 8x8 matrices, accumulating each
+     * row of the result in locals.
+     */
+    static void multiply8x8(int[][] a, int[][] b, int[][] c)
+    {
+        for (int row = 0; row < 8; row++)
+        {
+            int[] aRow = a[row];
+            int c0 = 0, c1 = 0, c2 = 0, c3 = 0, c4 = 0, c5 = 0, c6 = 0, c7 = 0;
+            for (int i = 0; i < 8; i++)
+            {
+                int aValue = aRow[i];
+                int[] bRow = b[i];
+                c0 += aValue * bRow[0];
+                c1 += aValue * bRow[1];
+                c2 += aValue * bRow[2];
+                c3 += aValue * bRow[3];
+                c4 += aValue * bRow[4];
+                c5 += aValue * bRow[5];
+                c6 += aValue * bRow[6];
+                c7 += aValue * bRow[7];
+            }
+            int[] cRow = c[row];
+            cRow[0] = c0;
+            cRow[1] = c1;
+            cRow[2] = c2;
+            cRow[3] = c3;
+            cRow[4] = c4;
+            cRow[5] = c5;
+            cRow[6] = c6;
+            cRow[7] = c7;
+        }
+    }
+
+    /**
+     * Multiplies two n*n matrices of any other size
+     * in i-k-j order.
+     */
+    static void multiplySmall(int[][] a, int[][] b, int[][] c)
+    {
+        int size = a.length;
+        for (int row = 0; row < size; row++)
+        {
+            int[] aRow = a[row];
+            int[] cRow = c[row];
+            int aValue = aRow[0];
+            int[] bRow = b[0];
+            for (int col = 0; col < size; col++)
+            {
+                cRow[col] = aValue * bRow[col];
+            }
+            for (int i = 1; i < size; i++)
+            {
+                aValue = aRow[i];
+                bRow = b[i];
+                for (int col = 0; col < size; col++)
+                {
+                    cRow[col] += aValue * bRow[col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies two 2x2 matrices stored in flat buffers.
+     */
+    static void multiply2x2(int[] a, int[] b, int[] c, int offset)
+    {
+        int a00 = a[offset], a01 = a[offset + 1], a10 = a[offset + 2], a11 = a[offset + 3];
+        int b00 = b[offset], b01 = b[offset + 1], b10 = b[offset + 2], b11 = b[offset + 3];
+        c[offset]     = a00 * b00 + a01 * b10;
+        c[offset + 1] = a00 * b01 + a01 * b11;
+        c[offset + 2] = a10 * b00 + a11 * b10;
+        c[offset + 3] = a10 * b01 + a11 * b11;
+    }
+
+    /**
+     * Multiplies two 4x4 matrices stored in flat buffers,
+     * keeping B in locals while each row of the result
+     * is computed.
+     */
+    static void multiply4x4(int[] a, int[] b, int[] c, int offset)
+    {
+        int b00 = b[offset],      b01 = b[offset + 1],  b02 = b[offset + 2],  b03 = b[offset + 3];
+        int b10 = b[offset + 4],  b11 = b[offset + 5],  b12 = b[offset + 6],  b13 = b[offset + 7];
+        int b20 = b[offset + 8],  b21 = b[offset + 9],  b22 = b[offset + 10], b23 = b[offset + 11];
+        int b30 = b[offset + 12], b31 = b[offset + 13], b32 = b[offset + 14], b33 = b[offset + 15];
+        for (int row = offset; row < offset + 16; row += 4)
+        {
+            int a0 = a[row], a1 = a[row + 1], a2 = a[row + 2], a3 = a[row + 3];
+            c[row]     = a0 * b00 + a1 * b10 + a2 * b20 + a3 * b30;
+            c[row + 1] = a0 * b01 + a1 * b11 + a2 * b21 + a3 * b31;
+            c[row + 2] = a0 * b02 + a1 * b12 + a2 * b22 + a3 * b32;
+            c[row + 3] = a0 * b03 + a1 * b13 + a2 * b23 + a3 * b33;
+        }
+    }
+
+    /**
+     * Multiplies two 8x8 matrices stored in flat buffers,
+     * accumulating each row of the result in locals.
+     */
+    static void multiply8x8(int[] a, int[] b, int[] c, int offset)
+    {
+        for (int row = offset; row < offset + 64; row += 8)
+        {
+            int c0 = 0, c1 = 0, c2 = 0, c3 = 0, c4 = 0, c5 = 0, c6 = 0, c7 = 0;
+            for (int i = 0; i < 8; i++)
+            {
+                int aValue = a[row + i];
+                int bRow = offset + i * 8;
+                c0 += aValue * b[bRow];
+                c1 += aValue * b[bRow + 1];
+                c2 += aValue * b[bRow + 2];
+                c3 += aValue * b[bRow + 3];
+                c4 += aValue * b[bRow + 4];
+                c5 += aValue * b[bRow + 5];
+                c6 += aValue * b[bRow + 6];
+                c7 += aValue * b[bRow + 7];
+            }
+            c[row]     = c0;
+            c[row + 1] = c1;
+            c[row + 2] = c2;
+            c[row + 3] = c3;
+            c[row + 4] = c4;
+            c[row + 5] = c5;
+            c[row + 6] = c6;
+            c[row + 7] = c7;
+        }
+    }
+
+    /**
+     * Multiplies two n*n matrices of any other size stored
+     * in flat buffers in i-k-j order.
+     */
+    static void multiplySmall(int[] a, int[] b, int[] c, int offset, int size)
+    {
+        for (int row = offset; row < offset + size * size; row += size)
+        {
+            int aValue = a[row];
+            for (int col = 0; col < size; col++)
+            {
+                c[row + col] = aValue * b[offset + col];
+            }
+            for (int i = 1; i < size; i++)
+            {
+                aValue = a[row + i];
+                int bRow = offset + i * size;
+                for (int col = 0; col < size; col++)
+                {
+                    c[row + col] += aValue * b[bRow + col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of worker threads used.
+     *
+     * @return The parallelism of the fork/join pool.
+     */
+    public int getParallelism()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Gets the name of the algorithm used.
+     */
+    public String getAlgorithmName()
+    {
+        return "Batched (" + getParallelism() + " Threads)";
+    }
+
+    /**
+     * Multiplies the products in a range of a batch.
+     */
+    private interface RangeKernel
+    {
+        void multiply(int start, int end);
+    }
+
+    /**
+     * Splits a range of a batch in half until each
+     * part is at most the grain size.
+     */
+    private static class BatchTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private int grain;
+        private int start, end;
+        private RangeKernel kernel;
+
+        BatchTask(int grain, int start, int end, RangeKernel kernel)
+        {
+            this.grain = grain;
+            this.start = start;
+            this.end = end;
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start <= grain)
+            {
+                kernel.multiply(start, end);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new BatchTask(grain, start, middle, kernel),
+                      new BatchTask(grain, middle, end, kernel));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.mshernandez.mm_analysis;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The saved state of a benchmark run, so a run which was
+ * interrupted can resume after the last size it completed
+ * instead of starting over.
+ *
+ * A checkpoint holds the seed and distribution of the random
+ * inputs, the largest size completed and everything each
+ * benchmarker measured up to that size. The file is replaced
+ * in one step, so a run killed while saving leaves the
+ * previous checkpoint intact.
+ */
+public class BenchmarkCheckpoint
+{
+    private static final String SEED_KEY = "seed";
+    private static final String INPUTS_KEY = "inputs";
+    private static final String COMPLETED_SIZE_KEY = "completed-size";
+    private static final String BENCHMARK_COUNT_KEY = "benchmarks";
+    private static final String BENCHMARK_PREFIX = "benchmark.";
+
+    private Properties properties;
+
+    /**
+     * Initializes a checkpoint from saved properties.
+     *
+     * @param properties The saved properties.
+     */
+    private BenchmarkCheckpoint(Properties properties)
+    {
+        this.properties = properties;
+    }
+
+    /**
+     * Saves the state of a run after a size has been completed.
+     *
+     * @param file The checkpoint file to replace.
+     * @param generator The generator of the run's inputs.
+     * @param completedSize The largest size every benchmarker has completed.
+     * @param benchmarks The benchmarkers of the run.
+     * @throws IOException If the file could not be written.
+     */
+    public static void save(Path file, MatrixGenerator generator, int completedSize,
+                            List<MatrixMultiplierBenchmarker> benchmarks) throws IOException
+    {
+        Properties properties = new Properties();
+        properties.setProperty(SEED_KEY, Long.toString(generator.getSeed()));
+        properties.setProperty(INPUTS_KEY, generator.toString());
+        properties.setProperty(COMPLETED_SIZE_KEY, Integer.toString(completedSize));
+        properties.setProperty(BENCHMARK_COUNT_KEY, Integer.toString(benchmarks.size()));
+        for (int i = 0; i < benchmarks.size(); i++)
+        {
+            benchmarks.get(i).saveState(properties, BENCHMARK_PREFIX + i + ".");
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try
+        {
+            try (Writer writer = Files.newBufferedWriter(temporary))
+            {
+                properties.store(writer, "Benchmark Checkpoint");
+            }
+            try
+            {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads a saved checkpoint.
+     *
+     * @param file The checkpoint file to read.
+     * @return The checkpoint.
+     * @throws IOException If the file could not be read.
+     */
+    public static BenchmarkCheckpoint load(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file))
+        {
+            properties.load(reader);
+        }
+        BenchmarkCheckpoint checkpoint = new BenchmarkCheckpoint(properties);
+        checkpoint.getSeed();
+        checkpoint.getCompletedSize();
+        return checkpoint;
+    }
+
+    /**
+     * Restores the state of every benchmarker of a run. The run
+     * must benchmark the same algorithms in the same order, with
+     * inputs from the same seed and distribution.
+     *
+     * @param generator The generator of the resumed run's inputs.
+     * @param benchmarks The benchmarkers of the resumed run.
+     * @throws IllegalArgumentException If the run does not match the checkpoint.
+     */
+    public void restore(MatrixGenerator generator, List<MatrixMultiplierBenchmarker> benchmarks)
+    {
+        if (generator.getSeed() != getSeed() || !generator.toString().equals(properties.getProperty(INPUTS_KEY)))
+        {
+            throw new IllegalArgumentException("Checkpoint Inputs (Seed " + getSeed() + ", "
+                                               + properties.getProperty(INPUTS_KEY) + ") Do Not Match Seed "
+                                               + generator.getSeed() + ", " + generator);
+        }
+        if (!Integer.toString(benchmarks.size()).equals(properties.getProperty(BENCHMARK_COUNT_KEY)))
+        {
+            throw new IllegalArgumentException("Checkpoint Has " + properties.getProperty(BENCHMARK_COUNT_KEY)
+                                               + " Benchmarks, Run Has " + benchmarks.size());
+        }
+        for (int i = 0; i < benchmarks.size(); i++)
+        {
+            benchmarks.get(i).restoreState(properties, BENCHMARK_PREFIX + i + ".");
+        }
+    }
+
+    /**
+     * Gets the seed of the checkpointed run's inputs.
+     */
+    public long getSeed()
+    {
+        return parseLong(SEED_KEY);
+    }
+
+    /**
+     * Gets the largest size the checkpointed run completed.
+     */
+    public int getCompletedSize()
+    {
+        return (int) parseLong(COMPLETED_SIZE_KEY);
+    }
+
+    /**
+     * Reads a required number from the checkpoint.
+     */
+    private long parseLong(String key)
+    {
+        try
+        {
+            return Long.parseLong(properties.getProperty(key));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid Checkpoint Value For " + key, e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.mshernandez.mm_analysis;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Runs independent benchmark jobs on a fixed pool of worker
+ * threads so that different algorithms, sizes and inputs can
+ * be measured at the same time.
+ *
+ * Jobs that use several threads themselves, such as the
+ * parallel multipliers, can be submitted as exclusive. An
+ * exclusive job waits until every other job has finished and
+ * nothing else runs until it is done, so it has the whole
+ * machine to itself.
+ *
+ * Java cannot pin threads to cores, so the closest isolation
+ * available is limiting the number of workers to the number
+ * of physical cores, which keeps hyperthreads from sharing a
+ * core's caches and execution units between two jobs. Timings
+ * taken while other jobs run should still be compared using
+ * thread CPU time rather than wall clock time.
+ *
+ * To bound the memory held by queued inputs, submitting a job
+ * blocks while twice as many jobs as workers are pending.
+ */
+public class BenchmarkScheduler implements AutoCloseable
+{
+    private ExecutorService executor;
+    private int workers;
+    private Semaphore pendingJobs;
+    private ReadWriteLock exclusiveLock;
+    private List<Future<?>> futures;
+
+    /**
+     * Initializes a scheduler with a given number of workers.
+     *
+     * @param workers The number of jobs to run at once.
+     */
+    public BenchmarkScheduler(int workers)
+    {
+        if (workers < 1)
+        {
+            throw new IllegalArgumentException("Number Of Workers Must Be At Least 1");
+        }
+        this.workers = workers;
+        executor = Executors.newFixedThreadPool(workers);
+        pendingJobs = new Semaphore(2 * workers);
+        exclusiveLock = new ReentrantReadWriteLock(true);
+        futures = new ArrayList<>();
+    }
+
+    /**
+     * Initializes a scheduler running at most one
+     * job per physical core of this machine.
+     *
+     * @return A new scheduler.
+     */
+    public static BenchmarkScheduler isolated()
+    {
+        return new BenchmarkScheduler(countPhysicalCores());
+    }
+
+    /**
+     * Queues a job, waiting first if too many jobs are pending.
+     *
+     * @param job The job to run.
+     * @param exclusive Whether the job must run with no other job.
+     */
+    public void submit(Runnable job, boolean exclusive)
+    {
+        pendingJobs.acquireUninterruptibly();
+        futures.add(executor.submit(() ->
+        {
+            Lock lock = exclusive ? exclusiveLock.writeLock() : exclusiveLock.readLock();
+            lock.lock();
+            try
+            {
+                job.run();
+            }
+            finally
+            {
+                lock.unlock();
+                pendingJobs.release();
+            }
+        }));
+    }
+
+    /**
+     * Waits until every job submitted so far has finished.
+     *
+     * @throws IllegalStateException If any job threw an exception.
+     */
+    public void awaitCompletion()
+    {
+        try
+        {
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted While Waiting For Benchmarks", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Benchmark Job Failed", e.getCause());
+        }
+        finally
+        {
+            futures.clear();
+        }
+    }
+
+    /**
+     * Gets the number of jobs run at once.
+     */
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /**
+     * Stops the worker threads once queued jobs finish.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Counts the physical cores of this machine by finding
+     * the distinct (physical id, core id) pairs listed in
+     * /proc/cpuinfo. Where that is not available, every
+     * logical processor is assumed to be a separate core.
+     *
+     * @return The number of physical cores.
+     */
+    public static int countPhysicalCores()
+    {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<String> lines;
+        try
+        {
+            lines = Files.readAllLines(Paths.get("/proc/cpuinfo"));
+        }
+        catch (IOException e)
+        {
+            return processors;
+        }
+        Set<String> cores = new HashSet<>();
+        String physicalId = "";
+        for (String line : lines)
+        {
+            int separator = line.indexOf(':');
+            if (separator < 0)
+            {
+                continue;
+            }
+            String key = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1).trim();
+            if (key.equals("physical id"))
+            {
+                physicalId = value;
+            }
+            else if (key.equals("core id"))
+            {
+                cores.add(physicalId + ":" + value);
+            }
+        }
+        if (cores.isEmpty())
+        {
+            return processors;
+        }
+        return Math.min(cores.size(), processors);
+    }
+}
@@ -0,0 +1,479 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A matrix multiplier using a cache-blocked iterative algorithm.
+ *
+ * The loops are reordered (i-k-j) so that the innermost loop walks
+ * a single row of B and a single row of the result, and the iteration
+ * space is split into two levels of tiles sized to stay resident in
+ * the L2 and L1 caches respectively.
+ */
+public class BlockedMatrixMultiplier extends MatrixMultiplier
+{
+    public static final int DEFAULT_L1_TILE_SIZE = 32;
+    public static final int DEFAULT_L2_TILE_SIZE = 128;
+
+    private int l1TileSize;
+    private int l2TileSize;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used and the
+     * default tile sizes.
+     */
+    public BlockedMatrixMultiplier()
+    {
+        this(DEFAULT_L1_TILE_SIZE, DEFAULT_L2_TILE_SIZE);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used and the
+     * given tile sizes.
+     *
+     * @param l1TileSize The side length of the inner tiles.
+     * @param l2TileSize The side length of the outer tiles.
+     */
+    public BlockedMatrixMultiplier(int l1TileSize, int l2TileSize)
+    {
+        super("Blocked Iterative");
+        if (l1TileSize < 1 || l2TileSize < 1)
+        {
+            throw new IllegalArgumentException("Tile Sizes Must Be Positive");
+        }
+        this.l1TileSize = l1TileSize;
+        this.l2TileSize = l2TileSize;
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using a tiled i-k-j iterative method.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return multiply(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a tiled i-k-j iterative method.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        multiplyInto(a, b, result, 1, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using
+     * a tiled i-k-j iterative method, combining the product
+     * with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * Each outer tile of C is scaled by beta just before
+     * its first product is accumulated, while it is about to
+     * be loaded into the cache anyway, and alpha is folded
+     * into each element of A as it is loaded.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        int numRows = a.length;
+        int numInner = b.length;
+        int numCols = b[0].length;
+        for (int rowTile = 0; rowTile < numRows; rowTile += l2TileSize)
+        {
+            int rows = Math.min(l2TileSize, numRows - rowTile);
+            for (int innerTile = 0; innerTile < numInner; innerTile += l2TileSize)
+            {
+                int inner = Math.min(l2TileSize, numInner - innerTile);
+                for (int colTile = 0; colTile < numCols; colTile += l2TileSize)
+                {
+                    int cols = Math.min(l2TileSize, numCols - colTile);
+                    if (innerTile == 0)
+                    {
+                        scale(c, rowTile, colTile, rows, cols, beta);
+                    }
+                    multiplyAccumulate(a, rowTile,   innerTile,
+                                       b, innerTile, colTile,
+                                       c, rowTile,   colTile,
+                                       rows, inner, cols, alpha, l1TileSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies two contiguous matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using a tiled i-k-j iterative method.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public Matrix multiplySquareMatrices(Matrix a, Matrix b)
+    {
+        int size = a.getRows();
+        Matrix result = new Matrix(size, size);
+        for (int rowTile = 0; rowTile < size; rowTile += l2TileSize)
+        {
+            int rows = Math.min(l2TileSize, size - rowTile);
+            for (int innerTile = 0; innerTile < size; innerTile += l2TileSize)
+            {
+                int inner = Math.min(l2TileSize, size - innerTile);
+                for (int colTile = 0; colTile < size; colTile += l2TileSize)
+                {
+                    int cols = Math.min(l2TileSize, size - colTile);
+                    multiplyAccumulate(a.getData(),      a.index(rowTile, innerTile),      a.getStride(),
+                                       b.getData(),      b.index(innerTile, colTile),      b.getStride(),
+                                       result.getData(), result.index(rowTile, colTile),   result.getStride(),
+                                       rows, inner, cols, l1TileSize);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies a rows*inner portion of A by an inner*cols
+     * portion of B, adding the product into a rows*cols
+     * portion of C, visiting the portions in square tiles.
+     *
+     * C += Arc*Brc
+     *
+     * @param a        Matrix A
+     * @param aRowPtr  Matrix A Starting Row Index
+     * @param aColPtr  Matrix A Starting Column Index
+     * @param b        Matrix B
+     * @param bRowPtr  Matrix B Starting Row Index
+     * @param bColPtr  Matrix B Starting Column Index
+     * @param c        Matrix C, Result Matrix
+     * @param cRowPtr  Matrix C Starting Row Index
+     * @param cColPtr  Matrix C Starting Column Index
+     * @param rows     The number of rows of the A and C portions.
+     * @param inner    The number of columns of A and rows of B.
+     * @param cols     The number of columns of the B and C portions.
+     * @param tileSize The side length of the tiles.
+     */
+    static void multiplyAccumulate(int[][] a, int aRowPtr, int aColPtr,
+                                   int[][] b, int bRowPtr, int bColPtr,
+                                   int[][] c, int cRowPtr, int cColPtr,
+                                   int rows, int inner, int cols, int tileSize)
+    {
+        multiplyAccumulate(a, aRowPtr, aColPtr,
+                           b, bRowPtr, bColPtr,
+                           c, cRowPtr, cColPtr,
+                           rows, inner, cols, 1, tileSize);
+    }
+
+    /**
+     * Multiplies a rows*inner portion of A by an inner*cols
+     * portion of B, adding the scaled product into a rows*cols
+     * portion of C, visiting the portions in square tiles.
+     * The factor is applied to each element of A as it is
+     * loaded, so scaling costs nothing in the inner loop.
+     *
+     * C += alpha*Arc*Brc
+     *
+     * @param a        Matrix A
+     * @param aRowPtr  Matrix A Starting Row Index
+     * @param aColPtr  Matrix A Starting Column Index
+     * @param b        Matrix B
+     * @param bRowPtr  Matrix B Starting Row Index
+     * @param bColPtr  Matrix B Starting Column Index
+     * @param c        Matrix C, Result Matrix
+     * @param cRowPtr  Matrix C Starting Row Index
+     * @param cColPtr  Matrix C Starting Column Index
+     * @param rows     The number of rows of the A and C portions.
+     * @param inner    The number of columns of A and rows of B.
+     * @param cols     The number of columns of the B and C portions.
+     * @param alpha    The factor the product is scaled by.
+     * @param tileSize The side length of the tiles.
+     */
+    static void multiplyAccumulate(int[][] a, int aRowPtr, int aColPtr,
+                                   int[][] b, int bRowPtr, int bColPtr,
+                                   int[][] c, int cRowPtr, int cColPtr,
+                                   int rows, int inner, int cols, int alpha, int tileSize)
+    {
+        for (int rowTile = 0; rowTile < rows; rowTile += tileSize)
+        {
+            int rowTileEnd = Math.min(rowTile + tileSize, rows);
+            for (int innerTile = 0; innerTile < inner; innerTile += tileSize)
+            {
+                int innerTileEnd = Math.min(innerTile + tileSize, inner);
+                for (int colTile = 0; colTile < cols; colTile += tileSize)
+                {
+                    int cColStart = cColPtr + colTile;
+                    int cColEnd = cColPtr + Math.min(colTile + tileSize, cols);
+                    int bColShift = bColPtr - cColPtr;
+                    /**
+                     * i-k-j Order
+                     * Each element of A is loaded once and multiplied
+                     * across a contiguous run of a B row, accumulating
+                     * into a contiguous run of the result row.
+                     */
+                    for (int row = rowTile; row < rowTileEnd; row++)
+                    {
+                        int[] aRow = a[aRowPtr + row];
+                        int[] cRow = c[cRowPtr + row];
+                        for (int i = innerTile; i < innerTileEnd; i++)
+                        {
+                            int aValue = alpha * aRow[aColPtr + i];
+                            int[] bRow = b[bRowPtr + i];
+                            for (int col = cColStart; col < cColEnd; col++)
+                            {
+                                cRow[col] += aValue * bRow[col + bColShift];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies a rows*inner portion of contiguous matrix A
+     * by an inner*cols portion of contiguous matrix B, adding
+     * the product into a rows*cols portion of contiguous
+     * matrix C, visiting the portions in square tiles.
+     *
+     * C += A*B
+     *
+     * @param a        Matrix A Backing Array
+     * @param aOffset  Matrix A Starting Index
+     * @param aStride  Matrix A Row Stride
+     * @param b        Matrix B Backing Array
+     * @param bOffset  Matrix B Starting Index
+     * @param bStride  Matrix B Row Stride
+     * @param c        Matrix C Backing Array, Result Matrix
+     * @param cOffset  Matrix C Starting Index
+     * @param cStride  Matrix C Row Stride
+     * @param rows     The number of rows of the A and C portions.
+     * @param inner    The number of columns of A and rows of B.
+     * @param cols     The number of columns of the B and C portions.
+     * @param tileSize The side length of the tiles.
+     */
+    static void multiplyAccumulate(int[] a, int aOffset, int aStride,
+                                   int[] b, int bOffset, int bStride,
+                                   int[] c, int cOffset, int cStride,
+                                   int rows, int inner, int cols, int tileSize)
+    {
+        for (int rowTile = 0; rowTile < rows; rowTile += tileSize)
+        {
+            int rowTileEnd = Math.min(rowTile + tileSize, rows);
+            for (int innerTile = 0; innerTile < inner; innerTile += tileSize)
+            {
+                int innerTileEnd = Math.min(innerTile + tileSize, inner);
+                for (int colTile = 0; colTile < cols; colTile += tileSize)
+                {
+                    int colTileLength = Math.min(colTile + tileSize, cols) - colTile;
+                    for (int row = rowTile; row < rowTileEnd; row++)
+                    {
+                        int cRowStart = cOffset + row * cStride + colTile;
+                        int aRowStart = aOffset + row * aStride;
+                        for (int i = innerTile; i < innerTileEnd; i++)
+                        {
+                            int aValue = a[aRowStart + i];
+                            int bRowStart = bOffset + i * bStride + colTile;
+                            for (int col = 0; col < colTileLength; col++)
+                            {
+                                c[cRowStart + col] += aValue * b[bRowStart + col];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the parts of a product that a recursive algorithm
+     * leaves out when it peels the last row, inner index or
+     * column off a portion with odd dimensions and recurses
+     * on the even-sized remainder.
+     *
+     * With A' and B' the even-sized portions of A and B,
+     * C += A*B - A'*B'
+     *
+     * @param a        Matrix A
+     * @param aRowPtr  Matrix A Starting Row Index
+     * @param aColPtr  Matrix A Starting Column Index
+     * @param b        Matrix B
+     * @param bRowPtr  Matrix B Starting Row Index
+     * @param bColPtr  Matrix B Starting Column Index
+     * @param c        Matrix C, Result Matrix
+     * @param cRowPtr  Matrix C Starting Row Index
+     * @param cColPtr  Matrix C Starting Column Index
+     * @param rows     The number of rows of the A and C portions.
+     * @param inner    The number of columns of A and rows of B.
+     * @param cols     The number of columns of the B and C portions.
+     * @param tileSize The side length of the tiles.
+     */
+    static void multiplyAccumulatePeeled(int[][] a, int aRowPtr, int aColPtr,
+                                         int[][] b, int bRowPtr, int bColPtr,
+                                         int[][] c, int cRowPtr, int cColPtr,
+                                         int rows, int inner, int cols, int tileSize)
+    {
+        multiplyAccumulatePeeled(a, aRowPtr, aColPtr,
+                                 b, bRowPtr, bColPtr,
+                                 c, cRowPtr, cColPtr,
+                                 rows, inner, cols, 1, tileSize);
+    }
+
+    /**
+     * Adds the scaled parts of a product that a recursive
+     * algorithm leaves out when it peels the last row, inner
+     * index or column off a portion with odd dimensions.
+     *
+     * With A' and B' the even-sized portions of A and B,
+     * C += alpha*(A*B - A'*B')
+     *
+     * @param a        Matrix A
+     * @param aRowPtr  Matrix A Starting Row Index
+     * @param aColPtr  Matrix A Starting Column Index
+     * @param b        Matrix B
+     * @param bRowPtr  Matrix B Starting Row Index
+     * @param bColPtr  Matrix B Starting Column Index
+     * @param c        Matrix C, Result Matrix
+     * @param cRowPtr  Matrix C Starting Row Index
+     * @param cColPtr  Matrix C Starting Column Index
+     * @param rows     The number of rows of the A and C portions.
+     * @param inner    The number of columns of A and rows of B.
+     * @param cols     The number of columns of the B and C portions.
+     * @param alpha    The factor the product is scaled by.
+     * @param tileSize The side length of the tiles.
+     */
+    static void multiplyAccumulatePeeled(int[][] a, int aRowPtr, int aColPtr,
+                                         int[][] b, int bRowPtr, int bColPtr,
+                                         int[][] c, int cRowPtr, int cColPtr,
+                                         int rows, int inner, int cols, int alpha, int tileSize)
+    {
+        int evenRows = rows & ~1;
+        int evenInner = inner & ~1;
+        int evenCols = cols & ~1;
+        // Even Part Of C += (Last Column Of A)(Last Row Of B)
+        if (evenInner != inner)
+        {
+            multiplyAccumulate(a, aRowPtr,             aColPtr + evenInner,
+                               b, bRowPtr + evenInner, bColPtr,
+                               c, cRowPtr,             cColPtr,
+                               evenRows, 1, evenCols, alpha, tileSize);
+        }
+        // Even Rows Of Last Column Of C += (Even Rows Of A)(Last Column Of B)
+        if (evenCols != cols)
+        {
+            multiplyAccumulate(a, aRowPtr,             aColPtr,
+                               b, bRowPtr,             bColPtr + evenCols,
+                               c, cRowPtr,             cColPtr + evenCols,
+                               evenRows, inner, 1, alpha, tileSize);
+        }
+        // Last Row Of C += (Last Row Of A)B
+        if (evenRows != rows)
+        {
+            multiplyAccumulate(a, aRowPtr + evenRows,  aColPtr,
+                               b, bRowPtr,             bColPtr,
+                               c, cRowPtr + evenRows,  cColPtr,
+                               1, inner, cols, alpha, tileSize);
+        }
+    }
+
+    /**
+     * Adds the parts of a product of contiguous matrices that
+     * a recursive algorithm leaves out when it peels the last
+     * row, inner index or column off a portion with odd
+     * dimensions and recurses on the even-sized remainder.
+     *
+     * With A' and B' the even-sized portions of A and B,
+     * C += A*B - A'*B'
+     *
+     * @param a        Matrix A Backing Array
+     * @param aOffset  Matrix A Starting Index
+     * @param aStride  Matrix A Row Stride
+     * @param b        Matrix B Backing Array
+     * @param bOffset  Matrix B Starting Index
+     * @param bStride  Matrix B Row Stride
+     * @param c        Matrix C Backing Array, Result Matrix
+     * @param cOffset  Matrix C Starting Index
+     * @param cStride  Matrix C Row Stride
+     * @param rows     The number of rows of the A and C portions.
+     * @param inner    The number of columns of A and rows of B.
+     * @param cols     The number of columns of the B and C portions.
+     * @param tileSize The side length of the tiles.
+     */
+    static void multiplyAccumulatePeeled(int[] a, int aOffset, int aStride,
+                                         int[] b, int bOffset, int bStride,
+                                         int[] c, int cOffset, int cStride,
+                                         int rows, int inner, int cols, int tileSize)
+    {
+        int evenRows = rows & ~1;
+        int evenInner = inner & ~1;
+        int evenCols = cols & ~1;
+        // Even Part Of C += (Last Column Of A)(Last Row Of B)
+        if (evenInner != inner)
+        {
+            multiplyAccumulate(a, aOffset + evenInner,           aStride,
+                               b, bOffset + evenInner * bStride, bStride,
+                               c, cOffset,                       cStride,
+                               evenRows, 1, evenCols, tileSize);
+        }
+        // Even Rows Of Last Column Of C += (Even Rows Of A)(Last Column Of B)
+        if (evenCols != cols)
+        {
+            multiplyAccumulate(a, aOffset,                       aStride,
+                               b, bOffset + evenCols,            bStride,
+                               c, cOffset + evenCols,            cStride,
+                               evenRows, inner, 1, tileSize);
+        }
+        // Last Row Of C += (Last Row Of A)B
+        if (evenRows != rows)
+        {
+            multiplyAccumulate(a, aOffset + evenRows * aStride,  aStride,
+                               b, bOffset,                       bStride,
+                               c, cOffset + evenRows * cStride,  cStride,
+                               1, inner, cols, tileSize);
+        }
+    }
+
+    /**
+     * Gets the side length of the inner tiles.
+     *
+     * @return The inner tile size.
+     */
+    public int getL1TileSize()
+    {
+        return l1TileSize;
+    }
+
+    /**
+     * Gets the side length of the outer tiles.
+     *
+     * @return The outer tile size.
+     */
+    public int getL2TileSize()
+    {
+        return l2TileSize;
+    }
+}
@@ -0,0 +1,159 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A sparse matrix of integers in compressed sparse column (CSC) form.
+ *
+ * Only nonzero elements are stored. The row indices and values of
+ * column c are stored in order at positions columnPointers[c] up to
+ * columnPointers[c + 1] of the rowIndices and values arrays, so a
+ * column can be walked without searching. This is the transpose
+ * of the CSR layout, suited to algorithms that consume a matrix
+ * one column at a time.
+ */
+public class CscMatrix
+{
+    private int rows;
+    private int columns;
+    private int[] columnPointers;
+    private int[] rowIndices;
+    private int[] values;
+
+    /**
+     * Creates a matrix over existing CSC arrays.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param columnPointers The start of each column, with columns + 1 entries.
+     * @param rowIndices The row of each nonzero element.
+     * @param values The value of each nonzero element.
+     */
+    public CscMatrix(int rows, int columns, int[] columnPointers, int[] rowIndices, int[] values)
+    {
+        if (columnPointers.length != columns + 1 || rowIndices.length < columnPointers[columns]
+            || values.length < columnPointers[columns])
+        {
+            throw new IllegalArgumentException("CSC Arrays Do Not Match A " + rows + "x" + columns + " Matrix");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.columnPointers = columnPointers;
+        this.rowIndices = rowIndices;
+        this.values = values;
+    }
+
+    /**
+     * Copies the nonzero elements of a dense matrix
+     * into a new CSC matrix.
+     *
+     * @param array The matrix to copy, every row must have the same length.
+     * @return A new matrix with the same contents.
+     */
+    public static CscMatrix fromArray(int[][] array)
+    {
+        int rows = array.length;
+        int columns = (rows == 0) ? 0 : array[0].length;
+        int[] columnPointers = new int[columns + 1];
+        for (int[] row : array)
+        {
+            for (int col = 0; col < columns; col++)
+            {
+                columnPointers[col + 1] += (row[col] != 0) ? 1 : 0;
+            }
+        }
+        for (int col = 0; col < columns; col++)
+        {
+            columnPointers[col + 1] += columnPointers[col];
+        }
+        int[] rowIndices = new int[columnPointers[columns]];
+        int[] values = new int[columnPointers[columns]];
+        int[] next = new int[columns];
+        System.arraycopy(columnPointers, 0, next, 0, columns);
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < columns; col++)
+            {
+                if (array[row][col] != 0)
+                {
+                    rowIndices[next[col]] = row;
+                    values[next[col]] = array[row][col];
+                    next[col]++;
+                }
+            }
+        }
+        return new CscMatrix(rows, columns, columnPointers, rowIndices, values);
+    }
+
+    /**
+     * Copies this matrix into a new dense jagged array.
+     *
+     * @return A new array with the same contents.
+     */
+    public int[][] toArray()
+    {
+        int[][] array = new int[rows][columns];
+        for (int col = 0; col < columns; col++)
+        {
+            for (int i = columnPointers[col]; i < columnPointers[col + 1]; i++)
+            {
+                array[rowIndices[i]][col] = values[i];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Gets the number of rows.
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns.
+     */
+    public int getColumns()
+    {
+        return columns;
+    }
+
+    /**
+     * Gets the start of each column in the index and value arrays.
+     */
+    public int[] getColumnPointers()
+    {
+        return columnPointers;
+    }
+
+    /**
+     * Gets the row of each nonzero element.
+     */
+    public int[] getRowIndices()
+    {
+        return rowIndices;
+    }
+
+    /**
+     * Gets the value of each nonzero element.
+     */
+    public int[] getValues()
+    {
+        return values;
+    }
+
+    /**
+     * Gets the number of nonzero elements stored.
+     */
+    public int getNonZeros()
+    {
+        return columnPointers[columns];
+    }
+
+    /**
+     * Gets the fraction of elements which are nonzero.
+     */
+    public double getDensity()
+    {
+        return (rows == 0 || columns == 0) ? 0.0 : (double) getNonZeros() / ((long) rows * columns);
+    }
+}
@@ -0,0 +1,155 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A sparse matrix of integers in compressed sparse row (CSR) form.
+ *
+ * Only nonzero elements are stored. The column indices and values
+ * of row r are stored in order at positions rowPointers[r] up to
+ * rowPointers[r + 1] of the columnIndices and values arrays, so a
+ * row can be walked without searching and storage grows with the
+ * number of nonzero elements instead of the size of the matrix.
+ */
+public class CsrMatrix
+{
+    private int rows;
+    private int columns;
+    private int[] rowPointers;
+    private int[] columnIndices;
+    private int[] values;
+
+    /**
+     * Creates a matrix over existing CSR arrays.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param rowPointers The start of each row, with rows + 1 entries.
+     * @param columnIndices The column of each nonzero element.
+     * @param values The value of each nonzero element.
+     */
+    public CsrMatrix(int rows, int columns, int[] rowPointers, int[] columnIndices, int[] values)
+    {
+        if (rowPointers.length != rows + 1 || columnIndices.length < rowPointers[rows]
+            || values.length < rowPointers[rows])
+        {
+            throw new IllegalArgumentException("CSR Arrays Do Not Match A " + rows + "x" + columns + " Matrix");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Copies the nonzero elements of a dense matrix
+     * into a new CSR matrix.
+     *
+     * @param array The matrix to copy, every row must have the same length.
+     * @return A new matrix with the same contents.
+     */
+    public static CsrMatrix fromArray(int[][] array)
+    {
+        int rows = array.length;
+        int columns = (rows == 0) ? 0 : array[0].length;
+        int[] rowPointers = new int[rows + 1];
+        for (int row = 0; row < rows; row++)
+        {
+            int count = 0;
+            for (int value : array[row])
+            {
+                count += (value != 0) ? 1 : 0;
+            }
+            rowPointers[row + 1] = rowPointers[row] + count;
+        }
+        int[] columnIndices = new int[rowPointers[rows]];
+        int[] values = new int[rowPointers[rows]];
+        int index = 0;
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < columns; col++)
+            {
+                if (array[row][col] != 0)
+                {
+                    columnIndices[index] = col;
+                    values[index] = array[row][col];
+                    index++;
+                }
+            }
+        }
+        return new CsrMatrix(rows, columns, rowPointers, columnIndices, values);
+    }
+
+    /**
+     * Copies this matrix into a new dense jagged array.
+     *
+     * @return A new array with the same contents.
+     */
+    public int[][] toArray()
+    {
+        int[][] array = new int[rows][columns];
+        for (int row = 0; row < rows; row++)
+        {
+            for (int i = rowPointers[row]; i < rowPointers[row + 1]; i++)
+            {
+                array[row][columnIndices[i]] = values[i];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Gets the number of rows.
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns.
+     */
+    public int getColumns()
+    {
+        return columns;
+    }
+
+    /**
+     * Gets the start of each row in the index and value arrays.
+     */
+    public int[] getRowPointers()
+    {
+        return rowPointers;
+    }
+
+    /**
+     * Gets the column of each nonzero element.
+     */
+    public int[] getColumnIndices()
+    {
+        return columnIndices;
+    }
+
+    /**
+     * Gets the value of each nonzero element.
+     */
+    public int[] getValues()
+    {
+        return values;
+    }
+
+    /**
+     * Gets the number of nonzero elements stored.
+     */
+    public int getNonZeros()
+    {
+        return rowPointers[rows];
+    }
+
+    /**
+     * Gets the fraction of elements which are nonzero.
+     */
+    public double getDensity()
+    {
+        return (rows == 0 || columns == 0) ? 0.0 : (double) getNonZeros() / ((long) rows * columns);
+    }
+}
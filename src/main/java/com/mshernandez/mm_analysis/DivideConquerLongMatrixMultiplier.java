@@ -0,0 +1,145 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A long matrix multiplier using a basic
+ * divide & conquer algorithm.
+ *
+ * Sub-problems at or below the leaf size are
+ * multiplied iteratively instead of recursing further.
+ */
+public class DivideConquerLongMatrixMultiplier extends LongMatrixMultiplier
+{
+    private int leafSize;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used, recursing
+     * all the way down to 2x2 sub-problems.
+     */
+    public DivideConquerLongMatrixMultiplier()
+    {
+        this(DivideConquerMatrixMultiplier.DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    public DivideConquerLongMatrixMultiplier(int leafSize)
+    {
+        super(leafSize == DivideConquerMatrixMultiplier.DEFAULT_LEAF_SIZE
+              ? "Divide & Conquer (long)" : "Divide & Conquer (long, Leaf " + leafSize + ")");
+        if (leafSize < 2)
+        {
+            throw new IllegalArgumentException("Leaf Size Must Be At Least 2");
+        }
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Gets the largest size multiplied iteratively.
+     *
+     * @return The leaf size.
+     */
+    public int getLeafSize()
+    {
+        return leafSize;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a divide & conquer method. Odd dimensions
+     * are peeled off at each level instead of padding.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public long[][] multiply(long[][] a, long[][] b)
+    {
+        checkDimensions(a, b);
+        long[][] result = new long[a.length][b[0].length];
+        mul(a, 0, 0,
+            b, 0, 0,
+            result, 0, 0,
+            a.length, b.length, b[0].length);
+        return result;
+    }
+
+    /**
+     * Multiplies portions of two matrices, adding the
+     * result to a portion of a third matrix.
+     *
+     * Crc += Arc*Brc
+     *
+     * @param a       Matrix A
+     * @param aRowPtr Matrix A Starting Row Index
+     * @param aColPtr Matrix A Starting Column Index
+     * @param b       Matrix B
+     * @param bRowPtr Matrix B Starting Row Index
+     * @param bColPtr Matrix B Starting Column Index
+     * @param c       Matrix C, Result Matrix
+     * @param cRowPtr Matrix C Starting Row Index
+     * @param cColPtr Matrix C Starting Column Index
+     * @param rows    The number of rows of the A portion and result.
+     * @param inner   The number of columns of A and rows of B.
+     * @param cols    The number of columns of the B portion and result.
+     */
+    private void mul(long[][] a, int aRowPtr, int aColPtr,
+                     long[][] b, int bRowPtr, int bColPtr,
+                     long[][] c, int cRowPtr, int cColPtr,
+                     int rows, int inner, int cols)
+    {
+        /**
+         * Leaf Case
+         */
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            IterativeLongMatrixMultiplier.multiplyAccumulate(a, aRowPtr, aColPtr,
+                                                             b, bRowPtr, bColPtr,
+                                                             c, cRowPtr, cColPtr,
+                                                             rows, inner, cols);
+            return;
+        }
+        /**
+         * Odd Dimensions
+         * Recurse on the even-sized part, then add the
+         * contributions of the peeled row and column.
+         */
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            mul(a, aRowPtr, aColPtr,
+                b, bRowPtr, bColPtr,
+                c, cRowPtr, cColPtr,
+                rows & ~1, inner & ~1, cols & ~1);
+            IterativeLongMatrixMultiplier.multiplyAccumulatePeeled(a, aRowPtr, aColPtr,
+                                                                   b, bRowPtr, bColPtr,
+                                                                   c, cRowPtr, cColPtr,
+                                                                   rows, inner, cols);
+            return;
+        }
+        /**
+         * Not Base Case, Need Recursive Calls
+         * Each quadrant of C is the sum of two products.
+         */
+        int rq = rows / 2;
+        int iq = inner / 2;
+        int cq = cols / 2;
+        for (int rHalf = 0; rHalf < 2; rHalf++)
+        {
+            for (int cHalf = 0; cHalf < 2; cHalf++)
+            {
+                for (int iHalf = 0; iHalf < 2; iHalf++)
+                {
+                    mul(a, aRowPtr + rHalf * rq, aColPtr + iHalf * iq,
+                        b, bRowPtr + iHalf * iq, bColPtr + cHalf * cq,
+                        c, cRowPtr + rHalf * rq, cColPtr + cHalf * cq,
+                        rq, iq, cq);
+                }
+            }
+        }
+    }
+}
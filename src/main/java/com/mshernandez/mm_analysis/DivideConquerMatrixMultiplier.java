@@ -2,16 +2,51 @@ package com.mshernandez.mm_analysis;
 
 /**
  * A matrix multiplier using a divide & conquer method.
+ *
+ * Sub-problems at or below the leaf size are multiplied
+ * with the blocked iterative kernel instead of recursing
+ * further.
  */
 public class DivideConquerMatrixMultiplier extends MatrixMultiplier
 {
+    public static final int DEFAULT_LEAF_SIZE = 2;
+
+    private int leafSize;
+
     /**
      * Initializes this matrix multiplier with
-     * the name of the algorithm used.
+     * the name of the algorithm used, recursing
+     * all the way down to 2x2 base cases.
      */
     public DivideConquerMatrixMultiplier()
     {
-        super("Divide & Conquer");
+        this(DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    public DivideConquerMatrixMultiplier(int leafSize)
+    {
+        super(leafSize == DEFAULT_LEAF_SIZE ? "Divide & Conquer" : "Divide & Conquer (Leaf " + leafSize + ")");
+        if (leafSize < 2)
+        {
+            throw new IllegalArgumentException("Leaf Size Must Be At Least 2");
+        }
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Gets the largest size multiplied iteratively.
+     *
+     * @return The leaf size.
+     */
+    public int getLeafSize()
+    {
+        return leafSize;
     }
 
     /**
@@ -31,13 +66,208 @@ public class DivideConquerMatrixMultiplier extends MatrixMultiplier
         mul(a,      0, 0,
             b,      0, 0,
             result, 0, 0,
-            result.length);
+            size, size, size, 1);
         return result;
     }
 
-    private void mul(int[][] a, int aRowPtr, int aColPtr,
-                     int[][] b, int bRowPtr, int bColPtr,
-                     int[][] c, int cRowPtr, int cColPtr, int size)
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a divide & conquer method. Odd dimensions
+     * are peeled off at each level instead of padding
+     * the inputs.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        mul(a,      0, 0,
+            b,      0, 0,
+            result, 0, 0,
+            a.length, b.length, b[0].length, 1);
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using
+     * a divide & conquer method, combining the product with
+     * matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * C is scaled by beta once, then every leaf adds its
+     * part of the product scaled by alpha directly into C.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        scale(c, 0, 0, c.length, c[0].length, beta);
+        mul(a, 0, 0,
+            b, 0, 0,
+            c, 0, 0,
+            a.length, b.length, b[0].length, alpha);
+    }
+
+    /**
+     * Multiplies two contiguous matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using a divide & conquer method.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public Matrix multiplySquareMatrices(Matrix a, Matrix b)
+    {
+        int size = a.getRows();
+        Matrix result = new Matrix(size, size);
+        mul(a.getData(),      a.getOffset(),      a.getStride(),
+            b.getData(),      b.getOffset(),      b.getStride(),
+            result.getData(), result.getOffset(), result.getStride(),
+            size, size, size);
+        return result;
+    }
+
+    /**
+     * Multiplies portions of two contiguous matrices, adding
+     * the product into a third. Each portion is addressed by
+     * the index of its first element and the row stride of
+     * the matrix it belongs to, so quadrants are reached by
+     * offset arithmetic alone.
+     *
+     * C += A*B
+     *
+     * @param a       Matrix A Backing Array
+     * @param aOffset Matrix A Starting Index
+     * @param aStride Matrix A Row Stride
+     * @param b       Matrix B Backing Array
+     * @param bOffset Matrix B Starting Index
+     * @param bStride Matrix B Row Stride
+     * @param c       Matrix C Backing Array, Result Matrix
+     * @param cOffset Matrix C Starting Index
+     * @param cStride Matrix C Row Stride
+     * @param rows    The number of rows of the A and C portions.
+     * @param inner   The number of columns of A and rows of B.
+     * @param cols    The number of columns of the B and C portions.
+     */
+    private void mul(int[] a, int aOffset, int aStride,
+                     int[] b, int bOffset, int bStride,
+                     int[] c, int cOffset, int cStride,
+                     int rows, int inner, int cols)
+    {
+        /**
+         * Base Case
+         */
+        if (rows == 2 && inner == 2 && cols == 2)
+        {
+            for (int rPos = 0; rPos < 2; rPos++)
+            {
+                for (int cPos = 0; cPos < 2; cPos++)
+                {
+                    int sum = 0;
+                    for (int i = 0; i < 2; i++)
+                    {
+                        sum += a[aOffset + rPos * aStride + i]
+                               * b[bOffset + i * bStride + cPos];
+                    }
+                    c[cOffset + rPos * cStride + cPos] += sum;
+                }
+            }
+            return;
+        }
+        /**
+         * Leaf Case
+         */
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            BlockedMatrixMultiplier.multiplyAccumulate(a, aOffset, aStride,
+                                                       b, bOffset, bStride,
+                                                       c, cOffset, cStride,
+                                                       rows, inner, cols,
+                                                       BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
+        /**
+         * Odd Dimensions
+         * Recurse on the even-sized part and add
+         * the peeled row and columns separately.
+         */
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            mul(a, aOffset, aStride,
+                b, bOffset, bStride,
+                c, cOffset, cStride,
+                rows & ~1, inner & ~1, cols & ~1);
+            BlockedMatrixMultiplier.multiplyAccumulatePeeled(a, aOffset, aStride,
+                                                             b, bOffset, bStride,
+                                                             c, cOffset, cStride,
+                                                             rows, inner, cols,
+                                                             BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
+        // Divide & Conquer
+        int rq = rows / 2;
+        int iq = inner / 2;
+        int cq = cols / 2;
+        int a12 = aOffset + iq;
+        int a21 = aOffset + rq * aStride;
+        int a22 = a21 + iq;
+        int b12 = bOffset + cq;
+        int b21 = bOffset + iq * bStride;
+        int b22 = b21 + cq;
+        int c12 = cOffset + cq;
+        int c21 = cOffset + rq * cStride;
+        int c22 = c21 + cq;
+        // C11 = A11*B11 + A12*B21
+        mul(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, rq, iq, cq);
+        mul(a, a12,     aStride, b, b21,     bStride, c, cOffset, cStride, rq, iq, cq);
+        // C12 = A11*B12 + A12*B22
+        mul(a, aOffset, aStride, b, b12,     bStride, c, c12,     cStride, rq, iq, cq);
+        mul(a, a12,     aStride, b, b22,     bStride, c, c12,     cStride, rq, iq, cq);
+        // C21 = A21*B11 + A22*B21
+        mul(a, a21,     aStride, b, bOffset, bStride, c, c21,     cStride, rq, iq, cq);
+        mul(a, a22,     aStride, b, b21,     bStride, c, c21,     cStride, rq, iq, cq);
+        // C22 = A21*B12 + A22*B22
+        mul(a, a21,     aStride, b, b12,     bStride, c, c22,     cStride, rq, iq, cq);
+        mul(a, a22,     aStride, b, b22,     bStride, c, c22,     cStride, rq, iq, cq);
+    }
+
+    /**
+     * Multiplies portions of two matrices, adding the
+     * scaled product into a portion of a third.
+     *
+     * C += alpha*Arc*Brc
+     *
+     * @param a       Matrix A
+     * @param aRowPtr Matrix A Starting Row Index
+     * @param aColPtr Matrix A Starting Column Index
+     * @param b       Matrix B
+     * @param bRowPtr Matrix B Starting Row Index
+     * @param bColPtr Matrix B Starting Column Index
+     * @param c       Matrix C, Result Matrix
+     * @param cRowPtr Matrix C Starting Row Index
+     * @param cColPtr Matrix C Starting Column Index
+     * @param rows    The number of rows of the A and C portions.
+     * @param inner   The number of columns of A and rows of B.
+     * @param cols    The number of columns of the B and C portions.
+     * @param alpha   The factor the product is scaled by.
+     */
+    void mul(int[][] a, int aRowPtr, int aColPtr,
+             int[][] b, int bRowPtr, int bColPtr,
+             int[][] c, int cRowPtr, int cColPtr,
+             int rows, int inner, int cols, int alpha)
     {
         /**
          * Base Case
@@ -46,7 +276,7 @@ public class DivideConquerMatrixMultiplier extends MatrixMultiplier
          *       arrays together but will also directly add the
          *       results into the result matrix.
          */
-        if (size <= 2)
+        if (rows == 2 && inner == 2 && cols == 2)
         {
             for (int rPos = 0; rPos < 2; rPos++)
             {
@@ -58,49 +288,81 @@ public class DivideConquerMatrixMultiplier extends MatrixMultiplier
                         sum += a[aRowPtr + rPos][aColPtr + i]
                                * b[bRowPtr + i][bColPtr + cPos]; 
                     }
-                    c[cRowPtr + rPos][cColPtr + cPos] += sum;
+                    c[cRowPtr + rPos][cColPtr + cPos] += alpha * sum;
                 }
             }
             return;
         }
+        /**
+         * Leaf Case
+         */
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            BlockedMatrixMultiplier.multiplyAccumulate(a, aRowPtr, aColPtr,
+                                                       b, bRowPtr, bColPtr,
+                                                       c, cRowPtr, cColPtr,
+                                                       rows, inner, cols, alpha,
+                                                       BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
+        /**
+         * Odd Dimensions
+         * Recurse on the even-sized part and add
+         * the peeled row and columns separately.
+         */
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            mul(a, aRowPtr, aColPtr,
+                b, bRowPtr, bColPtr,
+                c, cRowPtr, cColPtr,
+                rows & ~1, inner & ~1, cols & ~1, alpha);
+            BlockedMatrixMultiplier.multiplyAccumulatePeeled(a, aRowPtr, aColPtr,
+                                                             b, bRowPtr, bColPtr,
+                                                             c, cRowPtr, cColPtr,
+                                                             rows, inner, cols, alpha,
+                                                             BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
         // Divide & Conquer
-        int quadrantSize = size / 2;
+        int rq = rows / 2;
+        int iq = inner / 2;
+        int cq = cols / 2;
         // C11 = A11*B11 + A12*B21
-        mul(a, aRowPtr,                aColPtr,                // A11
-            b, bRowPtr,                bColPtr,                // B11
-            c, cRowPtr,                cColPtr,                // C11
-            quadrantSize);
-        mul(a, aRowPtr,                aColPtr + quadrantSize, // A12
-            b, bRowPtr + quadrantSize, bColPtr,                // B21
-            c, cRowPtr,                cColPtr,                // C11
-            quadrantSize);
+        mul(a, aRowPtr,      aColPtr,      // A11
+            b, bRowPtr,      bColPtr,      // B11
+            c, cRowPtr,      cColPtr,      // C11
+            rq, iq, cq, alpha);
+        mul(a, aRowPtr,      aColPtr + iq, // A12
+            b, bRowPtr + iq, bColPtr,      // B21
+            c, cRowPtr,      cColPtr,      // C11
+            rq, iq, cq, alpha);
         // C12 = A11*B12 + A12*B22
-        mul(a, aRowPtr,                aColPtr,                // A11
-            b, bRowPtr,                bColPtr + quadrantSize, // B12
-            c, cRowPtr,                cColPtr + quadrantSize, // C12
-            quadrantSize);
-        mul(a, aRowPtr,                aColPtr + quadrantSize, // A12
-            b, bRowPtr + quadrantSize, bColPtr + quadrantSize, // B22
-            c, cRowPtr,                cColPtr + quadrantSize, // C12
-            quadrantSize);
+        mul(a, aRowPtr,      aColPtr,      // A11
+            b, bRowPtr,      bColPtr + cq, // B12
+            c, cRowPtr,      cColPtr + cq, // C12
+            rq, iq, cq, alpha);
+        mul(a, aRowPtr,      aColPtr + iq, // A12
+            b, bRowPtr + iq, bColPtr + cq, // B22
+            c, cRowPtr,      cColPtr + cq, // C12
+            rq, iq, cq, alpha);
         // C21 = A21*B11 + A22*B21
-        mul(a, aRowPtr + quadrantSize, aColPtr,                // A21
-            b, bRowPtr,                bColPtr,                // B11
-            c, cRowPtr + quadrantSize, cColPtr,                // C21
-            quadrantSize);
-        mul(a, aRowPtr + quadrantSize, aColPtr + quadrantSize, // A22
-            b, bRowPtr + quadrantSize, bColPtr,                // B21
-            c, cRowPtr + quadrantSize, cColPtr,                // C21
-            quadrantSize);
+        mul(a, aRowPtr + rq, aColPtr,      // A21
+            b, bRowPtr,      bColPtr,      // B11
+            c, cRowPtr + rq, cColPtr,      // C21
+            rq, iq, cq, alpha);
+        mul(a, aRowPtr + rq, aColPtr + iq, // A22
+            b, bRowPtr + iq, bColPtr,      // B21
+            c, cRowPtr + rq, cColPtr,      // C21
+            rq, iq, cq, alpha);
         // C22 = A21*B12 + A22*B22
-        mul(a, aRowPtr + quadrantSize, aColPtr,                // A21
-            b, bRowPtr,                bColPtr + quadrantSize, // B12
-            c, cRowPtr + quadrantSize, cColPtr + quadrantSize, // C22
-            quadrantSize);
-        mul(a, aRowPtr + quadrantSize, aColPtr + quadrantSize, // A22
-            b, bRowPtr + quadrantSize, bColPtr + quadrantSize, // B22
-            c, cRowPtr + quadrantSize, cColPtr + quadrantSize, // C22
-            quadrantSize);
+        mul(a, aRowPtr + rq, aColPtr,      // A21
+            b, bRowPtr,      bColPtr + cq, // B12
+            c, cRowPtr + rq, cColPtr + cq, // C22
+            rq, iq, cq, alpha);
+        mul(a, aRowPtr + rq, aColPtr + iq, // A22
+            b, bRowPtr + iq, bColPtr + cq, // B22
+            c, cRowPtr + rq, cColPtr + cq, // C22
+            rq, iq, cq, alpha);
         return;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.Arrays;
+
+/**
+ * A matrix multiplier for two sparse matrices in CSR form
+ * using Gustavson's row-by-row algorithm.
+ *
+ * Each row of the result is accumulated in a dense scratch row
+ * (a sparse accumulator): every nonzero element of the matching
+ * row of A scales one row of B, and only the columns touched are
+ * remembered, so the scratch row is collected and cleared in time
+ * proportional to the nonzero elements of the result row rather
+ * than its length. The total work is proportional to the number
+ * of nonzero products instead of n^3.
+ *
+ * When benchmarked, both inputs are compressed while preparing the
+ * multiplication and the result is left in CSR form, so only the
+ * multiplication itself is timed.
+ */
+public class GustavsonMatrixMultiplier extends MatrixMultiplier
+{
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     */
+    public GustavsonMatrixMultiplier()
+    {
+        super("Sparse x Sparse (Gustavson)");
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices,
+     * compressing them first.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return multiply(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B,
+     * compressing them first.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        return multiply(CsrMatrix.fromArray(a), CsrMatrix.fromArray(b)).toArray();
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B,
+     * compressing them first and combining the product
+     * with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        multiplyInto(CsrMatrix.fromArray(a), CsrMatrix.fromArray(b), c, alpha, beta);
+    }
+
+    /**
+     * Prepares the multiplication of two n*n matrices,
+     * compressing both beforehand.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(int[][] a, int[][] b)
+    {
+        CsrMatrix compressedA = CsrMatrix.fromArray(a);
+        CsrMatrix compressedB = CsrMatrix.fromArray(b);
+        return () -> multiply(compressedA, compressedB);
+    }
+
+    /**
+     * Prepares the multiplication of two contiguous n*n
+     * matrices, compressing both beforehand.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(Matrix a, Matrix b)
+    {
+        return prepare(a.toArray(), b.toArray());
+    }
+
+    /**
+     * Gets the number of arithmetic operations done to multiply
+     * two specific matrices, one multiplication and one addition
+     * for every nonzero product, each nonzero element of A with
+     * each nonzero element of the matching row of B.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return Twice the number of nonzero products.
+     */
+    @Override
+    public long getOperationCount(int[][] a, int[][] b)
+    {
+        long[] rowNonZeros = new long[b.length];
+        for (int row = 0; row < b.length; row++)
+        {
+            for (int value : b[row])
+            {
+                rowNonZeros[row] += (value != 0) ? 1 : 0;
+            }
+        }
+        long products = 0;
+        for (int[] row : a)
+        {
+            for (int col = 0; col < row.length; col++)
+            {
+                products += (row[col] != 0) ? rowNonZeros[col] : 0;
+            }
+        }
+        return 2 * products;
+    }
+
+    /**
+     * Gets the number of arithmetic operations done
+     * to multiply two specific contiguous matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return Twice the number of nonzero products.
+     */
+    @Override
+    public long getOperationCount(Matrix a, Matrix b)
+    {
+        return getOperationCount(a.toArray(), b.toArray());
+    }
+
+    /**
+     * Multiplies a sparse m*k matrix A by a sparse k*n matrix B.
+     * Elements of the result which cancel out to zero are not stored.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n, with sorted column indices.
+     */
+    public static CsrMatrix multiply(CsrMatrix a, CsrMatrix b)
+    {
+        checkDimensions(a, b);
+        int rows = a.getRows();
+        int cols = b.getColumns();
+        int[] aPointers = a.getRowPointers();
+        int[] aIndices = a.getColumnIndices();
+        int[] aValues = a.getValues();
+        int[] bPointers = b.getRowPointers();
+        int[] bIndices = b.getColumnIndices();
+        int[] bValues = b.getValues();
+
+        /**
+         * Sparse Accumulator
+         * touchedIn[col] == row marks a column already
+         * touched while computing the current row.
+         */
+        int[] accumulator = new int[cols];
+        int[] touchedIn = new int[cols];
+        Arrays.fill(touchedIn, -1);
+        int[] touched = new int[cols];
+
+        int[] rowPointers = new int[rows + 1];
+        int capacity = Math.max(16, a.getNonZeros() + b.getNonZeros());
+        int[] columnIndices = new int[capacity];
+        int[] values = new int[capacity];
+        int nonZeros = 0;
+        for (int row = 0; row < rows; row++)
+        {
+            int numTouched = 0;
+            for (int i = aPointers[row]; i < aPointers[row + 1]; i++)
+            {
+                int aValue = aValues[i];
+                int bRow = aIndices[i];
+                for (int j = bPointers[bRow]; j < bPointers[bRow + 1]; j++)
+                {
+                    int col = bIndices[j];
+                    if (touchedIn[col] != row)
+                    {
+                        touchedIn[col] = row;
+                        touched[numTouched++] = col;
+                        accumulator[col] = 0;
+                    }
+                    accumulator[col] += aValue * bValues[j];
+                }
+            }
+            Arrays.sort(touched, 0, numTouched);
+            if (nonZeros + numTouched > capacity)
+            {
+                capacity = Math.max(capacity * 2, nonZeros + numTouched);
+                columnIndices = Arrays.copyOf(columnIndices, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            for (int t = 0; t < numTouched; t++)
+            {
+                int col = touched[t];
+                if (accumulator[col] != 0)
+                {
+                    columnIndices[nonZeros] = col;
+                    values[nonZeros] = accumulator[col];
+                    nonZeros++;
+                }
+            }
+            rowPointers[row + 1] = nonZeros;
+        }
+        return new CsrMatrix(rows, cols, rowPointers, columnIndices, values);
+    }
+
+    /**
+     * Multiplies a sparse m*k matrix A by a sparse k*n matrix B,
+     * combining the product with a dense matrix C. Each row of C
+     * is scaled by beta and then serves as the accumulator for
+     * the matching row of the product, so no sparse result or
+     * scratch row is built.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    public static void multiplyInto(CsrMatrix a, CsrMatrix b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b);
+        if (c.length != a.getRows() || c[0].length != b.getColumns())
+        {
+            throw new IllegalArgumentException("Cannot Store " + a.getRows() + "x" + b.getColumns() + " Product In "
+                                               + c.length + "x" + c[0].length + " Matrix");
+        }
+        int[] aPointers = a.getRowPointers();
+        int[] aIndices = a.getColumnIndices();
+        int[] aValues = a.getValues();
+        int[] bPointers = b.getRowPointers();
+        int[] bIndices = b.getColumnIndices();
+        int[] bValues = b.getValues();
+        for (int row = 0; row < a.getRows(); row++)
+        {
+            scale(c, row, 0, 1, b.getColumns(), beta);
+            int[] cRow = c[row];
+            for (int i = aPointers[row]; i < aPointers[row + 1]; i++)
+            {
+                int aValue = alpha * aValues[i];
+                int bRow = aIndices[i];
+                for (int j = bPointers[bRow]; j < bPointers[bRow + 1]; j++)
+                {
+                    cRow[bIndices[j]] += aValue * bValues[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that two sparse matrices can be multiplied.
+     */
+    private static void checkDimensions(CsrMatrix a, CsrMatrix b)
+    {
+        if (a.getColumns() != b.getRows())
+        {
+            throw new IllegalArgumentException("Cannot Multiply " + a.getRows() + "x" + a.getColumns()
+                                               + " By " + b.getRows() + "x" + b.getColumns());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A float matrix multiplier using an iterative algorithm.
+ */
+public class IterativeFloatMatrixMultiplier extends FloatMatrixMultiplier
+{
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     */
+    public IterativeFloatMatrixMultiplier()
+    {
+        super("Iterative (float)");
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a 3-loop iterative method.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public float[][] multiply(float[][] a, float[][] b)
+    {
+        checkDimensions(a, b);
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        float[][] result = new float[rows][cols];
+        for (int resultRow = 0; resultRow < rows; resultRow++)
+        {
+            for (int resultCol = 0; resultCol < cols; resultCol++)
+            {
+                float sum = 0;
+                for (int i = 0; i < inner; i++)
+                {
+                    sum += a[resultRow][i] * b[i][resultCol];
+                }
+                result[resultRow][resultCol] = sum;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies portions of two matrices, adding the
+     * result to a portion of a third matrix. The loops
+     * are ordered i-k-j so the innermost loop walks
+     * along rows of B and C.
+     *
+     * Crc += Arc*Brc
+     *
+     * @param a       Matrix A
+     * @param aRowPtr Matrix A Starting Row Index
+     * @param aColPtr Matrix A Starting Column Index
+     * @param b       Matrix B
+     * @param bRowPtr Matrix B Starting Row Index
+     * @param bColPtr Matrix B Starting Column Index
+     * @param c       Matrix C, Result Matrix
+     * @param cRowPtr Matrix C Starting Row Index
+     * @param cColPtr Matrix C Starting Column Index
+     * @param rows    The number of rows of the A portion and result.
+     * @param inner   The number of columns of A and rows of B.
+     * @param cols    The number of columns of the B portion and result.
+     */
+    static void multiplyAccumulate(float[][] a, int aRowPtr, int aColPtr,
+                                   float[][] b, int bRowPtr, int bColPtr,
+                                   float[][] c, int cRowPtr, int cColPtr,
+                                   int rows, int inner, int cols)
+    {
+        for (int row = 0; row < rows; row++)
+        {
+            float[] aRow = a[aRowPtr + row];
+            float[] cRow = c[cRowPtr + row];
+            for (int i = 0; i < inner; i++)
+            {
+                float aValue = aRow[aColPtr + i];
+                float[] bRow = b[bRowPtr + i];
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[cColPtr + col] += aValue * bRow[bColPtr + col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the contributions of the odd last row, column and
+     * inner index of a product to a result whose even-sized
+     * top left part already holds the product of the even-sized
+     * parts of A and B.
+     *
+     * Crc += Arc*Brc, Excluding The Even Part
+     *
+     * @param a       Matrix A
+     * @param aRowPtr Matrix A Starting Row Index
+     * @param aColPtr Matrix A Starting Column Index
+     * @param b       Matrix B
+     * @param bRowPtr Matrix B Starting Row Index
+     * @param bColPtr Matrix B Starting Column Index
+     * @param c       Matrix C, Result Matrix
+     * @param cRowPtr Matrix C Starting Row Index
+     * @param cColPtr Matrix C Starting Column Index
+     * @param rows    The number of rows of the A portion and result.
+     * @param inner   The number of columns of A and rows of B.
+     * @param cols    The number of columns of the B portion and result.
+     */
+    static void multiplyAccumulatePeeled(float[][] a, int aRowPtr, int aColPtr,
+                                         float[][] b, int bRowPtr, int bColPtr,
+                                         float[][] c, int cRowPtr, int cColPtr,
+                                         int rows, int inner, int cols)
+    {
+        int evenRows = rows & ~1;
+        int evenInner = inner & ~1;
+        int evenCols = cols & ~1;
+        // Last Inner Index, Even Part Of C
+        multiplyAccumulate(a, aRowPtr,            aColPtr + evenInner,
+                           b, bRowPtr + evenInner, bColPtr,
+                           c, cRowPtr,            cColPtr,
+                           evenRows, inner - evenInner, evenCols);
+        // Last Column
+        multiplyAccumulate(a, aRowPtr,            aColPtr,
+                           b, bRowPtr,            bColPtr + evenCols,
+                           c, cRowPtr,            cColPtr + evenCols,
+                           evenRows, inner, cols - evenCols);
+        // Last Row
+        multiplyAccumulate(a, aRowPtr + evenRows, aColPtr,
+                           b, bRowPtr,            bColPtr,
+                           c, cRowPtr + evenRows, cColPtr,
+                           rows - evenRows, inner, cols);
+    }
+}
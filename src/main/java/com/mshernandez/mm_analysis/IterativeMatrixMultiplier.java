@@ -42,4 +42,106 @@ public class IterativeMatrixMultiplier extends MatrixMultiplier
         }
         return result;
     }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a 3-loop iterative method.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        int[][] result = new int[rows][cols];
+        for (int resultRow = 0; resultRow < rows; resultRow++)
+        {
+            for (int resultCol = 0; resultCol < cols; resultCol++)
+            {
+                int sum = 0;
+                for (int i = 0; i < inner; i++)
+                {
+                    sum += a[resultRow][i] * b[i][resultCol];
+                }
+                result[resultRow][resultCol] = sum;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a 3-loop iterative method, combining the
+     * product with matrix C as each element is finished.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        for (int resultRow = 0; resultRow < rows; resultRow++)
+        {
+            for (int resultCol = 0; resultCol < cols; resultCol++)
+            {
+                int sum = 0;
+                for (int i = 0; i < inner; i++)
+                {
+                    sum += a[resultRow][i] * b[i][resultCol];
+                }
+                c[resultRow][resultCol] = (beta == 0) ? alpha * sum
+                                                      : alpha * sum + beta * c[resultRow][resultCol];
+            }
+        }
+    }
+
+    /**
+     * Multiplies two contiguous matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using a 3-loop iterative method.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public Matrix multiplySquareMatrices(Matrix a, Matrix b)
+    {
+        int size = a.getRows();
+        Matrix result = new Matrix(size, size);
+        int[] aData = a.getData();
+        int[] bData = b.getData();
+        int[] resultData = result.getData();
+        int bStride = b.getStride();
+        for (int resultRow = 0; resultRow < size; resultRow++)
+        {
+            int aRowStart = a.index(resultRow, 0);
+            for (int resultCol = 0; resultCol < size; resultCol++)
+            {
+                int sum = 0;
+                int bIndex = b.index(0, resultCol);
+                for (int i = 0; i < size; i++)
+                {
+                    sum += aData[aRowStart + i] * bData[bIndex];
+                    bIndex += bStride;
+                }
+                resultData[result.index(resultRow, resultCol)] = sum;
+            }
+        }
+        return result;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package com.mshernandez.mm_analysis;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detects JIT compilation and garbage collection between
+ * two points in time using the JVM's management beans,
+ * so measurements that overlapped either can be flagged.
+ *
+ * Compilation is detected through the total time spent
+ * compiling, which only some JVMs report. When it is not
+ * available no sample is ever flagged for compilation.
+ * The time is reported in milliseconds, so very short
+ * compilations can go unnoticed.
+ *
+ * The monitor also measures the CPU time used by the thread
+ * calling start, which unlike wall clock time is not inflated
+ * when other threads compete for the same cores, and the
+ * bytes that thread allocated on the heap, which some JVMs
+ * do not report. Neither includes work done by other threads.
+ * A monitor should only be used by one thread.
+ *
+ * The peak usage of the heap memory pools is tracked for the
+ * whole JVM between resetPeakHeapUsage and getPeakHeapUsage,
+ * so it is only meaningful while one measurement runs at a time.
+ */
+public class JvmEventMonitor
+{
+    private CompilationMXBean compilation;
+    private List<GarbageCollectorMXBean> collectors;
+    private ThreadMXBean threads;
+    private com.sun.management.ThreadMXBean allocations;
+    private List<MemoryPoolMXBean> heapPools;
+
+    private long startCompilationTime;
+    private long startCollectionCount;
+    private long startCpuTime;
+    private long startAllocatedBytes;
+    private long allocationOverhead;
+
+    /**
+     * Initializes a new monitor for the running JVM.
+     */
+    public JvmEventMonitor()
+    {
+        compilation = ManagementFactory.getCompilationMXBean();
+        if (compilation != null && !compilation.isCompilationTimeMonitoringSupported())
+        {
+            compilation = null;
+        }
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            allocations = (com.sun.management.ThreadMXBean) threads;
+            if (!allocations.isThreadAllocatedMemorySupported())
+            {
+                allocations = null;
+            }
+            else if (!allocations.isThreadAllocatedMemoryEnabled())
+            {
+                allocations.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+        if (!threads.isCurrentThreadCpuTimeSupported())
+        {
+            threads = null;
+        }
+        heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if (pool.getType() == MemoryType.HEAP)
+            {
+                heapPools.add(pool);
+            }
+        }
+
+        /**
+         * Reading The Allocated Bytes Can Itself Allocate,
+         * Which Is Measured Once And Subtracted From Every Sample
+         */
+        allocationOverhead = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++)
+        {
+            long before = getAllocatedBytes();
+            allocationOverhead = Math.min(allocationOverhead, getAllocatedBytes() - before);
+        }
+        start();
+    }
+
+    /**
+     * Marks the start of a measurement.
+     */
+    public void start()
+    {
+        startCompilationTime = getCompilationTime();
+        startCollectionCount = getCollectionCount();
+        startCpuTime = getCpuTime();
+        startAllocatedBytes = getAllocatedBytes();
+    }
+
+    /**
+     * Gets the bytes allocated on the heap by the current
+     * thread since the last call to start.
+     *
+     * @return The allocated bytes, or -1 if they are not reported.
+     */
+    public long getAllocatedBytesSinceStart()
+    {
+        if (allocations == null)
+        {
+            return -1;
+        }
+        return Math.max(0, getAllocatedBytes() - startAllocatedBytes - allocationOverhead);
+    }
+
+    /**
+     * Starts tracking the peak usage of the heap from now on.
+     */
+    public void resetPeakHeapUsage()
+    {
+        for (MemoryPoolMXBean pool : heapPools)
+        {
+            pool.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Gets the peak usage of the heap since the last call to
+     * resetPeakHeapUsage. Every pool reaches its peak at its own
+     * time, so their sum is an upper bound of the heap's peak.
+     *
+     * @return The sum of the peak usage of every heap pool, in bytes.
+     */
+    public long getPeakHeapUsage()
+    {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools)
+        {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    /**
+     * Gets the CPU time used by the current thread
+     * since the last call to start.
+     *
+     * @return The CPU time in nanoseconds, or -1 if it is not supported.
+     */
+    public long getCpuTimeSinceStart()
+    {
+        return (threads == null) ? -1 : getCpuTime() - startCpuTime;
+    }
+
+    /**
+     * Checks whether the JIT compiler did any work
+     * since the last call to start.
+     *
+     * @return True if code was compiled.
+     */
+    public boolean compiledSinceStart()
+    {
+        return getCompilationTime() != startCompilationTime;
+    }
+
+    /**
+     * Checks whether any garbage collector ran
+     * since the last call to start.
+     *
+     * @return True if a collection occurred.
+     */
+    public boolean collectedSinceStart()
+    {
+        return getCollectionCount() != startCollectionCount;
+    }
+
+    /**
+     * Checks whether compilation is being monitored.
+     *
+     * @return True if the JVM reports compilation time.
+     */
+    public boolean isCompilationMonitored()
+    {
+        return compilation != null;
+    }
+
+    /**
+     * Gets the total time the JIT compiler has spent
+     * compiling, or 0 if it is not reported.
+     */
+    private long getCompilationTime()
+    {
+        return (compilation == null) ? 0 : compilation.getTotalCompilationTime();
+    }
+
+    /**
+     * Gets the CPU time used by the current thread,
+     * or 0 if it is not supported.
+     */
+    private long getCpuTime()
+    {
+        return (threads == null) ? 0 : threads.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread,
+     * or 0 if they are not reported.
+     */
+    private long getAllocatedBytes()
+    {
+        return (allocations == null) ? 0 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Gets the total number of collections
+     * run by every garbage collector.
+     */
+    private long getCollectionCount()
+    {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors)
+        {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+}
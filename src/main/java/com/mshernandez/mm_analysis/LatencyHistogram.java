@@ -0,0 +1,323 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * Records the distribution of a set of non-negative values,
+ * such as runtimes in nanoseconds, so percentiles can be
+ * reported instead of only an average.
+ *
+ * Values are counted in logarithmic buckets: every power of
+ * two range is split into the same number of linear sub-buckets,
+ * so any value is stored within 1/64 (about 1.6%) of its actual
+ * value while the whole range of a long fits in a few thousand
+ * counters. Recording never allocates.
+ *
+ * A histogram is not thread safe. Threads should each record
+ * into their own histogram and merge them afterwards.
+ */
+public class LatencyHistogram
+{
+    /**
+     * Values below 2^SUB_BUCKET_BITS are counted exactly,
+     * larger values keep their SUB_BUCKET_BITS highest bits.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKET_COUNT
+        = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + SUB_BUCKET_COUNT;
+
+    /**
+     * The number of standard deviations either side of the
+     * center of a normal distribution holding 95% of it.
+     */
+    public static final double Z_95 = 1.959964;
+
+    private long[] counts;
+    private long totalCount;
+    private long min;
+    private long max;
+    private double sum;
+    private double sumOfSquares;
+
+    /**
+     * Initializes an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        counts = new long[BUCKET_COUNT];
+        reset();
+    }
+
+    /**
+     * Records a single value.
+     *
+     * @param value The value to record, which must not be negative.
+     */
+    public void record(long value)
+    {
+        if (value < 0)
+        {
+            throw new IllegalArgumentException("Cannot Record Negative Value: " + value);
+        }
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        sumOfSquares += (double) value * value;
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other The histogram to merge into this one.
+     */
+    public void merge(LatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts[i] = 0;
+        }
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        sum = 0.0;
+        sumOfSquares = 0.0;
+    }
+
+    /**
+     * Gets the value below or at which the given percentage
+     * of recorded values fall, to within the histogram's precision.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The value at the percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (percentile < 0.0 || percentile > 100.0)
+        {
+            throw new IllegalArgumentException("Percentile Must Be Between 0 And 100: " + percentile);
+        }
+        if (totalCount == 0)
+        {
+            return 0;
+        }
+        long targetCount = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            count += counts[i];
+            if (count >= targetCount)
+            {
+                /**
+                 * Report The Largest Value The Bucket Can Hold,
+                 * Never Beyond The Actual Extremes
+                 */
+                return Math.max(min, Math.min(max, highestValueInBucket(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the number of values recorded.
+     */
+    public long getTotalCount()
+    {
+        return totalCount;
+    }
+
+    /**
+     * Gets the smallest value recorded, or 0 if nothing was recorded.
+     */
+    public long getMin()
+    {
+        return (totalCount == 0) ? 0 : min;
+    }
+
+    /**
+     * Gets the largest value recorded, or 0 if nothing was recorded.
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Gets the exact mean of the recorded values.
+     */
+    public double getMean()
+    {
+        return (totalCount == 0) ? 0.0 : sum / totalCount;
+    }
+
+    /**
+     * Gets the exact population standard deviation
+     * of the recorded values.
+     */
+    public double getStandardDeviation()
+    {
+        if (totalCount == 0)
+        {
+            return 0.0;
+        }
+        double mean = sum / totalCount;
+        return Math.sqrt(Math.max(0.0, sumOfSquares / totalCount - mean * mean));
+    }
+
+    /**
+     * Gets half the width of the 95% confidence interval of
+     * the mean, relative to the mean, using the normal
+     * approximation for the mean of many values.
+     *
+     * @return The relative half-width, or infinity with fewer than 2 values.
+     */
+    public double getRelativeErrorOfMean()
+    {
+        double mean = getMean();
+        if (totalCount < 2 || mean == 0.0)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        double sampleDeviation = getStandardDeviation() * Math.sqrt(totalCount / (totalCount - 1.0));
+        return Z_95 * sampleDeviation / Math.sqrt(totalCount) / mean;
+    }
+
+    /**
+     * Gets half the width of the 95% confidence interval of a
+     * percentile, relative to the percentile. The interval lies
+     * between the recorded values whose ranks are within Z_95
+     * standard deviations of the binomial count below the
+     * percentile, so no distribution is assumed. Values within
+     * one bucket are not told apart, so the error can reach 0.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The relative half-width, or infinity with fewer than 2 values.
+     */
+    public double getRelativeErrorOfPercentile(double percentile)
+    {
+        long value = getValueAtPercentile(percentile);
+        if (totalCount < 2 || value == 0)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        double p = percentile / 100.0;
+        double spread = Z_95 * Math.sqrt(totalCount * p * (1.0 - p));
+        double lowRank = Math.max(1.0, Math.floor(totalCount * p - spread));
+        double highRank = Math.min(totalCount, Math.ceil(totalCount * p + spread));
+        long low = getValueAtPercentile(100.0 * lowRank / totalCount);
+        long high = getValueAtPercentile(100.0 * highRank / totalCount);
+        return (high - low) / 2.0 / value;
+    }
+
+    /**
+     * Describes every recorded value in a single line of text,
+     * so the histogram can be saved and later restored with
+     * decode. Only buckets which counted a value are listed.
+     *
+     * @return The totals of the histogram followed by bucket:count pairs.
+     */
+    String encode()
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append(totalCount).append(';').append(min).append(';').append(max).append(';')
+               .append(sum).append(';').append(sumOfSquares).append(';');
+        String separator = "";
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            if (counts[i] != 0)
+            {
+                builder.append(separator).append(i).append(':').append(counts[i]);
+                separator = ",";
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Restores a histogram saved with encode.
+     *
+     * @param encoded The text returned by encode.
+     * @return A histogram with the same recorded values.
+     */
+    static LatencyHistogram decode(String encoded)
+    {
+        String[] fields = encoded.split(";", -1);
+        if (fields.length != 6)
+        {
+            throw new IllegalArgumentException("Invalid Histogram: " + encoded);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        try
+        {
+            histogram.totalCount = Long.parseLong(fields[0]);
+            histogram.min = Long.parseLong(fields[1]);
+            histogram.max = Long.parseLong(fields[2]);
+            histogram.sum = Double.parseDouble(fields[3]);
+            histogram.sumOfSquares = Double.parseDouble(fields[4]);
+            if (!fields[5].isEmpty())
+            {
+                for (String bucket : fields[5].split(","))
+                {
+                    int separator = bucket.indexOf(':');
+                    histogram.counts[Integer.parseInt(bucket.substring(0, separator))]
+                        = Long.parseLong(bucket.substring(separator + 1));
+                }
+            }
+        }
+        catch (NumberFormatException | IndexOutOfBoundsException e)
+        {
+            throw new IllegalArgumentException("Invalid Histogram: " + encoded, e);
+        }
+        return histogram;
+    }
+
+    /**
+     * Finds the bucket a value is counted in.
+     *
+     * Values below SUB_BUCKET_COUNT map directly to their own
+     * bucket. Larger values are shifted right until they fit in
+     * the top half of the sub-buckets, and every shift amount
+     * gets its own group of SUB_BUCKET_HALF_COUNT buckets.
+     */
+    static int bucketIndex(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the largest value counted in a bucket.
+     */
+    static long highestValueInBucket(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+        long lowest = subBucket << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,151 @@
+package com.mshernandez.mm_analysis;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.IntFunction;
+
+/**
+ * Finds the leaf size at which a recursive matrix multiplier
+ * runs fastest on the current machine by benchmarking every
+ * candidate leaf size with the same set of inputs.
+ *
+ * The chosen leaf sizes can be saved to a properties file
+ * along with a description of the machine they were tuned
+ * on, so the sweep only needs to run once per machine.
+ */
+public class LeafSizeTuner
+{
+    private static final String MACHINE_KEY = "machine";
+
+    private int tuningSize;
+    private int numInputs;
+    private int numSamples;
+
+    /**
+     * Initializes a new tuner.
+     *
+     * @param tuningSize The size of the matrices to benchmark with.
+     * @param numInputs The number of random inputs per candidate.
+     * @param numSamples The number of measurements per input.
+     */
+    public LeafSizeTuner(int tuningSize, int numInputs, int numSamples)
+    {
+        this.tuningSize = tuningSize;
+        this.numInputs = numInputs;
+        this.numSamples = numSamples;
+    }
+
+    /**
+     * Benchmarks every power of two leaf size from 2 up to
+     * the tuning size and returns the fastest one.
+     *
+     * @param multiplierFactory Creates a multiplier for a given leaf size.
+     * @return The leaf size with the lowest average runtime.
+     */
+    public int findBestLeafSize(IntFunction<MatrixMultiplier> multiplierFactory)
+    {
+        Map<Integer, MatrixMultiplierBenchmarker> candidates = new LinkedHashMap<>();
+        for (int leafSize = 2; leafSize <= tuningSize; leafSize <<= 1)
+        {
+            candidates.put(leafSize, new MatrixMultiplierBenchmarker(multiplierFactory.apply(leafSize)));
+        }
+        int[][] matrixA = new int[tuningSize][tuningSize];
+        int[][] matrixB = new int[tuningSize][tuningSize];
+        for (int input = 0; input < numInputs; input++)
+        {
+            MatrixMultiplierBenchmarker.randomizeMatrix(matrixA);
+            MatrixMultiplierBenchmarker.randomizeMatrix(matrixB);
+            for (MatrixMultiplierBenchmarker benchmarker : candidates.values())
+            {
+                benchmarker.benchmarkInput(matrixA, matrixB, numSamples);
+            }
+        }
+        int bestLeafSize = 0;
+        double bestRuntime = Double.MAX_VALUE;
+        for (int leafSize : candidates.keySet())
+        {
+            double runtime = candidates.get(leafSize).getAverageRuntime(tuningSize);
+            System.out.printf("  Leaf %-5d %15.0f ns%n", leafSize, runtime);
+            if (runtime < bestRuntime)
+            {
+                bestRuntime = runtime;
+                bestLeafSize = leafSize;
+            }
+        }
+        return bestLeafSize;
+    }
+
+    /**
+     * Loads previously tuned leaf sizes. Nothing is loaded if
+     * the file does not exist or was tuned on another machine.
+     *
+     * @param fileName The properties file to read.
+     * @return A mapping from algorithm key to leaf size.
+     */
+    public static Map<String, Integer> loadLeafSizes(String fileName)
+    {
+        Map<String, Integer> leafSizes = new LinkedHashMap<>();
+        Properties properties = new Properties();
+        try (Reader reader = new FileReader(fileName))
+        {
+            properties.load(reader);
+        }
+        catch (IOException e)
+        {
+            return leafSizes;
+        }
+        if (!describeMachine().equals(properties.getProperty(MACHINE_KEY)))
+        {
+            return leafSizes;
+        }
+        for (String key : properties.stringPropertyNames())
+        {
+            if (!key.equals(MACHINE_KEY))
+            {
+                leafSizes.put(key, Integer.parseInt(properties.getProperty(key)));
+            }
+        }
+        return leafSizes;
+    }
+
+    /**
+     * Saves tuned leaf sizes along with a description
+     * of the current machine.
+     *
+     * @param fileName The properties file to write.
+     * @param leafSizes A mapping from algorithm key to leaf size.
+     * @throws IOException If the file could not be written.
+     */
+    public static void saveLeafSizes(String fileName, Map<String, Integer> leafSizes) throws IOException
+    {
+        Properties properties = new Properties();
+        properties.setProperty(MACHINE_KEY, describeMachine());
+        for (String key : leafSizes.keySet())
+        {
+            properties.setProperty(key, Integer.toString(leafSizes.get(key)));
+        }
+        try (Writer writer = new FileWriter(fileName))
+        {
+            properties.store(writer, "Tuned Leaf Sizes");
+        }
+    }
+
+    /**
+     * Describes the current machine and JVM, since
+     * either can change which leaf size is fastest.
+     *
+     * @return A description of the current machine.
+     */
+    public static String describeMachine()
+    {
+        return System.getProperty("os.name") + " " + System.getProperty("os.arch")
+               + ", " + Runtime.getRuntime().availableProcessors() + " Processors, "
+               + System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version");
+    }
+}
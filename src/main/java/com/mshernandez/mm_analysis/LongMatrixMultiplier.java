@@ -0,0 +1,112 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * An abstract class to represent a matrix multiplier
+ * for long matrices, leaving the specific algorithm and
+ * implementation to child classes.
+ */
+public abstract class LongMatrixMultiplier implements Multiplier
+{
+    private String algorithmName;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     */
+    public LongMatrixMultiplier(String algorithmName)
+    {
+        this.algorithmName = algorithmName;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    public abstract long[][] multiply(long[][] a, long[][] b);
+
+    /**
+     * Prepares the multiplication of two n*n matrices,
+     * converting them to long matrices beforehand.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(int[][] a, int[][] b)
+    {
+        long[][] convertedA = toLongArray(a);
+        long[][] convertedB = toLongArray(b);
+        return () -> multiply(convertedA, convertedB);
+    }
+
+    /**
+     * Copies an int matrix into a new long matrix.
+     *
+     * @param matrix The matrix to copy.
+     * @return The copied matrix.
+     */
+    public static long[][] toLongArray(int[][] matrix)
+    {
+        long[][] copy = new long[matrix.length][];
+        for (int row = 0; row < matrix.length; row++)
+        {
+            copy[row] = new long[matrix[row].length];
+            for (int col = 0; col < matrix[row].length; col++)
+            {
+                copy[row][col] = matrix[row][col];
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Checks that two matrices can be multiplied,
+     * that is the number of columns of A matches
+     * the number of rows of B.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     */
+    protected static void checkDimensions(long[][] a, long[][] b)
+    {
+        if (a.length == 0 || b.length == 0 || a[0].length != b.length)
+        {
+            throw new IllegalArgumentException("Cannot Multiply " + a.length + "x"
+                + (a.length == 0 ? 0 : a[0].length) + " By " + b.length + "x"
+                + (b.length == 0 ? 0 : b[0].length));
+        }
+    }
+
+    /**
+     * Gets the size of one element in bytes.
+     *
+     * @return The size of a long.
+     */
+    @Override
+    public int getElementBytes()
+    {
+        return Long.BYTES;
+    }
+
+    /**
+     * Returns the name of the algorithm.
+     */
+    @Override
+    public String getAlgorithmName()
+    {
+        return algorithmName;
+    }
+
+    /**
+     * Returns the name of the algorithm.
+     */
+    @Override
+    public String toString()
+    {
+        return algorithmName;
+    }
+}
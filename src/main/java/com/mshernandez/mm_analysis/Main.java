@@ -3,8 +3,21 @@ package com.mshernandez.mm_analysis;
 import java.util.List;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Main
 {
@@ -13,16 +26,322 @@ public class Main
     public static final int NUMBER_SAMPLES_PER_INPUT = 20;
 
     public static final String OUTPUT_FILE = "data.csv";
+    public static final String RESULTS_FILE = "results.csv";
+    public static final String CHECKPOINT_FILE = "checkpoint.properties";
+    public static final String LEAF_SIZE_FILE = "leaf-sizes.properties";
+
+    public static final int LEAF_SIZE_TUNING_INPUTS = 5;
+    public static final int LEAF_SIZE_TUNING_SAMPLES = 5;
+
+    public static final String DC_SPLIT_THRESHOLD_ARGUMENT = "dc-split-threshold";
+    public static final String STRASSENS_PARALLEL_CUTOFF_ARGUMENT = "strassens-parallel-cutoff";
+    public static final String DC_LEAF_SIZE_ARGUMENT = "dc-leaf-size";
+    public static final String STRASSENS_LEAF_SIZE_ARGUMENT = "strassens-leaf-size";
+    public static final String TUNE_LEAF_SIZES_ARGUMENT = "tune-leaf-sizes";
+    public static final String SHAPE_ARGUMENT = "shape";
+    public static final String WARMUP_THRESHOLD_ARGUMENT = "warmup-threshold";
+    public static final String MAX_WARMUP_RUNS_ARGUMENT = "max-warmup-runs";
+    public static final String KEEP_CONTAMINATED_SAMPLES_ARGUMENT = "keep-contaminated-samples";
+    public static final String WORKERS_ARGUMENT = "workers";
+    public static final String ISOLATE_ARGUMENT = "isolate";
+    public static final String ELEMENT_TYPES_ARGUMENT = "element-types";
+    public static final String NUMERICAL_ERROR_ARGUMENT = "numerical-error";
+    public static final String PACKED_MC_ARGUMENT = "packed-mc";
+    public static final String PACKED_KC_ARGUMENT = "packed-kc";
+    public static final String PACKED_NC_ARGUMENT = "packed-nc";
+    public static final String OUT_OF_CORE_ARGUMENT = "out-of-core";
+    public static final String OUT_OF_CORE_DIRECTORY_ARGUMENT = "out-of-core-dir";
+    public static final String OUT_OF_CORE_WINDOW_ARGUMENT = "out-of-core-window-mb";
+    public static final String INPUT_DIRECTORY_ARGUMENT = "input-dir";
+    public static final String SAVE_INPUTS_ARGUMENT = "save-inputs";
+    public static final String SEED_ARGUMENT = "seed";
+    public static final String DISTRIBUTION_ARGUMENT = "distribution";
+    public static final String MIN_VALUE_ARGUMENT = "min-value";
+    public static final String MAX_VALUE_ARGUMENT = "max-value";
+    public static final String DENSITY_ARGUMENT = "density";
+    public static final String BANDWIDTH_ARGUMENT = "bandwidth";
+    public static final String SPARSE_ARGUMENT = "sparse";
+    public static final String DENSITY_SWEEP_ARGUMENT = "density-sweep";
+    public static final String BATCH_ARGUMENT = "batch";
+    public static final String RESULTS_ARGUMENT = "results";
+    public static final String CHECKPOINT_ARGUMENT = "checkpoint";
+    public static final String RESUME_ARGUMENT = "resume";
+    public static final String ADAPTIVE_ARGUMENT = "adaptive";
+    public static final String TARGET_ERROR_ARGUMENT = "target-error";
+    public static final String TARGET_PERCENTILE_ARGUMENT = "target-percentile";
+    public static final String MIN_SAMPLES_ARGUMENT = "min-samples";
+    public static final String MAX_SAMPLES_ARGUMENT = "max-samples";
+
+    private static final Set<String> ARGUMENTS = Set.of(
+        DC_SPLIT_THRESHOLD_ARGUMENT, STRASSENS_PARALLEL_CUTOFF_ARGUMENT, DC_LEAF_SIZE_ARGUMENT,
+        STRASSENS_LEAF_SIZE_ARGUMENT, TUNE_LEAF_SIZES_ARGUMENT, SHAPE_ARGUMENT, WARMUP_THRESHOLD_ARGUMENT,
+        MAX_WARMUP_RUNS_ARGUMENT, KEEP_CONTAMINATED_SAMPLES_ARGUMENT, WORKERS_ARGUMENT, ISOLATE_ARGUMENT,
+        ELEMENT_TYPES_ARGUMENT, NUMERICAL_ERROR_ARGUMENT, PACKED_MC_ARGUMENT, PACKED_KC_ARGUMENT,
+        PACKED_NC_ARGUMENT, OUT_OF_CORE_ARGUMENT, OUT_OF_CORE_DIRECTORY_ARGUMENT, OUT_OF_CORE_WINDOW_ARGUMENT,
+        INPUT_DIRECTORY_ARGUMENT, SAVE_INPUTS_ARGUMENT, SEED_ARGUMENT, DISTRIBUTION_ARGUMENT,
+        MIN_VALUE_ARGUMENT, MAX_VALUE_ARGUMENT, DENSITY_ARGUMENT, BANDWIDTH_ARGUMENT, SPARSE_ARGUMENT,
+        DENSITY_SWEEP_ARGUMENT, BATCH_ARGUMENT, RESULTS_ARGUMENT, CHECKPOINT_ARGUMENT, RESUME_ARGUMENT,
+        ADAPTIVE_ARGUMENT, TARGET_ERROR_ARGUMENT, TARGET_PERCENTILE_ARGUMENT, MIN_SAMPLES_ARGUMENT,
+        MAX_SAMPLES_ARGUMENT);
+
+    public static final int NUMBER_SAMPLES_PER_SHAPE = 5;
+    public static final int NUMBER_OUT_OF_CORE_CHECKS = 16;
+
+    public static final int DENSITY_SWEEP_SIZE = 256;
+    public static final int DENSITY_SWEEP_INPUTS = 3;
+    public static final int DENSITY_SWEEP_SAMPLES = 5;
+    public static final int DEFAULT_BATCH_COUNT = 10000;
+    public static final int BATCH_SAMPLES = 5;
+    public static final int ADAPTIVE_ROUND_INPUTS = 10;
+
+    public static final double[] SWEPT_DENSITIES = {0.001, 0.002, 0.005, 0.01, 0.02, 0.05, 0.1, 0.2, 0.5, 1.0};
+
+    public static final double[] REPORTED_PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final DecimalFormat PERCENTILE_FORMAT = new DecimalFormat("0.#");
 
     /**
      * Measures the runtime to multiply randomly generated
      * matrices up to size MATRIX_SIZE_LIMIT using different algorithms,
      * taking NUMBER_SAMPLES_PER_SIZE samples for each matrix size.
      * 
-     * @param args Program arguments, discarded.
+     * Supported arguments:
+     * --dc-split-threshold=N         Largest size the parallel divide & conquer
+     *                                multiplier computes without splitting.
+     * --strassens-parallel-cutoff=N  Largest size the parallel Strassens
+     *                                multiplier computes without forking.
+     * --dc-leaf-size=N               Largest size the divide & conquer
+     *                                multipliers compute iteratively.
+     * --strassens-leaf-size=N        Largest size the Strassens and
+     *                                Strassen-Winograd multipliers compute
+     *                                iteratively.
+     * --tune-leaf-sizes              Sweep candidate leaf sizes for this machine
+     *                                and save the fastest in LEAF_SIZE_FILE.
+     * 
+     * --warmup-threshold=X           Coefficient of variation at which the
+     *                                runtimes of a size are considered warmed up.
+     * --max-warmup-runs=N            Most warmup runs per algorithm and size,
+     *                                0 disables the warmup.
+     * --keep-contaminated-samples    Keep samples which overlapped JIT
+     *                                compilation or garbage collection
+     *                                instead of measuring them again.
+     * --adaptive                     Stop measuring an algorithm at a size once
+     *                                the 95% confidence interval of its mean
+     *                                runtime is narrow enough, checked every
+     *                                ADAPTIVE_ROUND_INPUTS inputs.
+     * --target-error=X               Largest half-width of the confidence
+     *                                interval relative to the mean.
+     * --target-percentile=P          Target the confidence interval of a
+     *                                percentile of the runtimes instead.
+     * --min-samples=N,               Fewest and most samples of an algorithm
+     * --max-samples=N                at a size.
+     * --input-dir=PATH               Benchmark the saved input pairs NAME-a.mmat
+     *                                and NAME-b.mmat in a directory instead of
+     *                                random inputs.
+     * --save-inputs=PATH             Save the first random input pair of each
+     *                                size to a directory.
+     * --seed=N                       Seed of the random inputs, printed at the
+     *                                start of every run so it can be repeated.
+     * --distribution=NAME            Shape of the random inputs: uniform, sparse,
+     *                                banded, identity or small-integer.
+     * --min-value=N, --max-value=N   Range of nonzero random values.
+     * --density=X                    Fraction of nonzero sparse elements.
+     * --bandwidth=N                  Distance from the diagonal of nonzero
+     *                                banded elements.
+     * --workers=N                    Number of benchmark jobs to run at once.
+     * --isolate                      Run one benchmark job per physical core.
+     * --packed-mc=N, --packed-kc=N,  Block sizes of the packed panel multiplier.
+     * --packed-nc=N
+     * --results=PATH                 CSV file each algorithm and size is written
+     *                                to as soon as it completes, by default
+     *                                RESULTS_FILE.
+     * --checkpoint=PATH              File the state of the run is saved to after
+     *                                every size, by default CHECKPOINT_FILE.
+     * --resume                       Continue an interrupted run after the last
+     *                                size saved in the checkpoint, with the
+     *                                same inputs.
+     * --element-types                Also benchmark the long, float and double
+     *                                iterative, divide & conquer and Strassens
+     *                                multipliers.
+     * 
+     * --sparse                       Also benchmark the sparse x dense and
+     *                                sparse x sparse multipliers.
+     * 
+     * --numerical-error              Only print the error of each float and
+     *                                double multiplier at every size.
+     * --density-sweep=N              Only compare the sparse multipliers to the
+     *                                iterative multiplier for random sparse N*N
+     *                                inputs of increasing density, by default
+     *                                of size DENSITY_SWEEP_SIZE.
+     * 
+     * --batch=N                      Only compare multiplying N random pairs of
+     *                                each size up to BatchMatrixMultiplier.MAX_SIZE
+     *                                one call at a time with the batched
+     *                                multiplier, by default DEFAULT_BATCH_COUNT.
+     * 
+     * --shape=MxKxN                  Only time the product of a random M*K
+     *                                matrix and a random K*N matrix with each
+     *                                algorithm supporting rectangular inputs.
+     * 
+     * --out-of-core=N                Only time the product of two random N*N
+     *                                matrices stored in memory-mapped files.
+     * --out-of-core-dir=PATH         Directory for the matrix files, by default
+     *                                the system temporary directory.
+     * --out-of-core-window-mb=N      Heap memory the out-of-core multiplier
+     *                                may use for tiles.
+     * 
+     * Leaf sizes not given as arguments are read from LEAF_SIZE_FILE
+     * if it was tuned on this machine.
+     * 
+     * @param args Program arguments, in --name=value form.
      */
     public static void main(String[] args)
     {
+        Map<String, String> arguments = parseArguments(args);
+        int dcSplitThreshold = getIntegerArgument(arguments, DC_SPLIT_THRESHOLD_ARGUMENT,
+            ParallelDivideConquerMatrixMultiplier.DEFAULT_SPLIT_THRESHOLD);
+        int strassensParallelCutoff = getIntegerArgument(arguments, STRASSENS_PARALLEL_CUTOFF_ARGUMENT,
+            ParallelStrassensMatrixMultiplier.DEFAULT_PARALLEL_CUTOFF);
+        int cores = Runtime.getRuntime().availableProcessors();
+        PackedPanelMatrixMultiplier packedPanel = new PackedPanelMatrixMultiplier(
+            getIntegerArgument(arguments, PACKED_MC_ARGUMENT, PackedPanelMatrixMultiplier.DEFAULT_MC),
+            getIntegerArgument(arguments, PACKED_KC_ARGUMENT, PackedPanelMatrixMultiplier.DEFAULT_KC),
+            getIntegerArgument(arguments, PACKED_NC_ARGUMENT, PackedPanelMatrixMultiplier.DEFAULT_NC));
+        double warmupThreshold = getDoubleArgument(arguments, WARMUP_THRESHOLD_ARGUMENT,
+            MatrixMultiplierBenchmarker.DEFAULT_WARMUP_THRESHOLD);
+        int maxWarmupRuns = getIntegerArgument(arguments, MAX_WARMUP_RUNS_ARGUMENT,
+            MatrixMultiplierBenchmarker.DEFAULT_MAX_WARMUP_RUNS);
+        boolean discardContaminatedSamples = !arguments.containsKey(KEEP_CONTAMINATED_SAMPLES_ARGUMENT);
+
+        /**
+         * A resumed run continues with the inputs of the checkpointed run.
+         */
+        Path checkpointFile = Paths.get(arguments.getOrDefault(CHECKPOINT_ARGUMENT, CHECKPOINT_FILE));
+        BenchmarkCheckpoint checkpoint = null;
+        if (arguments.containsKey(RESUME_ARGUMENT))
+        {
+            if (Files.exists(checkpointFile))
+            {
+                try
+                {
+                    checkpoint = BenchmarkCheckpoint.load(checkpointFile);
+                }
+                catch (IOException | IllegalArgumentException e)
+                {
+                    System.out.println("Error Reading Checkpoint " + checkpointFile + ": " + e.getMessage());
+                    return;
+                }
+                arguments.putIfAbsent(SEED_ARGUMENT, Long.toString(checkpoint.getSeed()));
+            }
+            else
+            {
+                System.out.println("No Checkpoint Found At " + checkpointFile + ", Starting From The First Size");
+            }
+        }
+        MatrixGenerator generator = createGenerator(arguments);
+        System.out.println("Random Seed: " + generator.getSeed() + " (Repeat With --" + SEED_ARGUMENT + "="
+                           + generator.getSeed() + "), Inputs: " + generator);
+        AdaptiveSampling sampling = arguments.containsKey(ADAPTIVE_ARGUMENT) ? createSampling(arguments) : null;
+        if (sampling != null)
+        {
+            System.out.println("Adaptive Sampling: " + sampling);
+        }
+        Function<Multiplier, MatrixMultiplierBenchmarker> benchmarkerFactory
+            = multiplier -> new MatrixMultiplierBenchmarker(multiplier, warmupThreshold,
+                MatrixMultiplierBenchmarker.DEFAULT_WARMUP_WINDOW, maxWarmupRuns, discardContaminatedSamples,
+                sampling);
+
+        /**
+         * Leaf sizes are tuned once per machine and reused afterwards.
+         */
+        Map<String, Integer> leafSizes = LeafSizeTuner.loadLeafSizes(LEAF_SIZE_FILE);
+        if (arguments.containsKey(TUNE_LEAF_SIZES_ARGUMENT))
+        {
+            leafSizes = tuneLeafSizes();
+        }
+        int dcLeafSize = getIntegerArgument(arguments, DC_LEAF_SIZE_ARGUMENT,
+            leafSizes.getOrDefault(DC_LEAF_SIZE_ARGUMENT, DivideConquerMatrixMultiplier.DEFAULT_LEAF_SIZE));
+        int strassensLeafSize = getIntegerArgument(arguments, STRASSENS_LEAF_SIZE_ARGUMENT,
+            leafSizes.getOrDefault(STRASSENS_LEAF_SIZE_ARGUMENT, StrassensMatrixMultiplier.DEFAULT_LEAF_SIZE));
+
+        if (arguments.containsKey(OUT_OF_CORE_ARGUMENT))
+        {
+            long windowBytes = (long) getIntegerArgument(arguments, OUT_OF_CORE_WINDOW_ARGUMENT,
+                (int) (OutOfCoreMatrixMultiplier.DEFAULT_WINDOW_BYTES >> 20)) << 20;
+            Path directory = Paths.get(arguments.getOrDefault(OUT_OF_CORE_DIRECTORY_ARGUMENT,
+                                                              System.getProperty("java.io.tmpdir")));
+            try
+            {
+                benchmarkOutOfCore(getIntegerArgument(arguments, OUT_OF_CORE_ARGUMENT, 0), directory, generator,
+                    new OutOfCoreMatrixMultiplier(OutOfCoreMatrixMultiplier.tileSizeForWindow(windowBytes)));
+            }
+            catch (IOException e)
+            {
+                System.out.println("Error Using Matrix Files In " + directory + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        if (arguments.containsKey(SHAPE_ARGUMENT))
+        {
+            List<MatrixMultiplier> multipliers = new ArrayList<>();
+            multipliers.add(new IterativeMatrixMultiplier());
+            multipliers.add(new BlockedMatrixMultiplier());
+            multipliers.add(packedPanel);
+            multipliers.add(new DivideConquerMatrixMultiplier(dcLeafSize));
+            multipliers.add(new ParallelDivideConquerMatrixMultiplier(dcSplitThreshold, dcLeafSize, cores));
+            multipliers.add(new StrassensMatrixMultiplier(strassensLeafSize));
+            multipliers.add(new WinogradMatrixMultiplier(strassensLeafSize));
+            multipliers.add(new ParallelStrassensMatrixMultiplier(strassensParallelCutoff, strassensLeafSize, cores));
+            if (VectorMultipliers.isAvailable())
+            {
+                multipliers.add(VectorMultipliers.createMultiplier());
+            }
+            benchmarkShape(arguments.get(SHAPE_ARGUMENT), multipliers, generator);
+            return;
+        }
+
+        if (arguments.containsKey(NUMERICAL_ERROR_ARGUMENT))
+        {
+            List<FloatMatrixMultiplier> floatMultipliers = new ArrayList<>();
+            floatMultipliers.add(new IterativeFloatMatrixMultiplier());
+            floatMultipliers.add(new DivideConquerFloatMatrixMultiplier(dcLeafSize));
+            floatMultipliers.add(new StrassensFloatMatrixMultiplier(strassensLeafSize));
+            List<DoubleMatrixMultiplier> doubleMultipliers = new ArrayList<>();
+            doubleMultipliers.add(new IterativeDoubleMatrixMultiplier());
+            doubleMultipliers.add(new DivideConquerDoubleMatrixMultiplier(dcLeafSize));
+            doubleMultipliers.add(new StrassensDoubleMatrixMultiplier(strassensLeafSize));
+            printNumericalErrors(floatMultipliers, doubleMultipliers, generator.getSeed());
+            return;
+        }
+
+        if (arguments.containsKey(BATCH_ARGUMENT))
+        {
+            List<MatrixMultiplier> multipliers = new ArrayList<>();
+            multipliers.add(new IterativeMatrixMultiplier());
+            multipliers.add(new BlockedMatrixMultiplier());
+            multipliers.add(new DivideConquerMatrixMultiplier(dcLeafSize));
+            multipliers.add(new StrassensMatrixMultiplier(strassensLeafSize));
+            String count = arguments.get(BATCH_ARGUMENT);
+            printBatchComparison(count.equals("true") ? DEFAULT_BATCH_COUNT
+                                                      : getIntegerArgument(arguments, BATCH_ARGUMENT, 0),
+                                 multipliers, new BatchMatrixMultiplier(cores), generator);
+            return;
+        }
+
+        if (arguments.containsKey(DENSITY_SWEEP_ARGUMENT))
+        {
+            List<Supplier<MatrixMultiplier>> multipliers = new ArrayList<>();
+            multipliers.add(IterativeMatrixMultiplier::new);
+            multipliers.add(() -> new SparseDenseMatrixMultiplier(false));
+            multipliers.add(() -> new SparseDenseMatrixMultiplier(true));
+            multipliers.add(GustavsonMatrixMultiplier::new);
+            String sweepSize = arguments.get(DENSITY_SWEEP_ARGUMENT);
+            printDensitySweep(sweepSize.equals("true") ? DENSITY_SWEEP_SIZE
+                                                        : getIntegerArgument(arguments, DENSITY_SWEEP_ARGUMENT, 0),
+                              multipliers, generator.getSeed(), benchmarkerFactory);
+            return;
+        }
+
         /**
          * MatrixMultiplierBenchmarker objects keep track of the runtimes for
          * their respective matrix multipliers for different input sizes.
@@ -33,37 +352,190 @@ public class Main
          * with the same exact set of inputs without having to save every generated matrix.
          */
         List<MatrixMultiplierBenchmarker> benchmarks = new ArrayList<>();
-        benchmarks.add(new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier()));
-        benchmarks.add(new MatrixMultiplierBenchmarker(new DivideConquerMatrixMultiplier()));
-        benchmarks.add(new MatrixMultiplierBenchmarker(new StrassensMatrixMultiplier()));
+        benchmarks.add(benchmarkerFactory.apply(new IterativeMatrixMultiplier()));
+        benchmarks.add(benchmarkerFactory.apply(new BlockedMatrixMultiplier()));
+        benchmarks.add(benchmarkerFactory.apply(packedPanel));
+        MatrixMultiplierBenchmarker divideConquer
+            = benchmarkerFactory.apply(new DivideConquerMatrixMultiplier(dcLeafSize));
+        benchmarks.add(divideConquer);
+        MatrixMultiplierBenchmarker parallelDivideConquer = benchmarkerFactory.apply(
+            new ParallelDivideConquerMatrixMultiplier(dcSplitThreshold, dcLeafSize, cores));
+        benchmarks.add(parallelDivideConquer);
+        MatrixMultiplierBenchmarker strassens
+            = benchmarkerFactory.apply(new StrassensMatrixMultiplier(strassensLeafSize));
+        benchmarks.add(strassens);
+        benchmarks.add(benchmarkerFactory.apply(new WinogradMatrixMultiplier(strassensLeafSize)));
+        MatrixMultiplierBenchmarker parallelStrassens = benchmarkerFactory.apply(
+            new ParallelStrassensMatrixMultiplier(strassensParallelCutoff, strassensLeafSize, cores));
+        benchmarks.add(parallelStrassens);
+        if (VectorMultipliers.isAvailable())
+        {
+            benchmarks.add(benchmarkerFactory.apply(VectorMultipliers.createMultiplier()));
+        }
+        else
+        {
+            System.out.println("Vector API Not Available, Run With --add-modules jdk.incubator.vector On JDK 16+");
+        }
+        if (arguments.containsKey(SPARSE_ARGUMENT))
+        {
+            benchmarks.add(benchmarkerFactory.apply(new SparseDenseMatrixMultiplier(false)));
+            benchmarks.add(benchmarkerFactory.apply(new SparseDenseMatrixMultiplier(true)));
+            benchmarks.add(benchmarkerFactory.apply(new GustavsonMatrixMultiplier()));
+        }
+        if (arguments.containsKey(ELEMENT_TYPES_ARGUMENT))
+        {
+            benchmarks.add(benchmarkerFactory.apply(new IterativeLongMatrixMultiplier()));
+            benchmarks.add(benchmarkerFactory.apply(new DivideConquerLongMatrixMultiplier(dcLeafSize)));
+            benchmarks.add(benchmarkerFactory.apply(new StrassensLongMatrixMultiplier(strassensLeafSize)));
+            benchmarks.add(benchmarkerFactory.apply(new IterativeFloatMatrixMultiplier()));
+            benchmarks.add(benchmarkerFactory.apply(new DivideConquerFloatMatrixMultiplier(dcLeafSize)));
+            benchmarks.add(benchmarkerFactory.apply(new StrassensFloatMatrixMultiplier(strassensLeafSize)));
+            benchmarks.add(benchmarkerFactory.apply(new IterativeDoubleMatrixMultiplier()));
+            benchmarks.add(benchmarkerFactory.apply(new DivideConquerDoubleMatrixMultiplier(dcLeafSize)));
+            benchmarks.add(benchmarkerFactory.apply(new StrassensDoubleMatrixMultiplier(strassensLeafSize)));
+            if (VectorMultipliers.isAvailable())
+            {
+                benchmarks.add(benchmarkerFactory.apply(VectorMultipliers.createDoubleMultiplier()));
+            }
+        }
+
+        /**
+         * Speedups are reported for parallel benchmarkers relative
+         * to the sequential benchmarker of the same algorithm.
+         */
+        Map<MatrixMultiplierBenchmarker, MatrixMultiplierBenchmarker> speedups = new LinkedHashMap<>();
+        speedups.put(parallelDivideConquer, divideConquer);
+        speedups.put(parallelStrassens, strassens);
+
+        /**
+         * Throughput is reported relative to the peak of this machine,
+         * measured before anything else runs.
+         */
+        PeakThroughput peak = PeakThroughput.measure(cores);
+        System.out.println("Peak Throughput: " + peak);
 
         /**
          * Generate and feed inputs into registered matrix benchmarkers,
          * which will measure and average the runtimes for each input.
          * 
          * Inputs are generated with size n*n, where n begins at 2 and
-         * increases by a factor of 2 until reaching the specified limit.
+         * increases by a factor of 2 until reaching the specified limit,
+         * unless saved input pairs are loaded from a directory instead.
          * 
          * A progress bar is displayed in the console to allow the user
          * to guage the completion of the program.
          */
-        for (int size = 2; size <= MATRIX_SIZE_LIMIT; size = size << 1)
+        List<Matrix[]> inputPairs = null;
+        if (arguments.containsKey(INPUT_DIRECTORY_ARGUMENT))
         {
-            int[][] matrixA = new int[size][size];
-            int[][] matrixB = new int[size][size];
-            System.out.println();
-            for (int input = 0; input < NUMBER_INPUTS_PER_SIZE; input++)
+            Path inputDirectory = Paths.get(arguments.get(INPUT_DIRECTORY_ARGUMENT));
+            try
             {
-                MatrixMultiplierBenchmarker.randomizeMatrix(matrixA);
-                MatrixMultiplierBenchmarker.randomizeMatrix(matrixB);
-                for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+                inputPairs = loadInputPairs(inputDirectory);
+            }
+            catch (IOException e)
+            {
+                System.out.println("Error Reading Inputs In " + inputDirectory + ": " + e.getMessage());
+                return;
+            }
+            System.out.println("Loaded " + inputPairs.size() + " Input Pair(s) From " + inputDirectory);
+        }
+        Path saveDirectory = arguments.containsKey(SAVE_INPUTS_ARGUMENT)
+                             ? Paths.get(arguments.get(SAVE_INPUTS_ARGUMENT)) : null;
+
+        /**
+         * Every size already completed by the checkpointed run
+         * is restored and written to the results file again,
+         * then skipped along with its inputs.
+         */
+        int completedSize = 0;
+        if (checkpoint != null && inputPairs == null)
+        {
+            try
+            {
+                checkpoint.restore(generator, benchmarks);
+            }
+            catch (IllegalArgumentException e)
+            {
+                System.out.println("Cannot Resume From " + checkpointFile + ": " + e.getMessage());
+                return;
+            }
+            completedSize = checkpoint.getCompletedSize();
+            System.out.println("Resuming After Size " + completedSize + " From " + checkpointFile);
+        }
+        Path resultsFile = Paths.get(arguments.getOrDefault(RESULTS_ARGUMENT, RESULTS_FILE));
+        try (BenchmarkScheduler scheduler = arguments.containsKey(ISOLATE_ARGUMENT)
+                                            ? BenchmarkScheduler.isolated()
+                                            : new BenchmarkScheduler(getIntegerArgument(arguments, WORKERS_ARGUMENT, 1));
+             ResultsWriter results = openResults(resultsFile, benchmarks, peak))
+        {
+            System.out.println("Running " + scheduler.getWorkers() + " Benchmark Job(s) At Once");
+            if (inputPairs != null)
+            {
+                for (int input = 0; input < inputPairs.size(); input++)
                 {
-                    showProgressBar("Size " + size, 50, input, NUMBER_INPUTS_PER_SIZE);
-                    benchmarker.benchmarkInput(matrixA, matrixB, NUMBER_SAMPLES_PER_INPUT);
-                    System.gc();
+                    Matrix matrixA = inputPairs.get(input)[0];
+                    Matrix matrixB = inputPairs.get(input)[1];
+                    submitToAll(scheduler, benchmarks, "Input " + (input + 1), input, inputPairs.size(),
+                                benchmarker -> benchmarker.benchmarkInput(matrixA, matrixB, NUMBER_SAMPLES_PER_INPUT));
+                }
+                scheduler.awaitCompletion();
+                for (int size : getTestedSizes(benchmarks))
+                {
+                    streamResults(results, benchmarks, size);
+                }
+            }
+            else
+            {
+                for (int size = 2; size <= MATRIX_SIZE_LIMIT; size = size << 1)
+                {
+                    if (size <= completedSize)
+                    {
+                        generator.skip(2L * NUMBER_INPUTS_PER_SIZE);
+                        continue;
+                    }
+                    System.out.println();
+                    List<MatrixMultiplierBenchmarker> measuring = benchmarks;
+                    for (int input = 0; input < NUMBER_INPUTS_PER_SIZE; input++)
+                    {
+                        /**
+                         * With adaptive sampling, algorithms with enough samples
+                         * are dropped between rounds of inputs. The inputs left
+                         * are skipped once none remain, so every size uses the
+                         * same inputs as a run without adaptive sampling.
+                         */
+                        if (sampling != null && input > 0 && input % ADAPTIVE_ROUND_INPUTS == 0)
+                        {
+                            scheduler.awaitCompletion();
+                            measuring = getIncomplete(benchmarks, size);
+                            if (measuring.isEmpty())
+                            {
+                                generator.skip(2L * (NUMBER_INPUTS_PER_SIZE - input));
+                                break;
+                            }
+                        }
+                        int[][] matrixA = new int[size][size];
+                        int[][] matrixB = new int[size][size];
+                        generator.fill(matrixA);
+                        generator.fill(matrixB);
+                        if (saveDirectory != null && input == 0)
+                        {
+                            saveInputPair(saveDirectory, "size-" + size, matrixA, matrixB);
+                        }
+                        submitToAll(scheduler, measuring, "Size " + size, input, NUMBER_INPUTS_PER_SIZE,
+                                    benchmarker -> benchmarker.benchmarkInput(matrixA, matrixB,
+                                                                              NUMBER_SAMPLES_PER_INPUT));
+                    }
+                    scheduler.awaitCompletion();
+                    saveCheckpoint(checkpointFile, generator, size, benchmarks);
+                    streamResults(results, benchmarks, size);
                 }
             }
         }
+        catch (IOException e)
+        {
+            System.out.println("\nError Closing File: " + resultsFile);
+        }
         System.out.println("\n");
 
         /**
@@ -72,32 +544,877 @@ public class Main
          */
         try (PrintWriter filePrintWriter = new PrintWriter(OUTPUT_FILE))
         {
-            for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+            writeResults(filePrintWriter, benchmarks, speedups, peak);
+            System.out.println("Results Saved: " + OUTPUT_FILE);
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error Writing File: " + OUTPUT_FILE);
+            System.out.println("Printing Results In Console...\n");
+            PrintWriter consolePrintWriter = new PrintWriter(System.out);
+            writeResults(consolePrintWriter, benchmarks, speedups, peak);
+            consolePrintWriter.flush();
+        }
+        printSpeedups(speedups);
+        printSampleQuality(benchmarks);
+    }
+
+    /**
+     * Submits one job per benchmarker to measure the same input,
+     * updating the progress bar as jobs are submitted.
+     *
+     * Multithreaded algorithms run alone so they get every core,
+     * and collections are only forced when nothing else is measuring.
+     *
+     * @param scheduler The scheduler to run the jobs on.
+     * @param benchmarks The benchmarkers to measure the input with.
+     * @param label The label of the progress bar.
+     * @param input The index of the input.
+     * @param numberInputs The number of inputs shown by the progress bar.
+     * @param job Measures the input with one benchmarker.
+     */
+    private static void submitToAll(BenchmarkScheduler scheduler, List<MatrixMultiplierBenchmarker> benchmarks,
+                                    String label, int input, int numberInputs,
+                                    Consumer<MatrixMultiplierBenchmarker> job)
+    {
+        boolean concurrent = scheduler.getWorkers() > 1;
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            showProgressBar(label, 50, input, numberInputs);
+            scheduler.submit(() ->
+            {
+                job.accept(benchmarker);
+                if (!concurrent)
+                {
+                    System.gc();
+                }
+            }, concurrent && benchmarker.getParallelism() > 1);
+        }
+    }
+
+    /**
+     * Loads every input pair saved in a directory. A pair is
+     * the files NAME-a.mmat and NAME-b.mmat, holding square
+     * matrices of the same size. Pairs are ordered by size and
+     * then name so results are reported from smallest to largest.
+     *
+     * @param directory The directory to search.
+     * @return The pairs of matrices A and B.
+     * @throws IOException If a file could not be read or a pair is not square.
+     */
+    public static List<Matrix[]> loadInputPairs(Path directory) throws IOException
+    {
+        String suffixA = "-a" + MatrixFile.EXTENSION;
+        List<Path> filesA;
+        try (Stream<Path> files = Files.list(directory))
+        {
+            filesA = files.filter(file -> file.getFileName().toString().endsWith(suffixA))
+                          .sorted()
+                          .collect(Collectors.toList());
+        }
+        List<Matrix[]> pairs = new ArrayList<>();
+        for (Path fileA : filesA)
+        {
+            String name = fileA.getFileName().toString();
+            Path fileB = fileA.resolveSibling(name.substring(0, name.length() - suffixA.length())
+                                              + "-b" + MatrixFile.EXTENSION);
+            if (!Files.exists(fileB))
+            {
+                throw new IOException("Missing Second Input For " + fileA + ": " + fileB);
+            }
+            Matrix matrixA = MatrixFile.read(fileA);
+            Matrix matrixB = MatrixFile.read(fileB);
+            int size = matrixA.getRows();
+            if (matrixA.getColumns() != size || matrixB.getRows() != size || matrixB.getColumns() != size)
             {
-                filePrintWriter.print(benchmarker.getAlgorithmName() + ",");
-                Map<Integer, Double> runtimes = benchmarker.getAverageRuntimes();
+                throw new IOException("Inputs Must Be Square Matrices Of The Same Size: " + fileA);
+            }
+            pairs.add(new Matrix[] {matrixA, matrixB});
+        }
+        pairs.sort((x, y) -> Integer.compare(x[0].getRows(), y[0].getRows()));
+        return pairs;
+    }
+
+    /**
+     * Saves a pair of inputs as NAME-a.mmat and NAME-b.mmat
+     * so they can be benchmarked again with --input-dir.
+     *
+     * @param directory The directory to save the inputs in.
+     * @param name The name of the pair.
+     * @param matrixA The first input.
+     * @param matrixB The second input.
+     */
+    public static void saveInputPair(Path directory, String name, int[][] matrixA, int[][] matrixB)
+    {
+        try
+        {
+            Files.createDirectories(directory);
+            MatrixFile.write(directory.resolve(name + "-a" + MatrixFile.EXTENSION), Matrix.fromArray(matrixA));
+            MatrixFile.write(directory.resolve(name + "-b" + MatrixFile.EXTENSION), Matrix.fromArray(matrixB));
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error Saving Inputs In " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one CSV row of average runtimes per benchmarker,
+     * followed by one row of speedups per parallel benchmarker
+     * and rows describing the distribution of every benchmarker's
+     * samples: min, percentiles, max, standard deviation, the
+     * average CPU time of the benchmarking thread, the bytes it
+     * allocated per multiplication and the peak heap usage.
+     * Last come rows of throughput: the achieved and effective
+     * GOPS, the bytes moved per operation and the percentage of
+     * the single-core and all-core peak.
+     *
+     * @param writer The writer to output rows to.
+     * @param benchmarks The benchmarkers to report.
+     * @param speedups A mapping from parallel to sequential benchmarkers.
+     * @param peak The peak throughput of the machine.
+     */
+    public static void writeResults(PrintWriter writer,
+                                    List<MatrixMultiplierBenchmarker> benchmarks,
+                                    Map<MatrixMultiplierBenchmarker, MatrixMultiplierBenchmarker> speedups,
+                                    PeakThroughput peak)
+    {
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            writer.print(benchmarker.getAlgorithmName() + ",");
+            Map<Integer, Double> runtimes = benchmarker.getAverageRuntimes();
+            for (int size : runtimes.keySet())
+            {
+                writer.print(runtimes.get(size) + ",");
+            }
+            writer.println();
+        }
+        for (MatrixMultiplierBenchmarker parallel : speedups.keySet())
+        {
+            writer.print(parallel.getAlgorithmName() + " Speedup,");
+            Map<Integer, Double> runtimes = parallel.getAverageRuntimes();
+            for (int size : runtimes.keySet())
+            {
+                writer.print(speedups.get(parallel).getAverageRuntime(size) / runtimes.get(size) + ",");
+            }
+            writer.println();
+        }
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            Map<Integer, Double> runtimes = benchmarker.getAverageRuntimes();
+            writer.print(benchmarker.getAlgorithmName() + " Min,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getHistogram(size).getMin() + ",");
+            }
+            writer.println();
+            for (double percentile : REPORTED_PERCENTILES)
+            {
+                writer.print(benchmarker.getAlgorithmName() + " p" + PERCENTILE_FORMAT.format(percentile) + ",");
                 for (int size : runtimes.keySet())
                 {
-                    filePrintWriter.print(runtimes.get(size) + ",");
+                    writer.print(benchmarker.getHistogram(size).getValueAtPercentile(percentile) + ",");
                 }
-                filePrintWriter.println();
+                writer.println();
             }
-            System.out.println("Results Saved: " + OUTPUT_FILE);
+            writer.print(benchmarker.getAlgorithmName() + " Max,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getHistogram(size).getMax() + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " StdDev,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getHistogram(size).getStandardDeviation() + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " CPU Time,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getAverageCpuTime(size) + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " Allocated Bytes,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getAverageAllocatedBytes(size) + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " Peak Heap Bytes,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getPeakHeapUsage(size) + ",");
+            }
+            writer.println();
+        }
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            Map<Integer, Double> runtimes = benchmarker.getAverageRuntimes();
+            writer.print(benchmarker.getAlgorithmName() + " GOPS,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getGops(size) + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " Effective GOPS,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getEffectiveGops(size) + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " Bytes Per Op,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(benchmarker.getBytesPerOperation(size) + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " % Single-Core Peak,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(100.0 * benchmarker.getGops(size) / peak.getSingleCoreGops() + ",");
+            }
+            writer.println();
+            writer.print(benchmarker.getAlgorithmName() + " % All-Core Peak,");
+            for (int size : runtimes.keySet())
+            {
+                writer.print(100.0 * benchmarker.getGops(size) / peak.getAllCoreGops() + ",");
+            }
+            writer.println();
+        }
+    }
+
+    /**
+     * Opens the file results are streamed to and writes
+     * every size the benchmarkers have already completed,
+     * so a resumed run produces the same file as one which
+     * was never interrupted.
+     *
+     * @param file The CSV file to write.
+     * @param benchmarks The benchmarkers of the run.
+     * @param peak The peak throughput of the machine.
+     * @return The opened file, or null if it could not be written.
+     */
+    private static ResultsWriter openResults(Path file, List<MatrixMultiplierBenchmarker> benchmarks,
+                                             PeakThroughput peak)
+    {
+        ResultsWriter results = null;
+        try
+        {
+            results = new ResultsWriter(file, false, peak);
+            for (int size : getTestedSizes(benchmarks))
+            {
+                for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+                {
+                    results.write(benchmarker, size);
+                }
+            }
+            System.out.println("Streaming Results To " + file);
+            return results;
         }
         catch (IOException e)
         {
-            System.out.println("Error Writing File: " + OUTPUT_FILE);
-            System.out.println("Printing Results In Console...\n");
+            System.out.println("Error Writing File: " + file + ", Results Will Only Be Saved At The End");
+            if (results != null)
+            {
+                try
+                {
+                    results.close();
+                }
+                catch (IOException closeError)
+                {
+                    e.addSuppressed(closeError);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Writes the results of every benchmarker for a
+     * completed size to the streamed results file.
+     *
+     * @param results The results file, or null if it could not be opened.
+     * @param benchmarks The benchmarkers of the run.
+     * @param size The completed size.
+     */
+    private static void streamResults(ResultsWriter results, List<MatrixMultiplierBenchmarker> benchmarks, int size)
+    {
+        if (results == null)
+        {
+            return;
+        }
+        try
+        {
             for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
             {
-                System.out.print(benchmarker.getAlgorithmName() + ",");
-                Map<Integer, Double> runtimes = benchmarker.getAverageRuntimes();
-                for (int size : runtimes.keySet())
+                results.write(benchmarker, size);
+            }
+        }
+        catch (IOException e)
+        {
+            System.out.println("\nError Writing Results Of Size " + size + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the state of the run after a size is completed.
+     * A failure is reported but does not stop the run.
+     *
+     * @param file The checkpoint file to replace.
+     * @param generator The generator of the run's inputs.
+     * @param size The completed size.
+     * @param benchmarks The benchmarkers of the run.
+     */
+    private static void saveCheckpoint(Path file, MatrixGenerator generator, int size,
+                                       List<MatrixMultiplierBenchmarker> benchmarks)
+    {
+        try
+        {
+            BenchmarkCheckpoint.save(file, generator, size, benchmarks);
+        }
+        catch (IOException e)
+        {
+            System.out.println("\nError Saving Checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the benchmarkers which still need samples of a size.
+     *
+     * @param benchmarks The benchmarkers of the run.
+     * @param size The size being measured.
+     * @return The benchmarkers whose adaptive sampling is not complete.
+     */
+    private static List<MatrixMultiplierBenchmarker> getIncomplete(List<MatrixMultiplierBenchmarker> benchmarks,
+                                                                   int size)
+    {
+        List<MatrixMultiplierBenchmarker> incomplete = new ArrayList<>();
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            if (!benchmarker.isComplete(size))
+            {
+                incomplete.add(benchmarker);
+            }
+        }
+        return incomplete;
+    }
+
+    /**
+     * Gets every size measured by any of the benchmarkers.
+     *
+     * @param benchmarks The benchmarkers of the run.
+     * @return The sizes, in increasing order.
+     */
+    private static Set<Integer> getTestedSizes(List<MatrixMultiplierBenchmarker> benchmarks)
+    {
+        Set<Integer> sizes = new TreeSet<>();
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            sizes.addAll(benchmarker.getAverageRuntimes().keySet());
+        }
+        return sizes;
+    }
+
+    /**
+     * Prints the speedup and parallel efficiency of each
+     * parallel benchmarker relative to its sequential
+     * counterpart at every size tested.
+     *
+     * @param speedups A mapping from parallel to sequential benchmarkers.
+     */
+    public static void printSpeedups(Map<MatrixMultiplierBenchmarker, MatrixMultiplierBenchmarker> speedups)
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (MatrixMultiplierBenchmarker parallel : speedups.keySet())
+        {
+            MatrixMultiplierBenchmarker sequential = speedups.get(parallel);
+            System.out.println(parallel.getAlgorithmName() + " vs " + sequential.getAlgorithmName()
+                               + " (" + cores + " Cores Available)");
+            Map<Integer, Double> runtimes = parallel.getAverageRuntimes();
+            for (int size : runtimes.keySet())
+            {
+                double speedup = sequential.getAverageRuntime(size) / runtimes.get(size);
+                System.out.printf("%-10s Speedup: %6.2fx  Efficiency: %5.1f%%%n",
+                                  "Size " + size, speedup, 100.0 * speedup / cores);
+            }
+        }
+    }
+
+    /**
+     * Prints how many warmup runs each benchmarker needed
+     * at every size tested, how many of its samples
+     * overlapped JIT compilation or garbage collection,
+     * how many samples were kept and the relative
+     * half-width of their 95% confidence interval.
+     *
+     * @param benchmarks The benchmarkers to report.
+     */
+    public static void printSampleQuality(List<MatrixMultiplierBenchmarker> benchmarks)
+    {
+        for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+        {
+            System.out.println(benchmarker.getAlgorithmName() + " Warmup & Contaminated Samples");
+            for (int size : benchmarker.getAverageRuntimes().keySet())
+            {
+                System.out.printf("%-10s Warmup Runs: %4d  Compilation: %6d  GC: %6d  Samples: %6d  CI: +/-%.2f%%%n",
+                                  "Size " + size, benchmarker.getWarmupRuns(size),
+                                  benchmarker.getCompilationSamples(size),
+                                  benchmarker.getCollectionSamples(size),
+                                  benchmarker.getHistogram(size).getTotalCount(),
+                                  100.0 * benchmarker.getRelativeError(size));
+            }
+        }
+    }
+
+    /**
+     * Prints the relative error of every float and double
+     * multiplier for random inputs of each size up to
+     * MATRIX_SIZE_LIMIT, compared to a compensated reference.
+     *
+     * @param floatMultipliers The float multipliers to check.
+     * @param doubleMultipliers The double multipliers to check.
+     * @param seed The seed of the random inputs.
+     */
+    public static void printNumericalErrors(List<FloatMatrixMultiplier> floatMultipliers,
+                                            List<DoubleMatrixMultiplier> doubleMultipliers,
+                                            long seed)
+    {
+        Random random = new Random(seed);
+        System.out.printf("%-10s", "Size");
+        for (FloatMatrixMultiplier multiplier : floatMultipliers)
+        {
+            System.out.printf(" %30s", multiplier.getAlgorithmName());
+        }
+        for (DoubleMatrixMultiplier multiplier : doubleMultipliers)
+        {
+            System.out.printf(" %30s", multiplier.getAlgorithmName());
+        }
+        System.out.println();
+        for (int size = 2; size <= MATRIX_SIZE_LIMIT; size = size << 1)
+        {
+            double[][] matrixA = new double[size][size];
+            double[][] matrixB = new double[size][size];
+            NumericalError.randomizeMatrix(matrixA, random);
+            NumericalError.randomizeMatrix(matrixB, random);
+            double[][] reference = NumericalError.referenceProduct(matrixA, matrixB);
+            float[][] floatA = NumericalError.toFloatArray(matrixA);
+            float[][] floatB = NumericalError.toFloatArray(matrixB);
+            System.out.printf("%-10d", size);
+            for (FloatMatrixMultiplier multiplier : floatMultipliers)
+            {
+                System.out.printf(" %30.3e", NumericalError.relativeError(multiplier.multiply(floatA, floatB), reference));
+            }
+            for (DoubleMatrixMultiplier multiplier : doubleMultipliers)
+            {
+                System.out.printf(" %30.3e", NumericalError.relativeError(multiplier.multiply(matrixA, matrixB), reference));
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Prints the average time each multiplier takes to multiply
+     * random sparse n*n matrices at every density in SWEPT_DENSITIES,
+     * followed by the highest density at which each multiplier was
+     * still faster than the first, dense multiplier.
+     *
+     * Every density is measured by new benchmarkers, since
+     * benchmarkers group their results by size only.
+     *
+     * @param size The size of the matrices.
+     * @param multipliers Creates the multipliers to time, the dense baseline first.
+     * @param seed The seed of the random inputs.
+     * @param benchmarkerFactory Creates a benchmarker for a multiplier.
+     */
+    public static void printDensitySweep(int size, List<Supplier<MatrixMultiplier>> multipliers, long seed,
+                                         Function<Multiplier, MatrixMultiplierBenchmarker> benchmarkerFactory)
+    {
+        double[] crossovers = new double[multipliers.size()];
+        System.out.printf("%-10s", "Density");
+        for (Supplier<MatrixMultiplier> multiplier : multipliers)
+        {
+            System.out.printf(" %30s", multiplier.get().getAlgorithmName());
+        }
+        System.out.println();
+        for (double density : SWEPT_DENSITIES)
+        {
+            MatrixGenerator generator = new MatrixGenerator(seed, MatrixGenerator.Distribution.SPARSE,
+                                                            MatrixGenerator.DEFAULT_MIN, MatrixGenerator.DEFAULT_MAX,
+                                                            density, 0);
+            List<MatrixMultiplierBenchmarker> benchmarks = new ArrayList<>();
+            for (Supplier<MatrixMultiplier> multiplier : multipliers)
+            {
+                benchmarks.add(benchmarkerFactory.apply(multiplier.get()));
+            }
+            for (int input = 0; input < DENSITY_SWEEP_INPUTS; input++)
+            {
+                int[][] matrixA = new int[size][size];
+                int[][] matrixB = new int[size][size];
+                generator.fill(matrixA);
+                generator.fill(matrixB);
+                for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
                 {
-                    System.out.print(runtimes.get(size) + ",");
+                    benchmarker.benchmarkInput(matrixA, matrixB, DENSITY_SWEEP_SAMPLES);
                 }
-                System.out.println();
             }
+            double dense = benchmarks.get(0).getAverageRuntime(size);
+            System.out.printf("%-10s", density);
+            for (int i = 0; i < benchmarks.size(); i++)
+            {
+                double runtime = benchmarks.get(i).getAverageRuntime(size);
+                System.out.printf(" %27.0f ns", runtime);
+                if (runtime < dense)
+                {
+                    crossovers[i] = density;
+                }
+            }
+            System.out.println();
+        }
+        for (int i = 1; i < multipliers.size(); i++)
+        {
+            String name = multipliers.get(i).get().getAlgorithmName();
+            if (crossovers[i] == 0.0)
+            {
+                System.out.println(name + " Was Never Faster Than " + multipliers.get(0).get().getAlgorithmName());
+            }
+            else
+            {
+                System.out.println(name + " Faster Than " + multipliers.get(0).get().getAlgorithmName()
+                                   + " Up To Density " + crossovers[i]);
+            }
+        }
+    }
+
+    /**
+     * Prints the average time per product to multiply a batch
+     * of random pairs of each size from 2 to the largest batched
+     * size, calling each multiplier once per pair and calling
+     * the batched multiplier once for the whole batch.
+     *
+     * Every approach multiplies the batch once before it is
+     * timed so that small sizes are not measured interpreted.
+     *
+     * @param count The number of pairs in each batch.
+     * @param multipliers The multipliers to call once per pair.
+     * @param batchMultiplier The batched multiplier.
+     * @param generator The source of the random inputs.
+     */
+    public static void printBatchComparison(int count, List<MatrixMultiplier> multipliers,
+                                            BatchMatrixMultiplier batchMultiplier, MatrixGenerator generator)
+    {
+        System.out.printf("%-6s", "Size");
+        for (MatrixMultiplier multiplier : multipliers)
+        {
+            System.out.printf(" %30s", multiplier.getAlgorithmName());
+        }
+        System.out.printf(" %30s%n", batchMultiplier.getAlgorithmName());
+        for (int size = 2; size <= BatchMatrixMultiplier.MAX_SIZE; size = size << 1)
+        {
+            int[][][] matricesA = new int[count][size][size];
+            int[][][] matricesB = new int[count][size][size];
+            int[][][] matricesC = new int[count][size][size];
+            for (int input = 0; input < count; input++)
+            {
+                generator.fill(matricesA[input]);
+                generator.fill(matricesB[input]);
+            }
+            System.out.printf("%-6d", size);
+            for (MatrixMultiplier multiplier : multipliers)
+            {
+                RunningAverage average = new RunningAverage();
+                for (int sample = 0; sample <= BATCH_SAMPLES; sample++)
+                {
+                    long startingTime = System.nanoTime();
+                    for (int input = 0; input < count; input++)
+                    {
+                        matricesC[input] = multiplier.multiplySquareMatrices(matricesA[input], matricesB[input]);
+                    }
+                    if (sample > 0)
+                    {
+                        average.addData(System.nanoTime() - startingTime);
+                    }
+                }
+                System.out.printf(" %27.1f ns", average.getAverage() / count);
+            }
+            RunningAverage average = new RunningAverage();
+            for (int sample = 0; sample <= BATCH_SAMPLES; sample++)
+            {
+                long startingTime = System.nanoTime();
+                batchMultiplier.multiplyInto(matricesA, matricesB, matricesC);
+                if (sample > 0)
+                {
+                    average.addData(System.nanoTime() - startingTime);
+                }
+            }
+            System.out.printf(" %27.1f ns%n", average.getAverage() / count);
+        }
+    }
+
+    /**
+     * Prints the average time each multiplier takes to
+     * multiply a random M*K matrix by a random K*N matrix.
+     *
+     * @param shape The dimensions, in MxKxN form.
+     * @param multipliers The multipliers to time.
+     * @param generator The source of the random inputs.
+     */
+    public static void benchmarkShape(String shape, List<MatrixMultiplier> multipliers, MatrixGenerator generator)
+    {
+        String[] dimensions = shape.split("x");
+        if (dimensions.length != 3)
+        {
+            throw new IllegalArgumentException("Shape Must Be In MxKxN Form: " + shape);
+        }
+        int rows = Integer.parseInt(dimensions[0]);
+        int inner = Integer.parseInt(dimensions[1]);
+        int cols = Integer.parseInt(dimensions[2]);
+        int[][] matrixA = new int[rows][inner];
+        int[][] matrixB = new int[inner][cols];
+        generator.fill(matrixA);
+        generator.fill(matrixB);
+        System.out.println(rows + "x" + inner + " * " + inner + "x" + cols);
+        for (MatrixMultiplier multiplier : multipliers)
+        {
+            RunningAverage average = new RunningAverage();
+            for (int sample = 0; sample < NUMBER_SAMPLES_PER_SHAPE; sample++)
+            {
+                long startingTime = System.nanoTime();
+                multiplier.multiply(matrixA, matrixB);
+                average.addData(System.nanoTime() - startingTime);
+            }
+            System.out.printf("%-30s %15.0f ns%n", multiplier.getAlgorithmName(), average.getAverage());
+        }
+    }
+
+    /**
+     * Prints the time taken to multiply two random n*n matrices
+     * stored in memory-mapped files, then checks a few random
+     * elements of the result against their dot products.
+     * The matrix files are deleted afterwards.
+     *
+     * @param size The size of the matrices.
+     * @param directory The directory to create the matrix files in.
+     * @param generator The source of the random inputs.
+     * @param multiplier The multiplier to time.
+     * @throws IOException If the matrix files could not be used.
+     */
+    public static void benchmarkOutOfCore(int size, Path directory, MatrixGenerator generator,
+                                          OutOfCoreMatrixMultiplier multiplier)
+        throws IOException
+    {
+        Path fileA = Files.createTempFile(directory, "matrix-a-", ".bin");
+        Path fileB = Files.createTempFile(directory, "matrix-b-", ".bin");
+        Path fileC = Files.createTempFile(directory, "matrix-c-", ".bin");
+        try (MappedMatrix matrixA = MappedMatrix.create(fileA, size, size);
+             MappedMatrix matrixB = MappedMatrix.create(fileB, size, size);
+             MappedMatrix matrixC = MappedMatrix.create(fileC, size, size))
+        {
+            generator.fill(matrixA);
+            generator.fill(matrixB);
+            System.out.println(size + "x" + size + " Out-Of-Core, " + multiplier.getAlgorithmName());
+            long startingTime = System.nanoTime();
+            multiplier.multiply(matrixA, matrixB, matrixC);
+            matrixC.force();
+            System.out.printf("%-30s %15d ns%n", multiplier.getAlgorithmName(), System.nanoTime() - startingTime);
+            Random random = new Random(generator.getSeed());
+            for (int check = 0; check < NUMBER_OUT_OF_CORE_CHECKS; check++)
+            {
+                int r = random.nextInt(size);
+                int c = random.nextInt(size);
+                int expected = 0;
+                for (int i = 0; i < size; i++)
+                {
+                    expected += matrixA.get(r, i) * matrixB.get(i, c);
+                }
+                if (matrixC.get(r, c) != expected)
+                {
+                    System.out.println("Incorrect Result At (" + r + ", " + c + ")");
+                }
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(fileA);
+            Files.deleteIfExists(fileB);
+            Files.deleteIfExists(fileC);
+        }
+    }
+
+    /**
+     * Finds the fastest leaf size of each recursive multiplier
+     * for inputs of size MATRIX_SIZE_LIMIT on this machine and
+     * saves the results to LEAF_SIZE_FILE.
+     *
+     * @return A mapping from leaf size argument name to leaf size.
+     */
+    public static Map<String, Integer> tuneLeafSizes()
+    {
+        LeafSizeTuner tuner = new LeafSizeTuner(MATRIX_SIZE_LIMIT,
+                                                LEAF_SIZE_TUNING_INPUTS,
+                                                LEAF_SIZE_TUNING_SAMPLES);
+        Map<String, Integer> leafSizes = new LinkedHashMap<>();
+        System.out.println("Tuning Divide & Conquer Leaf Size...");
+        leafSizes.put(DC_LEAF_SIZE_ARGUMENT,
+                      tuner.findBestLeafSize(DivideConquerMatrixMultiplier::new));
+        System.out.println("Tuning Strassens Leaf Size...");
+        leafSizes.put(STRASSENS_LEAF_SIZE_ARGUMENT,
+                      tuner.findBestLeafSize(StrassensMatrixMultiplier::new));
+        System.out.println("Tuned Leaf Sizes: " + leafSizes);
+        try
+        {
+            LeafSizeTuner.saveLeafSizes(LEAF_SIZE_FILE, leafSizes);
+            System.out.println("Leaf Sizes Saved: " + LEAF_SIZE_FILE);
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error Writing File: " + LEAF_SIZE_FILE);
+        }
+        return leafSizes;
+    }
+
+    /**
+     * Parses program arguments of the form --name=value.
+     * An argument without a value, such as --name, is
+     * given the value "true". Names must be one of the
+     * supported arguments.
+     *
+     * @param args The program arguments.
+     * @return A mapping from argument name to value.
+     */
+    public static Map<String, String> parseArguments(String[] args)
+    {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        for (String arg : args)
+        {
+            if (!arg.startsWith("--") || arg.length() == 2)
+            {
+                throw new IllegalArgumentException("Unrecognized Argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = arg.substring(2, (separator < 0) ? arg.length() : separator);
+            if (!ARGUMENTS.contains(name))
+            {
+                throw new IllegalArgumentException("Unrecognized Argument: " + arg);
+            }
+            arguments.put(name, (separator < 0) ? "true" : arg.substring(separator + 1));
+        }
+        return arguments;
+    }
+
+    /**
+     * Gets the value of an integer argument.
+     *
+     * @param arguments The parsed program arguments.
+     * @param name The name of the argument.
+     * @param defaultValue The value to use if the argument was not given.
+     * @return The value of the argument.
+     */
+    public static int getIntegerArgument(Map<String, String> arguments, String name, int defaultValue)
+    {
+        if (!arguments.containsKey(name))
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(arguments.get(name));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Argument --" + name + " Must Be An Integer", e);
+        }
+    }
+
+    /**
+     * Gets the value of a long integer argument.
+     *
+     * @param arguments The parsed program arguments.
+     * @param name The name of the argument.
+     * @param defaultValue The value to use if the argument was not given.
+     * @return The value of the argument.
+     */
+    public static long getLongArgument(Map<String, String> arguments, String name, long defaultValue)
+    {
+        if (!arguments.containsKey(name))
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Long.parseLong(arguments.get(name));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Argument --" + name + " Must Be An Integer", e);
+        }
+    }
+
+    /**
+     * Creates the generator of random inputs described by the
+     * program arguments, with a new seed unless one was given.
+     *
+     * @param arguments The parsed program arguments.
+     * @return The input generator.
+     */
+    public static MatrixGenerator createGenerator(Map<String, String> arguments)
+    {
+        String name = arguments.getOrDefault(DISTRIBUTION_ARGUMENT, "uniform");
+        MatrixGenerator.Distribution distribution;
+        try
+        {
+            distribution = MatrixGenerator.Distribution.valueOf(name.toUpperCase().replace('-', '_'));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unknown Distribution: " + name, e);
+        }
+        return new MatrixGenerator(getLongArgument(arguments, SEED_ARGUMENT, MatrixGenerator.newSeed()),
+                                   distribution,
+                                   getIntegerArgument(arguments, MIN_VALUE_ARGUMENT, MatrixGenerator.DEFAULT_MIN),
+                                   getIntegerArgument(arguments, MAX_VALUE_ARGUMENT, MatrixGenerator.DEFAULT_MAX),
+                                   getDoubleArgument(arguments, DENSITY_ARGUMENT, MatrixGenerator.DEFAULT_DENSITY),
+                                   getIntegerArgument(arguments, BANDWIDTH_ARGUMENT,
+                                                      MatrixGenerator.DEFAULT_BANDWIDTH));
+    }
+
+    /**
+     * Creates the adaptive sampling policy described by
+     * the program arguments, with defaults for any missing.
+     *
+     * @param arguments The parsed program arguments.
+     * @return The sampling policy.
+     */
+    public static AdaptiveSampling createSampling(Map<String, String> arguments)
+    {
+        return new AdaptiveSampling(
+            getDoubleArgument(arguments, TARGET_ERROR_ARGUMENT, AdaptiveSampling.DEFAULT_RELATIVE_ERROR),
+            getDoubleArgument(arguments, TARGET_PERCENTILE_ARGUMENT, Double.NaN),
+            getIntegerArgument(arguments, MIN_SAMPLES_ARGUMENT, AdaptiveSampling.DEFAULT_MIN_SAMPLES),
+            getIntegerArgument(arguments, MAX_SAMPLES_ARGUMENT, AdaptiveSampling.DEFAULT_MAX_SAMPLES));
+    }
+
+    /**
+     * Gets the value of a decimal argument.
+     *
+     * @param arguments The parsed program arguments.
+     * @param name The name of the argument.
+     * @param defaultValue The value to use if the argument was not given.
+     * @return The value of the argument.
+     */
+    public static double getDoubleArgument(Map<String, String> arguments, String name, double defaultValue)
+    {
+        if (!arguments.containsKey(name))
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Double.parseDouble(arguments.get(name));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Argument --" + name + " Must Be A Number", e);
         }
     }
 
@@ -0,0 +1,290 @@
+package com.mshernandez.mm_analysis;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A row-major matrix of integers stored in a file and
+ * accessed through memory mapping, so matrices much larger
+ * than the heap can be read and written. The operating system
+ * pages parts of the file in and out of memory as needed.
+ *
+ * Elements are stored as little-endian ints starting at a
+ * given position in the file, leaving room for a header.
+ * A single mapping cannot exceed 2 GB, so the file is mapped
+ * in chunks of whole rows.
+ *
+ * Java cannot unmap a file explicitly. Closing the matrix
+ * writes any changes to the file, and the mappings are
+ * released once the matrix is garbage collected.
+ */
+public class MappedMatrix implements AutoCloseable
+{
+    static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private FileChannel channel;
+    private MappedByteBuffer[] chunks;
+    private IntBuffer[] chunkInts;
+    private int rows;
+    private int columns;
+    private int rowsPerChunk;
+
+    /**
+     * Maps a matrix stored in a file.
+     *
+     * @param channel The channel of the file, which is closed with the matrix.
+     * @param position The position of element (0, 0) in the file, in bytes.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param writable Whether elements may be changed.
+     * @param maxChunkBytes The largest size of a single mapping.
+     * @throws IOException If the file could not be mapped.
+     */
+    private MappedMatrix(FileChannel channel, long position, int rows, int columns,
+                         boolean writable, long maxChunkBytes) throws IOException
+    {
+        if (rows < 1 || columns < 1 || (long) columns * Integer.BYTES > maxChunkBytes)
+        {
+            throw new IllegalArgumentException("Invalid Matrix Dimensions: " + rows + "x" + columns);
+        }
+        this.channel = channel;
+        this.rows = rows;
+        this.columns = columns;
+        long rowBytes = (long) columns * Integer.BYTES;
+        rowsPerChunk = (int) Math.min(rows, maxChunkBytes / rowBytes);
+        int numChunks = (rows + rowsPerChunk - 1) / rowsPerChunk;
+        chunks = new MappedByteBuffer[numChunks];
+        chunkInts = new IntBuffer[numChunks];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int chunk = 0; chunk < numChunks; chunk++)
+        {
+            int chunkRows = Math.min(rowsPerChunk, rows - chunk * rowsPerChunk);
+            chunks[chunk] = channel.map(mode, position + chunk * rowsPerChunk * rowBytes, chunkRows * rowBytes);
+            chunks[chunk].order(ByteOrder.LITTLE_ENDIAN);
+            chunkInts[chunk] = chunks[chunk].asIntBuffer();
+        }
+    }
+
+    /**
+     * Creates a zero-filled matrix in a new file,
+     * replacing the file if it already exists.
+     *
+     * @param file The file to store the matrix in.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @return The new matrix.
+     * @throws IOException If the file could not be created.
+     */
+    public static MappedMatrix create(Path file, int rows, int columns) throws IOException
+    {
+        return create(file, 0, rows, columns);
+    }
+
+    /**
+     * Creates a zero-filled matrix in a new file after
+     * a header of the given size, replacing the file if
+     * it already exists.
+     *
+     * @param file The file to store the matrix in.
+     * @param position The size of the header before the elements, in bytes.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @return The new matrix.
+     * @throws IOException If the file could not be created.
+     */
+    public static MappedMatrix create(Path file, long position, int rows, int columns) throws IOException
+    {
+        return create(file, position, rows, columns, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * Creates a zero-filled matrix in a new file, mapping
+     * it in chunks no larger than the given size.
+     */
+    static MappedMatrix create(Path file, long position, int rows, int columns, long maxChunkBytes) throws IOException
+    {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            return new MappedMatrix(channel, position, rows, columns, true, maxChunkBytes);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps a matrix stored in an existing file.
+     *
+     * @param file The file the matrix is stored in.
+     * @param position The position of element (0, 0) in the file, in bytes.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param writable Whether elements may be changed.
+     * @return The mapped matrix.
+     * @throws IOException If the file could not be opened or is too small.
+     */
+    public static MappedMatrix open(Path file, long position, int rows, int columns, boolean writable) throws IOException
+    {
+        FileChannel channel = writable
+                              ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                              : FileChannel.open(file, StandardOpenOption.READ);
+        try
+        {
+            if (channel.size() < position + (long) rows * columns * Integer.BYTES)
+            {
+                throw new IOException("File Too Small For " + rows + "x" + columns + " Matrix: " + file);
+            }
+            return new MappedMatrix(channel, position, rows, columns, writable, MAX_CHUNK_BYTES);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets an element of the matrix.
+     *
+     * @param row The row of the element.
+     * @param col The column of the element.
+     * @return The element.
+     */
+    public int get(int row, int col)
+    {
+        checkIndex(row, col, 1, 1);
+        return chunkInts[row / rowsPerChunk].get((row % rowsPerChunk) * columns + col);
+    }
+
+    /**
+     * Sets an element of the matrix.
+     *
+     * @param row The row of the element.
+     * @param col The column of the element.
+     * @param value The new value of the element.
+     */
+    public void set(int row, int col, int value)
+    {
+        checkIndex(row, col, 1, 1);
+        chunkInts[row / rowsPerChunk].put((row % rowsPerChunk) * columns + col, value);
+    }
+
+    /**
+     * Copies a rectangular region of the matrix into
+     * a region of a flat row-major array.
+     *
+     * @param row The first row of the region.
+     * @param col The first column of the region.
+     * @param numRows The number of rows in the region.
+     * @param numCols The number of columns in the region.
+     * @param dest The array to copy into.
+     * @param destOffset The index of the first element in the array.
+     * @param destStride The distance between rows in the array.
+     */
+    public void readTile(int row, int col, int numRows, int numCols, int[] dest, int destOffset, int destStride)
+    {
+        checkIndex(row, col, numRows, numCols);
+        for (int r = 0; r < numRows; r++)
+        {
+            IntBuffer rowBuffer = rowBuffer(row + r, col);
+            rowBuffer.get(dest, destOffset + r * destStride, numCols);
+        }
+    }
+
+    /**
+     * Copies a region of a flat row-major array into
+     * a rectangular region of the matrix.
+     *
+     * @param row The first row of the region.
+     * @param col The first column of the region.
+     * @param numRows The number of rows in the region.
+     * @param numCols The number of columns in the region.
+     * @param src The array to copy from.
+     * @param srcOffset The index of the first element in the array.
+     * @param srcStride The distance between rows in the array.
+     */
+    public void writeTile(int row, int col, int numRows, int numCols, int[] src, int srcOffset, int srcStride)
+    {
+        checkIndex(row, col, numRows, numCols);
+        for (int r = 0; r < numRows; r++)
+        {
+            IntBuffer rowBuffer = rowBuffer(row + r, col);
+            rowBuffer.put(src, srcOffset + r * srcStride, numCols);
+        }
+    }
+
+    /**
+     * Creates a buffer positioned at an element. Every call gets
+     * its own buffer so tiles may be copied from several threads.
+     */
+    private IntBuffer rowBuffer(int row, int col)
+    {
+        IntBuffer buffer = chunkInts[row / rowsPerChunk].duplicate();
+        buffer.position((row % rowsPerChunk) * columns + col);
+        return buffer;
+    }
+
+    /**
+     * Checks that a region lies within the matrix.
+     */
+    private void checkIndex(int row, int col, int numRows, int numCols)
+    {
+        if (row < 0 || col < 0 || numRows < 0 || numCols < 0
+            || row + numRows > rows || col + numCols > columns)
+        {
+            throw new IndexOutOfBoundsException("Region (" + row + ", " + col + ") " + numRows + "x" + numCols
+                                                + " Outside " + rows + "x" + columns + " Matrix");
+        }
+    }
+
+    /**
+     * Writes any changed elements to the file.
+     */
+    public void force()
+    {
+        for (MappedByteBuffer chunk : chunks)
+        {
+            if (!chunk.isReadOnly())
+            {
+                chunk.force();
+            }
+        }
+    }
+
+    /**
+     * Writes any changed elements to the file and closes it.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Gets the number of rows.
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns.
+     */
+    public int getColumns()
+    {
+        return columns;
+    }
+}
@@ -0,0 +1,170 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A row-major matrix of integers stored in a single
+ * contiguous array.
+ *
+ * A matrix may also be a view of a rectangular region of
+ * another matrix, sharing its storage. Element (row, col)
+ * of any matrix is stored at offset + row * stride + col
+ * within the backing array, so views such as quadrants
+ * can be created without copying any elements.
+ */
+public class Matrix
+{
+    private int[] data;
+    private int offset;
+    private int rows;
+    private int columns;
+    private int stride;
+
+    /**
+     * Creates a new zero-filled matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     */
+    public Matrix(int rows, int columns)
+    {
+        this(new int[rows * columns], 0, rows, columns, columns);
+    }
+
+    /**
+     * Creates a matrix over an existing backing array.
+     *
+     * @param data The backing array.
+     * @param offset The index of element (0, 0) in the backing array.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param stride The distance between the starts of consecutive rows.
+     */
+    public Matrix(int[] data, int offset, int rows, int columns, int stride)
+    {
+        if (rows < 0 || columns < 0 || stride < columns || offset < 0
+            || (rows > 0 && offset + (long) (rows - 1) * stride + columns > data.length))
+        {
+            throw new IllegalArgumentException("Matrix Does Not Fit Backing Array");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.rows = rows;
+        this.columns = columns;
+        this.stride = stride;
+    }
+
+    /**
+     * Copies a jagged array into a new contiguous matrix.
+     *
+     * @param array The array to copy, every row must have the same length.
+     * @return A new matrix with the same contents.
+     */
+    public static Matrix fromArray(int[][] array)
+    {
+        int rows = array.length;
+        int columns = (rows == 0) ? 0 : array[0].length;
+        Matrix matrix = new Matrix(rows, columns);
+        for (int row = 0; row < rows; row++)
+        {
+            System.arraycopy(array[row], 0, matrix.data, row * columns, columns);
+        }
+        return matrix;
+    }
+
+    /**
+     * Copies this matrix into a new jagged array.
+     *
+     * @return A new array with the same contents.
+     */
+    public int[][] toArray()
+    {
+        int[][] array = new int[rows][columns];
+        for (int row = 0; row < rows; row++)
+        {
+            System.arraycopy(data, offset + row * stride, array[row], 0, columns);
+        }
+        return array;
+    }
+
+    /**
+     * Creates a view of a rectangular region of this matrix.
+     * Changes to the view are visible in this matrix.
+     *
+     * @param row The first row of the region.
+     * @param col The first column of the region.
+     * @param numRows The number of rows in the region.
+     * @param numColumns The number of columns in the region.
+     * @return A view sharing this matrix's storage.
+     */
+    public Matrix view(int row, int col, int numRows, int numColumns)
+    {
+        if (row < 0 || col < 0 || row + numRows > rows || col + numColumns > columns)
+        {
+            throw new IndexOutOfBoundsException("View Outside Matrix Bounds");
+        }
+        return new Matrix(data, index(row, col), numRows, numColumns, stride);
+    }
+
+    /**
+     * Creates a view of one quadrant of this matrix,
+     * which is assumed to have an even number of rows
+     * and columns.
+     *
+     * @param quadrantRow 0 for the top quadrants, 1 for the bottom.
+     * @param quadrantCol 0 for the left quadrants, 1 for the right.
+     * @return A view sharing this matrix's storage.
+     */
+    public Matrix quadrant(int quadrantRow, int quadrantCol)
+    {
+        int quadrantRows = rows / 2;
+        int quadrantColumns = columns / 2;
+        return view(quadrantRow * quadrantRows, quadrantCol * quadrantColumns,
+                    quadrantRows, quadrantColumns);
+    }
+
+    /**
+     * Gets the position of an element in the backing array.
+     *
+     * @param row The row of the element.
+     * @param col The column of the element.
+     * @return The index of the element in the backing array.
+     */
+    public int index(int row, int col)
+    {
+        return offset + row * stride + col;
+    }
+
+    public int get(int row, int col)
+    {
+        return data[offset + row * stride + col];
+    }
+
+    public void set(int row, int col, int value)
+    {
+        data[offset + row * stride + col] = value;
+    }
+
+    public int[] getData()
+    {
+        return data;
+    }
+
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    public int getRows()
+    {
+        return rows;
+    }
+
+    public int getColumns()
+    {
+        return columns;
+    }
+
+    public int getStride()
+    {
+        return stride;
+    }
+}
@@ -0,0 +1,356 @@
+package com.mshernandez.mm_analysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes matrices in a compact binary format so
+ * inputs can be saved and multiplied again by every algorithm.
+ *
+ * A file starts with a HEADER_SIZE byte header followed by the
+ * elements in row-major order. Every value is little-endian.
+ *
+ * Offset  Size  Field
+ * 0       4     Magic number, the ASCII characters "MMAT"
+ * 4       2     Format version, currently 1
+ * 6       1     Element type, see ElementType
+ * 7       1     Flags, bit 0 set if the checksum is present
+ * 8       4     Number of rows
+ * 12      4     Number of columns
+ * 16      8     CRC-32C of the elements, or 0
+ * 24      8     Reserved, 0
+ *
+ * The elements are mapped into memory rather than read through
+ * a stream, so loading a matrix is one bulk copy per row from
+ * the page cache into the contiguous storage of a Matrix, and
+ * large int matrices can be used in place as a MappedMatrix.
+ */
+public class MatrixFile
+{
+    public static final int HEADER_SIZE = 32;
+    public static final int MAGIC = 0x54414D4D;
+    public static final short VERSION = 1;
+    public static final String EXTENSION = ".mmat";
+
+    private static final int FLAG_CHECKSUM = 1;
+
+    /**
+     * The types of elements a matrix file may hold.
+     */
+    public enum ElementType
+    {
+        INT(Integer.BYTES),
+        LONG(Long.BYTES),
+        FLOAT(Float.BYTES),
+        DOUBLE(Double.BYTES);
+
+        private final int bytes;
+
+        ElementType(int bytes)
+        {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Gets the size of one element, in bytes.
+         */
+        public int getBytes()
+        {
+            return bytes;
+        }
+    }
+
+    /**
+     * The description of a matrix stored in a file.
+     */
+    public static class Header
+    {
+        private ElementType elementType;
+        private int rows;
+        private int columns;
+        private boolean checksumPresent;
+        private long checksum;
+
+        /**
+         * Creates a header.
+         *
+         * @param elementType The type of the elements.
+         * @param rows The number of rows.
+         * @param columns The number of columns.
+         * @param checksumPresent Whether the checksum was computed.
+         * @param checksum The CRC-32C of the elements, ignored if not present.
+         */
+        public Header(ElementType elementType, int rows, int columns, boolean checksumPresent, long checksum)
+        {
+            this.elementType = elementType;
+            this.rows = rows;
+            this.columns = columns;
+            this.checksumPresent = checksumPresent;
+            this.checksum = checksumPresent ? checksum : 0;
+        }
+
+        /**
+         * Gets the type of the elements.
+         */
+        public ElementType getElementType()
+        {
+            return elementType;
+        }
+
+        /**
+         * Gets the number of rows.
+         */
+        public int getRows()
+        {
+            return rows;
+        }
+
+        /**
+         * Gets the number of columns.
+         */
+        public int getColumns()
+        {
+            return columns;
+        }
+
+        /**
+         * Checks whether the elements have a checksum.
+         */
+        public boolean isChecksumPresent()
+        {
+            return checksumPresent;
+        }
+
+        /**
+         * Gets the CRC-32C of the elements, or 0 if not present.
+         */
+        public long getChecksum()
+        {
+            return checksum;
+        }
+
+        /**
+         * Gets the size of the elements, in bytes.
+         */
+        public long getPayloadSize()
+        {
+            return (long) rows * columns * elementType.getBytes();
+        }
+    }
+
+    /**
+     * Saves an int matrix to a file, replacing
+     * the file if it already exists.
+     *
+     * @param file The file to write.
+     * @param matrix The matrix to save.
+     * @param checksum Whether to store a checksum of the elements.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(Path file, Matrix matrix, boolean checksum) throws IOException
+    {
+        try (MappedMatrix mapped = MappedMatrix.create(file, HEADER_SIZE, matrix.getRows(), matrix.getColumns()))
+        {
+            mapped.writeTile(0, 0, matrix.getRows(), matrix.getColumns(),
+                             matrix.getData(), matrix.getOffset(), matrix.getStride());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            Header header = new Header(ElementType.INT, matrix.getRows(), matrix.getColumns(), checksum, 0);
+            if (checksum)
+            {
+                header = new Header(ElementType.INT, matrix.getRows(), matrix.getColumns(), true,
+                                    computeChecksum(channel, header.getPayloadSize()));
+            }
+            writeHeader(channel, header);
+        }
+    }
+
+    /**
+     * Saves an int matrix to a file with a checksum,
+     * replacing the file if it already exists.
+     *
+     * @param file The file to write.
+     * @param matrix The matrix to save.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(Path file, Matrix matrix) throws IOException
+    {
+        write(file, matrix, true);
+    }
+
+    /**
+     * Loads an int matrix from a file into a new contiguous
+     * matrix, verifying the checksum if one is present.
+     *
+     * @param file The file to read.
+     * @return The loaded matrix.
+     * @throws IOException If the file could not be read, is not
+     *                     an int matrix or fails its checksum.
+     */
+    public static Matrix read(Path file) throws IOException
+    {
+        Header header = readHeader(file);
+        requireInt(file, header);
+        verifyChecksum(file, header);
+        Matrix matrix = new Matrix(header.getRows(), header.getColumns());
+        try (MappedMatrix mapped = map(file, header, false))
+        {
+            mapped.readTile(0, 0, header.getRows(), header.getColumns(),
+                            matrix.getData(), matrix.getOffset(), matrix.getStride());
+        }
+        return matrix;
+    }
+
+    /**
+     * Maps an int matrix file in place, so matrices larger
+     * than the heap can be used by the out-of-core multiplier.
+     * The checksum is not verified, since that would read
+     * every element.
+     *
+     * @param file The file to map.
+     * @param writable Whether elements may be changed.
+     * @return The mapped matrix.
+     * @throws IOException If the file could not be mapped or is not an int matrix.
+     */
+    public static MappedMatrix map(Path file, boolean writable) throws IOException
+    {
+        Header header = readHeader(file);
+        requireInt(file, header);
+        return map(file, header, writable);
+    }
+
+    /**
+     * Reads and validates the header of a matrix file.
+     *
+     * @param file The file to read.
+     * @return The header.
+     * @throws IOException If the file could not be read or is not a valid matrix file.
+     */
+    public static Header readHeader(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer, buffer.position()) < 0)
+                {
+                    throw new IOException("Truncated Matrix File Header: " + file);
+                }
+            }
+            buffer.flip();
+            if (buffer.getInt(0) != MAGIC)
+            {
+                throw new IOException("Not A Matrix File: " + file);
+            }
+            if (buffer.getShort(4) != VERSION)
+            {
+                throw new IOException("Unsupported Matrix File Version " + buffer.getShort(4) + ": " + file);
+            }
+            int type = buffer.get(6);
+            if (type < 0 || type >= ElementType.values().length)
+            {
+                throw new IOException("Unknown Element Type " + type + ": " + file);
+            }
+            int rows = buffer.getInt(8);
+            int columns = buffer.getInt(12);
+            if (rows < 1 || columns < 1)
+            {
+                throw new IOException("Invalid Matrix Dimensions " + rows + "x" + columns + ": " + file);
+            }
+            Header header = new Header(ElementType.values()[type], rows, columns,
+                                       (buffer.get(7) & FLAG_CHECKSUM) != 0, buffer.getLong(16));
+            if (channel.size() != HEADER_SIZE + header.getPayloadSize())
+            {
+                throw new IOException("Matrix File Size Does Not Match " + rows + "x" + columns + ": " + file);
+            }
+            return header;
+        }
+    }
+
+    /**
+     * Checks a file's elements against the checksum in its
+     * header, if it has one.
+     *
+     * @param file The file to check.
+     * @param header The header of the file.
+     * @throws IOException If the file could not be read or the checksum does not match.
+     */
+    public static void verifyChecksum(Path file, Header header) throws IOException
+    {
+        if (!header.isChecksumPresent())
+        {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            if (computeChecksum(channel, header.getPayloadSize()) != header.getChecksum())
+            {
+                throw new IOException("Matrix File Checksum Mismatch: " + file);
+            }
+        }
+    }
+
+    /**
+     * Computes the CRC-32C of the elements of a matrix
+     * file, mapping them in chunks of at most 1 GB.
+     */
+    private static long computeChecksum(FileChannel channel, long payloadSize) throws IOException
+    {
+        CRC32C crc = new CRC32C();
+        for (long position = 0; position < payloadSize; position += MappedMatrix.MAX_CHUNK_BYTES)
+        {
+            long length = Math.min(MappedMatrix.MAX_CHUNK_BYTES, payloadSize - position);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + position, length);
+            crc.update(chunk);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Writes a header at the start of a file.
+     */
+    private static void writeHeader(FileChannel channel, Header header) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.put((byte) header.getElementType().ordinal());
+        buffer.put((byte) (header.isChecksumPresent() ? FLAG_CHECKSUM : 0));
+        buffer.putInt(header.getRows());
+        buffer.putInt(header.getColumns());
+        buffer.putLong(header.getChecksum());
+        buffer.putLong(0);
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer, buffer.position());
+        }
+    }
+
+    /**
+     * Maps the elements of an int matrix file.
+     */
+    private static MappedMatrix map(Path file, Header header, boolean writable) throws IOException
+    {
+        return MappedMatrix.open(file, HEADER_SIZE, header.getRows(), header.getColumns(), writable);
+    }
+
+    /**
+     * Checks that a file holds an int matrix.
+     */
+    private static void requireInt(Path file, Header header) throws IOException
+    {
+        if (header.getElementType() != ElementType.INT)
+        {
+            throw new IOException("Expected An INT Matrix, Found " + header.getElementType() + ": " + file);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Fills matrices with reproducible pseudo-random values.
+ *
+ * A generator is created from a single seed. Every matrix it
+ * fills takes the next seed from that sequence, and every row of
+ * a matrix is generated by its own SplitMix64 sequence, the one
+ * SplittableRandom uses, started from the matrix seed and the row
+ * index. Rows therefore do not depend on each other and large
+ * matrices are filled in parallel, while the same seed always
+ * produces the same matrices in the same order regardless of how
+ * many threads filled them.
+ *
+ * The state of a row's sequence is a single long stepped inline,
+ * so filling a matrix small enough to be filled on the calling
+ * thread allocates nothing. A generator is not thread safe; each
+ * thread should use its own.
+ */
+public class MatrixGenerator
+{
+    public static final int DEFAULT_MIN = 1;
+    public static final int DEFAULT_MAX = 1000;
+    public static final double DEFAULT_DENSITY = 0.1;
+    public static final int DEFAULT_BANDWIDTH = 1;
+    public static final int SMALL_INTEGER_BOUND = 10;
+
+    /**
+     * Matrices with fewer elements are filled on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The odd constant SplittableRandom itself steps by.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The shapes of matrices a generator can produce.
+     */
+    public enum Distribution
+    {
+        /**
+         * Every element uniform in [min, max].
+         */
+        UNIFORM,
+        /**
+         * Each element uniform in [min, max] with probability
+         * density, otherwise zero.
+         */
+        SPARSE,
+        /**
+         * Elements uniform in [min, max] within bandwidth of the
+         * diagonal, zero elsewhere.
+         */
+        BANDED,
+        /**
+         * Ones on the diagonal, zero elsewhere.
+         */
+        IDENTITY,
+        /**
+         * Every element uniform in [-SMALL_INTEGER_BOUND, SMALL_INTEGER_BOUND],
+         * so products are exact in float and never overflow an int.
+         */
+        SMALL_INTEGER
+    }
+
+    private long seed;
+    private SplittableRandom matrixSeeds;
+    private Distribution distribution;
+    private int min;
+    private int max;
+    private double density;
+    private int bandwidth;
+
+    /**
+     * Initializes a generator of uniform values
+     * in [DEFAULT_MIN, DEFAULT_MAX].
+     *
+     * @param seed The seed all generated matrices are derived from.
+     */
+    public MatrixGenerator(long seed)
+    {
+        this(seed, Distribution.UNIFORM, DEFAULT_MIN, DEFAULT_MAX, 1.0, 0);
+    }
+
+    /**
+     * Initializes a generator.
+     *
+     * @param seed The seed all generated matrices are derived from.
+     * @param distribution The shape of the generated matrices.
+     * @param min The smallest nonzero value, for the uniform, sparse and banded distributions.
+     * @param max The largest nonzero value, for the uniform, sparse and banded distributions.
+     * @param density The fraction of nonzero elements, for the sparse distribution.
+     * @param bandwidth The distance from the diagonal of nonzero elements, for the banded distribution.
+     */
+    public MatrixGenerator(long seed, Distribution distribution, int min, int max, double density, int bandwidth)
+    {
+        if (min > max || max == Integer.MAX_VALUE || density < 0.0 || density > 1.0 || bandwidth < 0)
+        {
+            throw new IllegalArgumentException("Invalid Distribution Parameters: [" + min + ", " + max + "], Density "
+                                               + density + ", Bandwidth " + bandwidth);
+        }
+        this.seed = seed;
+        this.matrixSeeds = new SplittableRandom(seed);
+        this.distribution = distribution;
+        this.min = min;
+        this.max = max;
+        this.density = density;
+        this.bandwidth = bandwidth;
+    }
+
+    /**
+     * Creates a seed for a new run, which should be logged
+     * so the run can be repeated.
+     *
+     * @return A seed which differs between runs.
+     */
+    public static long newSeed()
+    {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Fills a matrix with the next values of this generator.
+     *
+     * @param matrix The matrix to fill.
+     */
+    public void fill(int[][] matrix)
+    {
+        long matrixSeed = matrixSeeds.nextLong();
+        if (isParallel(matrix.length, matrix.length == 0 ? 0 : matrix[0].length))
+        {
+            IntStream.range(0, matrix.length).parallel()
+                .forEach(row -> fillRow(matrixSeed, row, matrix[row], 0, matrix[row].length));
+            return;
+        }
+        for (int row = 0; row < matrix.length; row++)
+        {
+            fillRow(matrixSeed, row, matrix[row], 0, matrix[row].length);
+        }
+    }
+
+    /**
+     * Fills a contiguous matrix with the next values
+     * of this generator.
+     *
+     * @param matrix The matrix to fill.
+     */
+    public void fill(Matrix matrix)
+    {
+        long matrixSeed = matrixSeeds.nextLong();
+        if (isParallel(matrix.getRows(), matrix.getColumns()))
+        {
+            IntStream.range(0, matrix.getRows()).parallel()
+                .forEach(row -> fillRow(matrixSeed, row, matrix.getData(), matrix.index(row, 0), matrix.getColumns()));
+            return;
+        }
+        for (int row = 0; row < matrix.getRows(); row++)
+        {
+            fillRow(matrixSeed, row, matrix.getData(), matrix.index(row, 0), matrix.getColumns());
+        }
+    }
+
+    /**
+     * Fills a memory-mapped matrix with the next values
+     * of this generator, one row at a time.
+     *
+     * @param matrix The matrix to fill.
+     */
+    public void fill(MappedMatrix matrix)
+    {
+        long matrixSeed = matrixSeeds.nextLong();
+        int[] buffer = new int[matrix.getColumns()];
+        for (int row = 0; row < matrix.getRows(); row++)
+        {
+            fillRow(matrixSeed, row, buffer, 0, buffer.length);
+            matrix.writeTile(row, 0, 1, buffer.length, buffer, 0, buffer.length);
+        }
+    }
+
+    /**
+     * Advances this generator past matrices without filling them,
+     * so the next matrix filled is the same as if they had been.
+     *
+     * @param matrices The number of matrices to skip.
+     */
+    public void skip(long matrices)
+    {
+        for (long i = 0; i < matrices; i++)
+        {
+            matrixSeeds.nextLong();
+        }
+    }
+
+    /**
+     * Checks whether a matrix is large enough to fill in parallel.
+     */
+    private static boolean isParallel(int rows, int columns)
+    {
+        return (long) rows * columns >= PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Generates one row of a matrix into an array.
+     *
+     * @param matrixSeed The seed of the matrix.
+     * @param row The index of the row.
+     * @param dest The array to write the row into.
+     * @param offset The index of the first element of the row.
+     * @param columns The number of elements in the row.
+     */
+    private void fillRow(long matrixSeed, int row, int[] dest, int offset, int columns)
+    {
+        long state = rowSeed(matrixSeed, row);
+        long range = (long) max - min + 1;
+        switch (distribution)
+        {
+            case UNIFORM:
+                for (int col = 0; col < columns; col++)
+                {
+                    state += GOLDEN_GAMMA;
+                    dest[offset + col] = nextInt(state, min, range);
+                }
+                break;
+            case SPARSE:
+                for (int col = 0; col < columns; col++)
+                {
+                    state += GOLDEN_GAMMA;
+                    if (nextDouble(state) < density)
+                    {
+                        state += GOLDEN_GAMMA;
+                        dest[offset + col] = nextInt(state, min, range);
+                    }
+                    else
+                    {
+                        dest[offset + col] = 0;
+                    }
+                }
+                break;
+            case BANDED:
+                for (int col = 0; col < columns; col++)
+                {
+                    if (Math.abs(row - col) <= bandwidth)
+                    {
+                        state += GOLDEN_GAMMA;
+                        dest[offset + col] = nextInt(state, min, range);
+                    }
+                    else
+                    {
+                        dest[offset + col] = 0;
+                    }
+                }
+                break;
+            case IDENTITY:
+                for (int col = 0; col < columns; col++)
+                {
+                    dest[offset + col] = (row == col) ? 1 : 0;
+                }
+                break;
+            case SMALL_INTEGER:
+                for (int col = 0; col < columns; col++)
+                {
+                    state += GOLDEN_GAMMA;
+                    dest[offset + col] = nextInt(state, -SMALL_INTEGER_BOUND, 2 * SMALL_INTEGER_BOUND + 1);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown Distribution: " + distribution);
+        }
+    }
+
+    /**
+     * Derives the starting state of a row's sequence
+     * from the seed of its matrix.
+     *
+     * Consecutive states of a sequence differ by GOLDEN_GAMMA,
+     * so row indices are spread with the SplitMix64 finalizer
+     * to keep the sequences of neighbouring rows unrelated.
+     */
+    private static long rowSeed(long matrixSeed, int row)
+    {
+        return mix64(matrixSeed + (row + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Maps a state of a sequence to a value uniform in
+     * [origin, origin + range), taking the high 32 bits of
+     * its mixed value and scaling them by the range.
+     *
+     * @param state The state, already stepped for this value.
+     * @param origin The smallest value.
+     * @param range The number of possible values, at most 2^32.
+     * @return The value.
+     */
+    private static int nextInt(long state, int origin, long range)
+    {
+        return (int) (origin + (((mix64(state) >>> 32) * range) >>> 32));
+    }
+
+    /**
+     * Maps a state of a sequence to a value uniform
+     * in [0, 1), like SplittableRandom.nextDouble.
+     *
+     * @param state The state, already stepped for this value.
+     * @return The value.
+     */
+    private static double nextDouble(long state)
+    {
+        return (mix64(state) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * The SplitMix64 finalizer SplittableRandom
+     * turns each state into a value with.
+     */
+    private static long mix64(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets the seed all generated matrices are derived from.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Gets the shape of the generated matrices.
+     */
+    public Distribution getDistribution()
+    {
+        return distribution;
+    }
+
+    /**
+     * Describes the distribution and its parameters.
+     */
+    @Override
+    public String toString()
+    {
+        switch (distribution)
+        {
+            case UNIFORM:
+                return "Uniform [" + min + ", " + max + "]";
+            case SPARSE:
+                return "Sparse [" + min + ", " + max + "], Density " + density;
+            case BANDED:
+                return "Banded [" + min + ", " + max + "], Bandwidth " + bandwidth;
+            case SMALL_INTEGER:
+                return "Small Integer [" + -SMALL_INTEGER_BOUND + ", " + SMALL_INTEGER_BOUND + "]";
+            default:
+                return "Identity";
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.mshernandez.mm_analysis;
 
+import java.util.Arrays;
+
 /**
  * An abstract class to represent a matrix multiplier,
  * leaving the specific algorithm and implementation to
  * child classes.
  */
-public abstract class MatrixMultiplier
+public abstract class MatrixMultiplier implements Multiplier
 {
     private String algorithmName;
 
@@ -28,9 +30,181 @@ public abstract class MatrixMultiplier
      */
     public abstract int[][] multiplySquareMatrices(int[][] a, int[][] b);
 
+    /**
+     * Multiplies two contiguous matrices A and B with the
+     * assumption that A and B are both n*n matrices.
+     *
+     * Unless overridden by an algorithm that works on
+     * contiguous storage directly, the inputs are copied
+     * into jagged arrays and the result is copied back.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    public Matrix multiplySquareMatrices(Matrix a, Matrix b)
+    {
+        return Matrix.fromArray(multiplySquareMatrices(a.toArray(), b.toArray()));
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B.
+     *
+     * Unless overridden by an algorithm that supports other
+     * shapes, only square inputs of the same size are accepted
+     * and are passed to multiplySquareMatrices.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        checkSquare(a, b);
+        return multiplySquareMatrices(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B and
+     * combines the product with an existing m*n matrix C,
+     * like the GEMM routine of BLAS.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * No result matrix is allocated, so C can be reused
+     * across calls, and accumulating into C (beta = 1) needs
+     * no separate addition pass. With beta = 0 the previous
+     * contents of C are ignored. Algorithms which only support
+     * square inputs throw UnsupportedOperationException for
+     * other shapes.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    public abstract void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta);
+
+    /**
+     * Checks that two matrices can be multiplied and that
+     * a third matrix has the shape of their product.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @param c The matrix to store the product in.
+     */
+    protected static void checkDimensions(int[][] a, int[][] b, int[][] c)
+    {
+        checkDimensions(a, b);
+        if (c.length != a.length || c[0].length != b[0].length)
+        {
+            throw new IllegalArgumentException("Cannot Store " + a.length + "x" + b[0].length + " Product In "
+                + c.length + "x" + (c.length == 0 ? 0 : c[0].length) + " Matrix");
+        }
+    }
+
+    /**
+     * Checks that an algorithm supporting only square inputs
+     * of the same size was given such inputs.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     */
+    protected void checkSquare(int[][] a, int[][] b)
+    {
+        if (a.length != b.length || b.length != b[0].length)
+        {
+            throw new UnsupportedOperationException(algorithmName + " Only Supports Square Matrices");
+        }
+    }
+
+    /**
+     * Scales a rectangular region of a matrix in place,
+     * clearing it without reading it if the factor is 0
+     * and leaving it untouched if the factor is 1.
+     *
+     * @param c       The matrix to scale.
+     * @param cRowPtr The first row of the region.
+     * @param cColPtr The first column of the region.
+     * @param rows    The number of rows in the region.
+     * @param cols    The number of columns in the region.
+     * @param beta    The factor to scale by.
+     */
+    protected static void scale(int[][] c, int cRowPtr, int cColPtr, int rows, int cols, int beta)
+    {
+        if (beta == 1)
+        {
+            return;
+        }
+        for (int row = cRowPtr; row < cRowPtr + rows; row++)
+        {
+            int[] cRow = c[row];
+            if (beta == 0)
+            {
+                Arrays.fill(cRow, cColPtr, cColPtr + cols, 0);
+            }
+            else
+            {
+                for (int col = cColPtr; col < cColPtr + cols; col++)
+                {
+                    cRow[col] *= beta;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that two matrices can be multiplied,
+     * that is the number of columns of A matches
+     * the number of rows of B.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     */
+    protected static void checkDimensions(int[][] a, int[][] b)
+    {
+        if (a.length == 0 || b.length == 0 || a[0].length != b.length)
+        {
+            throw new IllegalArgumentException("Cannot Multiply " + a.length + "x"
+                + (a.length == 0 ? 0 : a[0].length) + " By " + b.length + "x"
+                + (b.length == 0 ? 0 : b[0].length));
+        }
+    }
+
+    /**
+     * Prepares the multiplication of two n*n matrices,
+     * which needs no conversion for int matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(int[][] a, int[][] b)
+    {
+        return () -> multiplySquareMatrices(a, b);
+    }
+
+    /**
+     * Prepares the multiplication of two contiguous n*n
+     * matrices, which needs no conversion for int matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(Matrix a, Matrix b)
+    {
+        return () -> multiplySquareMatrices(a, b);
+    }
+
     /**
      * Returns the name of the algorithm.
      */
+    @Override
     public String getAlgorithmName()
     {
         return algorithmName;
@@ -1,7 +1,9 @@
 package com.mshernandez.mm_analysis;
 
 import java.util.Map;
+import java.util.Properties;
 import java.util.TreeMap;
+import java.util.function.LongSupplier;
 
 /**
  * Given a matrix multiplier, this class measures
@@ -10,30 +12,147 @@ import java.util.TreeMap;
  * input size. Testing multiple inputs of the same size
  * will automatically update the overall average times
  * of that input size.
+ * 
+ * The first time a size is benchmarked the multiplier is
+ * warmed up until its runtimes stabilize, so the averages
+ * are not inflated by code that has not been compiled yet.
+ * Samples which overlapped JIT compilation or garbage
+ * collection are counted and, unless configured otherwise,
+ * measured again.
+ * 
+ * Besides the averages, every sample kept is recorded in
+ * a histogram per size so percentiles can be reported.
+ * 
+ * The CPU time of the benchmarking thread is averaged along
+ * with the runtimes. When several benchmarks run at once it is
+ * a better measure than wall clock time, since it does not
+ * include time spent waiting for a core. It does not include
+ * work done by other threads, so it is only meaningful for
+ * sequential multipliers.
+ * 
+ * The bytes allocated on the heap by the benchmarking thread
+ * are averaged per multiplication in the same way, and the
+ * peak usage of the heap pools while each input is measured
+ * is kept per size. The heap is shared by every thread, so
+ * the peak is only meaningful when inputs are benchmarked
+ * one at a time.
+ * 
+ * Throughput is derived from the average runtimes and the
+ * operation count the multiplier declares, which lets algorithms
+ * doing different amounts of arithmetic be compared with each
+ * other and with the peak of the machine.
+ * 
+ * With adaptive sampling, inputs of a size are no longer
+ * measured once the confidence interval of its runtimes is
+ * narrow enough or the most samples allowed were taken.
+ * 
+ * Inputs of any size can be benchmarked from several threads
+ * at once.
+ * 
+ * Everything measured can be saved to and restored from
+ * properties, so a long run can be checkpointed and resumed.
  */
 public class MatrixMultiplierBenchmarker
 {
-    private static final int RANDOM_NUMBER_RANGE = 1000;
+    public static final double DEFAULT_WARMUP_THRESHOLD = 0.05;
+    public static final int DEFAULT_WARMUP_WINDOW = 10;
+    public static final int DEFAULT_MAX_WARMUP_RUNS = 200;
 
-    private MatrixMultiplier algorithm;
+    private Multiplier algorithm;
     private Map<Integer, RunningAverage> sizeRuntimeAverages;
+    private Map<Integer, LatencyHistogram> sizeHistograms;
+
+    private double warmupThreshold;
+    private int warmupWindow;
+    private int maxWarmupRuns;
+    private boolean discardContaminatedSamples;
+    private AdaptiveSampling sampling;
+
+    private Map<Integer, RunningAverage> sizeCpuTimeAverages;
+    private Map<Integer, RunningAverage> sizeAllocationAverages;
+    private Map<Integer, RunningAverage> sizeOperationAverages;
+    private Map<Integer, Long> sizePeakHeapUsage;
+    private Map<Integer, Integer> sizeWarmupRuns;
+    private Map<Integer, Long> sizeCompilationSamples;
+    private Map<Integer, Long> sizeCollectionSamples;
+
+    /**
+     * Initializes a new benchmark object using
+     * the default warmup settings.
+     * 
+     * @param algorithm The matrix multiplier to use.
+     */
+    public MatrixMultiplierBenchmarker(Multiplier algorithm)
+    {
+        this(algorithm, DEFAULT_WARMUP_THRESHOLD, DEFAULT_WARMUP_WINDOW, DEFAULT_MAX_WARMUP_RUNS, true);
+    }
 
     /**
      * Initializes a new benchmark object.
      * 
+     * Warmup runs stop once the coefficient of variation
+     * (standard deviation over mean) of the last few runtimes
+     * is within the threshold, or once the maximum number of
+     * runs is reached. A maximum of 0 disables the warmup.
+     * 
      * @param algorithm The matrix multiplier to use.
+     * @param warmupThreshold The coefficient of variation considered stable.
+     * @param warmupWindow The number of recent runtimes to check for stability.
+     * @param maxWarmupRuns The most warmup runs to do for a size.
+     * @param discardContaminatedSamples Whether to measure again samples which
+     *                                   overlapped JIT compilation or garbage collection.
      */
-    public MatrixMultiplierBenchmarker(MatrixMultiplier algorithm)
+    public MatrixMultiplierBenchmarker(Multiplier algorithm, double warmupThreshold,
+                                       int warmupWindow, int maxWarmupRuns,
+                                       boolean discardContaminatedSamples)
     {
+        this(algorithm, warmupThreshold, warmupWindow, maxWarmupRuns, discardContaminatedSamples, null);
+    }
+
+    /**
+     * Initializes a new benchmark object which stops
+     * measuring a size once it has enough samples.
+     * 
+     * @param algorithm The matrix multiplier to use.
+     * @param warmupThreshold The coefficient of variation considered stable.
+     * @param warmupWindow The number of recent runtimes to check for stability.
+     * @param maxWarmupRuns The most warmup runs to do for a size.
+     * @param discardContaminatedSamples Whether to measure again samples which
+     *                                   overlapped JIT compilation or garbage collection.
+     * @param sampling Decides when a size has enough samples,
+     *                 or null to measure every input given.
+     */
+    public MatrixMultiplierBenchmarker(Multiplier algorithm, double warmupThreshold,
+                                       int warmupWindow, int maxWarmupRuns,
+                                       boolean discardContaminatedSamples, AdaptiveSampling sampling)
+    {
+        if (warmupThreshold < 0.0 || warmupWindow < 2 || maxWarmupRuns < 0)
+        {
+            throw new IllegalArgumentException("Invalid Warmup Settings");
+        }
         this.algorithm = algorithm;
+        this.warmupThreshold = warmupThreshold;
+        this.warmupWindow = warmupWindow;
+        this.maxWarmupRuns = maxWarmupRuns;
+        this.discardContaminatedSamples = discardContaminatedSamples;
+        this.sampling = sampling;
         sizeRuntimeAverages = new TreeMap<>();
+        sizeHistograms = new TreeMap<>();
+        sizeCpuTimeAverages = new TreeMap<>();
+        sizeAllocationAverages = new TreeMap<>();
+        sizeOperationAverages = new TreeMap<>();
+        sizePeakHeapUsage = new TreeMap<>();
+        sizeWarmupRuns = new TreeMap<>();
+        sizeCompilationSamples = new TreeMap<>();
+        sizeCollectionSamples = new TreeMap<>();
     }
 
     /**
      * Gets the average time to multiply the
      * provided matrices over a given number of samples.
+     * Multipliers of other element types convert the
+     * inputs once, before any measurement.
      * 
-     * @param multiplier The matrix multiplier to use.
      * @param a The first matrix input.
      * @param b The second matrix input.
      * @param numSamples The number of measurements to take.
@@ -41,23 +160,258 @@ public class MatrixMultiplierBenchmarker
      */
     public void benchmarkInput(int[][] a, int[][] b, int numSamples)
     {
+        Runnable multiplication = algorithm.prepare(a, b);
+        benchmarkInput(a.length, algorithm.getOperationCount(a, b), () -> measureRuntime(multiplication), numSamples);
+    }
+
+    /**
+     * Gets the average time to multiply the provided
+     * contiguous matrices over a given number of samples.
+     *
+     * @param a The first matrix input.
+     * @param b The second matrix input.
+     * @param numSamples The number of measurements to take.
+     */
+    public void benchmarkInput(Matrix a, Matrix b, int numSamples)
+    {
+        Runnable multiplication = algorithm.prepare(a, b);
+        benchmarkInput(a.getRows(), algorithm.getOperationCount(a, b), () -> measureRuntime(multiplication),
+                       numSamples);
+    }
+
+    /**
+     * Warms up the multiplier if this is the first input
+     * of its size, then takes the given number of samples.
+     * With adaptive sampling nothing is measured once the
+     * size is complete, and no more samples are taken than
+     * the most allowed.
+     * 
+     * A sample which overlapped JIT compilation or garbage
+     * collection is counted, and if discarding is enabled it
+     * is measured again, at most numSamples extra times per
+     * input so a busy collector cannot stall the benchmark.
+     *
+     * @param inputSize The size of the input measured.
+     * @param operations The number of arithmetic operations of one multiplication of the input.
+     * @param sampler Measures one multiplication, in nanoseconds.
+     * @param numSamples The number of measurements to take.
+     */
+    private void benchmarkInput(int inputSize, long operations, LongSupplier sampler, int numSamples)
+    {
+        numSamples = getSamplesToTake(inputSize, numSamples);
+        if (numSamples == 0)
+        {
+            return;
+        }
+        warmupIfNeeded(inputSize, sampler);
+        JvmEventMonitor monitor = new JvmEventMonitor();
         long[] sampleTimes = new long[numSamples];
+        long[] cpuTimes = new long[numSamples];
+        long[] allocatedBytes = new long[numSamples];
+        long compilationSamples = 0;
+        long collectionSamples = 0;
+        int retriesLeft = numSamples;
+        monitor.resetPeakHeapUsage();
         for (int sample = 0; sample < numSamples; sample++)
         {
-            sampleTimes[sample] = measureRuntime(a, b);
+            monitor.start();
+            long time = sampler.getAsLong();
+            long allocated = monitor.getAllocatedBytesSinceStart();
+            long cpuTime = monitor.getCpuTimeSinceStart();
+            boolean compiled = monitor.compiledSinceStart();
+            boolean collected = monitor.collectedSinceStart();
+            if (compiled)
+            {
+                compilationSamples++;
+            }
+            if (collected)
+            {
+                collectionSamples++;
+            }
+            if ((compiled || collected) && discardContaminatedSamples && retriesLeft > 0)
+            {
+                retriesLeft--;
+                sample--;
+                continue;
+            }
+            sampleTimes[sample] = time;
+            cpuTimes[sample] = cpuTime;
+            allocatedBytes[sample] = allocated;
+        }
+        long peakHeapUsage = monitor.getPeakHeapUsage();
+        recordSamples(inputSize, operations, sampleTimes, cpuTimes, allocatedBytes, peakHeapUsage,
+                      compilationSamples, collectionSamples);
+    }
+
+    /**
+     * Limits the samples of an input so a size never
+     * gets more than adaptive sampling allows.
+     *
+     * @param inputSize The size of the input measured.
+     * @param numSamples The number of measurements requested.
+     * @return The number of measurements to take, 0 if the size is complete.
+     */
+    private synchronized int getSamplesToTake(int inputSize, int numSamples)
+    {
+        if (sampling == null)
+        {
+            return numSamples;
+        }
+        if (isComplete(inputSize))
+        {
+            return 0;
+        }
+        long taken = sizeHistograms.containsKey(inputSize) ? sizeHistograms.get(inputSize).getTotalCount() : 0;
+        return (int) Math.min(numSamples, sampling.getMaxSamples() - taken);
+    }
+
+    /**
+     * Checks whether adaptive sampling has taken
+     * enough samples of a size.
+     *
+     * @param size The input size.
+     * @return True if more inputs of the size would not be measured,
+     *         always false without adaptive sampling.
+     */
+    public synchronized boolean isComplete(int size)
+    {
+        return sampling != null && sizeHistograms.containsKey(size)
+               && sampling.isComplete(sizeHistograms.get(size));
+    }
+
+    /**
+     * Gets the half-width of the 95% confidence interval of
+     * the statistic adaptive sampling targets for a size,
+     * the mean runtime without adaptive sampling, relative
+     * to that statistic.
+     *
+     * @param size The input size.
+     * @return The relative error, or infinity with fewer than 2 samples.
+     */
+    public synchronized double getRelativeError(int size)
+    {
+        LatencyHistogram histogram = getHistogram(size);
+        return (sampling == null) ? histogram.getRelativeErrorOfMean() : sampling.getRelativeError(histogram);
+    }
+
+    /**
+     * Warms up the multiplier for a size unless it has
+     * already been warmed up for that size. Other threads
+     * benchmarking the same size wait for the warmup.
+     *
+     * @param inputSize The size of the input measured.
+     * @param sampler Measures one multiplication, in nanoseconds.
+     */
+    private synchronized void warmupIfNeeded(int inputSize, LongSupplier sampler)
+    {
+        if (!sizeWarmupRuns.containsKey(inputSize))
+        {
+            sizeWarmupRuns.put(inputSize, warmup(sampler));
+        }
+    }
+
+    /**
+     * Runs the multiplier until the coefficient of variation
+     * of the last warmupWindow runtimes is within the threshold.
+     *
+     * @param sampler Measures one multiplication, in nanoseconds.
+     * @return The number of warmup runs done.
+     */
+    private int warmup(LongSupplier sampler)
+    {
+        long[] window = new long[warmupWindow];
+        int runs = 0;
+        while (runs < maxWarmupRuns)
+        {
+            window[runs % warmupWindow] = sampler.getAsLong();
+            runs++;
+            if (runs >= warmupWindow && coefficientOfVariation(window) <= warmupThreshold)
+            {
+                break;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Calculates the coefficient of variation of a set of
+     * values, their standard deviation divided by their mean.
+     *
+     * @param values The values, which must not be empty.
+     * @return The coefficient of variation, or 0 if the mean is 0.
+     */
+    static double coefficientOfVariation(long[] values)
+    {
+        double mean = 0.0;
+        for (long value : values)
+        {
+            mean += value;
+        }
+        mean /= values.length;
+        if (mean == 0.0)
+        {
+            return 0.0;
+        }
+        double variance = 0.0;
+        for (long value : values)
+        {
+            variance += (value - mean) * (value - mean);
+        }
+        variance /= values.length;
+        return Math.sqrt(variance) / mean;
+    }
+
+    /**
+     * Averages the samples taken for one input and
+     * adds the result to the running average for
+     * the input size. Every sample is also added to
+     * the histogram for the input size.
+     *
+     * @param inputSize The size of the input measured.
+     * @param operations The number of arithmetic operations of one multiplication of the input.
+     * @param sampleTimes The measured times, in nanoseconds.
+     * @param cpuTimes The CPU time of each sample, in nanoseconds.
+     * @param allocatedBytes The bytes allocated by each sample.
+     * @param peakHeapUsage The peak usage of the heap while measuring the input, in bytes.
+     * @param compilationSamples The number of samples overlapping compilation.
+     * @param collectionSamples The number of samples overlapping garbage collection.
+     */
+    private synchronized void recordSamples(int inputSize, long operations, long[] sampleTimes, long[] cpuTimes,
+                                            long[] allocatedBytes, long peakHeapUsage,
+                                            long compilationSamples, long collectionSamples)
+    {
+        if (!sizeHistograms.containsKey(inputSize))
+        {
+            sizeHistograms.put(inputSize, new LatencyHistogram());
+            sizeCpuTimeAverages.put(inputSize, new RunningAverage());
+            sizeAllocationAverages.put(inputSize, new RunningAverage());
+            sizeOperationAverages.put(inputSize, new RunningAverage());
         }
+        LatencyHistogram histogram = sizeHistograms.get(inputSize);
         double averageTimeForInput = 0.0;
-        for (long time : sampleTimes)
+        double averageCpuTimeForInput = 0.0;
+        double averageAllocationForInput = 0.0;
+        for (int sample = 0; sample < sampleTimes.length; sample++)
         {
-            averageTimeForInput += time;
+            averageTimeForInput += sampleTimes[sample];
+            averageCpuTimeForInput += cpuTimes[sample];
+            averageAllocationForInput += allocatedBytes[sample];
+            histogram.record(sampleTimes[sample]);
         }
-        averageTimeForInput /= (double) numSamples;
-        int inputSize = a.length;
+        averageTimeForInput /= (double) sampleTimes.length;
+        averageCpuTimeForInput /= (double) sampleTimes.length;
+        averageAllocationForInput /= (double) sampleTimes.length;
         if (!sizeRuntimeAverages.containsKey(inputSize))
         {
             sizeRuntimeAverages.put(inputSize, new RunningAverage());
         }
         sizeRuntimeAverages.get(inputSize).addData(averageTimeForInput);
+        sizeCpuTimeAverages.get(inputSize).addData(averageCpuTimeForInput);
+        sizeAllocationAverages.get(inputSize).addData(averageAllocationForInput);
+        sizeOperationAverages.get(inputSize).addData(operations);
+        sizePeakHeapUsage.merge(inputSize, peakHeapUsage, Math::max);
+        sizeCompilationSamples.merge(inputSize, compilationSamples, Long::sum);
+        sizeCollectionSamples.merge(inputSize, collectionSamples, Long::sum);
     }
 
     /**
@@ -68,9 +422,32 @@ public class MatrixMultiplierBenchmarker
      * @return The time the multiplication took in nanoseconds.
      */
     public long measureRuntime(int[][] a, int[][] b)
+    {
+        return measureRuntime(algorithm.prepare(a, b));
+    }
+
+    /**
+     * Measures the time it takes to multiply two contiguous matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The time the multiplication took in nanoseconds.
+     */
+    public long measureRuntime(Matrix a, Matrix b)
+    {
+        return measureRuntime(algorithm.prepare(a, b));
+    }
+
+    /**
+     * Measures the time it takes to run a prepared multiplication.
+     *
+     * @param multiplication The prepared multiplication.
+     * @return The time the multiplication took in nanoseconds.
+     */
+    private long measureRuntime(Runnable multiplication)
     {
         long startingTime = System.nanoTime();
-        algorithm.multiplySquareMatrices(a, b);
+        multiplication.run();
         return System.nanoTime() - startingTime;
     }
 
@@ -80,7 +457,7 @@ public class MatrixMultiplierBenchmarker
      * 
      * @return A mapping from input size to average runtime.
      */
-    public Map<Integer, Double> getAverageRuntimes()
+    public synchronized Map<Integer, Double> getAverageRuntimes()
     {
         Map<Integer, Double> averageRuntimes = new TreeMap<>();
         for (int key : sizeRuntimeAverages.keySet())
@@ -97,7 +474,7 @@ public class MatrixMultiplierBenchmarker
      * @param size The input size to get a runtime average for.
      * @return The average runtime for the input size.
      */
-    public double getAverageRuntime(int size)
+    public synchronized double getAverageRuntime(int size)
     {
         if (sizeRuntimeAverages.containsKey(size))
         {
@@ -107,19 +484,322 @@ public class MatrixMultiplierBenchmarker
     }
 
     /**
-     * Fills a matrix with random values.
+     * Gets the average CPU time used by the benchmarking
+     * thread per sample for a specific size.
      * 
-     * @param matrix The matrix to randomize.
+     * @param size The input size.
+     * @return The average CPU time in nanoseconds, 0 if the size was not tested
+     *         or -1 if CPU time is not supported.
      */
-    public static void randomizeMatrix(int[][] matrix)
+    public synchronized double getAverageCpuTime(int size)
+    {
+        if (sizeCpuTimeAverages.containsKey(size))
+        {
+            return sizeCpuTimeAverages.get(size).getAverage();
+        }
+        return 0.0;
+    }
+
+    /**
+     * Gets the average bytes allocated on the heap by the
+     * benchmarking thread per multiplication for a specific size.
+     * 
+     * @param size The input size.
+     * @return The average allocated bytes, 0 if the size was not tested
+     *         or -1 if allocations are not reported.
+     */
+    public synchronized double getAverageAllocatedBytes(int size)
+    {
+        if (sizeAllocationAverages.containsKey(size))
+        {
+            return sizeAllocationAverages.get(size).getAverage();
+        }
+        return 0.0;
+    }
+
+    /**
+     * Gets the highest peak usage of the heap pools while
+     * any input of a specific size was measured.
+     * 
+     * @param size The input size.
+     * @return The peak heap usage in bytes, or 0 if the size was not tested.
+     */
+    public synchronized long getPeakHeapUsage(int size)
+    {
+        return sizePeakHeapUsage.getOrDefault(size, 0L);
+    }
+
+    /**
+     * Gets the number of arithmetic operations the
+     * multiplier does for an input of a specific size,
+     * averaged over the inputs measured, so algorithms
+     * whose work depends on the values of the inputs,
+     * like sparse ones, are not credited with the work
+     * of the classical algorithm.
+     * 
+     * @param size The input size.
+     * @return The operation count, the count for the size if it was not tested.
+     */
+    public synchronized long getOperationCount(int size)
+    {
+        if (sizeOperationAverages.containsKey(size))
+        {
+            return Math.round(sizeOperationAverages.get(size).getAverage());
+        }
+        return algorithm.getOperationCount(size);
+    }
+
+    /**
+     * Gets the rate arithmetic was done at for a specific
+     * size, the operation count over the average runtime.
+     * 
+     * @param size The input size.
+     * @return The rate in billions of operations per second, or 0 if the size was not tested.
+     */
+    public double getGops(int size)
+    {
+        double runtime = getAverageRuntime(size);
+        return (runtime == 0.0) ? 0.0 : getOperationCount(size) / runtime;
+    }
+
+    /**
+     * Gets the rate the classical algorithm would need to
+     * match the average runtime of a specific size, so
+     * algorithms doing less arithmetic can be compared.
+     * 
+     * @param size The input size.
+     * @return The rate in billions of operations per second, or 0 if the size was not tested.
+     */
+    public double getEffectiveGops(int size)
+    {
+        double runtime = getAverageRuntime(size);
+        return (runtime == 0.0) ? 0.0 : Multiplier.classicalOperationCount(size) / runtime;
+    }
+
+    /**
+     * Gets the compulsory memory traffic of a specific
+     * size per arithmetic operation.
+     * 
+     * @param size The input size.
+     * @return The bytes moved per operation.
+     */
+    public double getBytesPerOperation(int size)
+    {
+        return (double) algorithm.getBytesMoved(size) / getOperationCount(size);
+    }
+
+    /**
+     * Gets the distribution of every sample
+     * measured for a specific size.
+     * 
+     * The histogram returned is the one samples are recorded
+     * into, so it should only be read once benchmarking is done.
+     * 
+     * @param size The input size.
+     * @return The histogram of runtimes, empty if the size was not tested.
+     */
+    public synchronized LatencyHistogram getHistogram(int size)
+    {
+        if (sizeHistograms.containsKey(size))
+        {
+            return sizeHistograms.get(size);
+        }
+        return new LatencyHistogram();
+    }
+
+    /**
+     * Gets the number of warmup runs done before
+     * the first input of a size was measured.
+     * 
+     * @param size The input size.
+     * @return The number of warmup runs, or 0 if the size was not tested.
+     */
+    public synchronized int getWarmupRuns(int size)
+    {
+        return sizeWarmupRuns.getOrDefault(size, 0);
+    }
+
+    /**
+     * Gets the number of samples of a size during which
+     * the JIT compiler was running, including samples
+     * which were discarded and measured again.
+     * 
+     * @param size The input size.
+     * @return The number of samples overlapping compilation.
+     */
+    public synchronized long getCompilationSamples(int size)
+    {
+        return sizeCompilationSamples.getOrDefault(size, 0L);
+    }
+
+    /**
+     * Gets the number of samples of a size during which
+     * garbage was collected, including samples which
+     * were discarded and measured again.
+     * 
+     * @param size The input size.
+     * @return The number of samples overlapping garbage collection.
+     */
+    public synchronized long getCollectionSamples(int size)
+    {
+        return sizeCollectionSamples.getOrDefault(size, 0L);
+    }
+
+    /**
+     * Gets the number of inputs measured for a specific size.
+     * 
+     * @param size The input size.
+     * @return The number of inputs, or 0 if the size was not tested.
+     */
+    public synchronized int getNumberInputs(int size)
     {
-        for (int row = 0; row < matrix.length; row++)
+        if (sizeRuntimeAverages.containsKey(size))
+        {
+            return sizeRuntimeAverages.get(size).getNumberItems();
+        }
+        return 0;
+    }
+
+    /**
+     * Saves everything measured for every size tested,
+     * under keys starting with the given prefix.
+     * 
+     * @param properties The properties to save into.
+     * @param prefix The start of every key saved.
+     */
+    synchronized void saveState(Properties properties, String prefix)
+    {
+        properties.setProperty(prefix + "algorithm", getAlgorithmName());
+        StringBuilder sizes = new StringBuilder();
+        for (int size : sizeRuntimeAverages.keySet())
+        {
+            String sizePrefix = prefix + size + ".";
+            RunningAverage runtime = sizeRuntimeAverages.get(size);
+            RunningAverage cpuTime = sizeCpuTimeAverages.get(size);
+            properties.setProperty(sizePrefix + "runtime", runtime.getAverage() + ";" + runtime.getNumberItems());
+            RunningAverage allocation = sizeAllocationAverages.get(size);
+            properties.setProperty(sizePrefix + "cpu-time", cpuTime.getAverage() + ";" + cpuTime.getNumberItems());
+            properties.setProperty(sizePrefix + "allocated-bytes",
+                                   allocation.getAverage() + ";" + allocation.getNumberItems());
+            RunningAverage operations = sizeOperationAverages.get(size);
+            properties.setProperty(sizePrefix + "operations",
+                                   operations.getAverage() + ";" + operations.getNumberItems());
+            properties.setProperty(sizePrefix + "peak-heap-usage", Long.toString(getPeakHeapUsage(size)));
+            properties.setProperty(sizePrefix + "histogram", sizeHistograms.get(size).encode());
+            properties.setProperty(sizePrefix + "warmup-runs", Integer.toString(getWarmupRuns(size)));
+            properties.setProperty(sizePrefix + "compilation-samples", Long.toString(getCompilationSamples(size)));
+            properties.setProperty(sizePrefix + "collection-samples", Long.toString(getCollectionSamples(size)));
+            sizes.append((sizes.length() == 0) ? "" : ",").append(size);
+        }
+        properties.setProperty(prefix + "sizes", sizes.toString());
+    }
+
+    /**
+     * Replaces everything measured with the state saved
+     * by saveState under the given prefix.
+     * 
+     * @param properties The properties to restore from.
+     * @param prefix The start of every key saved.
+     * @throws IllegalArgumentException If the state is missing, invalid,
+     *                                  or was saved for another algorithm.
+     */
+    synchronized void restoreState(Properties properties, String prefix)
+    {
+        String algorithmName = properties.getProperty(prefix + "algorithm");
+        if (!getAlgorithmName().equals(algorithmName))
+        {
+            throw new IllegalArgumentException("Saved State Of " + algorithmName + " Does Not Match "
+                                               + getAlgorithmName());
+        }
+        sizeRuntimeAverages.clear();
+        sizeHistograms.clear();
+        sizeCpuTimeAverages.clear();
+        sizeAllocationAverages.clear();
+        sizeOperationAverages.clear();
+        sizePeakHeapUsage.clear();
+        sizeWarmupRuns.clear();
+        sizeCompilationSamples.clear();
+        sizeCollectionSamples.clear();
+        String sizes = properties.getProperty(prefix + "sizes", "");
+        try
         {
-            for (int col = 0; col < matrix[row].length; col++)
+            for (String sizeText : sizes.isEmpty() ? new String[0] : sizes.split(","))
             {
-                matrix[row][col] = (int) (Math.random() * RANDOM_NUMBER_RANGE) + 1;
+                int size = Integer.parseInt(sizeText);
+                String sizePrefix = prefix + size + ".";
+                sizeRuntimeAverages.put(size, parseAverage(getRequiredProperty(properties, sizePrefix + "runtime")));
+                sizeCpuTimeAverages.put(size, parseAverage(getRequiredProperty(properties, sizePrefix + "cpu-time")));
+                sizeAllocationAverages.put(size,
+                    parseAverage(getRequiredProperty(properties, sizePrefix + "allocated-bytes")));
+                sizeOperationAverages.put(size,
+                    parseAverage(getRequiredProperty(properties, sizePrefix + "operations")));
+                sizePeakHeapUsage.put(size,
+                    Long.parseLong(getRequiredProperty(properties, sizePrefix + "peak-heap-usage")));
+                sizeHistograms.put(size,
+                    LatencyHistogram.decode(getRequiredProperty(properties, sizePrefix + "histogram")));
+                sizeWarmupRuns.put(size,
+                    Integer.parseInt(getRequiredProperty(properties, sizePrefix + "warmup-runs")));
+                sizeCompilationSamples.put(size,
+                    Long.parseLong(getRequiredProperty(properties, sizePrefix + "compilation-samples")));
+                sizeCollectionSamples.put(size,
+                    Long.parseLong(getRequiredProperty(properties, sizePrefix + "collection-samples")));
             }
         }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid Saved State Of " + algorithmName, e);
+        }
+    }
+
+    /**
+     * Gets a saved property which must exist.
+     */
+    private static String getRequiredProperty(Properties properties, String key)
+    {
+        String value = properties.getProperty(key);
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Missing Saved State: " + key);
+        }
+        return value;
+    }
+
+    /**
+     * Restores a running average saved as average;count.
+     */
+    private static RunningAverage parseAverage(String saved)
+    {
+        int separator = saved.indexOf(';');
+        if (separator < 0)
+        {
+            throw new IllegalArgumentException("Invalid Saved Average: " + saved);
+        }
+        return new RunningAverage(Double.parseDouble(saved.substring(0, separator)),
+                                  Integer.parseInt(saved.substring(separator + 1)));
+    }
+
+    /**
+     * Fills a matrix with random values in
+     * [MatrixGenerator.DEFAULT_MIN, MatrixGenerator.DEFAULT_MAX]
+     * from a new seed. Use a MatrixGenerator directly when the
+     * inputs need to be reproduced.
+     * 
+     * @param matrix The matrix to randomize.
+     */
+    public static void randomizeMatrix(int[][] matrix)
+    {
+        new MatrixGenerator(MatrixGenerator.newSeed()).fill(matrix);
+    }
+
+    /**
+     * Gets the number of threads used by
+     * the matrix multiplier in use.
+     * 
+     * @return The parallelism of the algorithm.
+     */
+    public int getParallelism()
+    {
+        return algorithm.getParallelism();
     }
 
     /**
@@ -0,0 +1,132 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * The common interface of every matrix multiplier
+ * regardless of the type of its elements, which lets
+ * the same benchmarker measure all of them.
+ *
+ * Benchmark inputs are always generated as int matrices.
+ * A multiplier converts them to its own element type when
+ * preparing a multiplication, so the conversion is not
+ * included in the measured runtime.
+ */
+public interface Multiplier
+{
+    /**
+     * Prepares the multiplication of two n*n matrices A and B.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    Runnable prepare(int[][] a, int[][] b);
+
+    /**
+     * Prepares the multiplication of two contiguous
+     * n*n matrices A and B.
+     *
+     * Unless overridden, the inputs are copied
+     * into jagged arrays first.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    default Runnable prepare(Matrix a, Matrix b)
+    {
+        return prepare(a.toArray(), b.toArray());
+    }
+
+    /**
+     * Gets the number of threads the algorithm
+     * uses for a single multiplication.
+     *
+     * @return 1 unless overridden by a parallel algorithm.
+     */
+    default int getParallelism()
+    {
+        return 1;
+    }
+
+    /**
+     * Gets the number of arithmetic operations, counting every
+     * addition, subtraction and multiplication of elements, the
+     * algorithm performs to multiply two n*n matrices.
+     *
+     * @param size The size n of the inputs.
+     * @return 2n^3 unless overridden by an algorithm doing other arithmetic.
+     */
+    default long getOperationCount(int size)
+    {
+        return classicalOperationCount(size);
+    }
+
+    /**
+     * Gets the number of arithmetic operations the algorithm
+     * performs to multiply two specific n*n matrices, which
+     * differs from the count for their size only for algorithms
+     * whose work depends on the values, like sparse ones.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The operation count for the size of the inputs unless overridden.
+     */
+    default long getOperationCount(int[][] a, int[][] b)
+    {
+        return getOperationCount(a.length);
+    }
+
+    /**
+     * Gets the number of arithmetic operations the algorithm
+     * performs to multiply two specific contiguous n*n matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The operation count for the size of the inputs unless overridden.
+     */
+    default long getOperationCount(Matrix a, Matrix b)
+    {
+        return getOperationCount(a.getRows());
+    }
+
+    /**
+     * Gets the size of one element in bytes.
+     *
+     * @return The size of an int unless overridden.
+     */
+    default int getElementBytes()
+    {
+        return Integer.BYTES;
+    }
+
+    /**
+     * Gets the fewest bytes any algorithm must move to multiply
+     * two n*n matrices: reading both inputs and writing the
+     * product once, with perfect reuse of everything cached.
+     *
+     * @param size The size n of the inputs.
+     * @return The compulsory memory traffic in bytes.
+     */
+    default long getBytesMoved(int size)
+    {
+        return 3L * size * size * getElementBytes();
+    }
+
+    /**
+     * Returns the name of the algorithm.
+     */
+    String getAlgorithmName();
+
+    /**
+     * Gets the number of arithmetic operations the classical
+     * algorithm performs, one multiplication and one addition
+     * for every element of A used with every element of B.
+     *
+     * @param size The size n of the inputs.
+     * @return 2n^3.
+     */
+    static long classicalOperationCount(int size)
+    {
+        return 2L * size * size * size;
+    }
+}
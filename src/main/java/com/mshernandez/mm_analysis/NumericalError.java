@@ -0,0 +1,136 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.Random;
+
+/**
+ * Measures how far the results of floating point multipliers
+ * are from a more accurate reference product.
+ *
+ * Integer inputs are multiplied exactly by every algorithm as
+ * long as the sums fit in the mantissa, so errors are measured
+ * with random values in [-1, 1) instead. The reference product
+ * is computed in double precision with compensated (Kahan)
+ * summation, which is accurate enough to expose the additional
+ * rounding error Strassens method introduces through its sums
+ * and differences of sub-matrices.
+ */
+public class NumericalError
+{
+    /**
+     * Fills a matrix with random values in [-1, 1).
+     *
+     * @param matrix The matrix to randomize.
+     * @param random The source of random values.
+     */
+    public static void randomizeMatrix(double[][] matrix, Random random)
+    {
+        for (int row = 0; row < matrix.length; row++)
+        {
+            for (int col = 0; col < matrix[row].length; col++)
+            {
+                matrix[row][col] = 2.0 * random.nextDouble() - 1.0;
+            }
+        }
+    }
+
+    /**
+     * Copies a double matrix into a new float matrix.
+     *
+     * @param matrix The matrix to copy.
+     * @return The copied matrix, rounded to float precision.
+     */
+    public static float[][] toFloatArray(double[][] matrix)
+    {
+        float[][] copy = new float[matrix.length][];
+        for (int row = 0; row < matrix.length; row++)
+        {
+            copy[row] = new float[matrix[row].length];
+            for (int col = 0; col < matrix[row].length; col++)
+            {
+                copy[row][col] = (float) matrix[row][col];
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using
+     * compensated summation for every element of the result.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    public static double[][] referenceProduct(double[][] a, double[][] b)
+    {
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        double[][] result = new double[rows][cols];
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                double sum = 0.0;
+                double compensation = 0.0;
+                for (int i = 0; i < inner; i++)
+                {
+                    double term = a[row][i] * b[i][col] - compensation;
+                    double total = sum + term;
+                    compensation = (total - sum) - term;
+                    sum = total;
+                }
+                result[row][col] = sum;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the relative error of a result in the
+     * Frobenius norm, ||C - R|| / ||R||.
+     *
+     * @param result The computed result.
+     * @param reference The reference result.
+     * @return The relative error, or 0 if the reference is all zeros.
+     */
+    public static double relativeError(double[][] result, double[][] reference)
+    {
+        double errorSquared = 0.0;
+        double referenceSquared = 0.0;
+        for (int row = 0; row < reference.length; row++)
+        {
+            for (int col = 0; col < reference[row].length; col++)
+            {
+                double difference = result[row][col] - reference[row][col];
+                errorSquared += difference * difference;
+                referenceSquared += reference[row][col] * reference[row][col];
+            }
+        }
+        return (referenceSquared == 0.0) ? 0.0 : Math.sqrt(errorSquared / referenceSquared);
+    }
+
+    /**
+     * Calculates the relative error of a float result in
+     * the Frobenius norm, ||C - R|| / ||R||.
+     *
+     * @param result The computed result.
+     * @param reference The reference result.
+     * @return The relative error, or 0 if the reference is all zeros.
+     */
+    public static double relativeError(float[][] result, double[][] reference)
+    {
+        double errorSquared = 0.0;
+        double referenceSquared = 0.0;
+        for (int row = 0; row < reference.length; row++)
+        {
+            for (int col = 0; col < reference[row].length; col++)
+            {
+                double difference = result[row][col] - reference[row][col];
+                errorSquared += difference * difference;
+                referenceSquared += reference[row][col] * reference[row][col];
+            }
+        }
+        return (referenceSquared == 0.0) ? 0.0 : Math.sqrt(errorSquared / referenceSquared);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * Multiplies matrices stored in memory-mapped files which
+ * may be far larger than the heap.
+ *
+ * The result is computed one square tile at a time. A tile of
+ * C is accumulated on the heap while the matching row of tiles
+ * of A and column of tiles of B are streamed through two more
+ * tile buffers, then the finished tile is written to the mapped
+ * output. Only three tiles are ever held on the heap, so the
+ * memory used is bounded by the tile size no matter how large
+ * the matrices are, while each tile product runs with the
+ * cache-blocked kernel of BlockedMatrixMultiplier.
+ */
+public class OutOfCoreMatrixMultiplier
+{
+    public static final long DEFAULT_WINDOW_BYTES = 64L << 20;
+
+    private static final int TILES_IN_WINDOW = 3;
+
+    private int tileSize;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the largest tile size that keeps three tiles
+     * within DEFAULT_WINDOW_BYTES.
+     */
+    public OutOfCoreMatrixMultiplier()
+    {
+        this(tileSizeForWindow(DEFAULT_WINDOW_BYTES));
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the given tile size.
+     *
+     * @param tileSize The side length of the tiles held on the heap.
+     */
+    public OutOfCoreMatrixMultiplier(int tileSize)
+    {
+        if (tileSize < 1)
+        {
+            throw new IllegalArgumentException("Tile Size Must Be Positive");
+        }
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Finds the largest tile size for which the three tiles
+     * held on the heap fit within the given number of bytes,
+     * rounded down to a whole number of L1 tiles.
+     *
+     * @param windowBytes The most heap memory the tiles may use.
+     * @return The tile size.
+     */
+    public static int tileSizeForWindow(long windowBytes)
+    {
+        int l1TileSize = BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE;
+        long tileSize = (long) Math.sqrt((double) windowBytes / (TILES_IN_WINDOW * Integer.BYTES));
+        if (tileSize < l1TileSize)
+        {
+            throw new IllegalArgumentException("Window Too Small For " + l1TileSize + "x" + l1TileSize + " Tiles: "
+                                               + windowBytes + " Bytes");
+        }
+        return (int) Math.min(tileSize / l1TileSize * l1TileSize, 1 << 15);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B,
+     * writing the m*n result into matrix C.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to write the result into, m*n.
+     */
+    public void multiply(MappedMatrix a, MappedMatrix b, MappedMatrix c)
+    {
+        if (a.getColumns() != b.getRows() || c.getRows() != a.getRows() || c.getColumns() != b.getColumns())
+        {
+            throw new IllegalArgumentException("Incompatible Dimensions: " + a.getRows() + "x" + a.getColumns()
+                                               + " * " + b.getRows() + "x" + b.getColumns()
+                                               + " -> " + c.getRows() + "x" + c.getColumns());
+        }
+        int numRows = a.getRows();
+        int numInner = b.getRows();
+        int numCols = b.getColumns();
+        int[] aTile = new int[tileSize * tileSize];
+        int[] bTile = new int[tileSize * tileSize];
+        int[] cTile = new int[tileSize * tileSize];
+        for (int rowTile = 0; rowTile < numRows; rowTile += tileSize)
+        {
+            int rows = Math.min(tileSize, numRows - rowTile);
+            for (int colTile = 0; colTile < numCols; colTile += tileSize)
+            {
+                int cols = Math.min(tileSize, numCols - colTile);
+                for (int i = 0; i < rows * tileSize; i++)
+                {
+                    cTile[i] = 0;
+                }
+                for (int innerTile = 0; innerTile < numInner; innerTile += tileSize)
+                {
+                    int inner = Math.min(tileSize, numInner - innerTile);
+                    a.readTile(rowTile, innerTile, rows, inner, aTile, 0, tileSize);
+                    b.readTile(innerTile, colTile, inner, cols, bTile, 0, tileSize);
+                    BlockedMatrixMultiplier.multiplyAccumulate(aTile, 0, tileSize,
+                                                               bTile, 0, tileSize,
+                                                               cTile, 0, tileSize,
+                                                               rows, inner, cols,
+                                                               BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+                }
+                c.writeTile(rowTile, colTile, rows, cols, cTile, 0, tileSize);
+            }
+        }
+    }
+
+    /**
+     * Gets the side length of the tiles held on the heap.
+     */
+    public int getTileSize()
+    {
+        return tileSize;
+    }
+
+    /**
+     * Gets the name of the algorithm used.
+     */
+    public String getAlgorithmName()
+    {
+        return "Out-Of-Core (Tile " + tileSize + ")";
+    }
+}
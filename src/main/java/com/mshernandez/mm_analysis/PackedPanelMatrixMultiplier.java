@@ -0,0 +1,409 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A matrix multiplier following the blocking and packing
+ * structure of BLAS libraries such as GotoBLAS, written in
+ * plain Java without their hand-tuned assembly kernels.
+ *
+ * The product is split into blocks sized for the caches:
+ * a KC*NC panel of B is packed once and reused from the L3
+ * cache by every MC*KC block of A, which is packed and reused
+ * from the L2 cache. Packing copies each block into contiguous
+ * memory in the exact order the micro-kernel reads it, padded
+ * with zeros to whole MR row and NR column slivers.
+ *
+ * The micro-kernel accumulates a 4*8 block of C in local
+ * variables across the whole KC loop and combines them with
+ * C once per sliver, so C is only read and written once per
+ * KC block. 4*8 was the fastest shape measured; the JIT
+ * compiler does not vectorize scalar accumulators, so the
+ * kernel stays well below the peak of a native BLAS library,
+ * though it clearly outperforms the blocked iterative algorithm.
+ *
+ * The packing buffers are kept in a per-thread workspace
+ * which only grows, so repeated multiplications of the same
+ * size do not allocate.
+ */
+public class PackedPanelMatrixMultiplier extends MatrixMultiplier
+{
+    public static final int MR = 4;
+    public static final int NR = 8;
+
+    public static final int DEFAULT_MC = 128;
+    public static final int DEFAULT_KC = 256;
+    public static final int DEFAULT_NC = 2048;
+
+    private int mc;
+    private int kc;
+    private int nc;
+    private ThreadLocal<PackedPanelWorkspace> workspaces;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used and block
+     * sizes suited to common cache sizes.
+     */
+    public PackedPanelMatrixMultiplier()
+    {
+        this(DEFAULT_MC, DEFAULT_KC, DEFAULT_NC);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param mc The number of rows of A packed at once, a multiple of MR.
+     * @param kc The number of columns of A and rows of B packed at once.
+     * @param nc The number of columns of B packed at once, a multiple of NR.
+     */
+    public PackedPanelMatrixMultiplier(int mc, int kc, int nc)
+    {
+        super(mc == DEFAULT_MC && kc == DEFAULT_KC && nc == DEFAULT_NC
+              ? "Packed Panel" : "Packed Panel (" + mc + "x" + kc + "x" + nc + ")");
+        if (mc < MR || mc % MR != 0 || nc < NR || nc % NR != 0 || kc < 1)
+        {
+            throw new IllegalArgumentException("Block Sizes Must Be Positive, MC A Multiple Of "
+                                               + MR + " And NC A Multiple Of " + NR);
+        }
+        this.mc = mc;
+        this.kc = kc;
+        this.nc = nc;
+        workspaces = ThreadLocal.withInitial(PackedPanelWorkspace::new);
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return multiply(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using packed panels of A and B.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        multiplyInto(a, b, result, 1, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using packed
+     * panels of A and B, combining the product with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * The micro-kernel applies alpha and beta as it writes each
+     * block of C, scaling C by beta during the first KC block and
+     * only accumulating during the rest.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        int rows = a.length;
+        int inner = b.length;
+        int cols = b[0].length;
+        PackedPanelWorkspace workspace = workspaces.get();
+        int[] aPacked = workspace.getPackedA(Math.min(mc, roundUp(rows, MR)) * Math.min(kc, inner));
+        int[] bPacked = workspace.getPackedB(Math.min(kc, inner) * Math.min(nc, roundUp(cols, NR)));
+        for (int jc = 0; jc < cols; jc += nc)
+        {
+            int ncBlock = Math.min(nc, cols - jc);
+            for (int pc = 0; pc < inner; pc += kc)
+            {
+                int kcBlock = Math.min(kc, inner - pc);
+                packB(b, pc, jc, kcBlock, ncBlock, bPacked);
+                for (int ic = 0; ic < rows; ic += mc)
+                {
+                    int mcBlock = Math.min(mc, rows - ic);
+                    packA(a, ic, pc, mcBlock, kcBlock, aPacked);
+                    for (int jr = 0; jr < ncBlock; jr += NR)
+                    {
+                        for (int ir = 0; ir < mcBlock; ir += MR)
+                        {
+                            microKernel(kcBlock,
+                                        aPacked, ir * kcBlock,
+                                        bPacked, jr * kcBlock,
+                                        c, ic + ir, jc + jr,
+                                        Math.min(MR, mcBlock - ir), Math.min(NR, ncBlock - jr),
+                                        alpha, (pc == 0) ? beta : 1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a block of A into slivers of MR rows, each stored
+     * column by column, padding the last sliver with zeros.
+     *
+     * @param a The matrix to pack.
+     * @param rowPtr The first row of the block.
+     * @param colPtr The first column of the block.
+     * @param rows The number of rows in the block.
+     * @param inner The number of columns in the block.
+     * @param packed The buffer to pack into.
+     */
+    private static void packA(int[][] a, int rowPtr, int colPtr, int rows, int inner, int[] packed)
+    {
+        int index = 0;
+        for (int sliver = 0; sliver < rows; sliver += MR)
+        {
+            int sliverRows = Math.min(MR, rows - sliver);
+            for (int p = 0; p < inner; p++)
+            {
+                for (int i = 0; i < MR; i++)
+                {
+                    packed[index++] = (i < sliverRows) ? a[rowPtr + sliver + i][colPtr + p] : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a block of B into slivers of NR columns, each stored
+     * row by row, padding the last sliver with zeros.
+     *
+     * @param b The matrix to pack.
+     * @param rowPtr The first row of the block.
+     * @param colPtr The first column of the block.
+     * @param inner The number of rows in the block.
+     * @param cols The number of columns in the block.
+     * @param packed The buffer to pack into.
+     */
+    private static void packB(int[][] b, int rowPtr, int colPtr, int inner, int cols, int[] packed)
+    {
+        int index = 0;
+        for (int sliver = 0; sliver < cols; sliver += NR)
+        {
+            int sliverCols = Math.min(NR, cols - sliver);
+            for (int p = 0; p < inner; p++)
+            {
+                int[] bRow = b[rowPtr + p];
+                for (int j = 0; j < NR; j++)
+                {
+                    packed[index++] = (j < sliverCols) ? bRow[colPtr + sliver + j] : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies an MR row sliver of packed A by an NR column
+     * sliver of packed B, combining the result with a block of C.
+     *
+     * Crc = alpha*Arc*Brc + beta*Crc
+     *
+     * The MR*NR block of C is accumulated in local variables
+     * the JIT compiler keeps in registers for the whole sliver,
+     * so each element of C is only loaded and stored once.
+     *
+     * @param inner The length of the slivers.
+     * @param a The packed A block.
+     * @param aOffset The start of the A sliver.
+     * @param b The packed B panel.
+     * @param bOffset The start of the B sliver.
+     * @param c Matrix C, Result Matrix
+     * @param cRowPtr Matrix C Starting Row Index
+     * @param cColPtr Matrix C Starting Column Index
+     * @param rows The number of rows of C to update, at most MR.
+     * @param cols The number of columns of C to update, at most NR.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the block of C is scaled by, 0 to overwrite it.
+     */
+    private static void microKernel(int inner,
+                                    int[] a, int aOffset,
+                                    int[] b, int bOffset,
+                                    int[][] c, int cRowPtr, int cColPtr,
+                                    int rows, int cols,
+                                    int alpha, int beta)
+    {
+        int c00 = 0, c01 = 0, c02 = 0, c03 = 0, c04 = 0, c05 = 0, c06 = 0, c07 = 0;
+        int c10 = 0, c11 = 0, c12 = 0, c13 = 0, c14 = 0, c15 = 0, c16 = 0, c17 = 0;
+        int c20 = 0, c21 = 0, c22 = 0, c23 = 0, c24 = 0, c25 = 0, c26 = 0, c27 = 0;
+        int c30 = 0, c31 = 0, c32 = 0, c33 = 0, c34 = 0, c35 = 0, c36 = 0, c37 = 0;
+        for (int p = 0; p < inner; p++)
+        {
+            int a0 = a[aOffset];
+            int a1 = a[aOffset + 1];
+            int a2 = a[aOffset + 2];
+            int a3 = a[aOffset + 3];
+            int b0 = b[bOffset];
+            int b1 = b[bOffset + 1];
+            int b2 = b[bOffset + 2];
+            int b3 = b[bOffset + 3];
+            int b4 = b[bOffset + 4];
+            int b5 = b[bOffset + 5];
+            int b6 = b[bOffset + 6];
+            int b7 = b[bOffset + 7];
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c04 += a0 * b4;
+            c05 += a0 * b5;
+            c06 += a0 * b6;
+            c07 += a0 * b7;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c14 += a1 * b4;
+            c15 += a1 * b5;
+            c16 += a1 * b6;
+            c17 += a1 * b7;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c24 += a2 * b4;
+            c25 += a2 * b5;
+            c26 += a2 * b6;
+            c27 += a2 * b7;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+            c34 += a3 * b4;
+            c35 += a3 * b5;
+            c36 += a3 * b6;
+            c37 += a3 * b7;
+            aOffset += MR;
+            bOffset += NR;
+        }
+        storeRow(c[cRowPtr], cColPtr, cols, alpha, beta, c00, c01, c02, c03, c04, c05, c06, c07);
+        if (rows > 1)
+        {
+            storeRow(c[cRowPtr + 1], cColPtr, cols, alpha, beta, c10, c11, c12, c13, c14, c15, c16, c17);
+        }
+        if (rows > 2)
+        {
+            storeRow(c[cRowPtr + 2], cColPtr, cols, alpha, beta, c20, c21, c22, c23, c24, c25, c26, c27);
+        }
+        if (rows > 3)
+        {
+            storeRow(c[cRowPtr + 3], cColPtr, cols, alpha, beta, c30, c31, c32, c33, c34, c35, c36, c37);
+        }
+    }
+
+    /**
+     * Combines one row of the micro-kernel's block with C,
+     * storing only the columns inside the matrix.
+     *
+     * @param cRow The row of C to update.
+     * @param cColPtr The first column of the block.
+     * @param cols The number of columns to update, at most NR.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the row of C is scaled by, 0 to overwrite it.
+     */
+    private static void storeRow(int[] cRow, int cColPtr, int cols, int alpha, int beta,
+                                 int v0, int v1, int v2, int v3, int v4, int v5, int v6, int v7)
+    {
+        if (beta == 0)
+        {
+            /**
+             * Each Case Stores Its Column And Falls Through To The Ones Before It
+             */
+            switch (cols)
+            {
+                case 8:
+                    cRow[cColPtr + 7] = alpha * v7;
+                case 7:
+                    cRow[cColPtr + 6] = alpha * v6;
+                case 6:
+                    cRow[cColPtr + 5] = alpha * v5;
+                case 5:
+                    cRow[cColPtr + 4] = alpha * v4;
+                case 4:
+                    cRow[cColPtr + 3] = alpha * v3;
+                case 3:
+                    cRow[cColPtr + 2] = alpha * v2;
+                case 2:
+                    cRow[cColPtr + 1] = alpha * v1;
+                case 1:
+                    cRow[cColPtr] = alpha * v0;
+                default:
+                    break;
+            }
+        }
+        else
+        {
+            switch (cols)
+            {
+                case 8:
+                    cRow[cColPtr + 7] = alpha * v7 + beta * cRow[cColPtr + 7];
+                case 7:
+                    cRow[cColPtr + 6] = alpha * v6 + beta * cRow[cColPtr + 6];
+                case 6:
+                    cRow[cColPtr + 5] = alpha * v5 + beta * cRow[cColPtr + 5];
+                case 5:
+                    cRow[cColPtr + 4] = alpha * v4 + beta * cRow[cColPtr + 4];
+                case 4:
+                    cRow[cColPtr + 3] = alpha * v3 + beta * cRow[cColPtr + 3];
+                case 3:
+                    cRow[cColPtr + 2] = alpha * v2 + beta * cRow[cColPtr + 2];
+                case 2:
+                    cRow[cColPtr + 1] = alpha * v1 + beta * cRow[cColPtr + 1];
+                case 1:
+                    cRow[cColPtr] = alpha * v0 + beta * cRow[cColPtr];
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Rounds a value up to a multiple of another.
+     */
+    private static int roundUp(int value, int multiple)
+    {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+
+    /**
+     * Gets the number of rows of A packed at once.
+     */
+    public int getMc()
+    {
+        return mc;
+    }
+
+    /**
+     * Gets the number of columns of A and rows of B packed at once.
+     */
+    public int getKc()
+    {
+        return kc;
+    }
+
+    /**
+     * Gets the number of columns of B packed at once.
+     */
+    public int getNc()
+    {
+        return nc;
+    }
+}
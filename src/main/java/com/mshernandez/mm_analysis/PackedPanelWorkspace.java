@@ -0,0 +1,59 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * Buffers for the packed blocks of A and B used
+ * by the packed panel multiplier.
+ *
+ * Buffers only grow, so once a workspace has been used
+ * for a size it can be reused for that size or any
+ * smaller one without allocating.
+ *
+ * A workspace is not thread safe and should be confined
+ * to the thread using it.
+ */
+class PackedPanelWorkspace
+{
+    private int[] aPacked;
+    private int[] bPacked;
+
+    /**
+     * Creates an empty workspace.
+     */
+    PackedPanelWorkspace()
+    {
+        aPacked = new int[0];
+        bPacked = new int[0];
+    }
+
+    /**
+     * Gets the buffer to pack blocks of A into,
+     * growing it if needed.
+     *
+     * @param length The number of elements needed.
+     * @return A buffer of at least the given length.
+     */
+    int[] getPackedA(int length)
+    {
+        if (aPacked.length < length)
+        {
+            aPacked = new int[length];
+        }
+        return aPacked;
+    }
+
+    /**
+     * Gets the buffer to pack panels of B into,
+     * growing it if needed.
+     *
+     * @param length The number of elements needed.
+     * @return A buffer of at least the given length.
+     */
+    int[] getPackedB(int length)
+    {
+        if (bPacked.length < length)
+        {
+            bPacked = new int[length];
+        }
+        return bPacked;
+    }
+}
@@ -0,0 +1,260 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A matrix multiplier using a divide & conquer method
+ * with the work of each level split across a fork/join
+ * pool by output quadrant.
+ *
+ * Both products contributing to a result quadrant are
+ * computed by the same task, one after the other, so
+ * every task is the only writer of its quadrant and
+ * no locking is needed. Sub-problems at or below the
+ * split threshold are handed to the sequential divide
+ * & conquer implementation, which also peels odd
+ * dimensions, so inputs of any shape are accepted.
+ */
+public class ParallelDivideConquerMatrixMultiplier extends MatrixMultiplier
+{
+    public static final int DEFAULT_SPLIT_THRESHOLD = 64;
+
+    private ForkJoinPool pool;
+    private int splitThreshold;
+    private DivideConquerMatrixMultiplier sequentialMultiplier;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used, the default
+     * split threshold and one thread per available
+     * processor.
+     */
+    public ParallelDivideConquerMatrixMultiplier()
+    {
+        this(DEFAULT_SPLIT_THRESHOLD, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param splitThreshold The largest size that is multiplied sequentially.
+     * @param parallelism The number of worker threads to use.
+     */
+    public ParallelDivideConquerMatrixMultiplier(int splitThreshold, int parallelism)
+    {
+        this(splitThreshold, DivideConquerMatrixMultiplier.DEFAULT_LEAF_SIZE, parallelism);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param splitThreshold The largest size that is multiplied sequentially.
+     * @param leafSize The largest size the sequential multiplier multiplies iteratively.
+     * @param parallelism The number of worker threads to use.
+     */
+    public ParallelDivideConquerMatrixMultiplier(int splitThreshold, int leafSize, int parallelism)
+    {
+        super("Parallel Divide & Conquer (" + parallelism + " Threads)");
+        if (splitThreshold < 2)
+        {
+            throw new IllegalArgumentException("Split Threshold Must Be At Least 2");
+        }
+        this.splitThreshold = splitThreshold;
+        pool = new ForkJoinPool(parallelism);
+        sequentialMultiplier = new DivideConquerMatrixMultiplier(leafSize);
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using a divide & conquer method in parallel.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        int size = a.length;
+        int[][] result = new int[size][size];
+        pool.invoke(new ProductTask(a,      0, 0,
+                                    b,      0, 0,
+                                    result, 0, 0,
+                                    size, size, size, 1));
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using a divide & conquer method in parallel.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        pool.invoke(new ProductTask(a,      0, 0,
+                                    b,      0, 0,
+                                    result, 0, 0,
+                                    a.length, b.length, b[0].length, 1));
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using
+     * a divide & conquer method in parallel, combining the
+     * product with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * C is scaled by beta once, then every task adds its
+     * part of the product scaled by alpha directly into C.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        scale(c, 0, 0, c.length, c[0].length, beta);
+        pool.invoke(new ProductTask(a, 0, 0,
+                                    b, 0, 0,
+                                    c, 0, 0,
+                                    a.length, b.length, b[0].length, alpha));
+    }
+
+    /**
+     * Gets the number of worker threads used.
+     *
+     * @return The parallelism of the fork/join pool.
+     */
+    @Override
+    public int getParallelism()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Gets the largest size that is multiplied sequentially.
+     *
+     * @return The split threshold.
+     */
+    public int getSplitThreshold()
+    {
+        return splitThreshold;
+    }
+
+    /**
+     * Adds the scaled product of portions of A
+     * and B into a portion of C.
+     *
+     * C += alpha*Arc*Brc
+     */
+    private class ProductTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private int[][] a, b, c;
+        private int aRowPtr, aColPtr, bRowPtr, bColPtr, cRowPtr, cColPtr;
+        private int rows, inner, cols;
+        private int alpha;
+
+        ProductTask(int[][] a, int aRowPtr, int aColPtr,
+                    int[][] b, int bRowPtr, int bColPtr,
+                    int[][] c, int cRowPtr, int cColPtr,
+                    int rows, int inner, int cols, int alpha)
+        {
+            this.a = a;
+            this.aRowPtr = aRowPtr;
+            this.aColPtr = aColPtr;
+            this.b = b;
+            this.bRowPtr = bRowPtr;
+            this.bColPtr = bColPtr;
+            this.c = c;
+            this.cRowPtr = cRowPtr;
+            this.cColPtr = cColPtr;
+            this.rows = rows;
+            this.inner = inner;
+            this.cols = cols;
+            this.alpha = alpha;
+        }
+
+        @Override
+        protected void compute()
+        {
+            // Odd Dimensions Are Peeled By The Sequential Multiplier
+            if (rows <= splitThreshold || inner <= splitThreshold || cols <= splitThreshold
+                || ((rows | inner | cols) & 1) != 0)
+            {
+                sequentialMultiplier.mul(a, aRowPtr, aColPtr,
+                                         b, bRowPtr, bColPtr,
+                                         c, cRowPtr, cColPtr,
+                                         rows, inner, cols, alpha);
+                return;
+            }
+            invokeAll(
+                // C11 = A11*B11 + A12*B21
+                new QuadrantTask(this, 0, 0),
+                // C12 = A11*B12 + A12*B22
+                new QuadrantTask(this, 0, 1),
+                // C21 = A21*B11 + A22*B21
+                new QuadrantTask(this, 1, 0),
+                // C22 = A21*B12 + A22*B22
+                new QuadrantTask(this, 1, 1));
+        }
+    }
+
+    /**
+     * Computes one quadrant of a product task's result.
+     *
+     * Cij += Ai1*B1j + Ai2*B2j
+     */
+    private class QuadrantTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private ProductTask parent;
+        private int quadrantRow, quadrantCol;
+
+        QuadrantTask(ProductTask parent, int quadrantRow, int quadrantCol)
+        {
+            this.parent = parent;
+            this.quadrantRow = quadrantRow;
+            this.quadrantCol = quadrantCol;
+        }
+
+        @Override
+        protected void compute()
+        {
+            int rq = parent.rows / 2;
+            int iq = parent.inner / 2;
+            int cq = parent.cols / 2;
+            int aRowPtr = parent.aRowPtr + quadrantRow * rq;
+            int bColPtr = parent.bColPtr + quadrantCol * cq;
+            int cRowPtr = parent.cRowPtr + quadrantRow * rq;
+            int cColPtr = parent.cColPtr + quadrantCol * cq;
+            // Cij += Ai1*B1j
+            new ProductTask(parent.a, aRowPtr,             parent.aColPtr,
+                            parent.b, parent.bRowPtr,      bColPtr,
+                            parent.c, cRowPtr,             cColPtr,
+                            rq, iq, cq, parent.alpha).invoke();
+            // Cij += Ai2*B2j
+            new ProductTask(parent.a, aRowPtr,             parent.aColPtr + iq,
+                            parent.b, parent.bRowPtr + iq, bColPtr,
+                            parent.c, cRowPtr,             cColPtr,
+                            rq, iq, cq, parent.alpha).invoke();
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A matrix multiplier using Strassens algorithm with
+ * the seven sub-products of each level computed in
+ * parallel on a fork/join pool.
+ *
+ * Sub-problems at or below the parallel cutoff, or with
+ * an odd dimension, are handed to the sequential Strassens
+ * implementation, which peels odd dimensions, so inputs of
+ * any shape are accepted.
+ */
+public class ParallelStrassensMatrixMultiplier extends MatrixMultiplier
+{
+    public static final int DEFAULT_PARALLEL_CUTOFF = 128;
+
+    private ForkJoinPool pool;
+    private int parallelCutoff;
+    private StrassensMatrixMultiplier sequentialMultiplier;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used, the default
+     * parallel cutoff and one thread per available
+     * processor.
+     */
+    public ParallelStrassensMatrixMultiplier()
+    {
+        this(DEFAULT_PARALLEL_CUTOFF, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param parallelCutoff The largest size that is multiplied sequentially.
+     * @param parallelism The number of worker threads to use.
+     */
+    public ParallelStrassensMatrixMultiplier(int parallelCutoff, int parallelism)
+    {
+        this(parallelCutoff, StrassensMatrixMultiplier.DEFAULT_LEAF_SIZE, parallelism);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param parallelCutoff The largest size that is multiplied sequentially.
+     * @param leafSize The largest size the sequential multiplier multiplies iteratively.
+     * @param parallelism The number of worker threads to use.
+     */
+    public ParallelStrassensMatrixMultiplier(int parallelCutoff, int leafSize, int parallelism)
+    {
+        super("Parallel Strassens (" + parallelism + " Threads)");
+        if (parallelCutoff < 2)
+        {
+            throw new IllegalArgumentException("Parallel Cutoff Must Be At Least 2");
+        }
+        this.parallelCutoff = parallelCutoff;
+        pool = new ForkJoinPool(parallelism);
+        sequentialMultiplier = new StrassensMatrixMultiplier(leafSize);
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using Strassens method in parallel.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return pool.invoke(new ProductTask(a, 0, 0, null, 0, 0, false,
+                                           b, 0, 0, null, 0, 0, false,
+                                           a.length, a.length, a.length));
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using Strassens method in parallel.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        return pool.invoke(new ProductTask(a, 0, 0, null, 0, 0, false,
+                                           b, 0, 0, null, 0, 0, false,
+                                           a.length, b.length, b[0].length));
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using Strassens
+     * method in parallel, combining the product with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * The top level task writes its quadrants straight into C
+     * as it combines the seven sub-products, so no result
+     * matrix is allocated and C is only visited once.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        pool.invoke(new ProductTask(a, 0, 0, null, 0, 0, false,
+                                    b, 0, 0, null, 0, 0, false,
+                                    a.length, b.length, b[0].length, c, alpha, beta));
+    }
+
+    /**
+     * Gets the number of worker threads used.
+     *
+     * @return The parallelism of the fork/join pool.
+     */
+    @Override
+    public int getParallelism()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Gets the largest size that is multiplied sequentially.
+     *
+     * @return The parallel cutoff.
+     */
+    public int getParallelCutoff()
+    {
+        return parallelCutoff;
+    }
+
+    /**
+     * Gets the number of arithmetic operations done to multiply
+     * two n*n matrices. Forked levels form the 10 operand sums
+     * like the sequential multiplier, but combine the 7 products
+     * with 8 additions instead of accumulating each into C.
+     *
+     * @param size The size n of the inputs.
+     * @return The operation count.
+     */
+    @Override
+    public long getOperationCount(int size)
+    {
+        if (size <= parallelCutoff || size % 2 != 0)
+        {
+            return sequentialMultiplier.getOperationCount(size);
+        }
+        long q = size / 2;
+        return 7 * getOperationCount(size / 2) + 18 * q * q;
+    }
+
+    /**
+     * Computes one product (X1 +/- X2)(Y1 +/- Y2) where each
+     * operand is either a single quadrant or the sum or
+     * difference of two quadrants.
+     *
+     * Operand sums are formed inside the task in buffers owned
+     * by the task, so sibling tasks never share scratch space.
+     * The result is a new matrix unless the task was given a
+     * matrix C to combine it into.
+     */
+    private class ProductTask extends RecursiveTask<int[][]>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private int[][] a1, a2, b1, b2;
+        private int a1RowPtr, a1ColPtr, a2RowPtr, a2ColPtr;
+        private int b1RowPtr, b1ColPtr, b2RowPtr, b2ColPtr;
+        private boolean aSubtract, bSubtract;
+        private int rows, inner, cols;
+        private int[][] out;
+        private int alpha, beta;
+
+        /**
+         * Describes a product to compute. The second matrix
+         * of an operand may be null if the operand is just
+         * the first matrix.
+         */
+        ProductTask(int[][] a1, int a1RowPtr, int a1ColPtr,
+                    int[][] a2, int a2RowPtr, int a2ColPtr, boolean aSubtract,
+                    int[][] b1, int b1RowPtr, int b1ColPtr,
+                    int[][] b2, int b2RowPtr, int b2ColPtr, boolean bSubtract,
+                    int rows, int inner, int cols)
+        {
+            this(a1, a1RowPtr, a1ColPtr, a2, a2RowPtr, a2ColPtr, aSubtract,
+                 b1, b1RowPtr, b1ColPtr, b2, b2RowPtr, b2ColPtr, bSubtract,
+                 rows, inner, cols, null, 1, 0);
+        }
+
+        /**
+         * Describes a product to combine into a matrix.
+         *
+         * Out = alpha*(X1 +/- X2)(Y1 +/- Y2) + beta*Out
+         *
+         * The output may be null to store the product
+         * in a new matrix.
+         */
+        ProductTask(int[][] a1, int a1RowPtr, int a1ColPtr,
+                    int[][] a2, int a2RowPtr, int a2ColPtr, boolean aSubtract,
+                    int[][] b1, int b1RowPtr, int b1ColPtr,
+                    int[][] b2, int b2RowPtr, int b2ColPtr, boolean bSubtract,
+                    int rows, int inner, int cols, int[][] out, int alpha, int beta)
+        {
+            this.a1 = a1;
+            this.a1RowPtr = a1RowPtr;
+            this.a1ColPtr = a1ColPtr;
+            this.a2 = a2;
+            this.a2RowPtr = a2RowPtr;
+            this.a2ColPtr = a2ColPtr;
+            this.aSubtract = aSubtract;
+            this.b1 = b1;
+            this.b1RowPtr = b1RowPtr;
+            this.b1ColPtr = b1ColPtr;
+            this.b2 = b2;
+            this.b2RowPtr = b2RowPtr;
+            this.b2ColPtr = b2ColPtr;
+            this.bSubtract = bSubtract;
+            this.rows = rows;
+            this.inner = inner;
+            this.cols = cols;
+            this.out = out;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected int[][] compute()
+        {
+            /**
+             * Form Operands
+             */
+            int[][] a = a1;
+            int aRowPtr = a1RowPtr;
+            int aColPtr = a1ColPtr;
+            if (a2 != null)
+            {
+                a = new int[rows][inner];
+                aRowPtr = 0;
+                aColPtr = 0;
+                StrassensMatrixMultiplier.add(a1, a1RowPtr, a1ColPtr,
+                                              a2, a2RowPtr, a2ColPtr,
+                                              a,  0,        0,
+                                              rows, inner, aSubtract);
+            }
+            int[][] b = b1;
+            int bRowPtr = b1RowPtr;
+            int bColPtr = b1ColPtr;
+            if (b2 != null)
+            {
+                b = new int[inner][cols];
+                bRowPtr = 0;
+                bColPtr = 0;
+                StrassensMatrixMultiplier.add(b1, b1RowPtr, b1ColPtr,
+                                              b2, b2RowPtr, b2ColPtr,
+                                              b,  0,        0,
+                                              inner, cols, bSubtract);
+            }
+
+            /**
+             * Small Products Are Not Worth Splitting Further
+             * Odd Dimensions Are Peeled By The Sequential Multiplier
+             */
+            boolean sequential = rows <= parallelCutoff || inner <= parallelCutoff || cols <= parallelCutoff
+                                 || ((rows | inner | cols) & 1) != 0;
+            if (out != null && sequential)
+            {
+                sequentialMultiplier.multiplyInto(a, b, out, alpha, beta);
+                return out;
+            }
+            int[][] c = (out != null) ? out : new int[rows][cols];
+            if (sequential)
+            {
+                sequentialMultiplier.mul(a, aRowPtr, aColPtr,
+                                         b, bRowPtr, bColPtr,
+                                         c, rows, inner, cols);
+                return c;
+            }
+
+            /**
+             * Fork P, Q, R, S, T, U, V
+             */
+            int rq = rows / 2;
+            int iq = inner / 2;
+            int cq = cols / 2;
+            ProductTask p = new ProductTask(
+                a, aRowPtr,      aColPtr,      a, aRowPtr + rq, aColPtr + iq, false, // (A11 + A22)
+                b, bRowPtr,      bColPtr,      b, bRowPtr + iq, bColPtr + cq, false, // (B11 + B22)
+                rq, iq, cq);
+            ProductTask qTask = new ProductTask(
+                a, aRowPtr + rq, aColPtr,      a, aRowPtr + rq, aColPtr + iq, false, // (A21 + A22)
+                b, bRowPtr,      bColPtr,      null, 0, 0,                    false, // B11
+                rq, iq, cq);
+            ProductTask r = new ProductTask(
+                a, aRowPtr,      aColPtr,      null, 0, 0,                    false, // A11
+                b, bRowPtr,      bColPtr + cq, b, bRowPtr + iq, bColPtr + cq, true,  // (B12 - B22)
+                rq, iq, cq);
+            ProductTask s = new ProductTask(
+                a, aRowPtr + rq, aColPtr + iq, null, 0, 0,                    false, // A22
+                b, bRowPtr + iq, bColPtr,      b, bRowPtr,      bColPtr,      true,  // (B21 - B11)
+                rq, iq, cq);
+            ProductTask t = new ProductTask(
+                a, aRowPtr,      aColPtr,      a, aRowPtr,      aColPtr + iq, false, // (A11 + A12)
+                b, bRowPtr + iq, bColPtr + cq, null, 0, 0,                    false, // B22
+                rq, iq, cq);
+            ProductTask u = new ProductTask(
+                a, aRowPtr + rq, aColPtr,      a, aRowPtr,      aColPtr,      true,  // (A21 - A11)
+                b, bRowPtr,      bColPtr,      b, bRowPtr,      bColPtr + cq, false, // (B11 + B12)
+                rq, iq, cq);
+            ProductTask v = new ProductTask(
+                a, aRowPtr,      aColPtr + iq, a, aRowPtr + rq, aColPtr + iq, true,  // (A12 - A22)
+                b, bRowPtr + iq, bColPtr,      b, bRowPtr + iq, bColPtr + cq, false, // (B21 + B22)
+                rq, iq, cq);
+            invokeAll(p, qTask, r, s, t, u, v);
+            int[][] pResult = p.join();
+            int[][] qResult = qTask.join();
+            int[][] rResult = r.join();
+            int[][] sResult = s.join();
+            int[][] tResult = t.join();
+            int[][] uResult = u.join();
+            int[][] vResult = v.join();
+
+            /**
+             * Combine Products Into Quadrants
+             * C11 = P + S - T + V
+             * C12 = R + T
+             * C21 = Q + S
+             * C22 = P + R - Q + U
+             * Scaled And Combined With C On The Way Out
+             */
+            for (int row = 0; row < rq; row++)
+            {
+                int[] c1 = c[row];
+                int[] c2 = c[row + rq];
+                int[] pRow = pResult[row], qRow = qResult[row], rRow = rResult[row];
+                int[] sRow = sResult[row], tRow = tResult[row], uRow = uResult[row];
+                int[] vRow = vResult[row];
+                for (int col = 0; col < cq; col++)
+                {
+                    int c11 = pRow[col] + sRow[col] - tRow[col] + vRow[col];
+                    int c12 = rRow[col] + tRow[col];
+                    int c21 = qRow[col] + sRow[col];
+                    int c22 = pRow[col] + rRow[col] - qRow[col] + uRow[col];
+                    if (beta == 0)
+                    {
+                        c1[col]     = alpha * c11;
+                        c1[col + cq] = alpha * c12;
+                        c2[col]     = alpha * c21;
+                        c2[col + cq] = alpha * c22;
+                    }
+                    else
+                    {
+                        c1[col]     = alpha * c11 + beta * c1[col];
+                        c1[col + cq] = alpha * c12 + beta * c1[col + cq];
+                        c2[col]     = alpha * c21 + beta * c2[col];
+                        c2[col + cq] = alpha * c22 + beta * c2[col + cq];
+                    }
+                }
+            }
+            return c;
+        }
+    }
+}
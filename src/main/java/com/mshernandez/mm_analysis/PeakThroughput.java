@@ -0,0 +1,231 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.Arrays;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * The highest rate of int arithmetic this machine reaches
+ * from Java, measured on one core and on every core, so the
+ * throughput of a multiplier can be reported as a fraction
+ * of what the hardware can do.
+ *
+ * The peak is measured with int multiply-adds whose accumulators
+ * stay in registers. Each element of a small accumulator array is
+ * loaded once per pass, goes through several dependent multiply-adds
+ * with a value of a small B vector, and is stored once at the end,
+ * so arithmetic outweighs the loads and stores several times over.
+ * The JIT compiler vectorizes the loop across elements with the
+ * widest instructions available, which keeps many independent
+ * accumulators in flight to hide the latency of each chain, so the
+ * rate is bound by the arithmetic units rather than the L1 cache.
+ * A loop like c[j] += a * b[j] would do two loads and a store for
+ * every two operations and measure load/store bandwidth instead.
+ * Every thread runs the loop over its own arrays at the same time
+ * and the best of several trials is kept.
+ */
+public class PeakThroughput
+{
+    /**
+     * Two 4 KB arrays per thread fit in any L1 data cache.
+     */
+    private static final int KERNEL_LENGTH = 1024;
+    /**
+     * Longer chains run out of registers once the
+     * JIT compiler unrolls the loop.
+     */
+    private static final int MULTIPLY_ADDS_PER_LOAD = 4;
+    private static final int PASSES_PER_TRIAL = 20000;
+    private static final int WARMUP_TRIALS = 20;
+    private static final int TRIALS = 10;
+
+    /**
+     * Keeps the results of the kernel alive so the
+     * JIT compiler cannot discard the work.
+     */
+    private static volatile int sink;
+
+    private double singleCoreGops;
+    private double allCoreGops;
+    private int threads;
+
+    /**
+     * Initializes a peak from known rates.
+     *
+     * @param singleCoreGops The peak of one core, in billions of operations per second.
+     * @param allCoreGops The peak of every core together, in billions of operations per second.
+     * @param threads The number of threads the all-core peak was measured with.
+     */
+    public PeakThroughput(double singleCoreGops, double allCoreGops, int threads)
+    {
+        if (singleCoreGops <= 0.0 || allCoreGops <= 0.0 || threads < 1)
+        {
+            throw new IllegalArgumentException("Invalid Peak: " + singleCoreGops + ", " + allCoreGops
+                                               + " GOPS, " + threads + " Threads");
+        }
+        this.singleCoreGops = singleCoreGops;
+        this.allCoreGops = allCoreGops;
+        this.threads = threads;
+    }
+
+    /**
+     * Measures the peak of one core and of the given
+     * number of threads running at once.
+     *
+     * @param threads The number of threads for the all-core peak.
+     * @return The measured peak.
+     */
+    public static PeakThroughput measure(int threads)
+    {
+        double singleCoreGops = measureGops(1);
+        double allCoreGops = (threads == 1) ? singleCoreGops : measureGops(threads);
+        return new PeakThroughput(singleCoreGops, allCoreGops, threads);
+    }
+
+    /**
+     * Runs the kernel on several threads at once and
+     * calculates the rate of the fastest trial.
+     *
+     * @param threads The number of threads.
+     * @return The rate in billions of operations per second.
+     */
+    static double measureGops(int threads)
+    {
+        long[][] elapsed = new long[threads][TRIALS];
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++)
+        {
+            int thread = t;
+            workers[t] = new Thread(() -> runTrials(barrier, elapsed[thread]), "Peak Throughput " + t);
+            workers[t].start();
+        }
+        try
+        {
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted While Measuring Peak Throughput", e);
+        }
+        double operationsPerTrial = 2.0 * MULTIPLY_ADDS_PER_LOAD * KERNEL_LENGTH * PASSES_PER_TRIAL * threads;
+        double bestGops = 0.0;
+        for (int trial = 0; trial < TRIALS; trial++)
+        {
+            /**
+             * A Trial Lasts Until Its Slowest Thread Finishes
+             */
+            long slowest = 1;
+            for (int t = 0; t < threads; t++)
+            {
+                slowest = Math.max(slowest, elapsed[t][trial]);
+            }
+            bestGops = Math.max(bestGops, operationsPerTrial / slowest);
+        }
+        return bestGops;
+    }
+
+    /**
+     * Warms up the kernel, then times every trial,
+     * starting each one with the other threads.
+     *
+     * @param barrier Starts the trials of every thread together.
+     * @param elapsed Receives the time of each trial, in nanoseconds.
+     */
+    private static void runTrials(CyclicBarrier barrier, long[] elapsed)
+    {
+        int[] b = new int[KERNEL_LENGTH];
+        int[] c = new int[KERNEL_LENGTH];
+        Arrays.fill(b, 3);
+        for (int trial = 0; trial < WARMUP_TRIALS; trial++)
+        {
+            kernel(b, c, PASSES_PER_TRIAL / 10);
+        }
+        try
+        {
+            for (int trial = 0; trial < elapsed.length; trial++)
+            {
+                barrier.await();
+                long start = System.nanoTime();
+                kernel(b, c, PASSES_PER_TRIAL);
+                elapsed[trial] = System.nanoTime() - start;
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted While Measuring Peak Throughput", e);
+        }
+        catch (BrokenBarrierException e)
+        {
+            throw new IllegalStateException("Peak Throughput Thread Failed", e);
+        }
+        sink = c[0];
+    }
+
+    /**
+     * Updates every accumulator in C with a chain of
+     * multiply-adds, c = c * a + b[j], keeping it in a
+     * register until the chain is done. Each pass uses a
+     * different multiplier, two operations per multiply-add.
+     */
+    private static void kernel(int[] b, int[] c, int passes)
+    {
+        for (int pass = 0; pass < passes; pass++)
+        {
+            int a = pass | 1;
+            for (int j = 0; j < c.length; j++)
+            {
+                int bj = b[j];
+                int accumulator = c[j];
+                accumulator = accumulator * a + bj;
+                accumulator = accumulator * a + bj;
+                accumulator = accumulator * a + bj;
+                accumulator = accumulator * a + bj;
+                c[j] = accumulator;
+            }
+        }
+    }
+
+    /**
+     * Gets the peak of one core.
+     *
+     * @return The rate in billions of operations per second.
+     */
+    public double getSingleCoreGops()
+    {
+        return singleCoreGops;
+    }
+
+    /**
+     * Gets the peak of every core together.
+     *
+     * @return The rate in billions of operations per second.
+     */
+    public double getAllCoreGops()
+    {
+        return allCoreGops;
+    }
+
+    /**
+     * Gets the number of threads the all-core peak was measured with.
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * Describes both peaks.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("%.2f GOPS Single-Core, %.2f GOPS All-Core (%d Threads)",
+                             singleCoreGops, allCoreGops, threads);
+    }
+}
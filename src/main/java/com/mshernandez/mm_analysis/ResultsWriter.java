@@ -0,0 +1,131 @@
+package com.mshernandez.mm_analysis;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams benchmark results to a CSV file as each size
+ * completes, so an interrupted run keeps every row written
+ * so far.
+ *
+ * The file starts with a header naming every column and has
+ * one row per algorithm and size, so rows from several runs
+ * can be appended to the same file and read without knowing
+ * which sizes were tested. Every row is flushed as soon as
+ * it is written.
+ *
+ * Throughput is reported as a percentage of the measured peak
+ * of one core and of every core, which is left empty when no
+ * peak was measured.
+ */
+public class ResultsWriter implements Closeable
+{
+    public static final String HEADER = "algorithm,size,inputs,samples,mean_ns,cpu_ns,"
+                                        + "operations,gops,effective_gops,bytes_per_op,"
+                                        + "pct_single_core_peak,pct_all_core_peak,"
+                                        + "allocated_bytes,peak_heap_bytes,min_ns,"
+                                        + "p50_ns,p90_ns,p99_ns,p99.9_ns,max_ns,stddev_ns,ci95_relative_error,"
+                                        + "warmup_runs,compilation_samples,collection_samples";
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private BufferedWriter writer;
+    private PeakThroughput peak;
+
+    /**
+     * Opens a results file, writing the header unless
+     * rows are appended to a file which already has some.
+     *
+     * @param file The CSV file to write.
+     * @param append Whether to keep the rows already in the file.
+     * @param peak The peak throughput of the machine, or null if it was not measured.
+     * @throws IOException If the file could not be opened.
+     */
+    public ResultsWriter(Path file, boolean append, PeakThroughput peak) throws IOException
+    {
+        this.peak = peak;
+        boolean writeHeader = !append || !Files.exists(file) || Files.size(file) == 0;
+        writer = append ? Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                        : Files.newBufferedWriter(file);
+        if (writeHeader)
+        {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the results of one algorithm for one size.
+     *
+     * @param benchmarker The benchmarker which measured the size.
+     * @param size The size to write.
+     * @throws IOException If the row could not be written.
+     */
+    public void write(MatrixMultiplierBenchmarker benchmarker, int size) throws IOException
+    {
+        LatencyHistogram histogram = benchmarker.getHistogram(size);
+        StringBuilder row = new StringBuilder();
+        row.append(quote(benchmarker.getAlgorithmName())).append(',')
+           .append(size).append(',')
+           .append(benchmarker.getNumberInputs(size)).append(',')
+           .append(histogram.getTotalCount()).append(',')
+           .append(benchmarker.getAverageRuntime(size)).append(',')
+           .append(benchmarker.getAverageCpuTime(size)).append(',')
+           .append(benchmarker.getOperationCount(size)).append(',')
+           .append(benchmarker.getGops(size)).append(',')
+           .append(benchmarker.getEffectiveGops(size)).append(',')
+           .append(benchmarker.getBytesPerOperation(size)).append(',');
+        if (peak != null)
+        {
+            row.append(100.0 * benchmarker.getGops(size) / peak.getSingleCoreGops()).append(',')
+               .append(100.0 * benchmarker.getGops(size) / peak.getAllCoreGops()).append(',');
+        }
+        else
+        {
+            row.append(",,");
+        }
+        row.append(benchmarker.getAverageAllocatedBytes(size)).append(',')
+           .append(benchmarker.getPeakHeapUsage(size)).append(',')
+           .append(histogram.getMin());
+        for (double percentile : PERCENTILES)
+        {
+            row.append(',').append(histogram.getValueAtPercentile(percentile));
+        }
+        row.append(',').append(histogram.getMax())
+           .append(',').append(histogram.getStandardDeviation())
+           .append(',').append(benchmarker.getRelativeError(size))
+           .append(',').append(benchmarker.getWarmupRuns(size))
+           .append(',').append(benchmarker.getCompilationSamples(size))
+           .append(',').append(benchmarker.getCollectionSamples(size));
+        writer.write(row.toString());
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Quotes a value if it contains a character
+     * which would otherwise split or end the field.
+     */
+    static String quote(String value)
+    {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+        {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+}
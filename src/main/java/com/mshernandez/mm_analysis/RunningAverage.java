@@ -15,6 +15,12 @@ public class RunningAverage
         qtyOfItems = 0;
     }
 
+    public RunningAverage(double average, int qtyOfItems)
+    {
+        this.average = average;
+        this.qtyOfItems = qtyOfItems;
+    }
+
     public void addData(double data)
     {
         average = (average * qtyOfItems + data) / ++qtyOfItems;
@@ -0,0 +1,307 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A matrix multiplier for a sparse matrix A and a dense
+ * matrix B, which only does work for nonzero elements of A.
+ *
+ * With A in CSR form, each row of the result is the sum of the
+ * rows of B selected by the nonzero elements of the matching row
+ * of A, scaled by their values. With A in CSC form, each column
+ * of A scatters its nonzero elements times one row of B into the
+ * rows of the result (an outer product). Both walk rows of B and
+ * of the result contiguously and take O(nnz(A) * n) time instead
+ * of O(n^3).
+ *
+ * When benchmarked, A is compressed while preparing the
+ * multiplication, so only the multiplication itself is timed.
+ */
+public class SparseDenseMatrixMultiplier extends MatrixMultiplier
+{
+    private boolean compressedColumns;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used, storing A
+     * in CSR form.
+     */
+    public SparseDenseMatrixMultiplier()
+    {
+        this(false);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param compressedColumns Whether A is stored in CSC form instead of CSR form.
+     */
+    public SparseDenseMatrixMultiplier(boolean compressedColumns)
+    {
+        super(compressedColumns ? "Sparse x Dense (CSC)" : "Sparse x Dense (CSR)");
+        this.compressedColumns = compressedColumns;
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices,
+     * compressing A first.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return multiply(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B,
+     * compressing A first.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        return compressedColumns ? multiply(CscMatrix.fromArray(a), b) : multiply(CsrMatrix.fromArray(a), b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B,
+     * compressing A first and combining the product
+     * with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        if (compressedColumns)
+        {
+            multiplyInto(CscMatrix.fromArray(a), b, c, alpha, beta);
+        }
+        else
+        {
+            multiplyInto(CsrMatrix.fromArray(a), b, c, alpha, beta);
+        }
+    }
+
+    /**
+     * Prepares the multiplication of two n*n matrices,
+     * compressing A beforehand.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(int[][] a, int[][] b)
+    {
+        if (compressedColumns)
+        {
+            CscMatrix compressedA = CscMatrix.fromArray(a);
+            return () -> multiply(compressedA, b);
+        }
+        CsrMatrix compressedA = CsrMatrix.fromArray(a);
+        return () -> multiply(compressedA, b);
+    }
+
+    /**
+     * Prepares the multiplication of two contiguous n*n
+     * matrices, compressing A beforehand.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return A task multiplying the inputs each time it is run.
+     */
+    @Override
+    public Runnable prepare(Matrix a, Matrix b)
+    {
+        return prepare(a.toArray(), b.toArray());
+    }
+
+    /**
+     * Gets the number of arithmetic operations done to multiply
+     * two specific matrices, one multiplication and one addition
+     * for every nonzero element of A with every column of B.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return 2 * nnz(A) * n.
+     */
+    @Override
+    public long getOperationCount(int[][] a, int[][] b)
+    {
+        long nonZeros = 0;
+        for (int[] row : a)
+        {
+            for (int value : row)
+            {
+                nonZeros += (value != 0) ? 1 : 0;
+            }
+        }
+        return 2L * nonZeros * b[0].length;
+    }
+
+    /**
+     * Gets the number of arithmetic operations done
+     * to multiply two specific contiguous matrices.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return 2 * nnz(A) * n.
+     */
+    @Override
+    public long getOperationCount(Matrix a, Matrix b)
+    {
+        return getOperationCount(a.toArray(), b.toArray());
+    }
+
+    /**
+     * Multiplies a sparse m*k matrix A in CSR form
+     * by a dense k*n matrix B, one row at a time.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    public static int[][] multiply(CsrMatrix a, int[][] b)
+    {
+        checkDimensions(a.getColumns(), b);
+        int[][] result = new int[a.getRows()][b[0].length];
+        multiplyInto(a, b, result, 1, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies a sparse m*k matrix A in CSR form by a dense
+     * k*n matrix B one row at a time, combining the product
+     * with matrix C. Each row of C is scaled by beta right
+     * before the product is accumulated into it, and alpha
+     * is folded into each nonzero element of A.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    public static void multiplyInto(CsrMatrix a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a.getColumns(), b);
+        checkOutput(a.getRows(), b, c);
+        int[] rowPointers = a.getRowPointers();
+        int[] columnIndices = a.getColumnIndices();
+        int[] values = a.getValues();
+        int cols = b[0].length;
+        for (int row = 0; row < a.getRows(); row++)
+        {
+            scale(c, row, 0, 1, cols, beta);
+            int[] cRow = c[row];
+            for (int i = rowPointers[row]; i < rowPointers[row + 1]; i++)
+            {
+                int aValue = alpha * values[i];
+                int[] bRow = b[columnIndices[i]];
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[col] += aValue * bRow[col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies a sparse m*k matrix A in CSC form
+     * by a dense k*n matrix B, one column of A at a time.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    public static int[][] multiply(CscMatrix a, int[][] b)
+    {
+        checkDimensions(a.getColumns(), b);
+        int[][] result = new int[a.getRows()][b[0].length];
+        multiplyInto(a, b, result, 1, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies a sparse m*k matrix A in CSC form by a dense
+     * k*n matrix B one column of A at a time, combining the
+     * product with matrix C. Columns of A scatter into any
+     * row of C, so C is scaled by beta up front.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    public static void multiplyInto(CscMatrix a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a.getColumns(), b);
+        checkOutput(a.getRows(), b, c);
+        int[] columnPointers = a.getColumnPointers();
+        int[] rowIndices = a.getRowIndices();
+        int[] values = a.getValues();
+        int cols = b[0].length;
+        scale(c, 0, 0, a.getRows(), cols, beta);
+        for (int inner = 0; inner < a.getColumns(); inner++)
+        {
+            int[] bRow = b[inner];
+            for (int i = columnPointers[inner]; i < columnPointers[inner + 1]; i++)
+            {
+                int aValue = alpha * values[i];
+                int[] cRow = c[rowIndices[i]];
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[col] += aValue * bRow[col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a sparse matrix with the given number
+     * of columns can be multiplied by a dense matrix.
+     */
+    private static void checkDimensions(int columns, int[][] b)
+    {
+        if (b.length != columns || b.length == 0)
+        {
+            throw new IllegalArgumentException("Cannot Multiply A Matrix With " + columns
+                                               + " Columns By " + b.length + " Rows");
+        }
+    }
+
+    /**
+     * Checks that a matrix has the shape of the product
+     * of a sparse matrix with the given number of rows
+     * and a dense matrix.
+     */
+    private static void checkOutput(int rows, int[][] b, int[][] c)
+    {
+        if (c.length != rows || (rows > 0 && c[0].length != b[0].length))
+        {
+            throw new IllegalArgumentException("Cannot Store " + rows + "x" + b[0].length + " Product In "
+                                               + c.length + "x" + (c.length == 0 ? 0 : c[0].length) + " Matrix");
+        }
+    }
+}
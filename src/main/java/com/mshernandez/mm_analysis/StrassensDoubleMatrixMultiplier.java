@@ -0,0 +1,267 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * A double matrix multiplier using Strassens algorithm.
+ *
+ * Sub-problems at or below the leaf size are multiplied
+ * iteratively instead of recursing further.
+ */
+public class StrassensDoubleMatrixMultiplier extends DoubleMatrixMultiplier
+{
+    private int leafSize;
+    private ThreadLocal<StrassensDoubleWorkspace> workspaces;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used, recursing
+     * all the way down to 2x2 sub-problems.
+     */
+    public StrassensDoubleMatrixMultiplier()
+    {
+        this(StrassensMatrixMultiplier.DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    public StrassensDoubleMatrixMultiplier(int leafSize)
+    {
+        super(leafSize == StrassensMatrixMultiplier.DEFAULT_LEAF_SIZE
+              ? "Strassens (double)" : "Strassens (double, Leaf " + leafSize + ")");
+        if (leafSize < 2)
+        {
+            throw new IllegalArgumentException("Leaf Size Must Be At Least 2");
+        }
+        this.leafSize = leafSize;
+        workspaces = ThreadLocal.withInitial(StrassensDoubleWorkspace::new);
+    }
+
+    /**
+     * Gets the largest size multiplied iteratively.
+     *
+     * @return The leaf size.
+     */
+    public int getLeafSize()
+    {
+        return leafSize;
+    }
+
+    /**
+     * Gets the number of arithmetic operations done
+     * to multiply two n*n matrices.
+     *
+     * @param size The size n of the inputs.
+     * @return The operation count.
+     */
+    @Override
+    public long getOperationCount(int size)
+    {
+        return StrassensMatrixMultiplier.operationCount(size, size, size, leafSize);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using Strassens method. Odd dimensions are peeled
+     * off at each level instead of padding the inputs.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public double[][] multiply(double[][] a, double[][] b)
+    {
+        checkDimensions(a, b);
+        double[][] result = new double[a.length][b[0].length];
+        StrassensDoubleWorkspace workspace = workspaces.get();
+        workspace.ensureCapacity(a.length, b.length, b[0].length, leafSize);
+        mul(a, 0, 0,
+            b, 0, 0,
+            result, a.length, b.length, b[0].length,
+            workspace, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies portions of two matrices using Strassens method,
+     * storing the result in the top left corner of a third
+     * provided matrix.
+     * 
+     * C = Arc*Brc
+     * 
+     * @param a         Matrix A
+     * @param aRowPtr   Matrix A Starting Row Index
+     * @param aColPtr   Matrix A Starting Column Index
+     * @param b         Matrix B
+     * @param bRowPtr   Matrix B Starting Row Index
+     * @param bColPtr   Matrix B Starting Column Index
+     * @param c         Matrix C, Result Matrix
+     * @param rows      The number of rows of the A portion and result.
+     * @param inner     The number of columns of A and rows of B.
+     * @param cols      The number of columns of the B portion and result.
+     * @param workspace Temporaries for every level of the recursion.
+     * @param level     The current recursion depth.
+     */
+    private void mul(double[][] a, int aRowPtr, int aColPtr,
+                     double[][] b, int bRowPtr, int bColPtr,
+                     double[][] c, int rows, int inner, int cols,
+                     StrassensDoubleWorkspace workspace, int level)
+    {
+        /**
+         * Leaf Case
+         */
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            clear(c, 0, rows, 0, cols);
+            IterativeDoubleMatrixMultiplier.multiplyAccumulate(a, aRowPtr, aColPtr,
+                                                             b, bRowPtr, bColPtr,
+                                                             c, 0,       0,
+                                                             rows, inner, cols);
+            return;
+        }
+        /**
+         * Odd Dimensions
+         * Recurse on the even-sized part, then clear the
+         * peeled row and column of the result and add
+         * their contributions separately.
+         */
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            int evenRows = rows & ~1;
+            int evenCols = cols & ~1;
+            mul(a, aRowPtr, aColPtr,
+                b, bRowPtr, bColPtr,
+                c, evenRows, inner & ~1, evenCols,
+                workspace, level);
+            clear(c, 0, evenRows, evenCols, cols);
+            clear(c, evenRows, rows, 0, cols);
+            IterativeDoubleMatrixMultiplier.multiplyAccumulatePeeled(a, aRowPtr, aColPtr,
+                                                                   b, bRowPtr, bColPtr,
+                                                                   c, 0,       0,
+                                                                   rows, inner, cols);
+            return;
+        }
+        /**
+         * Not Base Case, Need Recursive Calls
+         * Array Provided To Store Result May Have
+         * Existing Contents, Must Be Cleared
+         * Before Adding P, Q, R, S, T, U, V
+         */
+        clear(c, 0, rows, 0, cols);
+        int rq = rows / 2;
+        int iq = inner / 2;
+        int cq = cols / 2;
+        /**
+         * Need 3 Temporary Arrays For Operations,
+         * Reused For Every Product At This Level
+         * And Taken From The Workspace For This Level
+         */
+        double[][] t1 = workspace.getT1(level);
+        double[][] t2 = workspace.getT2(level);
+        double[][] t3 = workspace.getT3(level);
+
+        // P = (A11 + A22)(B11 + B22), C11 += P, C22 += P
+        add(a, aRowPtr, aColPtr, a, aRowPtr + rq, aColPtr + iq, t1, rq, iq, false);
+        add(b, bRowPtr, bColPtr, b, bRowPtr + iq, bColPtr + cq, t2, iq, cq, false);
+        mul(t1, 0, 0, t2, 0, 0, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, 0, 0, t3, rq, cq, false);
+        accumulate(c, rq, cq, t3, rq, cq, false);
+
+        // Q = (A21 + A22)B11, C21 += Q, C22 -= Q
+        add(a, aRowPtr + rq, aColPtr, a, aRowPtr + rq, aColPtr + iq, t1, rq, iq, false);
+        mul(t1, 0, 0, b, bRowPtr, bColPtr, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, rq, 0, t3, rq, cq, false);
+        accumulate(c, rq, cq, t3, rq, cq, true);
+
+        // R = A11(B12 - B22), C12 += R, C22 += R
+        add(b, bRowPtr, bColPtr + cq, b, bRowPtr + iq, bColPtr + cq, t2, iq, cq, true);
+        mul(a, aRowPtr, aColPtr, t2, 0, 0, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, 0, cq, t3, rq, cq, false);
+        accumulate(c, rq, cq, t3, rq, cq, false);
+
+        // S = A22(B21 - B11), C11 += S, C21 += S
+        add(b, bRowPtr + iq, bColPtr, b, bRowPtr, bColPtr, t2, iq, cq, true);
+        mul(a, aRowPtr + rq, aColPtr + iq, t2, 0, 0, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, 0, 0, t3, rq, cq, false);
+        accumulate(c, rq, 0, t3, rq, cq, false);
+
+        // T = (A11 + A12)B22, C11 -= T, C12 += T
+        add(a, aRowPtr, aColPtr, a, aRowPtr, aColPtr + iq, t1, rq, iq, false);
+        mul(t1, 0, 0, b, bRowPtr + iq, bColPtr + cq, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, 0, 0, t3, rq, cq, true);
+        accumulate(c, 0, cq, t3, rq, cq, false);
+
+        // U = (A21 - A11)(B11 + B12), C22 += U
+        add(a, aRowPtr + rq, aColPtr, a, aRowPtr, aColPtr, t1, rq, iq, true);
+        add(b, bRowPtr, bColPtr, b, bRowPtr, bColPtr + cq, t2, iq, cq, false);
+        mul(t1, 0, 0, t2, 0, 0, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, rq, cq, t3, rq, cq, false);
+
+        // V = (A12 - A22)(B21 + B22), C11 += V
+        add(a, aRowPtr, aColPtr + iq, a, aRowPtr + rq, aColPtr + iq, t1, rq, iq, true);
+        add(b, bRowPtr + iq, bColPtr, b, bRowPtr + iq, bColPtr + cq, t2, iq, cq, false);
+        mul(t1, 0, 0, t2, 0, 0, t3, rq, iq, cq, workspace, level + 1);
+        accumulate(c, 0, 0, t3, rq, cq, false);
+    }
+
+    /**
+     * Adds or subtracts portions of two matrices,
+     * storing the result in the top left corner
+     * of a third matrix.
+     *
+     * Z = X + Y or Z = X - Y
+     */
+    private static void add(double[][] x, int xRowPtr, int xColPtr,
+                            double[][] y, int yRowPtr, int yColPtr,
+                            double[][] z, int rows, int cols, boolean subtract)
+    {
+        for (int row = 0; row < rows; row++)
+        {
+            double[] xRow = x[xRowPtr + row];
+            double[] yRow = y[yRowPtr + row];
+            double[] zRow = z[row];
+            for (int col = 0; col < cols; col++)
+            {
+                zRow[col] = subtract ? xRow[xColPtr + col] - yRow[yColPtr + col]
+                                     : xRow[xColPtr + col] + yRow[yColPtr + col];
+            }
+        }
+    }
+
+    /**
+     * Adds or subtracts the top left corner of
+     * a matrix to a portion of another matrix.
+     *
+     * C += T or C -= T
+     */
+    private static void accumulate(double[][] c, int cRowPtr, int cColPtr,
+                                   double[][] t, int rows, int cols, boolean subtract)
+    {
+        for (int row = 0; row < rows; row++)
+        {
+            double[] cRow = c[cRowPtr + row];
+            double[] tRow = t[row];
+            for (int col = 0; col < cols; col++)
+            {
+                cRow[cColPtr + col] += subtract ? -tRow[col] : tRow[col];
+            }
+        }
+    }
+
+    /**
+     * Zeroes a rectangular portion of a matrix.
+     */
+    private static void clear(double[][] c, int rowStart, int rowEnd, int colStart, int colEnd)
+    {
+        for (int row = rowStart; row < rowEnd; row++)
+        {
+            for (int col = colStart; col < colEnd; col++)
+            {
+                c[row][col] = 0;
+            }
+        }
+    }
+}
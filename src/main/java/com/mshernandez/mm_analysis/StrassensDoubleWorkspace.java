@@ -0,0 +1,117 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.Arrays;
+
+/**
+ * Scratch space for the temporary double matrices used
+ * by each level of the Strassens recursion, the double
+ * counterpart of StrassensWorkspace.
+ *
+ * Buffers only grow, so once a workspace has been used
+ * for a size it can be reused for that size or any
+ * smaller one without allocating.
+ *
+ * A workspace is not thread safe and should be confined
+ * to the thread using it.
+ */
+class StrassensDoubleWorkspace
+{
+    private double[][][] t1;
+    private double[][][] t2;
+    private double[][][] t3;
+
+    /**
+     * Creates an empty workspace.
+     */
+    StrassensDoubleWorkspace()
+    {
+        t1 = new double[0][][];
+        t2 = new double[0][][];
+        t3 = new double[0][][];
+    }
+
+    /**
+     * Makes sure every level has large enough temporaries
+     * to multiply a rows*inner portion by an inner*cols
+     * portion. The levels visited mirror the recursion of
+     * StrassensDoubleMatrixMultiplier, where odd dimensions
+     * are peeled before halving.
+     *
+     * @param rows The number of rows of the A portion and result.
+     * @param inner The number of columns of A and rows of B.
+     * @param cols The number of columns of the B portion and result.
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    void ensureCapacity(int rows, int inner, int cols, int leafSize)
+    {
+        int level = 0;
+        while (rows > leafSize && inner > leafSize && cols > leafSize)
+        {
+            rows /= 2;
+            inner /= 2;
+            cols /= 2;
+            if (level == t1.length)
+            {
+                t1 = Arrays.copyOf(t1, level + 1);
+                t2 = Arrays.copyOf(t2, level + 1);
+                t3 = Arrays.copyOf(t3, level + 1);
+            }
+            t1[level] = ensureSize(t1[level], rows, inner);
+            t2[level] = ensureSize(t2[level], inner, cols);
+            t3[level] = ensureSize(t3[level], rows, cols);
+            level++;
+        }
+    }
+
+    /**
+     * Gets the temporary used for sums of A quadrants.
+     *
+     * @param level The recursion depth.
+     * @return A matrix at least (rows/2)*(inner/2) in size.
+     */
+    double[][] getT1(int level)
+    {
+        return t1[level];
+    }
+
+    /**
+     * Gets the temporary used for sums of B quadrants.
+     *
+     * @param level The recursion depth.
+     * @return A matrix at least (inner/2)*(cols/2) in size.
+     */
+    double[][] getT2(int level)
+    {
+        return t2[level];
+    }
+
+    /**
+     * Gets the temporary used for the products P..V.
+     *
+     * @param level The recursion depth.
+     * @return A matrix at least (rows/2)*(cols/2) in size.
+     */
+    double[][] getT3(int level)
+    {
+        return t3[level];
+    }
+
+    /**
+     * Returns the given matrix if it has at least the
+     * requested size, otherwise a new matrix large
+     * enough for both.
+     */
+    private static double[][] ensureSize(double[][] matrix, int rows, int cols)
+    {
+        if (matrix != null && matrix.length >= rows && matrix[0].length >= cols)
+        {
+            return matrix;
+        }
+        if (matrix != null)
+        {
+            rows = Math.max(rows, matrix.length);
+            cols = Math.max(cols, matrix[0].length);
+        }
+        return new double[rows][cols];
+    }
+}
@@ -1,17 +1,105 @@
 package com.mshernandez.mm_analysis;
 
+import java.util.Arrays;
+
 /**
  * A matrix multiplier using Strassens algorithm.
+ *
+ * Sub-problems at or below the leaf size are multiplied
+ * with the blocked iterative kernel instead of recursing
+ * further, which avoids the recursion and scratch space
+ * overhead where it outweighs the saved multiplications.
  */
 public class StrassensMatrixMultiplier extends MatrixMultiplier
 {
+    public static final int DEFAULT_LEAF_SIZE = 2;
+
+    private int leafSize;
+    private ThreadLocal<StrassensWorkspace> workspaces;
+
     /**
      * Initializes this matrix multiplier with
-     * the name of the algorithm used.
+     * the name of the algorithm used, recursing
+     * all the way down to 2x2 base cases.
      */
     public StrassensMatrixMultiplier()
     {
-        super("Strassens");
+        this(DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    public StrassensMatrixMultiplier(int leafSize)
+    {
+        super(leafSize == DEFAULT_LEAF_SIZE ? "Strassens" : "Strassens (Leaf " + leafSize + ")");
+        if (leafSize < 2)
+        {
+            throw new IllegalArgumentException("Leaf Size Must Be At Least 2");
+        }
+        this.leafSize = leafSize;
+        workspaces = ThreadLocal.withInitial(StrassensWorkspace::new);
+    }
+
+    /**
+     * Gets the largest size multiplied iteratively.
+     *
+     * @return The leaf size.
+     */
+    public int getLeafSize()
+    {
+        return leafSize;
+    }
+
+    /**
+     * Gets the number of arithmetic operations done
+     * to multiply two n*n matrices.
+     *
+     * @param size The size n of the inputs.
+     * @return The operation count.
+     */
+    @Override
+    public long getOperationCount(int size)
+    {
+        return operationCount(size, size, size, leafSize);
+    }
+
+    /**
+     * Counts the arithmetic operations of the recursion used by
+     * every Strassens multiplier: each level does 7 products of
+     * quadrants, 5 additions of A quadrants and 5 of B quadrants
+     * for their operands, and adds every product into one or two
+     * quadrants of C, 12 additions in all. Leaves and the peeled
+     * row and column of odd dimensions are multiplied classically.
+     *
+     * @param rows The number of rows of A and C.
+     * @param inner The number of columns of A and rows of B.
+     * @param cols The number of columns of B and C.
+     * @param leafSize The largest size multiplied iteratively.
+     * @return The operation count.
+     */
+    static long operationCount(int rows, int inner, int cols, int leafSize)
+    {
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            return 2L * rows * inner * cols;
+        }
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            int evenRows = rows & ~1;
+            int evenInner = inner & ~1;
+            int evenCols = cols & ~1;
+            return operationCount(evenRows, evenInner, evenCols, leafSize)
+                   + 2L * rows * inner * cols - 2L * evenRows * evenInner * evenCols;
+        }
+        long rq = rows / 2;
+        long iq = inner / 2;
+        long cq = cols / 2;
+        return 7 * operationCount(rows / 2, inner / 2, cols / 2, leafSize)
+               + 5 * rq * iq + 5 * iq * cq + 12 * rq * cq;
     }
 
     /**
@@ -30,18 +118,87 @@ public class StrassensMatrixMultiplier extends MatrixMultiplier
         int[][] result = new int[size][size];
         mul(a, 0, 0,
             b, 0, 0,
-            result);
+            result, size, size, size);
         return result;
     }
 
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using Strassens method. Odd dimensions are peeled
+     * off at each level instead of padding the inputs.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        mul(a, 0, 0,
+            b, 0, 0,
+            result, a.length, b.length, b[0].length);
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using
+     * Strassens method, combining the product with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * The recursion overwrites its output, so the product is
+     * computed into a buffer kept in the calling thread's
+     * workspace and combined into C in a single pass, without
+     * allocating once the workspace has grown to the size.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        int rows = a.length;
+        int cols = b[0].length;
+        int[][] product = workspaces.get().getProduct(rows, cols);
+        mul(a, 0, 0,
+            b, 0, 0,
+            product, rows, b.length, cols);
+        for (int row = 0; row < rows; row++)
+        {
+            int[] pRow = product[row];
+            int[] cRow = c[row];
+            if (beta == 0)
+            {
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[col] = alpha * pRow[col];
+                }
+            }
+            else
+            {
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[col] = alpha * pRow[col] + beta * cRow[col];
+                }
+            }
+        }
+    }
+
     /**
      * Multiplies portions of two matrices using Strassens method,
-     * storing the result in a third provided matrix.
+     * storing the result in the top left corner of a third
+     * provided matrix.
      * 
      * C = Arc*Brc
      * 
-     * Note: No size parameter is taken because the method assumes
-     * that the provided C matrix matches the size of the result.
+     * Temporaries come from the calling thread's workspace,
+     * which only allocates when it has to grow.
      * 
      * @param a       Matrix A
      * @param aRowPtr Matrix A Starting Row Index
@@ -50,15 +207,51 @@ public class StrassensMatrixMultiplier extends MatrixMultiplier
      * @param bRowPtr Matrix B Starting Row Index
      * @param bColPtr Matrix B Starting Column Index
      * @param c       Matrix C, Result Matrix
+     * @param rows    The number of rows of the A portion and result.
+     * @param inner   The number of columns of A and rows of B.
+     * @param cols    The number of columns of the B portion and result.
+     */
+    void mul(int[][] a, int aRowPtr, int aColPtr,
+             int[][] b, int bRowPtr, int bColPtr,
+             int[][] c, int rows, int inner, int cols)
+    {
+        StrassensWorkspace workspace = workspaces.get();
+        workspace.ensureCapacity(rows, inner, cols, leafSize);
+        mul(a, aRowPtr, aColPtr,
+            b, bRowPtr, bColPtr,
+            c, rows, inner, cols,
+            workspace, 0);
+    }
+
+    /**
+     * Multiplies portions of two matrices using Strassens method,
+     * storing the result in the top left corner of a third
+     * provided matrix.
+     * 
+     * C = Arc*Brc
+     * 
+     * @param a         Matrix A
+     * @param aRowPtr   Matrix A Starting Row Index
+     * @param aColPtr   Matrix A Starting Column Index
+     * @param b         Matrix B
+     * @param bRowPtr   Matrix B Starting Row Index
+     * @param bColPtr   Matrix B Starting Column Index
+     * @param c         Matrix C, Result Matrix
+     * @param rows      The number of rows of the A portion and result.
+     * @param inner     The number of columns of A and rows of B.
+     * @param cols      The number of columns of the B portion and result.
+     * @param workspace Temporaries for every level of the recursion.
+     * @param level     The current recursion depth.
      */
     private void mul(int[][] a, int aRowPtr, int aColPtr,
                      int[][] b, int bRowPtr, int bColPtr,
-                     int[][] c)
+                     int[][] c, int rows, int inner, int cols,
+                     StrassensWorkspace workspace, int level)
     {
         /**
          * Base Case
          */
-        if (c.length <= 2)
+        if (rows == 2 && inner == 2 && cols == 2)
         {
             for (int rPos = 0; rPos < 2; rPos++)
             {
@@ -75,20 +268,52 @@ public class StrassensMatrixMultiplier extends MatrixMultiplier
             }
             return;
         }
+        /**
+         * Leaf Case
+         */
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            clear(c, 0, rows, 0, cols);
+            BlockedMatrixMultiplier.multiplyAccumulate(a, aRowPtr, aColPtr,
+                                                       b, bRowPtr, bColPtr,
+                                                       c, 0,       0,
+                                                       rows, inner, cols,
+                                                       BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
+        /**
+         * Odd Dimensions
+         * Recurse on the even-sized part, then clear the
+         * peeled row and column of the result and add
+         * their contributions separately.
+         */
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            int evenRows = rows & ~1;
+            int evenCols = cols & ~1;
+            mul(a, aRowPtr, aColPtr,
+                b, bRowPtr, bColPtr,
+                c, evenRows, inner & ~1, evenCols,
+                workspace, level);
+            clear(c, 0, evenRows, evenCols, cols);
+            clear(c, evenRows, rows, 0, cols);
+            BlockedMatrixMultiplier.multiplyAccumulatePeeled(a, aRowPtr, aColPtr,
+                                                             b, bRowPtr, bColPtr,
+                                                             c, 0,       0,
+                                                             rows, inner, cols,
+                                                             BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
         /**
          * Not Base Case, Need Recursive Calls
          * Array Provided To Store Result May Have
          * Existing Contents, Must Be Cleared
          * Before Adding P, Q, R, S, T, U, V
          */
-        for (int rPos = 0; rPos < c.length; rPos++)
-        {
-            for (int cPos = 0; cPos < c[rPos].length; cPos++)
-            {
-                c[rPos][cPos] = 0;
-            }
-        }
-        int quadrantSize = c.length / 2;
+        clear(c, 0, rows, 0, cols);
+        int rq = rows / 2;
+        int iq = inner / 2;
+        int cq = cols / 2;
         /**
          * Need 3 Temporary Arrays For Operations
          * Note: To save memory, instead of creating
@@ -96,171 +321,174 @@ public class StrassensMatrixMultiplier extends MatrixMultiplier
          *       these temporary arrays are used to store intermediate
          *       results which are immediately added to the result matrix
          *       so that subsequent operations may use the same memory.
+         *       The arrays are taken from the workspace for this level
+         *       and may be larger than needed, so only the top left
+         *       portion of each is used.
          */
-        int[][] t1 = new int[quadrantSize][quadrantSize];
-        int[][] t2 = new int[quadrantSize][quadrantSize];
-        int[][] t3 = new int[quadrantSize][quadrantSize];
+        int[][] t1 = workspace.getT1(level);
+        int[][] t2 = workspace.getT2(level);
+        int[][] t3 = workspace.getT3(level);
 
         /**
          * Calculate P
          */
         // t1 = A11 + A22
         add(a,  aRowPtr,                aColPtr,                // A11 +
-            a,  aRowPtr + quadrantSize, aColPtr + quadrantSize, // A22
+            a,  aRowPtr + rq,           aColPtr + iq,           // A22
             t1, 0,                      0,                      // -> t1
-            quadrantSize, false);
+            rq, iq, false);
         // t2 = B11 + B22
         add(b,  bRowPtr,                bColPtr,                // B11 +
-            b,  bRowPtr + quadrantSize, bColPtr + quadrantSize, // B22
+            b,  bRowPtr + iq,           bColPtr + cq,           // B22
             t2, 0,                      0,                      // -> t2
-            quadrantSize, false);
+            iq, cq, false);
         // P = t3 = (A11 + A22)(B11 + B22)
         mul(t1, 0,                      0,                      // (A11 + A22) *
             t2, 0,                      0,                      // (B11 + B22)
-            t3);                                                // -> t3
+            t3, rq, iq, cq, workspace, level + 1);             // -> t3
         // Add P To C11 & C22 Immediately So Value Can Be Discarded
         add(c,  0,                      0,                      // C11 +
             t3, 0,                      0,                      // P
             c,  0,                      0,                      // -> C11
-            quadrantSize, false);
-        add(c,  quadrantSize,           quadrantSize,           // C22 +
+            rq, cq, false);
+        add(c,  rq,                     cq,                     // C22 +
             t3, 0,                      0,                      // P
-            c,  quadrantSize,           quadrantSize,           // -> C22
-            quadrantSize, false);
+            c,  rq,                     cq,                     // -> C22
+            rq, cq, false);
         
         /**
          * Calculate Q
          */
         // t1 = A21 + A22
-        add(a,  aRowPtr + quadrantSize, aColPtr,                // A21 +
-            a,  aRowPtr + quadrantSize, aColPtr + quadrantSize, // A22
+        add(a,  aRowPtr + rq,           aColPtr,                // A21 +
+            a,  aRowPtr + rq,           aColPtr + iq,           // A22
             t1, 0,                      0,                      // -> t1
-            quadrantSize, false);
+            rq, iq, false);
         // Q = t3 = (A21 + A22)B11
         mul(t1, 0,                      0,                      // (A21 + A22) *
             b,  bRowPtr,                bColPtr,                // B11
-            t3);                                                // -> Q
+            t3, rq, iq, cq, workspace, level + 1);             // -> Q
         // Add Q To C21 & Subtract From C22 Immediately So Value Can Be Discarded
-        add(c,  quadrantSize,           0,                      // C21 +
+        add(c,  rq,                     0,                      // C21 +
             t3, 0,                      0,                      // Q
-            c,  quadrantSize,           0,                      // -> C21
-            quadrantSize, false);
-        add(c,  quadrantSize,           quadrantSize,           // C22 -
+            c,  rq,                     0,                      // -> C21
+            rq, cq, false);
+        add(c,  rq,                     cq,                     // C22 -
             t3, 0,                      0,                      // Q
-            c,  quadrantSize,           quadrantSize,           // -> C22
-            quadrantSize, true);
+            c,  rq,                     cq,                     // -> C22
+            rq, cq, true);
         
         /**
          * Calculate R
          */
         // t2 = (B12 - B22)
-        add(b,  bRowPtr,                bColPtr + quadrantSize, // B12 -
-            b,  bRowPtr + quadrantSize, bColPtr + quadrantSize, // B22
+        add(b,  bRowPtr,                bColPtr + cq,           // B12 -
+            b,  bRowPtr + iq,           bColPtr + cq,           // B22
             t2, 0,                      0,                      // -> t2
-            quadrantSize, true);
+            iq, cq, true);
         // R = t3 = A11(B12 - B22)
         mul(a,  aRowPtr,                aColPtr,               // A11 *
             t2, 0,                      0,                     // (B12 - B22)
-            t3);                                               // -> R
+            t3, rq, iq, cq, workspace, level + 1);            // -> R
         // Add R To C12 & C22 Immediately So Value Can Be Discarded
-        add(c,  0,                      quadrantSize,          // C12 +
+        add(c,  0,                      cq,                    // C12 +
             t3, 0,                      0,                     // R
-            c,  0,                      quadrantSize,          // -> C12
-            quadrantSize, false);
-        add(c,  quadrantSize,           quadrantSize,          // C22 +
+            c,  0,                      cq,                    // -> C12
+            rq, cq, false);
+        add(c,  rq,                     cq,                    // C22 +
             t3, 0,                      0,                     // R
-            c,  quadrantSize,           quadrantSize,          // -> C22
-            quadrantSize, false);
+            c,  rq,                     cq,                    // -> C22
+            rq, cq, false);
         
         /**
          * Calculate S
          */
         // t2 = (B21 - B11)
-        add(b,  bRowPtr + quadrantSize, bColPtr,                // B21 -
+        add(b,  bRowPtr + iq,           bColPtr,                // B21 -
             b,  bRowPtr,                bColPtr,                // B11
             t2, 0,                      0,                      // -> t2
-            quadrantSize, true);
+            iq, cq, true);
         // S = t3 = A22(B21 - B11)
-        mul(a,  aRowPtr + quadrantSize, aColPtr + quadrantSize, // A22 *
+        mul(a,  aRowPtr + rq,           aColPtr + iq,           // A22 *
             t2, 0,                      0,                      // (B21 - B11)
-            t3);                                                // -> S
+            t3, rq, iq, cq, workspace, level + 1);             // -> S
         // Add S To C11 & C21 Immediately So Value Can Be Discarded
         add(c,  0,                      0,                      // C11 +
             t3, 0,                      0,                      // S
             c,  0,                      0,                      // -> C11
-            quadrantSize, false);
-        add(c,  quadrantSize,           0,                      // C21 +
+            rq, cq, false);
+        add(c,  rq,                     0,                      // C21 +
             t3, 0,                      0,                      // S
-            c,  quadrantSize,           0,                      // -> C21
-            quadrantSize, false);
+            c,  rq,                     0,                      // -> C21
+            rq, cq, false);
         
         /**
          * Calculate T
          */
         // t1 = (A11 + A12)
         add(a,  aRowPtr,                aColPtr,                // A11 +
-            a,  aRowPtr,                aColPtr + quadrantSize, // A12
+            a,  aRowPtr,                aColPtr + iq,           // A12
             t1, 0,                      0,                      // -> t1
-            quadrantSize, false);
+            rq, iq, false);
         // T = t3 = (A11 + A12)B22
         mul(t1, 0,                      0,                      // (A11 + A12) *
-            b,  bRowPtr + quadrantSize, bColPtr + quadrantSize, // B22
-            t3);                                                // -> T
+            b,  bRowPtr + iq,           bColPtr + cq,           // B22
+            t3, rq, iq, cq, workspace, level + 1);             // -> T
         // Subtract T From C11 & Add To C12 Immediately So Value Can Be Discarded
         add(c,  0,                      0,                      // C11 -
             t3, 0,                      0,                      // T
             c,  0,                      0,                      // -> C11
-            quadrantSize, true);
-        add(c,  0,                      quadrantSize,           // C12 +
+            rq, cq, true);
+        add(c,  0,                      cq,                     // C12 +
             t3, 0,                      0,                      // T
-            c,  0,                      quadrantSize,           // -> C12
-            quadrantSize, false);
+            c,  0,                      cq,                     // -> C12
+            rq, cq, false);
         
         /**
          * Calculate U
          */
         // t1 = (A21 - A11)
-        add(a,  aRowPtr + quadrantSize, aColPtr,                // A21 +
+        add(a,  aRowPtr + rq,           aColPtr,                // A21 +
             a,  aRowPtr,                aColPtr,                // A11
             t1, 0,                      0,                      // -> t1
-            quadrantSize, true);
+            rq, iq, true);
         // t2 = (B11 + B12)
         add(b,  bRowPtr,                bColPtr,                // B11 +
-            b,  bRowPtr,                bColPtr + quadrantSize, // B12
+            b,  bRowPtr,                bColPtr + cq,           // B12
             t2, 0,                      0,                      // -> t2
-            quadrantSize, false);
+            iq, cq, false);
         // U = t3 = (A21 - A11)(B11 + B12)
         mul(t1, 0,                      0,                      // (A21 - A11) *
             t2, 0,                      0,                      // (B11 + B12)
-            t3);                                                // -> U
+            t3, rq, iq, cq, workspace, level + 1);             // -> U
         // Add U To C22 Immediately So Value Can Be Discarded
-        add(c,  quadrantSize,           quadrantSize,           // C22 +
+        add(c,  rq,                     cq,                     // C22 +
             t3, 0,                      0,                      // U
-            c,  quadrantSize,           quadrantSize,           // -> C22
-            quadrantSize, false);
+            c,  rq,                     cq,                     // -> C22
+            rq, cq, false);
 
         /**
          * Calculate V
          */
         // t1 = (A12 - A22)
-        add(a,  aRowPtr,                aColPtr + quadrantSize, // A12 -
-            a,  aRowPtr + quadrantSize, aColPtr + quadrantSize, // A22
+        add(a,  aRowPtr,                aColPtr + iq,           // A12 -
+            a,  aRowPtr + rq,           aColPtr + iq,           // A22
             t1, 0,                      0,                      // -> t1
-            quadrantSize, true);
+            rq, iq, true);
         // t2 = (B21 + B22)
-        add(b,  bRowPtr + quadrantSize, bColPtr,                // B21 +
-            b,  bRowPtr + quadrantSize, bColPtr + quadrantSize, // B22
+        add(b,  bRowPtr + iq,           bColPtr,                // B21 +
+            b,  bRowPtr + iq,           bColPtr + cq,           // B22
             t2, 0,                      0,                      // -> t2
-            quadrantSize, false);
+            iq, cq, false);
         // V = t3 = (A12 - A22)(B21 + B22)
         mul(t1, 0,                      0,                      // (A12 - A22) *
             t2, 0,                      0,                      // (B21 + B22)
-            t3);                                                // -> V
+            t3, rq, iq, cq, workspace, level + 1);             // -> V
         // Add V To C11 Immediately So Value Can Be Discarded
         add(c,  0,                      0,                      // C11 +
             t3, 0,                      0,                      // V
             c,  0,                      0,                      // -> C11
-            quadrantSize, false);
+            rq, cq, false);
     }
 
     /**
@@ -276,21 +504,39 @@ public class StrassensMatrixMultiplier extends MatrixMultiplier
      * @param c        Matrix To Store Result
      * @param cRowPtr  Row To Begin Storing Result
      * @param cColPtr  Column To Begin Storing Result
-     * @param size     The size of the arrays being added.
+     * @param rows     The number of rows being added.
+     * @param cols     The number of columns being added.
      * @param subtract Perform A-B If True
      */
-    private void add(int[][] a, int aRowPtr, int aColPtr,
-                     int[][] b, int bRowPtr, int bColPtr,
-                     int[][] c, int cRowPtr, int cColPtr,
-                     int size, boolean subtract)
+    static void add(int[][] a, int aRowPtr, int aColPtr,
+                    int[][] b, int bRowPtr, int bColPtr,
+                    int[][] c, int cRowPtr, int cColPtr,
+                    int rows, int cols, boolean subtract)
     {
-        for (int row = 0; row < size; row++)
+        for (int row = 0; row < rows; row++)
         {
-            for (int col = 0; col < size; col++)
+            for (int col = 0; col < cols; col++)
             {
                 c[cRowPtr + row][cColPtr + col] = a[aRowPtr + row][aColPtr + col]
                     + (subtract ? -b[bRowPtr + row][bColPtr + col] : b[bRowPtr + row][bColPtr + col]);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets a rectangular region of a matrix to zero.
+     *
+     * @param c        The matrix to clear.
+     * @param rowStart The first row to clear.
+     * @param rowEnd   The row after the last row to clear.
+     * @param colStart The first column to clear.
+     * @param colEnd   The column after the last column to clear.
+     */
+    private static void clear(int[][] c, int rowStart, int rowEnd, int colStart, int colEnd)
+    {
+        for (int row = rowStart; row < rowEnd; row++)
+        {
+            Arrays.fill(c[row], colStart, colEnd, 0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.Arrays;
+
+/**
+ * Scratch space for the temporary matrices used by
+ * each level of the Strassens recursion.
+ *
+ * Every call at a given recursion depth uses temporaries
+ * of the same size, and calls at the same depth never
+ * overlap, so a single set of three temporaries per
+ * level is enough for a whole multiplication. Buffers
+ * only grow, so once a workspace has been used for a
+ * size it can be reused for that size or any smaller
+ * one without allocating.
+ *
+ * A workspace is not thread safe and should be confined
+ * to the thread using it.
+ */
+class StrassensWorkspace
+{
+    private int[][][] t1;
+    private int[][][] t2;
+    private int[][][] t3;
+    private int[][] product;
+
+    /**
+     * Creates an empty workspace.
+     */
+    StrassensWorkspace()
+    {
+        t1 = new int[0][][];
+        t2 = new int[0][][];
+        t3 = new int[0][][];
+    }
+
+    /**
+     * Makes sure every level has large enough temporaries
+     * to multiply a rows*inner portion by an inner*cols
+     * portion. The levels visited mirror the recursion of
+     * StrassensMatrixMultiplier and WinogradMatrixMultiplier,
+     * where odd dimensions are peeled before halving.
+     *
+     * @param rows The number of rows of the A portion and result.
+     * @param inner The number of columns of A and rows of B.
+     * @param cols The number of columns of the B portion and result.
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    void ensureCapacity(int rows, int inner, int cols, int leafSize)
+    {
+        int level = 0;
+        while (!(rows == 2 && inner == 2 && cols == 2)
+               && rows > leafSize && inner > leafSize && cols > leafSize)
+        {
+            rows /= 2;
+            inner /= 2;
+            cols /= 2;
+            if (level == t1.length)
+            {
+                t1 = Arrays.copyOf(t1, level + 1);
+                t2 = Arrays.copyOf(t2, level + 1);
+                t3 = Arrays.copyOf(t3, level + 1);
+            }
+            t1[level] = ensureSize(t1[level], rows, inner);
+            t2[level] = ensureSize(t2[level], inner, cols);
+            t3[level] = ensureSize(t3[level], rows, cols);
+            level++;
+        }
+    }
+
+    /**
+     * Gets the temporary used for sums of A quadrants.
+     *
+     * @param level The recursion depth.
+     * @return A matrix at least (rows/2)*(inner/2) in size.
+     */
+    int[][] getT1(int level)
+    {
+        return t1[level];
+    }
+
+    /**
+     * Gets the temporary used for sums of B quadrants.
+     *
+     * @param level The recursion depth.
+     * @return A matrix at least (inner/2)*(cols/2) in size.
+     */
+    int[][] getT2(int level)
+    {
+        return t2[level];
+    }
+
+    /**
+     * Gets the temporary used for the products P..V.
+     *
+     * @param level The recursion depth.
+     * @return A matrix at least (rows/2)*(cols/2) in size.
+     */
+    int[][] getT3(int level)
+    {
+        return t3[level];
+    }
+
+    /**
+     * Gets a buffer to hold a whole product before it is
+     * combined into a caller's matrix, growing it if needed.
+     *
+     * @param rows The number of rows of the product.
+     * @param cols The number of columns of the product.
+     * @return A matrix at least rows*cols in size.
+     */
+    int[][] getProduct(int rows, int cols)
+    {
+        product = ensureSize(product, rows, cols);
+        return product;
+    }
+
+    /**
+     * Returns the given matrix if it has at least the
+     * requested size, otherwise a new matrix large
+     * enough for both.
+     */
+    private static int[][] ensureSize(int[][] matrix, int rows, int cols)
+    {
+        if (matrix != null && matrix.length >= rows && matrix[0].length >= cols)
+        {
+            return matrix;
+        }
+        if (matrix != null)
+        {
+            rows = Math.max(rows, matrix.length);
+            cols = Math.max(cols, matrix[0].length);
+        }
+        return new int[rows][cols];
+    }
+}
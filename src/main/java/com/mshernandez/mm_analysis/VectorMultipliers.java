@@ -0,0 +1,78 @@
+package com.mshernandez.mm_analysis;
+
+/**
+ * Creates the multipliers using the Vector API when it
+ * can be used, falling back to scalar multipliers otherwise.
+ *
+ * The Vector API is an incubating module of JDK 16 and later,
+ * so the vector multipliers are only compiled on those JDKs and
+ * only load when the JVM was started with
+ * "--add-modules jdk.incubator.vector". They are loaded by
+ * reflection so their absence never prevents the rest of the
+ * program from running.
+ */
+public class VectorMultipliers
+{
+    private static final String INT_MULTIPLIER_CLASS
+        = "com.mshernandez.mm_analysis.VectorMatrixMultiplier";
+    private static final String DOUBLE_MULTIPLIER_CLASS
+        = "com.mshernandez.mm_analysis.VectorDoubleMatrixMultiplier";
+
+    private VectorMultipliers()
+    {
+    }
+
+    /**
+     * Checks whether the vector multipliers can be used.
+     *
+     * @return True if the vector multipliers were compiled
+     *         and the Vector API module is available.
+     */
+    public static boolean isAvailable()
+    {
+        return load(INT_MULTIPLIER_CLASS) != null;
+    }
+
+    /**
+     * Creates an int multiplier using the Vector API.
+     *
+     * @return The vector multiplier, or the blocked iterative
+     *         multiplier if the Vector API is not available.
+     */
+    public static MatrixMultiplier createMultiplier()
+    {
+        Object multiplier = load(INT_MULTIPLIER_CLASS);
+        return (multiplier == null) ? new BlockedMatrixMultiplier() : (MatrixMultiplier) multiplier;
+    }
+
+    /**
+     * Creates a double multiplier using the Vector API.
+     *
+     * @return The vector multiplier, or the iterative double
+     *         multiplier if the Vector API is not available.
+     */
+    public static DoubleMatrixMultiplier createDoubleMultiplier()
+    {
+        Object multiplier = load(DOUBLE_MULTIPLIER_CLASS);
+        return (multiplier == null) ? new IterativeDoubleMatrixMultiplier() : (DoubleMatrixMultiplier) multiplier;
+    }
+
+    /**
+     * Creates an instance of a class by name.
+     *
+     * @param className The fully qualified name of the class.
+     * @return The new instance, or null if the class is missing, was
+     *         compiled for a newer JDK or depends on a missing module.
+     */
+    private static Object load(String className)
+    {
+        try
+        {
+            return Class.forName(className).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            return null;
+        }
+    }
+}
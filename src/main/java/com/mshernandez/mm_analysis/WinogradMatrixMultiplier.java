@@ -0,0 +1,468 @@
+package com.mshernandez.mm_analysis;
+
+import java.util.Arrays;
+
+/**
+ * A matrix multiplier using the Winograd form of Strassens
+ * algorithm, which needs 7 multiplications and 15 additions
+ * per level instead of the 18 additions of Strassens form.
+ *
+ * S1 = A21 + A22    T1 = B12 - B11
+ * S2 = S1 - A11     T2 = B22 - T1
+ * S3 = A11 - A21    T3 = B22 - B12
+ * S4 = A12 - S2     T4 = T2 - B21
+ *
+ * P1 = A11*B11  P2 = A12*B21  P3 = S4*B22  P4 = A22*T4
+ * P5 = S1*T1    P6 = S2*T2    P7 = S3*T3
+ *
+ * U2 = P1 + P6  U3 = U2 + P7  U4 = U2 + P5
+ * C11 = P1 + P2  C12 = U4 + P3  C21 = U3 - P4  C22 = U3 + P5
+ *
+ * Products are written straight into the quadrants of the
+ * result and reused as partial sums, so each level only needs
+ * one A-sized and one B-sized temporary for the operand sums
+ * and one more to hold P1. Every addition is a single pass
+ * through a kernel that only adds or only subtracts, rather
+ * than a generic kernel choosing per element, so comparing this
+ * multiplier against StrassensMatrixMultiplier shows how much
+ * the addition passes cost.
+ *
+ * Sub-problems at or below the leaf size are multiplied
+ * with the blocked iterative kernel instead of recursing
+ * further.
+ */
+public class WinogradMatrixMultiplier extends MatrixMultiplier
+{
+    public static final int DEFAULT_LEAF_SIZE = 2;
+
+    private int leafSize;
+    private ThreadLocal<StrassensWorkspace> workspaces;
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used, recursing
+     * all the way down to 2x2 base cases.
+     */
+    public WinogradMatrixMultiplier()
+    {
+        this(DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Initializes this matrix multiplier with
+     * the name of the algorithm used.
+     *
+     * @param leafSize The largest size multiplied iteratively.
+     */
+    public WinogradMatrixMultiplier(int leafSize)
+    {
+        super(leafSize == DEFAULT_LEAF_SIZE ? "Strassen-Winograd" : "Strassen-Winograd (Leaf " + leafSize + ")");
+        if (leafSize < 2)
+        {
+            throw new IllegalArgumentException("Leaf Size Must Be At Least 2");
+        }
+        this.leafSize = leafSize;
+        workspaces = ThreadLocal.withInitial(StrassensWorkspace::new);
+    }
+
+    /**
+     * Gets the largest size multiplied iteratively.
+     *
+     * @return The leaf size.
+     */
+    public int getLeafSize()
+    {
+        return leafSize;
+    }
+
+    /**
+     * Gets the number of arithmetic operations done
+     * to multiply two n*n matrices.
+     *
+     * @param size The size n of the inputs.
+     * @return The operation count.
+     */
+    @Override
+    public long getOperationCount(int size)
+    {
+        return operationCount(size, size, size, leafSize);
+    }
+
+    /**
+     * Counts the arithmetic operations of the Winograd schedule:
+     * each level does 7 products of quadrants, 4 additions of A
+     * quadrants, 4 of B quadrants and 7 of C quadrants. Leaves and
+     * the peeled row and column of odd dimensions are multiplied
+     * classically.
+     *
+     * @param rows The number of rows of A and C.
+     * @param inner The number of columns of A and rows of B.
+     * @param cols The number of columns of B and C.
+     * @param leafSize The largest size multiplied iteratively.
+     * @return The operation count.
+     */
+    static long operationCount(int rows, int inner, int cols, int leafSize)
+    {
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            return 2L * rows * inner * cols;
+        }
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            int evenRows = rows & ~1;
+            int evenInner = inner & ~1;
+            int evenCols = cols & ~1;
+            return operationCount(evenRows, evenInner, evenCols, leafSize)
+                   + 2L * rows * inner * cols - 2L * evenRows * evenInner * evenCols;
+        }
+        long rq = rows / 2;
+        long iq = inner / 2;
+        long cq = cols / 2;
+        return 7 * operationCount(rows / 2, inner / 2, cols / 2, leafSize)
+               + 4 * rq * iq + 4 * iq * cq + 7 * rq * cq;
+    }
+
+    /**
+     * Multiplies two matrices A and B with the
+     * assumption that A and B are both n*n matrices
+     * using the Winograd form of Strassens method.
+     *
+     * @param a The first matrix in the operation.
+     * @param b The second matrix in the operation.
+     * @return The resulting matrix.
+     */
+    @Override
+    public int[][] multiplySquareMatrices(int[][] a, int[][] b)
+    {
+        return multiply(a, b);
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B
+     * using the Winograd form of Strassens method. Odd
+     * dimensions are peeled off at each level instead
+     * of padding the inputs.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @return The resulting matrix, m*n.
+     */
+    @Override
+    public int[][] multiply(int[][] a, int[][] b)
+    {
+        checkDimensions(a, b);
+        int[][] result = new int[a.length][b[0].length];
+        mul(a, b, result, a.length, b.length, b[0].length);
+        return result;
+    }
+
+    /**
+     * Multiplies an m*k matrix A by a k*n matrix B using the
+     * Winograd form of Strassens method, combining the product
+     * with matrix C.
+     *
+     * C = alpha*A*B + beta*C
+     *
+     * The recursion overwrites its output, so a plain product
+     * is computed straight into C and anything else into a
+     * buffer kept in the calling thread's workspace, which is
+     * then combined into C in a single pass.
+     *
+     * @param a The first matrix in the operation, m*k.
+     * @param b The second matrix in the operation, k*n.
+     * @param c The matrix to combine the product into, m*n.
+     * @param alpha The factor the product is scaled by.
+     * @param beta The factor the previous contents of C are scaled by.
+     */
+    @Override
+    public void multiplyInto(int[][] a, int[][] b, int[][] c, int alpha, int beta)
+    {
+        checkDimensions(a, b, c);
+        int rows = a.length;
+        int cols = b[0].length;
+        if (alpha == 1 && beta == 0)
+        {
+            mul(a, b, c, rows, b.length, cols);
+            return;
+        }
+        int[][] product = workspaces.get().getProduct(rows, cols);
+        mul(a, b, product, rows, b.length, cols);
+        for (int row = 0; row < rows; row++)
+        {
+            int[] pRow = product[row];
+            int[] cRow = c[row];
+            if (beta == 0)
+            {
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[col] = alpha * pRow[col];
+                }
+            }
+            else
+            {
+                for (int col = 0; col < cols; col++)
+                {
+                    cRow[col] = alpha * pRow[col] + beta * cRow[col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies two matrices, storing the result
+     * in the top left corner of a third.
+     *
+     * C = A*B
+     *
+     * Temporaries come from the calling thread's workspace,
+     * which only allocates when it has to grow.
+     *
+     * @param a     Matrix A
+     * @param b     Matrix B
+     * @param c     Matrix C, Result Matrix
+     * @param rows  The number of rows of A and the result.
+     * @param inner The number of columns of A and rows of B.
+     * @param cols  The number of columns of B and the result.
+     */
+    private void mul(int[][] a, int[][] b, int[][] c, int rows, int inner, int cols)
+    {
+        StrassensWorkspace workspace = workspaces.get();
+        workspace.ensureCapacity(rows, inner, cols, leafSize);
+        mul(a, 0, 0,
+            b, 0, 0,
+            c, 0, 0,
+            rows, inner, cols,
+            workspace, 0);
+    }
+
+    /**
+     * Multiplies portions of two matrices using the Winograd
+     * form of Strassens method, storing the result in a portion
+     * of a third matrix.
+     *
+     * C = Arc*Brc
+     *
+     * @param a         Matrix A
+     * @param aRowPtr   Matrix A Starting Row Index
+     * @param aColPtr   Matrix A Starting Column Index
+     * @param b         Matrix B
+     * @param bRowPtr   Matrix B Starting Row Index
+     * @param bColPtr   Matrix B Starting Column Index
+     * @param c         Matrix C, Result Matrix
+     * @param cRowPtr   Matrix C Starting Row Index
+     * @param cColPtr   Matrix C Starting Column Index
+     * @param rows      The number of rows of the A and C portions.
+     * @param inner     The number of columns of A and rows of B.
+     * @param cols      The number of columns of the B and C portions.
+     * @param workspace Temporaries for every level of the recursion.
+     * @param level     The current recursion depth.
+     */
+    private void mul(int[][] a, int aRowPtr, int aColPtr,
+                     int[][] b, int bRowPtr, int bColPtr,
+                     int[][] c, int cRowPtr, int cColPtr,
+                     int rows, int inner, int cols,
+                     StrassensWorkspace workspace, int level)
+    {
+        /**
+         * Base Case
+         */
+        if (rows == 2 && inner == 2 && cols == 2)
+        {
+            int a11 = a[aRowPtr][aColPtr],     a12 = a[aRowPtr][aColPtr + 1];
+            int a21 = a[aRowPtr + 1][aColPtr], a22 = a[aRowPtr + 1][aColPtr + 1];
+            int b11 = b[bRowPtr][bColPtr],     b12 = b[bRowPtr][bColPtr + 1];
+            int b21 = b[bRowPtr + 1][bColPtr], b22 = b[bRowPtr + 1][bColPtr + 1];
+            c[cRowPtr][cColPtr]         = a11 * b11 + a12 * b21;
+            c[cRowPtr][cColPtr + 1]     = a11 * b12 + a12 * b22;
+            c[cRowPtr + 1][cColPtr]     = a21 * b11 + a22 * b21;
+            c[cRowPtr + 1][cColPtr + 1] = a21 * b12 + a22 * b22;
+            return;
+        }
+        /**
+         * Leaf Case
+         */
+        if (rows <= leafSize || inner <= leafSize || cols <= leafSize)
+        {
+            clear(c, cRowPtr, cColPtr, rows, cols);
+            BlockedMatrixMultiplier.multiplyAccumulate(a, aRowPtr, aColPtr,
+                                                       b, bRowPtr, bColPtr,
+                                                       c, cRowPtr, cColPtr,
+                                                       rows, inner, cols,
+                                                       BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
+        /**
+         * Odd Dimensions
+         * Recurse on the even-sized part, then clear the
+         * peeled row and column of the result and add
+         * their contributions separately.
+         */
+        if (((rows | inner | cols) & 1) != 0)
+        {
+            int evenRows = rows & ~1;
+            int evenCols = cols & ~1;
+            mul(a, aRowPtr, aColPtr,
+                b, bRowPtr, bColPtr,
+                c, cRowPtr, cColPtr,
+                evenRows, inner & ~1, evenCols,
+                workspace, level);
+            clear(c, cRowPtr, cColPtr + evenCols, evenRows, cols - evenCols);
+            clear(c, cRowPtr + evenRows, cColPtr, rows - evenRows, cols);
+            BlockedMatrixMultiplier.multiplyAccumulatePeeled(a, aRowPtr, aColPtr,
+                                                             b, bRowPtr, bColPtr,
+                                                             c, cRowPtr, cColPtr,
+                                                             rows, inner, cols,
+                                                             BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+            return;
+        }
+        int rq = rows / 2;
+        int iq = inner / 2;
+        int cq = cols / 2;
+        int a2Row = aRowPtr + rq, a2Col = aColPtr + iq;
+        int b2Row = bRowPtr + iq, b2Col = bColPtr + cq;
+        int c2Row = cRowPtr + rq, c2Col = cColPtr + cq;
+        /**
+         * X Holds Sums Of A Quadrants, Y Sums Of B Quadrants
+         * And P Holds P1, Taken From The Workspace For This
+         * Level. Every Other Product Is Stored Directly In
+         * A Quadrant Of C And Updated In Place.
+         */
+        int[][] x = workspace.getT1(level);
+        int[][] y = workspace.getT2(level);
+        int[][] p = workspace.getT3(level);
+
+        // X = S3 = A11 - A21
+        subtract(a, aRowPtr, aColPtr, a, a2Row, aColPtr, x, 0, 0, rq, iq);
+        // Y = T3 = B22 - B12
+        subtract(b, b2Row, b2Col, b, bRowPtr, b2Col, y, 0, 0, iq, cq);
+        // C21 = P7 = S3*T3
+        mul(x, 0, 0, y, 0, 0, c, c2Row, cColPtr, rq, iq, cq, workspace, level + 1);
+        // X = S1 = A21 + A22
+        add(a, a2Row, aColPtr, a, a2Row, a2Col, x, 0, 0, rq, iq);
+        // Y = T1 = B12 - B11
+        subtract(b, bRowPtr, b2Col, b, bRowPtr, bColPtr, y, 0, 0, iq, cq);
+        // C22 = P5 = S1*T1
+        mul(x, 0, 0, y, 0, 0, c, c2Row, c2Col, rq, iq, cq, workspace, level + 1);
+        // X = S2 = S1 - A11
+        subtract(x, 0, 0, a, aRowPtr, aColPtr, x, 0, 0, rq, iq);
+        // Y = T2 = B22 - T1
+        subtract(b, b2Row, b2Col, y, 0, 0, y, 0, 0, iq, cq);
+        // C12 = P6 = S2*T2
+        mul(x, 0, 0, y, 0, 0, c, cRowPtr, c2Col, rq, iq, cq, workspace, level + 1);
+        // X = S4 = A12 - S2
+        subtract(a, aRowPtr, a2Col, x, 0, 0, x, 0, 0, rq, iq);
+        // C11 = P3 = S4*B22
+        mul(x, 0, 0, b, b2Row, b2Col, c, cRowPtr, cColPtr, rq, iq, cq, workspace, level + 1);
+        // P = P1 = A11*B11
+        mul(a, aRowPtr, aColPtr, b, bRowPtr, bColPtr, p, 0, 0, rq, iq, cq, workspace, level + 1);
+        // C12 = U2 = P1 + P6
+        add(p, 0, 0, c, cRowPtr, c2Col, c, cRowPtr, c2Col, rq, cq);
+        // C21 = U3 = U2 + P7
+        add(c, cRowPtr, c2Col, c, c2Row, cColPtr, c, c2Row, cColPtr, rq, cq);
+        // C12 = U4 = U2 + P5
+        add(c, cRowPtr, c2Col, c, c2Row, c2Col, c, cRowPtr, c2Col, rq, cq);
+        // C22 = U7 = U3 + P5
+        add(c, c2Row, cColPtr, c, c2Row, c2Col, c, c2Row, c2Col, rq, cq);
+        // C12 = U5 = U4 + P3
+        add(c, cRowPtr, c2Col, c, cRowPtr, cColPtr, c, cRowPtr, c2Col, rq, cq);
+        // Y = T4 = T2 - B21
+        subtract(y, 0, 0, b, b2Row, bColPtr, y, 0, 0, iq, cq);
+        // C11 = P4 = A22*T4
+        mul(a, a2Row, a2Col, y, 0, 0, c, cRowPtr, cColPtr, rq, iq, cq, workspace, level + 1);
+        // C21 = U6 = U3 - P4
+        subtract(c, c2Row, cColPtr, c, cRowPtr, cColPtr, c, c2Row, cColPtr, rq, cq);
+        // C11 = P2 = A12*B21
+        mul(a, aRowPtr, a2Col, b, b2Row, bColPtr, c, cRowPtr, cColPtr, rq, iq, cq, workspace, level + 1);
+        // C11 = U1 = P1 + P2
+        add(p, 0, 0, c, cRowPtr, cColPtr, c, cRowPtr, cColPtr, rq, cq);
+    }
+
+    /**
+     * Adds portions of two matrices in a single pass, storing
+     * the sum in a portion of a third, which may be either of
+     * the first two.
+     *
+     * Z = X + Y
+     *
+     * @param x       1st Matrix
+     * @param xRowPtr 1st Matrix Row To Start From
+     * @param xColPtr 1st Matrix Column To Start From
+     * @param y       2nd Matrix
+     * @param yRowPtr 2nd Matrix Row To Start From
+     * @param yColPtr 2nd Matrix Column To Start From
+     * @param z       Matrix To Store Result
+     * @param zRowPtr Row To Begin Storing Result
+     * @param zColPtr Column To Begin Storing Result
+     * @param rows    The number of rows being added.
+     * @param cols    The number of columns being added.
+     */
+    static void add(int[][] x, int xRowPtr, int xColPtr,
+                    int[][] y, int yRowPtr, int yColPtr,
+                    int[][] z, int zRowPtr, int zColPtr,
+                    int rows, int cols)
+    {
+        for (int row = 0; row < rows; row++)
+        {
+            int[] xRow = x[xRowPtr + row];
+            int[] yRow = y[yRowPtr + row];
+            int[] zRow = z[zRowPtr + row];
+            for (int col = 0; col < cols; col++)
+            {
+                zRow[zColPtr + col] = xRow[xColPtr + col] + yRow[yColPtr + col];
+            }
+        }
+    }
+
+    /**
+     * Subtracts a portion of one matrix from a portion of
+     * another in a single pass, storing the difference in a
+     * portion of a third, which may be either of the first two.
+     *
+     * Z = X - Y
+     *
+     * @param x       1st Matrix
+     * @param xRowPtr 1st Matrix Row To Start From
+     * @param xColPtr 1st Matrix Column To Start From
+     * @param y       2nd Matrix
+     * @param yRowPtr 2nd Matrix Row To Start From
+     * @param yColPtr 2nd Matrix Column To Start From
+     * @param z       Matrix To Store Result
+     * @param zRowPtr Row To Begin Storing Result
+     * @param zColPtr Column To Begin Storing Result
+     * @param rows    The number of rows being subtracted.
+     * @param cols    The number of columns being subtracted.
+     */
+    static void subtract(int[][] x, int xRowPtr, int xColPtr,
+                         int[][] y, int yRowPtr, int yColPtr,
+                         int[][] z, int zRowPtr, int zColPtr,
+                         int rows, int cols)
+    {
+        for (int row = 0; row < rows; row++)
+        {
+            int[] xRow = x[xRowPtr + row];
+            int[] yRow = y[yRowPtr + row];
+            int[] zRow = z[zRowPtr + row];
+            for (int col = 0; col < cols; col++)
+            {
+                zRow[zColPtr + col] = xRow[xColPtr + col] - yRow[yColPtr + col];
+            }
+        }
+    }
+
+    /**
+     * Sets a rectangular region of a matrix to zero.
+     *
+     * @param c       The matrix to clear.
+     * @param rowPtr  The first row to clear.
+     * @param colPtr  The first column to clear.
+     * @param rows    The number of rows to clear.
+     * @param cols    The number of columns to clear.
+     */
+    private static void clear(int[][] c, int rowPtr, int colPtr, int rows, int cols)
+    {
+        for (int row = rowPtr; row < rowPtr + rows; row++)
+        {
+            Arrays.fill(c[row], colPtr, colPtr + cols, 0);
+        }
+    }
+}
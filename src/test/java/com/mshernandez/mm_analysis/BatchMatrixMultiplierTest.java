@@ -0,0 +1,120 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class BatchMatrixMultiplierTest
+{
+    private static final int[] SIZES = {1, 2, 3, 4, 7, 8, 16, 33, 64};
+
+    @Test
+    public void batchMatchesIterative()
+    {
+        BatchMatrixMultiplier multiplier = new BatchMatrixMultiplier(4);
+        for (int size : SIZES)
+        {
+            int count = 50;
+            int[][][] a = randomBatch(count, size);
+            int[][][] b = randomBatch(count, size);
+            int[][][] c = multiplier.multiply(a, b);
+            for (int i = 0; i < count; i++)
+            {
+                assertArrayEquals(new IterativeMatrixMultiplier().multiply(a[i], b[i]), c[i]);
+            }
+        }
+    }
+
+    @Test
+    public void multiplyIntoOverwritesResults()
+    {
+        BatchMatrixMultiplier multiplier = new BatchMatrixMultiplier(2);
+        int[][][] a = randomBatch(3000, 4);
+        int[][][] b = randomBatch(3000, 4);
+        int[][][] c = randomBatch(3000, 4);
+        multiplier.multiplyInto(a, b, c);
+        for (int i = 0; i < a.length; i++)
+        {
+            assertArrayEquals(new IterativeMatrixMultiplier().multiply(a[i], b[i]), c[i]);
+        }
+    }
+
+    @Test
+    public void mixedSizes()
+    {
+        int[][][] a = {randomBatch(1, 2)[0], randomBatch(1, 5)[0], randomBatch(1, 8)[0]};
+        int[][][] b = {randomBatch(1, 2)[0], randomBatch(1, 5)[0], randomBatch(1, 8)[0]};
+        int[][][] c = new BatchMatrixMultiplier(1).multiply(a, b);
+        for (int i = 0; i < a.length; i++)
+        {
+            assertArrayEquals(new IterativeMatrixMultiplier().multiply(a[i], b[i]), c[i]);
+        }
+    }
+
+    @Test
+    public void stridedBufferMatchesIterative()
+    {
+        BatchMatrixMultiplier multiplier = new BatchMatrixMultiplier(4);
+        for (int size : SIZES)
+        {
+            int count = 70;
+            int[][][] a = randomBatch(count, size);
+            int[][][] b = randomBatch(count, size);
+            int[] aBuffer = flatten(a, size);
+            int[] bBuffer = flatten(b, size);
+            int[] cBuffer = new int[aBuffer.length];
+            multiplier.multiply(aBuffer, bBuffer, cBuffer, size, count);
+            for (int i = 0; i < count; i++)
+            {
+                int[][] expected = new IterativeMatrixMultiplier().multiply(a[i], b[i]);
+                for (int row = 0; row < size; row++)
+                {
+                    for (int col = 0; col < size; col++)
+                    {
+                        int index = i * size * size + row * size + col;
+                        if (cBuffer[index] != expected[row][col])
+                        {
+                            throw new AssertionError("Mismatch In Product " + i + " Of Size " + size);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedSizes()
+    {
+        new BatchMatrixMultiplier(1).multiply(new int[][][] {new int[2][2]}, new int[][][] {new int[3][3]});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bufferTooSmall()
+    {
+        new BatchMatrixMultiplier(1).multiply(new int[16], new int[16], new int[15], 2, 4);
+    }
+
+    private static int[][][] randomBatch(int count, int size)
+    {
+        MatrixGenerator generator = new MatrixGenerator(count * 31L + size);
+        int[][][] batch = new int[count][size][size];
+        for (int[][] matrix : batch)
+        {
+            generator.fill(matrix);
+        }
+        return batch;
+    }
+
+    private static int[] flatten(int[][][] batch, int size)
+    {
+        int[] buffer = new int[batch.length * size * size];
+        for (int i = 0; i < batch.length; i++)
+        {
+            for (int row = 0; row < size; row++)
+            {
+                System.arraycopy(batch[i][row], 0, buffer, (i * size + row) * size, size);
+            }
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for saving and resuming benchmark runs.
+ */
+public class BenchmarkCheckpointTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Creates benchmarkers which have measured a few small sizes.
+     */
+    private static List<MatrixMultiplierBenchmarker> measuredBenchmarks()
+    {
+        List<MatrixMultiplierBenchmarker> benchmarks = Arrays.asList(
+            new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 2, 3, false),
+            new MatrixMultiplierBenchmarker(new StrassensMatrixMultiplier(), 0.05, 2, 3, false));
+        MatrixGenerator generator = new MatrixGenerator(11);
+        for (int size = 2; size <= 8; size <<= 1)
+        {
+            for (int input = 0; input < 3; input++)
+            {
+                int[][] a = new int[size][size];
+                int[][] b = new int[size][size];
+                generator.fill(a);
+                generator.fill(b);
+                for (MatrixMultiplierBenchmarker benchmarker : benchmarks)
+                {
+                    benchmarker.benchmarkInput(a, b, 4);
+                }
+            }
+        }
+        return benchmarks;
+    }
+
+    /**
+     * Resumed benchmarkers should report exactly what the
+     * checkpointed benchmarkers measured.
+     */
+    @Test
+    public void shouldRestoreSavedState() throws IOException
+    {
+        List<MatrixMultiplierBenchmarker> saved = measuredBenchmarks();
+        Path file = folder.getRoot().toPath().resolve("checkpoint.properties");
+        BenchmarkCheckpoint.save(file, new MatrixGenerator(11), 8, saved);
+
+        BenchmarkCheckpoint checkpoint = BenchmarkCheckpoint.load(file);
+        assertEquals(11, checkpoint.getSeed());
+        assertEquals(8, checkpoint.getCompletedSize());
+        List<MatrixMultiplierBenchmarker> restored = Arrays.asList(
+            new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier()),
+            new MatrixMultiplierBenchmarker(new StrassensMatrixMultiplier()));
+        checkpoint.restore(new MatrixGenerator(11), restored);
+        for (int i = 0; i < saved.size(); i++)
+        {
+            MatrixMultiplierBenchmarker expected = saved.get(i);
+            MatrixMultiplierBenchmarker actual = restored.get(i);
+            assertEquals(expected.getAverageRuntimes(), actual.getAverageRuntimes());
+            for (int size = 2; size <= 8; size <<= 1)
+            {
+                assertEquals(3, actual.getNumberInputs(size));
+                assertEquals(expected.getAverageCpuTime(size), actual.getAverageCpuTime(size), 0);
+                assertEquals(expected.getWarmupRuns(size), actual.getWarmupRuns(size));
+                assertEquals(expected.getCompilationSamples(size), actual.getCompilationSamples(size));
+                assertEquals(expected.getCollectionSamples(size), actual.getCollectionSamples(size));
+                assertEquals(expected.getHistogram(size).encode(), actual.getHistogram(size).encode());
+            }
+        }
+    }
+
+    /**
+     * A checkpoint should not be resumed by a run with
+     * other algorithms.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOtherAlgorithms() throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("checkpoint.properties");
+        BenchmarkCheckpoint.save(file, new MatrixGenerator(11), 8, measuredBenchmarks());
+        BenchmarkCheckpoint.load(file).restore(new MatrixGenerator(11), Arrays.asList(
+            new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier()),
+            new MatrixMultiplierBenchmarker(new BlockedMatrixMultiplier())));
+    }
+
+    /**
+     * A checkpoint should not be resumed with other inputs.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOtherSeed() throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("checkpoint.properties");
+        List<MatrixMultiplierBenchmarker> benchmarks = measuredBenchmarks();
+        BenchmarkCheckpoint.save(file, new MatrixGenerator(11), 8, benchmarks);
+        BenchmarkCheckpoint.load(file).restore(new MatrixGenerator(12), benchmarks);
+    }
+}
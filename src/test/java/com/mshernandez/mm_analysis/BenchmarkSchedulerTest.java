@@ -0,0 +1,102 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BenchmarkSchedulerTest
+{
+    @Test
+    public void runsEveryJob()
+    {
+        AtomicInteger completed = new AtomicInteger();
+        try (BenchmarkScheduler scheduler = new BenchmarkScheduler(4))
+        {
+            for (int job = 0; job < 100; job++)
+            {
+                scheduler.submit(completed::incrementAndGet, false);
+            }
+            scheduler.awaitCompletion();
+        }
+        assertEquals(100, completed.get());
+    }
+
+    @Test
+    public void exclusiveJobsRunAlone()
+    {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        try (BenchmarkScheduler scheduler = new BenchmarkScheduler(4))
+        {
+            for (int job = 0; job < 40; job++)
+            {
+                boolean exclusive = job % 5 == 0;
+                scheduler.submit(() ->
+                {
+                    int others = running.getAndIncrement();
+                    if (exclusive && others > 0)
+                    {
+                        overlaps.incrementAndGet();
+                    }
+                    try
+                    {
+                        Thread.sleep(1);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (exclusive && running.get() > 1)
+                    {
+                        overlaps.incrementAndGet();
+                    }
+                    running.decrementAndGet();
+                }, exclusive);
+            }
+            scheduler.awaitCompletion();
+        }
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failedJobIsReported()
+    {
+        try (BenchmarkScheduler scheduler = new BenchmarkScheduler(2))
+        {
+            scheduler.submit(() ->
+            {
+                throw new IllegalArgumentException();
+            }, false);
+            scheduler.awaitCompletion();
+        }
+    }
+
+    @Test
+    public void concurrentBenchmarksRecordEverySample()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 5, 20, false);
+        int[][] matrix = new int[16][16];
+        MatrixMultiplierBenchmarker.randomizeMatrix(matrix);
+        try (BenchmarkScheduler scheduler = new BenchmarkScheduler(4))
+        {
+            for (int input = 0; input < 50; input++)
+            {
+                scheduler.submit(() -> benchmarker.benchmarkInput(matrix, matrix, 4), false);
+            }
+            scheduler.awaitCompletion();
+        }
+        assertEquals(200, benchmarker.getHistogram(16).getTotalCount());
+        assertTrue(benchmarker.getAverageCpuTime(16) != 0.0);
+    }
+
+    @Test
+    public void physicalCores()
+    {
+        int cores = BenchmarkScheduler.countPhysicalCores();
+        assertTrue(cores >= 1 && cores <= Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,148 @@
+package com.mshernandez.mm_analysis;
+
+import static com.mshernandez.mm_analysis.MatrixMultiplierTests.randomMatrix;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ElementTypeMultiplierTests
+{
+    private static final int[][] SHAPES = {{2, 2, 2}, {8, 8, 8}, {64, 64, 64}, {37, 51, 29}, {45, 45, 45}, {1, 9, 3}};
+
+    @Test
+    public void longMultipliers()
+    {
+        LongMatrixMultiplier[] multipliers = {new IterativeLongMatrixMultiplier(),
+                                              new DivideConquerLongMatrixMultiplier(),
+                                              new DivideConquerLongMatrixMultiplier(8),
+                                              new StrassensLongMatrixMultiplier(),
+                                              new StrassensLongMatrixMultiplier(8)};
+        for (int[] shape : SHAPES)
+        {
+            int[][] a = randomMatrix(1, shape[0], shape[1]);
+            int[][] b = randomMatrix(2, shape[1], shape[2]);
+            int[][] expected = new IterativeMatrixMultiplier().multiply(a, b);
+            for (LongMatrixMultiplier multiplier : multipliers)
+            {
+                long[][] result = multiplier.multiply(LongMatrixMultiplier.toLongArray(a),
+                                                      LongMatrixMultiplier.toLongArray(b));
+                assertArrayEquals(multiplier.getAlgorithmName(), LongMatrixMultiplier.toLongArray(expected), result);
+            }
+        }
+    }
+
+    @Test
+    public void longDoesNotOverflow()
+    {
+        long[][] a = {{Integer.MAX_VALUE, Integer.MAX_VALUE}, {1, 2}};
+        long[][] b = {{Integer.MAX_VALUE, 0}, {Integer.MAX_VALUE, 1}};
+        long square = (long) Integer.MAX_VALUE * Integer.MAX_VALUE;
+        long[][] expected = {{2 * square, Integer.MAX_VALUE}, {3L * Integer.MAX_VALUE, 2}};
+        assertArrayEquals(expected, new StrassensLongMatrixMultiplier().multiply(a, b));
+        assertArrayEquals(expected, new DivideConquerLongMatrixMultiplier().multiply(a, b));
+        assertArrayEquals(expected, new IterativeLongMatrixMultiplier().multiply(a, b));
+    }
+
+    @Test
+    public void doubleMultipliers()
+    {
+        DoubleMatrixMultiplier[] multipliers = {new IterativeDoubleMatrixMultiplier(),
+                                                new DivideConquerDoubleMatrixMultiplier(),
+                                                new StrassensDoubleMatrixMultiplier(),
+                                                new StrassensDoubleMatrixMultiplier(8)};
+        for (int[] shape : SHAPES)
+        {
+            /**
+             * Small Integer Values Are Multiplied Exactly
+             */
+            int[][] a = randomMatrix(3, shape[0], shape[1]);
+            int[][] b = randomMatrix(4, shape[1], shape[2]);
+            int[][] expected = new IterativeMatrixMultiplier().multiply(a, b);
+            for (DoubleMatrixMultiplier multiplier : multipliers)
+            {
+                double[][] result = multiplier.multiply(DoubleMatrixMultiplier.toDoubleArray(a),
+                                                        DoubleMatrixMultiplier.toDoubleArray(b));
+                for (int row = 0; row < expected.length; row++)
+                {
+                    assertArrayEquals(multiplier.getAlgorithmName(),
+                                      DoubleMatrixMultiplier.toDoubleArray(expected)[row], result[row], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void floatMultipliers()
+    {
+        FloatMatrixMultiplier[] multipliers = {new IterativeFloatMatrixMultiplier(),
+                                               new DivideConquerFloatMatrixMultiplier(),
+                                               new StrassensFloatMatrixMultiplier(),
+                                               new StrassensFloatMatrixMultiplier(8)};
+        for (int[] shape : SHAPES)
+        {
+            /**
+             * Sums Must Stay Below 2^24 To Be Exact In Float Precision
+             */
+            int[][] a = smallRandomMatrix(shape[0], shape[1]);
+            int[][] b = smallRandomMatrix(shape[1], shape[2]);
+            int[][] expected = new IterativeMatrixMultiplier().multiply(a, b);
+            for (FloatMatrixMultiplier multiplier : multipliers)
+            {
+                float[][] result = multiplier.multiply(FloatMatrixMultiplier.toFloatArray(a),
+                                                       FloatMatrixMultiplier.toFloatArray(b));
+                for (int row = 0; row < expected.length; row++)
+                {
+                    assertArrayEquals(multiplier.getAlgorithmName(),
+                                      FloatMatrixMultiplier.toFloatArray(expected)[row], result[row], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void strassensNumericalError()
+    {
+        Random random = new Random(1);
+        double[][] a = new double[128][128];
+        double[][] b = new double[128][128];
+        NumericalError.randomizeMatrix(a, random);
+        NumericalError.randomizeMatrix(b, random);
+        double[][] reference = NumericalError.referenceProduct(a, b);
+        double iterativeError = NumericalError.relativeError(new IterativeDoubleMatrixMultiplier().multiply(a, b), reference);
+        double strassensError = NumericalError.relativeError(new StrassensDoubleMatrixMultiplier().multiply(a, b), reference);
+        double floatError = NumericalError.relativeError(
+            new StrassensFloatMatrixMultiplier().multiply(NumericalError.toFloatArray(a), NumericalError.toFloatArray(b)),
+            reference);
+        assertTrue(iterativeError < 1e-14);
+        assertTrue(strassensError > iterativeError && strassensError < 1e-12);
+        assertTrue(floatError > strassensError && floatError < 1e-4);
+        assertEquals(0.0, NumericalError.relativeError(reference, reference), 0.0);
+    }
+
+    @Test
+    public void benchmarkerConvertsInputs()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new StrassensDoubleMatrixMultiplier(), 0.05, 5, 10, false);
+        benchmarker.benchmarkInput(randomMatrix(5, 16, 16), randomMatrix(6, 16, 16), 3);
+        assertEquals(3, benchmarker.getHistogram(16).getTotalCount());
+    }
+
+    private static int[][] smallRandomMatrix(int rows, int cols)
+    {
+        Random random = new Random();
+        int[][] matrix = new int[rows][cols];
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                matrix[row][col] = random.nextInt(21) - 10;
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,149 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void smallValuesAreExact()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++)
+        {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50, histogram.getValueAtPercentile(50.0));
+        assertEquals(90, histogram.getValueAtPercentile(90.0));
+        assertEquals(99, histogram.getValueAtPercentile(99.0));
+        assertEquals(100, histogram.getValueAtPercentile(99.9));
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(Math.sqrt((100.0 * 100.0 - 1.0) / 12.0), histogram.getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    public void largeValuesWithinPrecision()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1000; value <= 1_000_000_000L; value = value * 3 / 2)
+        {
+            histogram.reset();
+            histogram.record(1);
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+            long reported = histogram.getValueAtPercentile(50.0);
+            assertTrue(reported >= value);
+            assertTrue(reported - value <= value / 64);
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous()
+    {
+        for (int index = 1; index < LatencyHistogram.bucketIndex(Long.MAX_VALUE); index++)
+        {
+            long lowest = LatencyHistogram.highestValueInBucket(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.bucketIndex(lowest));
+            assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.highestValueInBucket(index)));
+        }
+    }
+
+    @Test
+    public void mergeMatchesSingleHistogram()
+    {
+        LatencyHistogram all = new LatencyHistogram();
+        LatencyHistogram even = new LatencyHistogram();
+        LatencyHistogram odd = new LatencyHistogram();
+        for (long value = 0; value < 10_000; value += 7)
+        {
+            all.record(value * 31);
+            ((value % 2 == 0) ? even : odd).record(value * 31);
+        }
+        even.merge(odd);
+        assertEquals(all.getTotalCount(), even.getTotalCount());
+        assertEquals(all.getMin(), even.getMin());
+        assertEquals(all.getMax(), even.getMax());
+        assertEquals(all.getStandardDeviation(), even.getStandardDeviation(), 1e-6);
+        for (double percentile : Main.REPORTED_PERCENTILES)
+        {
+            assertEquals(all.getValueAtPercentile(percentile), even.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeValue()
+    {
+        new LatencyHistogram().record(-1);
+    }
+
+    @Test
+    public void encodeRoundTrip()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 3; value < 1_000_000_000L; value = value * 7 / 3)
+        {
+            histogram.record(value);
+        }
+        LatencyHistogram restored = LatencyHistogram.decode(histogram.encode());
+        assertEquals(histogram.getTotalCount(), restored.getTotalCount());
+        assertEquals(histogram.getMin(), restored.getMin());
+        assertEquals(histogram.getMax(), restored.getMax());
+        assertEquals(histogram.getMean(), restored.getMean(), 0);
+        assertEquals(histogram.getStandardDeviation(), restored.getStandardDeviation(), 0);
+        for (double percentile = 0.0; percentile <= 100.0; percentile += 12.5)
+        {
+            assertEquals(histogram.getValueAtPercentile(percentile), restored.getValueAtPercentile(percentile));
+        }
+        assertEquals(0, LatencyHistogram.decode(new LatencyHistogram().encode()).getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeInvalid()
+    {
+        LatencyHistogram.decode("1;2;3");
+    }
+
+    @Test
+    public void relativeErrorOfMean()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        assertEquals(Double.POSITIVE_INFINITY, histogram.getRelativeErrorOfMean(), 0);
+        /**
+         * Values 90 And 110 Alternating: Mean 100, Sample Deviation 10 * sqrt(n / (n - 1))
+         */
+        histogram.reset();
+        for (int i = 0; i < 400; i++)
+        {
+            histogram.record((i % 2 == 0) ? 90 : 110);
+        }
+        double expected = LatencyHistogram.Z_95 * 10.0 * Math.sqrt(400.0 / 399.0) / 20.0 / 100.0;
+        assertEquals(expected, histogram.getRelativeErrorOfMean(), 1e-12);
+    }
+
+    @Test
+    public void relativeErrorOfPercentileShrinks()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++)
+        {
+            histogram.record(value);
+        }
+        double few = histogram.getRelativeErrorOfPercentile(50.0);
+        for (int repeat = 0; repeat < 99; repeat++)
+        {
+            for (int value = 1; value <= 100; value++)
+            {
+                histogram.record(value);
+            }
+        }
+        double many = histogram.getRelativeErrorOfPercentile(50.0);
+        assertTrue(few > 0.1);
+        assertTrue(many < few / 5);
+    }
+}
@@ -0,0 +1,33 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for parsing program arguments.
+ */
+public class MainTest
+{
+    @Test
+    public void shouldParseArguments()
+    {
+        Map<String, String> arguments = Main.parseArguments(new String[] {"--seed=7", "--adaptive"});
+        assertEquals("7", arguments.get(Main.SEED_ARGUMENT));
+        assertEquals("true", arguments.get(Main.ADAPTIVE_ARGUMENT));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownNames()
+    {
+        Main.parseArguments(new String[] {"--sed=7"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownFlags()
+    {
+        Main.parseArguments(new String[] {"--adaptve"});
+    }
+}
@@ -0,0 +1,114 @@
+package com.mshernandez.mm_analysis;
+
+import static com.mshernandez.mm_analysis.MatrixMultiplierTests.randomMatrix;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the binary matrix file format.
+ */
+public class MatrixFileTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A saved matrix should be read back unchanged, including
+     * when it is a view with a stride wider than its columns.
+     */
+    @Test
+    public void shouldReadWrittenMatrix() throws IOException
+    {
+        int[][] expected = randomMatrix(1, 13, 9);
+        Matrix view = Matrix.fromArray(randomMatrix(2, 20, 20)).view(3, 5, 13, 9);
+        for (int row = 0; row < 13; row++)
+        {
+            for (int col = 0; col < 9; col++)
+            {
+                view.set(row, col, expected[row][col]);
+            }
+        }
+        Path file = folder.newFile("matrix" + MatrixFile.EXTENSION).toPath();
+        MatrixFile.write(file, view);
+        assertEquals(MatrixFile.HEADER_SIZE + 13 * 9 * Integer.BYTES, Files.size(file));
+        MatrixFile.Header header = MatrixFile.readHeader(file);
+        assertEquals(MatrixFile.ElementType.INT, header.getElementType());
+        assertEquals(13, header.getRows());
+        assertEquals(9, header.getColumns());
+        assertTrue(header.isChecksumPresent());
+        assertArrayEquals(expected, MatrixFile.read(file).toArray());
+    }
+
+    /**
+     * A saved matrix should be usable in place as a mapped matrix.
+     */
+    @Test
+    public void shouldMapWrittenMatrix() throws IOException
+    {
+        int[][] expected = randomMatrix(3, 6, 4);
+        Path file = folder.newFile().toPath();
+        MatrixFile.write(file, Matrix.fromArray(expected), false);
+        assertFalse(MatrixFile.readHeader(file).isChecksumPresent());
+        try (MappedMatrix matrix = MatrixFile.map(file, false))
+        {
+            assertEquals(expected[5][3], matrix.get(5, 3));
+            assertEquals(expected[0][0], matrix.get(0, 0));
+        }
+    }
+
+    /**
+     * A corrupted element should be caught by the checksum.
+     */
+    @Test(expected = IOException.class)
+    public void shouldRejectChecksumMismatch() throws IOException
+    {
+        Path file = folder.newFile().toPath();
+        MatrixFile.write(file, Matrix.fromArray(randomMatrix(4, 5, 5)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), MatrixFile.HEADER_SIZE + 7);
+        }
+        MatrixFile.read(file);
+    }
+
+    /**
+     * Files which are not matrix files should be rejected.
+     */
+    @Test(expected = IOException.class)
+    public void shouldRejectWrongMagicNumber() throws IOException
+    {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[MatrixFile.HEADER_SIZE + 4]);
+        MatrixFile.readHeader(file);
+    }
+
+    /**
+     * Saved pairs should be loaded in order of size.
+     */
+    @Test
+    public void shouldLoadInputPairsBySize() throws IOException
+    {
+        Path directory = folder.newFolder().toPath();
+        int[][] largeA = randomMatrix(5, 8, 8);
+        Main.saveInputPair(directory, "alpha", largeA, randomMatrix(6, 8, 8));
+        Main.saveInputPair(directory, "beta", randomMatrix(7, 2, 2), randomMatrix(8, 2, 2));
+        List<Matrix[]> pairs = Main.loadInputPairs(directory);
+        assertEquals(2, pairs.size());
+        assertEquals(2, pairs.get(0)[0].getRows());
+        assertArrayEquals(largeA, pairs.get(1)[0].toArray());
+    }
+}
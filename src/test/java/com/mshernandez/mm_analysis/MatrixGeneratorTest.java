@@ -0,0 +1,163 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Unit tests for the seeded input generator.
+ */
+public class MatrixGeneratorTest
+{
+    /**
+     * Generators with the same seed should produce the same
+     * sequence of matrices, including large matrices filled
+     * in parallel, and jagged and contiguous matrices should
+     * receive the same values.
+     */
+    @Test
+    public void shouldReproduceMatricesFromSeed()
+    {
+        MatrixGenerator first = new MatrixGenerator(42);
+        MatrixGenerator second = new MatrixGenerator(42);
+        int[][] small = new int[7][5];
+        int[][] large = new int[300][300];
+        first.fill(small);
+        first.fill(large);
+        Matrix smallCopy = new Matrix(7, 5);
+        Matrix largeCopy = new Matrix(300, 300);
+        second.fill(smallCopy);
+        second.fill(largeCopy);
+        assertArrayEquals(small, smallCopy.toArray());
+        assertArrayEquals(large, largeCopy.toArray());
+        int[][] otherSeed = new int[7][5];
+        new MatrixGenerator(43).fill(otherSeed);
+        assertFalse(Arrays.deepEquals(small, otherSeed));
+    }
+
+    /**
+     * Uniform values should stay within the requested range.
+     */
+    @Test
+    public void shouldStayWithinRange()
+    {
+        int[][] matrix = new int[50][50];
+        new MatrixGenerator(1, MatrixGenerator.Distribution.UNIFORM, -3, 3, 1.0, 0).fill(matrix);
+        boolean sawMin = false;
+        boolean sawMax = false;
+        for (int[] row : matrix)
+        {
+            for (int value : row)
+            {
+                assertTrue(value >= -3 && value <= 3);
+                sawMin |= value == -3;
+                sawMax |= value == 3;
+            }
+        }
+        assertTrue(sawMin && sawMax);
+    }
+
+    /**
+     * Sparse matrices should have about the requested
+     * fraction of nonzero elements.
+     */
+    @Test
+    public void shouldGenerateRequestedDensity()
+    {
+        int[][] matrix = new int[200][200];
+        new MatrixGenerator(7, MatrixGenerator.Distribution.SPARSE, 1, 9, 0.05, 0).fill(matrix);
+        int nonzero = 0;
+        for (int[] row : matrix)
+        {
+            for (int value : row)
+            {
+                nonzero += (value != 0) ? 1 : 0;
+            }
+        }
+        assertEquals(0.05, nonzero / 40000.0, 0.01);
+    }
+
+    /**
+     * Banded matrices should only have nonzero elements near
+     * the diagonal, and identity matrices only on it.
+     */
+    @Test
+    public void shouldGenerateBandedAndIdentityMatrices()
+    {
+        int[][] banded = new int[20][20];
+        int[][] identity = new int[20][20];
+        new MatrixGenerator(3, MatrixGenerator.Distribution.BANDED, 1, 5, 1.0, 2).fill(banded);
+        new MatrixGenerator(3, MatrixGenerator.Distribution.IDENTITY, 1, 5, 1.0, 0).fill(identity);
+        for (int row = 0; row < 20; row++)
+        {
+            for (int col = 0; col < 20; col++)
+            {
+                assertEquals(Math.abs(row - col) <= 2, banded[row][col] != 0);
+                assertEquals((row == col) ? 1 : 0, identity[row][col]);
+            }
+        }
+    }
+
+    /**
+     * Small integer matrices should stay within SMALL_INTEGER_BOUND.
+     */
+    @Test
+    public void shouldGenerateSmallIntegers()
+    {
+        int[][] matrix = new int[30][30];
+        new MatrixGenerator(5, MatrixGenerator.Distribution.SMALL_INTEGER, 1, 1000, 1.0, 0).fill(matrix);
+        for (int[] row : matrix)
+        {
+            for (int value : row)
+            {
+                assertTrue(Math.abs(value) <= MatrixGenerator.SMALL_INTEGER_BOUND);
+            }
+        }
+    }
+
+    /**
+     * Skipping matrices should leave a generator where
+     * filling them would have.
+     */
+    @Test
+    public void skipShouldMatchFilling()
+    {
+        MatrixGenerator filled = new MatrixGenerator(7);
+        MatrixGenerator skipped = new MatrixGenerator(7);
+        int[][] expected = new int[6][6];
+        int[][] actual = new int[6][6];
+        for (int i = 0; i < 5; i++)
+        {
+            filled.fill(expected);
+        }
+        skipped.skip(4);
+        skipped.fill(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Filling a matrix small enough to be filled on
+     * the calling thread should not allocate.
+     */
+    @Test
+    public void shouldFillWithoutAllocating()
+    {
+        JvmEventMonitor monitor = new JvmEventMonitor();
+        Assume.assumeTrue(monitor.getAllocatedBytesSinceStart() >= 0);
+        MatrixGenerator generator = new MatrixGenerator(9, MatrixGenerator.Distribution.SPARSE, 1, 9, 0.5, 0);
+        int[][] matrix = new int[64][64];
+        for (int i = 0; i < 100; i++)
+        {
+            generator.fill(matrix);
+        }
+        monitor.start();
+        generator.fill(matrix);
+        assertEquals(0, monitor.getAllocatedBytesSinceStart());
+    }
+}
@@ -0,0 +1,148 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+public class MatrixMultiplierBenchmarkerTest
+{
+    @Test
+    public void coefficientOfVariationOfConstantValues()
+    {
+        assertEquals(0.0, MatrixMultiplierBenchmarker.coefficientOfVariation(new long[] {7, 7, 7, 7}), 0);
+    }
+
+    @Test
+    public void coefficientOfVariation()
+    {
+        /**
+         * Mean 5, Population Standard Deviation 2
+         */
+        long[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+        assertEquals(0.4, MatrixMultiplierBenchmarker.coefficientOfVariation(values), 1e-9);
+    }
+
+    @Test
+    public void warmupStopsAtMaximumRuns()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.0, 5, 20, true);
+        int[][] matrix = new int[8][8];
+        MatrixMultiplierBenchmarker.randomizeMatrix(matrix);
+        benchmarker.benchmarkInput(matrix, matrix, 3);
+        int warmupRuns = benchmarker.getWarmupRuns(8);
+        assertTrue(warmupRuns >= 5 && warmupRuns <= 20);
+        benchmarker.benchmarkInput(matrix, matrix, 3);
+        assertEquals(warmupRuns, benchmarker.getWarmupRuns(8));
+        assertTrue(benchmarker.getAverageRuntime(8) > 0.0);
+    }
+
+    @Test
+    public void warmupDisabled()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 10, 0, false);
+        int[][] matrix = new int[4][4];
+        benchmarker.benchmarkInput(matrix, matrix, 2);
+        assertEquals(0, benchmarker.getWarmupRuns(4));
+    }
+
+    @Test
+    public void monitorDetectsCollection()
+    {
+        JvmEventMonitor monitor = new JvmEventMonitor();
+        monitor.start();
+        System.gc();
+        assertTrue(monitor.collectedSinceStart());
+    }
+
+    @Test
+    public void monitorMeasuresAllocation()
+    {
+        JvmEventMonitor monitor = new JvmEventMonitor();
+        Assume.assumeTrue(monitor.getAllocatedBytesSinceStart() >= 0);
+        monitor.start();
+        int[] array = new int[1 << 16];
+        long allocated = monitor.getAllocatedBytesSinceStart();
+        assertTrue(allocated >= 4L * array.length);
+        monitor.resetPeakHeapUsage();
+        assertTrue(monitor.getPeakHeapUsage() > 0);
+    }
+
+    @Test
+    public void allocationOfResultMeasured()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 2, 2, false);
+        int[][] matrix = new int[32][32];
+        benchmarker.benchmarkInput(matrix, matrix, 3);
+        Assume.assumeTrue(benchmarker.getAverageAllocatedBytes(32) >= 0);
+        assertTrue(benchmarker.getAverageAllocatedBytes(32) >= 32 * 32 * 4);
+        assertTrue(benchmarker.getPeakHeapUsage(32) > 0);
+    }
+
+    @Test
+    public void adaptiveSamplingStopsAtMaximum()
+    {
+        MatrixMultiplierBenchmarker benchmarker = new MatrixMultiplierBenchmarker(
+            new IterativeMatrixMultiplier(), 0.05, 2, 2, false, new AdaptiveSampling(1e-9, 10, 25));
+        int[][] matrix = new int[4][4];
+        for (int input = 0; input < 10; input++)
+        {
+            benchmarker.benchmarkInput(matrix, matrix, 10);
+        }
+        assertEquals(25, benchmarker.getHistogram(4).getTotalCount());
+        assertEquals(3, benchmarker.getNumberInputs(4));
+        assertTrue(benchmarker.isComplete(4));
+        assertFalse(benchmarker.isComplete(8));
+    }
+
+    @Test
+    public void adaptiveSamplingStopsOnceConfident()
+    {
+        MatrixMultiplierBenchmarker benchmarker = new MatrixMultiplierBenchmarker(
+            new IterativeMatrixMultiplier(), 0.05, 2, 2, true, new AdaptiveSampling(0.5, 50.0, 20, 100000));
+        int[][] matrix = new int[16][16];
+        for (int input = 0; input < 1000 && !benchmarker.isComplete(16); input++)
+        {
+            benchmarker.benchmarkInput(matrix, matrix, 10);
+        }
+        long samples = benchmarker.getHistogram(16).getTotalCount();
+        assertTrue(benchmarker.isComplete(16));
+        assertTrue(samples >= 20 && samples < 100000);
+        assertTrue(benchmarker.getRelativeError(16) <= 0.5);
+    }
+
+    @Test
+    public void fixedSamplingNeverCompletes()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 2, 2, false);
+        int[][] matrix = new int[4][4];
+        benchmarker.benchmarkInput(matrix, matrix, 50);
+        assertFalse(benchmarker.isComplete(4));
+        assertTrue(benchmarker.getRelativeError(4) < Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void operationCountFollowsInputs()
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new SparseDenseMatrixMultiplier(), 0.05, 2, 2, false);
+        int[][] a = new int[4][4];
+        a[1][2] = 3;
+        int[][] b = new int[4][4];
+        benchmarker.benchmarkInput(a, b, 3);
+        assertEquals(2 * 4, benchmarker.getOperationCount(4));
+        assertEquals(Multiplier.classicalOperationCount(8), benchmarker.getOperationCount(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void adaptiveSamplingRejectsInvalidBounds()
+    {
+        new AdaptiveSampling(0.01, 100, 50);
+    }
+}
@@ -1,5 +1,6 @@
 package com.mshernandez.mm_analysis;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -110,6 +111,98 @@ public class MatrixMultiplierTests
         assertTrue(multiply8x8(m));
     }
 
+    @Test
+    public void blockedMultiplier2x2()
+    {
+        MatrixMultiplier m = new BlockedMatrixMultiplier();
+        assertTrue(multiply2x2(m));
+    }
+
+    @Test
+    public void blockedMultiplier4x4()
+    {
+        MatrixMultiplier m = new BlockedMatrixMultiplier();
+        assertTrue(multiply4x4(m));
+    }
+
+    @Test
+    public void blockedMultiplier8x8()
+    {
+        MatrixMultiplier m = new BlockedMatrixMultiplier();
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void blockedMultiplierUnevenTiles8x8()
+    {
+        MatrixMultiplier m = new BlockedMatrixMultiplier(3, 5);
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void packedPanelMultiplier2x2()
+    {
+        MatrixMultiplier m = new PackedPanelMatrixMultiplier();
+        assertTrue(multiply2x2(m));
+    }
+
+    @Test
+    public void packedPanelMultiplier8x8()
+    {
+        MatrixMultiplier m = new PackedPanelMatrixMultiplier();
+        assertTrue(multiply8x8(m));
+        assertTrue(multiplyFlat8x8(m));
+    }
+
+    @Test
+    public void packedPanelMultiplierSmallBlocks()
+    {
+        MatrixMultiplier m = new PackedPanelMatrixMultiplier(8, 5, 32);
+        assertTrue(multiplyRandom(m, 64));
+        assertTrue(multiplyRandom(m, 37, 51, 29));
+        assertTrue(multiplyRandom(m, 1, 9, 3));
+    }
+
+    @Test
+    public void packedPanelMultiplierEdgeSlivers()
+    {
+        /**
+         * Every Partial Row And Column Count Of The Micro-Kernel's Block
+         */
+        MatrixMultiplier m = new PackedPanelMatrixMultiplier(8, 5, 32);
+        for (int size = 1; size <= PackedPanelMatrixMultiplier.NR; size++)
+        {
+            assertTrue(multiplyRandom(m, 11, 7, 8 + size));
+            assertTrue(multiplyRandom(m, 4 + size, 7, 11));
+            assertTrue(multiplyIntoRandom(m, 4 + size, 7, 8 + size));
+        }
+    }
+
+    @Test
+    public void packedPanelMultiplierRandom()
+    {
+        MatrixMultiplier m = new PackedPanelMatrixMultiplier();
+        assertTrue(multiplyRandom(m, 45));
+        assertTrue(multiplyRandom(m, 300, 270, 150));
+    }
+
+    @Test
+    public void packedPanelMultiplierWorkspaceReuse()
+    {
+        MatrixMultiplier m = new PackedPanelMatrixMultiplier(8, 5, 32);
+        assertTrue(multiplyRandom(m, 64));
+        assertTrue(multiplyRandom(m, 16));
+        assertTrue(multiplyRandom(m, 37, 51, 29));
+        assertTrue(multiplyRandom(m, 128));
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void packedPanelMultiplierInvalidBlocks()
+    {
+        new PackedPanelMatrixMultiplier(6, 16, 16);
+    }
+
     @Test
     public void divideMultiplier2x2()
     {
@@ -131,6 +224,49 @@ public class MatrixMultiplierTests
         assertTrue(multiply8x8(m));
     }
 
+    @Test
+    public void divideMultiplierLeaf4x8x8()
+    {
+        MatrixMultiplier m = new DivideConquerMatrixMultiplier(4);
+        assertTrue(multiply8x8(m));
+        assertTrue(multiplyFlat8x8(m));
+    }
+
+    @Test
+    public void divideMultiplierLeafRandom64x64()
+    {
+        MatrixMultiplier m = new DivideConquerMatrixMultiplier(16);
+        assertTrue(multiplyRandom(m, 64));
+    }
+
+    @Test
+    public void parallelDivideMultiplier2x2()
+    {
+        MatrixMultiplier m = new ParallelDivideConquerMatrixMultiplier(2, 4);
+        assertTrue(multiply2x2(m));
+    }
+
+    @Test
+    public void parallelDivideMultiplier4x4()
+    {
+        MatrixMultiplier m = new ParallelDivideConquerMatrixMultiplier(2, 4);
+        assertTrue(multiply4x4(m));
+    }
+
+    @Test
+    public void parallelDivideMultiplier8x8()
+    {
+        MatrixMultiplier m = new ParallelDivideConquerMatrixMultiplier(2, 4);
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void parallelDivideMultiplierRandom64x64()
+    {
+        MatrixMultiplier m = new ParallelDivideConquerMatrixMultiplier(8, 4);
+        assertTrue(multiplyRandom(m, 64));
+    }
+
     @Test
     public void strassensMultiplier2x2()
     {
@@ -152,6 +288,313 @@ public class MatrixMultiplierTests
         assertTrue(multiply8x8(m));
     }
 
+    @Test
+    public void strassensMultiplierLeaf4x8x8()
+    {
+        MatrixMultiplier m = new StrassensMatrixMultiplier(4);
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void strassensMultiplierLeafRandom64x64()
+    {
+        MatrixMultiplier m = new StrassensMatrixMultiplier(16);
+        assertTrue(multiplyRandom(m, 64));
+    }
+
+    @Test
+    public void strassensMultiplierWorkspaceReuse()
+    {
+        MatrixMultiplier m = new StrassensMatrixMultiplier(4);
+        assertTrue(multiplyRandom(m, 64));
+        assertTrue(multiplyRandom(m, 16));
+        assertTrue(multiplyRandom(m, 37, 51, 29));
+        assertTrue(multiplyRandom(m, 128));
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void winogradMultiplier2x2()
+    {
+        MatrixMultiplier m = new WinogradMatrixMultiplier();
+        assertTrue(multiply2x2(m));
+    }
+
+    @Test
+    public void winogradMultiplier4x4()
+    {
+        MatrixMultiplier m = new WinogradMatrixMultiplier();
+        assertTrue(multiply4x4(m));
+    }
+
+    @Test
+    public void winogradMultiplier8x8()
+    {
+        MatrixMultiplier m = new WinogradMatrixMultiplier();
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void winogradMultiplierLeafRandom64x64()
+    {
+        assertTrue(multiplyRandom(new WinogradMatrixMultiplier(), 64));
+        assertTrue(multiplyRandom(new WinogradMatrixMultiplier(8), 64));
+        assertTrue(multiplyRandom(new WinogradMatrixMultiplier(4), 45));
+    }
+
+    @Test
+    public void winogradMultiplierRectangular()
+    {
+        assertTrue(multiplyRandom(new WinogradMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyRandom(new WinogradMatrixMultiplier(8), 100, 300, 70));
+        assertTrue(multiplyRandom(new WinogradMatrixMultiplier(), 1, 5, 3));
+    }
+
+    @Test
+    public void winogradMultiplyInto()
+    {
+        assertTrue(multiplyIntoRandom(new WinogradMatrixMultiplier(), 37, 51, 29));
+        int[][] result = {{-7, 9}, {100, 3}};
+        new WinogradMatrixMultiplier().multiplyInto(a, b, result, 1, 0);
+        assertTrue(matricesEqual(result, ab));
+    }
+
+    @Test
+    public void parallelStrassensMultiplier2x2()
+    {
+        MatrixMultiplier m = new ParallelStrassensMatrixMultiplier(2, 4);
+        assertTrue(multiply2x2(m));
+    }
+
+    @Test
+    public void operationCounts()
+    {
+        assertEquals(128, new IterativeMatrixMultiplier().getOperationCount(4));
+        assertEquals(2 * 64 * 64 * 64, new StrassensMatrixMultiplier(64).getOperationCount(64));
+        /**
+         * 7 Products Of 2x2 Leaves, 10 Operand And 12 Result Additions Of 2x2 Quadrants
+         */
+        assertEquals(7 * 16 + 22 * 4, new StrassensMatrixMultiplier().getOperationCount(4));
+        assertEquals(7 * 16 + 15 * 4, new WinogradMatrixMultiplier().getOperationCount(4));
+        assertEquals(7 * 16 + 18 * 4, new ParallelStrassensMatrixMultiplier(2, 4).getOperationCount(4));
+        assertEquals(new StrassensMatrixMultiplier().getOperationCount(4),
+                     new StrassensLongMatrixMultiplier().getOperationCount(4));
+        long classical = 2L * 512 * 512 * 512;
+        assertTrue(new StrassensMatrixMultiplier(64).getOperationCount(512) < classical);
+        assertTrue(new WinogradMatrixMultiplier(64).getOperationCount(512)
+                   < new StrassensMatrixMultiplier(64).getOperationCount(512));
+        /**
+         * The Peeled Row And Column Are Counted Classically
+         */
+        assertEquals(new StrassensMatrixMultiplier().getOperationCount(4) + 2L * (125 - 64),
+                     new StrassensMatrixMultiplier().getOperationCount(5));
+    }
+
+    @Test
+    public void parallelStrassensMultiplier4x4()
+    {
+        MatrixMultiplier m = new ParallelStrassensMatrixMultiplier(2, 4);
+        assertTrue(multiply4x4(m));
+    }
+
+    @Test
+    public void parallelStrassensMultiplier8x8()
+    {
+        MatrixMultiplier m = new ParallelStrassensMatrixMultiplier(2, 4);
+        assertTrue(multiply8x8(m));
+    }
+
+    @Test
+    public void parallelStrassensMultiplierRandom64x64()
+    {
+        MatrixMultiplier m = new ParallelStrassensMatrixMultiplier(8, 4);
+        assertTrue(multiplyRandom(m, 64));
+    }
+
+    @Test
+    public void iterativeMultiplierRectangular()
+    {
+        int[][] x = {{1, 2, 3}, {4, 5, 6}};
+        int[][] y = {{7, 8}, {9, 10}, {11, 12}};
+        int[][] xy = {{58, 64}, {139, 154}};
+        MatrixMultiplier m = new IterativeMatrixMultiplier();
+        assertTrue(matricesEqual(m.multiply(x, y), xy));
+    }
+
+    @Test
+    public void blockedMultiplierRectangular()
+    {
+        MatrixMultiplier m = new BlockedMatrixMultiplier(4, 8);
+        assertTrue(multiplyRandom(m, 37, 51, 29));
+    }
+
+    @Test
+    public void divideMultiplierRectangular()
+    {
+        assertTrue(multiplyRandom(new DivideConquerMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyRandom(new DivideConquerMatrixMultiplier(8), 100, 300, 70));
+    }
+
+    @Test
+    public void strassensMultiplierRectangular()
+    {
+        assertTrue(multiplyRandom(new StrassensMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyRandom(new StrassensMatrixMultiplier(8), 100, 300, 70));
+        assertTrue(multiplyRandom(new StrassensMatrixMultiplier(), 1, 5, 3));
+    }
+
+    @Test
+    public void sparseDenseMultiplier8x8()
+    {
+        assertTrue(multiply2x2(new SparseDenseMatrixMultiplier()));
+        assertTrue(multiply8x8(new SparseDenseMatrixMultiplier()));
+        assertTrue(multiply8x8(new SparseDenseMatrixMultiplier(true)));
+    }
+
+    @Test
+    public void sparseDenseMultiplierRectangular()
+    {
+        assertTrue(multiplyRandom(new SparseDenseMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyRandom(new SparseDenseMatrixMultiplier(true), 37, 51, 29));
+    }
+
+    @Test
+    public void gustavsonMultiplier8x8()
+    {
+        assertTrue(multiply2x2(new GustavsonMatrixMultiplier()));
+        assertTrue(multiply8x8(new GustavsonMatrixMultiplier()));
+        assertTrue(multiplyRandom(new GustavsonMatrixMultiplier(), 37, 51, 29));
+    }
+
+    @Test
+    public void oddSquareSizes()
+    {
+        assertTrue(multiplyRandom(new DivideConquerMatrixMultiplier(), 7));
+        assertTrue(multiplyRandom(new StrassensMatrixMultiplier(), 7));
+        assertTrue(multiplyRandom(new StrassensMatrixMultiplier(4), 45));
+        assertTrue(multiplyRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 45));
+        assertTrue(multiplyRandom(new ParallelStrassensMatrixMultiplier(4, 4), 45));
+        Matrix x = Matrix.fromArray(new int[][] {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        int[][] xx = {{30, 36, 42}, {66, 81, 96}, {102, 126, 150}};
+        assertTrue(matricesEqual(new DivideConquerMatrixMultiplier().multiplySquareMatrices(x, x).toArray(), xx));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedDimensions()
+    {
+        new IterativeMatrixMultiplier().multiply(new int[2][3], new int[2][3]);
+    }
+
+    @Test
+    public void parallelMultipliersRectangular()
+    {
+        assertTrue(multiplyRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 2, 3, 2));
+        assertTrue(multiplyRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 64, 96, 32));
+        assertTrue(multiplyRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 37, 51, 29));
+        assertTrue(multiplyRandom(new ParallelStrassensMatrixMultiplier(4, 4), 2, 3, 2));
+        assertTrue(multiplyRandom(new ParallelStrassensMatrixMultiplier(4, 4), 64, 96, 32));
+        assertTrue(multiplyRandom(new ParallelStrassensMatrixMultiplier(4, 4), 37, 51, 29));
+    }
+
+    @Test
+    public void iterativeMultiplyInto()
+    {
+        int[][] result = {{1, 1}, {1, 1}};
+        new IterativeMatrixMultiplier().multiplyInto(a, b, result, 2, -1);
+        assertTrue(matricesEqual(result, new int[][] {{37, 43}, {85, 99}}));
+        assertTrue(multiplyIntoRandom(new IterativeMatrixMultiplier(), 37, 51, 29));
+    }
+
+    @Test
+    public void blockedMultiplyInto()
+    {
+        assertTrue(multiplyIntoRandom(new BlockedMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new BlockedMatrixMultiplier(4, 8), 37, 51, 29));
+    }
+
+    @Test
+    public void packedPanelMultiplyInto()
+    {
+        assertTrue(multiplyIntoRandom(new PackedPanelMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new PackedPanelMatrixMultiplier(8, 5, 32), 37, 51, 29));
+    }
+
+    @Test
+    public void divideMultiplyInto()
+    {
+        assertTrue(multiplyIntoRandom(new DivideConquerMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new DivideConquerMatrixMultiplier(8), 64, 64, 64));
+        assertTrue(multiplyIntoRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 45, 45, 45));
+    }
+
+    @Test
+    public void strassensMultiplyInto()
+    {
+        assertTrue(multiplyIntoRandom(new StrassensMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new StrassensMatrixMultiplier(8), 64, 64, 64));
+        assertTrue(multiplyIntoRandom(new ParallelStrassensMatrixMultiplier(4, 4), 64, 64, 64));
+        assertTrue(multiplyIntoRandom(new ParallelStrassensMatrixMultiplier(4, 4), 45, 45, 45));
+    }
+
+    @Test
+    public void sparseMultiplyInto()
+    {
+        assertTrue(multiplyIntoRandom(new SparseDenseMatrixMultiplier(), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new SparseDenseMatrixMultiplier(true), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new GustavsonMatrixMultiplier(), 37, 51, 29));
+    }
+
+    @Test
+    public void multiplyIntoOverwritesWithZeroBeta()
+    {
+        int[][] result = {{-7, 9}, {100, 3}};
+        new StrassensMatrixMultiplier().multiplyInto(a, b, result, 1, 0);
+        assertTrue(matricesEqual(result, ab));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void multiplyIntoMismatchedOutput()
+    {
+        new BlockedMatrixMultiplier().multiplyInto(new int[2][3], new int[3][4], new int[2][3], 1, 0);
+    }
+
+    @Test
+    public void parallelMultiplyIntoRectangular()
+    {
+        assertTrue(multiplyIntoRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 64, 96, 32));
+        assertTrue(multiplyIntoRandom(new ParallelDivideConquerMatrixMultiplier(4, 4), 37, 51, 29));
+        assertTrue(multiplyIntoRandom(new ParallelStrassensMatrixMultiplier(4, 4), 64, 96, 32));
+        assertTrue(multiplyIntoRandom(new ParallelStrassensMatrixMultiplier(4, 4), 37, 51, 29));
+    }
+
+    @Test
+    public void iterativeMultiplierFlat8x8()
+    {
+        MatrixMultiplier m = new IterativeMatrixMultiplier();
+        assertTrue(multiplyFlat8x8(m));
+    }
+
+    @Test
+    public void blockedMultiplierFlat8x8()
+    {
+        MatrixMultiplier m = new BlockedMatrixMultiplier(3, 5);
+        assertTrue(multiplyFlat8x8(m));
+    }
+
+    @Test
+    public void divideMultiplierFlat8x8()
+    {
+        MatrixMultiplier m = new DivideConquerMatrixMultiplier();
+        assertTrue(multiplyFlat8x8(m));
+    }
+
+    @Test
+    public void strassensMultiplierFlat8x8()
+    {
+        MatrixMultiplier m = new StrassensMatrixMultiplier();
+        assertTrue(multiplyFlat8x8(m));
+    }
+
     public static boolean multiply2x2(MatrixMultiplier m)
     {
         int[][] abResult = m.multiplySquareMatrices(a, b);
@@ -170,6 +613,105 @@ public class MatrixMultiplierTests
         return matricesEqual(efResult, ef);
     }
 
+    /**
+     * Creates a random rows*cols matrix, the same
+     * one every time for the same seed.
+     */
+    public static int[][] randomMatrix(long seed, int rows, int cols)
+    {
+        int[][] matrix = new int[rows][cols];
+        new MatrixGenerator(seed).fill(matrix);
+        return matrix;
+    }
+
+    /**
+     * Multiplies random square matrices and compares
+     * the result against the iterative multiplier.
+     */
+    public static boolean multiplyRandom(MatrixMultiplier m, int size)
+    {
+        int[][] x = new int[size][size];
+        int[][] y = new int[size][size];
+        MatrixMultiplierBenchmarker.randomizeMatrix(x);
+        MatrixMultiplierBenchmarker.randomizeMatrix(y);
+        int[][] expected = new IterativeMatrixMultiplier().multiplySquareMatrices(x, y);
+        return matricesEqual(m.multiplySquareMatrices(x, y), expected);
+    }
+
+    /**
+     * Multiplies a random rows*inner matrix by a random
+     * inner*cols matrix and compares the result against
+     * the iterative multiplier.
+     */
+    public static boolean multiplyRandom(MatrixMultiplier m, int rows, int inner, int cols)
+    {
+        int[][] x = new int[rows][inner];
+        int[][] y = new int[inner][cols];
+        MatrixMultiplierBenchmarker.randomizeMatrix(x);
+        MatrixMultiplierBenchmarker.randomizeMatrix(y);
+        int[][] expected = new IterativeMatrixMultiplier().multiply(x, y);
+        return matricesEqual(m.multiply(x, y), expected);
+    }
+
+    /**
+     * Combines the product of random matrices into a
+     * random matrix with alpha = 2 and beta = -3, and
+     * compares the result against the plain product.
+     */
+    public static boolean multiplyIntoRandom(MatrixMultiplier m, int rows, int inner, int cols)
+    {
+        int[][] x = new int[rows][inner];
+        int[][] y = new int[inner][cols];
+        int[][] z = new int[rows][cols];
+        MatrixMultiplierBenchmarker.randomizeMatrix(x);
+        MatrixMultiplierBenchmarker.randomizeMatrix(y);
+        MatrixMultiplierBenchmarker.randomizeMatrix(z);
+        int[][] expected = new IterativeMatrixMultiplier().multiply(x, y);
+        for (int r = 0; r < rows; r++)
+        {
+            for (int c = 0; c < cols; c++)
+            {
+                expected[r][c] = 2 * expected[r][c] - 3 * z[r][c];
+            }
+        }
+        m.multiplyInto(x, y, z, 2, -3);
+        return matricesEqual(z, expected);
+    }
+
+    /**
+     * Copies a matrix.
+     */
+    public static int[][] copy(int[][] matrix)
+    {
+        int[][] copy = new int[matrix.length][];
+        for (int r = 0; r < matrix.length; r++)
+        {
+            copy[r] = matrix[r].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Multiplies 8x8 views embedded inside larger
+     * contiguous matrices so that the row stride
+     * differs from the number of columns.
+     */
+    public static boolean multiplyFlat8x8(MatrixMultiplier m)
+    {
+        Matrix eView = new Matrix(11, 10).view(2, 1, 8, 8);
+        Matrix fView = new Matrix(9, 12).view(1, 3, 8, 8);
+        for (int r = 0; r < 8; r++)
+        {
+            for (int c = 0; c < 8; c++)
+            {
+                eView.set(r, c, e[r][c]);
+                fView.set(r, c, f[r][c]);
+            }
+        }
+        Matrix efResult = m.multiplySquareMatrices(eView, fView);
+        return matricesEqual(efResult.toArray(), ef);
+    }
+
     public static boolean matricesEqual(int[][] a, int[][] b)
     {
         if (a.length != b.length)
@@ -0,0 +1,47 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class MatrixTest
+{
+    private static final int[][] values =
+    {
+        {1, 2, 3, 4},
+        {5, 6, 7, 8},
+        {9, 10, 11, 12},
+        {13, 14, 15, 16}
+    };
+
+    @Test
+    public void arrayRoundTripTest()
+    {
+        Matrix matrix = Matrix.fromArray(values);
+        assertEquals(4, matrix.getRows());
+        assertEquals(4, matrix.getColumns());
+        assertArrayEquals(values, matrix.toArray());
+    }
+
+    @Test
+    public void quadrantViewTest()
+    {
+        Matrix matrix = Matrix.fromArray(values);
+        Matrix bottomRight = matrix.quadrant(1, 1);
+        assertEquals(11, bottomRight.get(0, 0));
+        assertEquals(16, bottomRight.get(1, 1));
+        assertArrayEquals(new int[][] {{11, 12}, {15, 16}}, bottomRight.toArray());
+        bottomRight.set(0, 1, -1);
+        assertEquals(-1, matrix.get(2, 3));
+    }
+
+    @Test
+    public void nestedViewTest()
+    {
+        Matrix matrix = Matrix.fromArray(values);
+        Matrix view = matrix.view(1, 1, 3, 3).view(1, 0, 2, 2);
+        assertEquals(4, view.getStride());
+        assertArrayEquals(new int[][] {{10, 11}, {14, 15}}, view.toArray());
+    }
+}
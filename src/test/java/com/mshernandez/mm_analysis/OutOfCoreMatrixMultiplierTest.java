@@ -0,0 +1,152 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for matrices stored in memory-mapped
+ * files and the out-of-core multiplier.
+ */
+public class OutOfCoreMatrixMultiplierTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Copies a mapped matrix onto the heap.
+     */
+    private static int[][] toArray(MappedMatrix matrix)
+    {
+        int[][] array = new int[matrix.getRows()][matrix.getColumns()];
+        for (int row = 0; row < matrix.getRows(); row++)
+        {
+            matrix.readTile(row, 0, 1, matrix.getColumns(), array[row], 0, matrix.getColumns());
+        }
+        return array;
+    }
+
+    /**
+     * Creates a mapped matrix holding the given values.
+     */
+    private MappedMatrix createMatrix(int[][] values) throws IOException
+    {
+        MappedMatrix matrix = MappedMatrix.create(folder.newFile().toPath(), values.length, values[0].length);
+        for (int row = 0; row < values.length; row++)
+        {
+            matrix.writeTile(row, 0, 1, values[row].length, values[row], 0, values[row].length);
+        }
+        return matrix;
+    }
+
+    /**
+     * Elements written to a matrix should be stored little-endian
+     * after the header and read back after reopening the file.
+     */
+    @Test
+    public void shouldPersistElementsAfterHeader() throws IOException
+    {
+        Path file = folder.newFile().toPath();
+        try (MappedMatrix matrix = MappedMatrix.create(file, 8, 3, 5))
+        {
+            matrix.set(2, 4, 0x01020304);
+            matrix.set(0, 0, -7);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(8 + 3 * 5 * Integer.BYTES, bytes.length);
+        int last = 8 + (2 * 5 + 4) * Integer.BYTES;
+        assertEquals(0x04, bytes[last]);
+        assertEquals(0x01, bytes[last + 3]);
+        try (MappedMatrix matrix = MappedMatrix.open(file, 8, 3, 5, false))
+        {
+            assertEquals(0x01020304, matrix.get(2, 4));
+            assertEquals(-7, matrix.get(0, 0));
+            assertEquals(0, matrix.get(1, 1));
+        }
+    }
+
+    /**
+     * Tiles should be read and written correctly when
+     * they span several mapped chunks.
+     */
+    @Test
+    public void shouldCopyTilesAcrossChunks() throws IOException
+    {
+        int rows = 11;
+        int cols = 7;
+        try (MappedMatrix matrix = MappedMatrix.create(folder.newFile().toPath(), 0, rows, cols,
+                                                       3 * cols * Integer.BYTES))
+        {
+            int[] tile = new int[6 * 4];
+            for (int i = 0; i < tile.length; i++)
+            {
+                tile[i] = i + 1;
+            }
+            matrix.writeTile(2, 1, 6, 4, tile, 0, 4);
+            int[][] expected = new int[rows][cols];
+            for (int row = 0; row < 6; row++)
+            {
+                for (int col = 0; col < 4; col++)
+                {
+                    expected[row + 2][col + 1] = row * 4 + col + 1;
+                }
+            }
+            assertArrayEquals(expected, toArray(matrix));
+        }
+    }
+
+    /**
+     * Accessing elements outside the matrix should fail.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldRejectRegionOutsideMatrix() throws IOException
+    {
+        try (MappedMatrix matrix = MappedMatrix.create(folder.newFile().toPath(), 4, 4))
+        {
+            matrix.readTile(2, 2, 3, 1, new int[3], 0, 1);
+        }
+    }
+
+    /**
+     * The out-of-core multiplier should agree with the iterative
+     * multiplier for rectangular inputs whose dimensions are not
+     * multiples of the tile size.
+     */
+    @Test
+    public void shouldMatchIterativeMultiplier() throws IOException
+    {
+        int[][] a = new int[37][29];
+        int[][] b = new int[29][45];
+        MatrixMultiplierBenchmarker.randomizeMatrix(a);
+        MatrixMultiplierBenchmarker.randomizeMatrix(b);
+        int[][] expected = new IterativeMatrixMultiplier().multiply(a, b);
+        try (MappedMatrix matrixA = createMatrix(a);
+             MappedMatrix matrixB = createMatrix(b);
+             MappedMatrix matrixC = MappedMatrix.create(folder.newFile().toPath(), 37, 45))
+        {
+            new OutOfCoreMatrixMultiplier(8).multiply(matrixA, matrixB, matrixC);
+            assertArrayEquals(expected, toArray(matrixC));
+        }
+    }
+
+    /**
+     * The tile size derived from a window should keep three
+     * tiles within it and be a whole number of L1 tiles.
+     */
+    @Test
+    public void shouldFitTilesInWindow()
+    {
+        long window = 64L << 20;
+        int tileSize = OutOfCoreMatrixMultiplier.tileSizeForWindow(window);
+        assertEquals(0, tileSize % BlockedMatrixMultiplier.DEFAULT_L1_TILE_SIZE);
+        assertTrue(3L * tileSize * tileSize * Integer.BYTES <= window);
+    }
+}
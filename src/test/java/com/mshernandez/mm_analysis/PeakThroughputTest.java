@@ -0,0 +1,24 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PeakThroughputTest
+{
+    @Test
+    public void measuresPositivePeak()
+    {
+        PeakThroughput peak = PeakThroughput.measure(2);
+        assertTrue(peak.getSingleCoreGops() > 0.0);
+        assertTrue(peak.getAllCoreGops() > 0.0);
+        assertEquals(2, peak.getThreads());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidPeak()
+    {
+        new PeakThroughput(0.0, 1.0, 1);
+    }
+}
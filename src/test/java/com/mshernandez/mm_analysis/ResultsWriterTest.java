@@ -0,0 +1,103 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the streamed results file.
+ */
+public class ResultsWriterTest
+{
+    private static final PeakThroughput PEAK = new PeakThroughput(10.0, 40.0, 4);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Rows appended to an existing file should
+     * follow a single header.
+     */
+    @Test
+    public void shouldWriteHeaderOnce() throws IOException
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 2, 2, false);
+        int[][] matrix = new int[4][4];
+        benchmarker.benchmarkInput(matrix, matrix, 3);
+        Path file = folder.getRoot().toPath().resolve("results.csv");
+        try (ResultsWriter results = new ResultsWriter(file, true, PEAK))
+        {
+            results.write(benchmarker, 4);
+        }
+        try (ResultsWriter results = new ResultsWriter(file, true, PEAK))
+        {
+            results.write(benchmarker, 4);
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals(ResultsWriter.HEADER, lines.get(0));
+        int columns = ResultsWriter.HEADER.split(",").length;
+        for (String line : lines.subList(1, 3))
+        {
+            String[] fields = line.split(",");
+            assertEquals(columns, fields.length);
+            assertEquals("Iterative", fields[0]);
+            assertEquals("4", fields[1]);
+            assertEquals("1", fields[2]);
+            assertEquals("3", fields[3]);
+        }
+
+        new ResultsWriter(file, false, PEAK).close();
+        assertEquals(1, Files.readAllLines(file).size());
+    }
+
+    /**
+     * Throughput should follow from the runtime and operation
+     * count, with the peak columns left empty without a peak.
+     */
+    @Test
+    public void shouldWriteThroughput() throws IOException
+    {
+        MatrixMultiplierBenchmarker benchmarker
+            = new MatrixMultiplierBenchmarker(new IterativeMatrixMultiplier(), 0.05, 2, 2, false);
+        int[][] matrix = new int[8][8];
+        benchmarker.benchmarkInput(matrix, matrix, 3);
+        Path file = folder.getRoot().toPath().resolve("results.csv");
+        try (ResultsWriter results = new ResultsWriter(file, false, PEAK))
+        {
+            results.write(benchmarker, 8);
+        }
+        try (ResultsWriter results = new ResultsWriter(file, true, null))
+        {
+            results.write(benchmarker, 8);
+        }
+        List<String> header = List.of(ResultsWriter.HEADER.split(","));
+        List<String> lines = Files.readAllLines(file);
+        String[] measured = lines.get(1).split(",", -1);
+        String[] withoutPeak = lines.get(2).split(",", -1);
+        double gops = Double.parseDouble(measured[header.indexOf("gops")]);
+        assertEquals(1024, Long.parseLong(measured[header.indexOf("operations")]));
+        assertEquals(1024 / benchmarker.getAverageRuntime(8), gops, 1e-9);
+        assertEquals(3.0 * 64 * 4 / 1024, Double.parseDouble(measured[header.indexOf("bytes_per_op")]), 1e-9);
+        assertEquals(10.0 * gops, Double.parseDouble(measured[header.indexOf("pct_single_core_peak")]), 1e-9);
+        assertEquals(2.5 * gops, Double.parseDouble(measured[header.indexOf("pct_all_core_peak")]), 1e-9);
+        assertEquals("", withoutPeak[header.indexOf("pct_single_core_peak")]);
+        assertEquals(header.size(), withoutPeak.length);
+    }
+
+    @Test
+    public void shouldQuoteSeparators()
+    {
+        assertEquals("Iterative (long)", ResultsWriter.quote("Iterative (long)"));
+        assertEquals("\"Tiles (4, 8)\"", ResultsWriter.quote("Tiles (4, 8)"));
+        assertEquals("\"Say \"\"Hi\"\"\"", ResultsWriter.quote("Say \"Hi\""));
+    }
+}
@@ -0,0 +1,116 @@
+package com.mshernandez.mm_analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the CSR and CSC sparse matrix forms
+ * and the sparse multipliers working on them directly.
+ */
+public class SparseMatrixTest
+{
+    private static final int[][] sparse =
+    {
+        {0, 2, 0, 0},
+        {0, 0, 0, 0},
+        {5, 0, 0, -1},
+    };
+
+    /**
+     * Creates a random sparse rows*cols matrix.
+     */
+    private static int[][] randomSparseMatrix(long seed, int rows, int cols, double density)
+    {
+        int[][] matrix = new int[rows][cols];
+        new MatrixGenerator(seed, MatrixGenerator.Distribution.SPARSE, -9, 9, density, 0).fill(matrix);
+        return matrix;
+    }
+
+    /**
+     * CSR form should store the nonzero elements row by row.
+     */
+    @Test
+    public void shouldCompressRows()
+    {
+        CsrMatrix csr = CsrMatrix.fromArray(sparse);
+        assertArrayEquals(new int[] {0, 1, 1, 3}, csr.getRowPointers());
+        assertArrayEquals(new int[] {1, 0, 3}, csr.getColumnIndices());
+        assertArrayEquals(new int[] {2, 5, -1}, csr.getValues());
+        assertEquals(0.25, csr.getDensity(), 0.0);
+        assertArrayEquals(sparse, csr.toArray());
+    }
+
+    /**
+     * CSC form should store the nonzero elements column by column.
+     */
+    @Test
+    public void shouldCompressColumns()
+    {
+        CscMatrix csc = CscMatrix.fromArray(sparse);
+        assertArrayEquals(new int[] {0, 1, 2, 2, 3}, csc.getColumnPointers());
+        assertArrayEquals(new int[] {2, 0, 2}, csc.getRowIndices());
+        assertArrayEquals(new int[] {5, 2, -1}, csc.getValues());
+        assertArrayEquals(sparse, csc.toArray());
+    }
+
+    /**
+     * The sparse multipliers should match the iterative
+     * multiplier on random sparse inputs, and Gustavson's
+     * algorithm should not store elements which cancel out.
+     */
+    @Test
+    public void shouldMatchIterativeMultiplier()
+    {
+        int[][] a = randomSparseMatrix(11, 60, 45, 0.05);
+        int[][] b = randomSparseMatrix(12, 45, 70, 0.05);
+        int[][] expected = new IterativeMatrixMultiplier().multiply(a, b);
+        assertArrayEquals(expected, SparseDenseMatrixMultiplier.multiply(CsrMatrix.fromArray(a), b));
+        assertArrayEquals(expected, SparseDenseMatrixMultiplier.multiply(CscMatrix.fromArray(a), b));
+        CsrMatrix product = GustavsonMatrixMultiplier.multiply(CsrMatrix.fromArray(a), CsrMatrix.fromArray(b));
+        assertArrayEquals(expected, product.toArray());
+        assertEquals(CsrMatrix.fromArray(expected).getNonZeros(), product.getNonZeros());
+    }
+
+    /**
+     * Gustavson's algorithm should keep column indices sorted.
+     */
+    @Test
+    public void shouldSortGustavsonColumns()
+    {
+        int[][] a = {{1, 1}};
+        int[][] b = {{0, 0, 3}, {4, 0, 0}};
+        CsrMatrix product = GustavsonMatrixMultiplier.multiply(CsrMatrix.fromArray(a), CsrMatrix.fromArray(b));
+        assertArrayEquals(new int[] {0, 2}, Arrays.copyOf(product.getColumnIndices(), 2));
+        assertArrayEquals(new int[] {4, 3}, Arrays.copyOf(product.getValues(), 2));
+    }
+
+    /**
+     * The sparse multipliers should count only the products
+     * of nonzero elements rather than the classical 2n^3.
+     */
+    @Test
+    public void shouldCountNonZeroOperations()
+    {
+        int[][] a = randomSparseMatrix(13, 64, 64, 0.05);
+        int[][] b = randomSparseMatrix(14, 64, 64, 0.05);
+        long classical = Multiplier.classicalOperationCount(64);
+        long sparseDense = new SparseDenseMatrixMultiplier().getOperationCount(a, b);
+        long gustavson = new GustavsonMatrixMultiplier().getOperationCount(a, b);
+        assertNotEquals(classical, sparseDense);
+        assertNotEquals(classical, gustavson);
+        assertEquals(sparseDense, new SparseDenseMatrixMultiplier().getOperationCount(Matrix.fromArray(a), Matrix.fromArray(b)));
+        assertEquals(gustavson, new GustavsonMatrixMultiplier().getOperationCount(Matrix.fromArray(a), Matrix.fromArray(b)));
+
+        /**
+         * Row 0 Pairs With Row 1 Of B, Row 2 With Rows 0 And 3
+         */
+        int[][] dense = {{1, 1}, {1, 0}, {0, 0}, {1, 1}};
+        assertEquals(2 * 3 * 2, new SparseDenseMatrixMultiplier().getOperationCount(sparse, dense));
+        assertEquals(2 * (1 + 2 + 2), new GustavsonMatrixMultiplier().getOperationCount(sparse, dense));
+    }
+}
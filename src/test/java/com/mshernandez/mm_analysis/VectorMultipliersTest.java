@@ -0,0 +1,58 @@
+package com.mshernandez.mm_analysis;
+
+import static com.mshernandez.mm_analysis.MatrixMultiplierTests.randomMatrix;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class VectorMultipliersTest
+{
+    private static final int[][] SHAPES = {{1, 1, 1}, {4, 4, 4}, {64, 64, 64}, {37, 51, 29}, {7, 3, 130}};
+
+    @Test
+    public void multiplierMatchesIterative()
+    {
+        MatrixMultiplier multiplier = VectorMultipliers.createMultiplier();
+        assertEquals(VectorMultipliers.isAvailable(), multiplier.getAlgorithmName().startsWith("Vector"));
+        for (int[] shape : SHAPES)
+        {
+            int[][] a = randomMatrix(1, shape[0], shape[1]);
+            int[][] b = randomMatrix(2, shape[1], shape[2]);
+            assertArrayEquals(new IterativeMatrixMultiplier().multiply(a, b), multiplier.multiply(a, b));
+        }
+    }
+
+    @Test
+    public void multiplyIntoMatchesIterative()
+    {
+        MatrixMultiplier multiplier = VectorMultipliers.createMultiplier();
+        for (int[] shape : SHAPES)
+        {
+            int[][] a = randomMatrix(3, shape[0], shape[1]);
+            int[][] b = randomMatrix(4, shape[1], shape[2]);
+            int[][] c = randomMatrix(5, shape[0], shape[2]);
+            int[][] expected = MatrixMultiplierTests.copy(c);
+            new IterativeMatrixMultiplier().multiplyInto(a, b, expected, 2, -3);
+            multiplier.multiplyInto(a, b, c, 2, -3);
+            assertArrayEquals(expected, c);
+        }
+    }
+
+    @Test
+    public void doubleMultiplierMatchesIterative()
+    {
+        DoubleMatrixMultiplier multiplier = VectorMultipliers.createDoubleMultiplier();
+        for (int[] shape : SHAPES)
+        {
+            double[][] a = DoubleMatrixMultiplier.toDoubleArray(randomMatrix(6, shape[0], shape[1]));
+            double[][] b = DoubleMatrixMultiplier.toDoubleArray(randomMatrix(7, shape[1], shape[2]));
+            double[][] expected = new IterativeDoubleMatrixMultiplier().multiply(a, b);
+            double[][] result = multiplier.multiply(a, b);
+            for (int row = 0; row < expected.length; row++)
+            {
+                assertArrayEquals(expected[row], result[row], 0.0);
+            }
+        }
+    }
+}